@@ -2,17 +2,12 @@ package cz.zcu.kiv.oop.uml.factory;
 
 import java.awt.Color;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import org.springframework.util.StringUtils;
 
 import cz.zcu.kiv.oop.Strings;
 import cz.zcu.kiv.oop.properties.PropertiesProvider;
-import cz.zcu.kiv.oop.properties.keys.EnumPropertyKey;
-import cz.zcu.kiv.oop.properties.keys.StringPropertyKey;
 import cz.zcu.kiv.oop.uml.element.UmlClass;
 import cz.zcu.kiv.oop.uml.element.UmlClassType;
 import cz.zcu.kiv.oop.uml.element.UmlElement;
@@ -27,9 +22,12 @@ import cz.zcu.kiv.oop.uml.element.UmlRelationType;
 import cz.zcu.kiv.oop.uml.exception.UmlElementException;
 import cz.zcu.kiv.oop.uml.factory.DefaultUmlElementFactoryPropertyKeys.UmlClassTypePropertyKey;
 import cz.zcu.kiv.oop.uml.factory.DefaultUmlElementFactoryPropertyKeys.UmlElementTypePropertyKey;
+import cz.zcu.kiv.oop.uml.geometry.UmlLine;
 import cz.zcu.kiv.oop.uml.geometry.UmlLineShape;
 import cz.zcu.kiv.oop.uml.geometry.UmlPolyline;
 import cz.zcu.kiv.oop.uml.geometry.UmlRectangle;
+import cz.zcu.kiv.oop.util.ColorUtils;
+import cz.zcu.kiv.oop.util.NumberUtils;
 import cz.zcu.kiv.oop.uxf.reader.sax.UmlElementDescriptor;
 
 /**
@@ -42,87 +40,86 @@ public class DefaultUmlElementFactory implements UmlElementFactory {
 
   /** Provider which provides properties for factoring UML elements and their properties. */
   protected final PropertiesProvider propertiesProvider;
+  /** Shared configuration of factory which is compiled from properties of factory. */
+  protected final DefaultUmlElementFactoryConfiguration configuration;
 
-  /** Cache of properties for mapping of relation types. */
-  protected Map<String, List<String>> relationTypePropertiesCache;
-  /** Cache of properties for mapping of relation orientation types. */
-  protected Map<String, List<String>> relationOrientationTypePropertiesCache;
+  /** Projection which determines parts of UML diagram built by this factory. */
+  protected UmlElementProjection projection = UmlElementProjection.ALL;
 
   /**
-   * Constructs factory.
+   * Constructs factory with shared configuration for entered properties provider.
    *
    * @param propertiesProvider provider which provides properties for factoring UML elements and their properties.
    */
   public DefaultUmlElementFactory(PropertiesProvider propertiesProvider) {
-    this.propertiesProvider = propertiesProvider;
-    init();
+    this(DefaultUmlElementFactoryConfiguration.getInstance(propertiesProvider));
   }
 
   /**
-   * Initializes factory. This method is called at the end of factory construction.
+   * Constructs factory with entered configuration. The configuration is immutable so it can be shared by more factories.
+   *
+   * @param configuration configuration of factory which is compiled from properties of factory.
    */
-  protected void init() {
-    relationTypePropertiesCache = new HashMap<String, List<String>>();
-    relationOrientationTypePropertiesCache = new HashMap<String, List<String>>();
-
-    initCache(DefaultUmlElementFactoryPropertyKeys.RELATION_TYPE_PROPERTY_PREFIX, relationTypePropertiesCache);
-    initCache(DefaultUmlElementFactoryPropertyKeys.RELATION_ORIENTATION_TYPE_PROPERTY_PREFIX, relationOrientationTypePropertiesCache);
+  public DefaultUmlElementFactory(DefaultUmlElementFactoryConfiguration configuration) {
+    this.configuration = configuration;
+    this.propertiesProvider = configuration.getPropertiesProvider();
   }
 
   /**
-   * Initialize cache of properties for mapping of some enumeration type. The mapping uses these rules (example):
-   * <ol>
-   * <li>create property for arrow symbols as:<br />
-   * <tt>uxf.diagram.element.relation.# = list of arrow symbols for relation separated by |</tt></li>
-   * <li>create relation type for arrow symbols as:<br />
-   * <tt>uxf.diagram.element.relation.#.type = name of UMLRelationType field</tt></li>
-   * </ol>
-   * <p>
-   * In this method is processed first property for mapping properties to values.
+   * Returns shared configuration of factory which is compiled from properties of factory.
    *
-   * @param propertyPrefix prefix of mapping properties.
-   * @param cache cache which will be initialized.
+   * @return Configuration of factory.
    */
-  protected void initCache(String propertyPrefix, Map<String, List<String>> cache) {
-    int i = 1;
-    while (propertiesProvider.getProperty(propertyPrefix + i) != null) {
-      StringPropertyKey.List propertyKeyList = new StringPropertyKey.List(propertyPrefix + i, DefaultUmlElementFactoryPropertyKeys.RELATION_ARROWS_SEPARATOR);
-      List<String> arrows = propertiesProvider.getListValue(propertyKeyList);
-      cache.put(propertyPrefix + i, arrows);
-      i++;
-    }
+  public DefaultUmlElementFactoryConfiguration getConfiguration() {
+    return configuration;
   }
 
   /**
-   * Returns mapped value of enumeration type for entered value. The mapping uses these rules (example):
-   * <ol>
-   * <li>create property for arrow symbols as:<br />
-   * <tt>uxf.diagram.element.relation.# = list of arrow symbols for relation separated by |</tt></li>
-   * <li>create relation type for arrow symbols as:<br />
-   * <tt>uxf.diagram.element.relation.#.type = name of UMLRelationType field</tt></li>
-   * </ol>
-   * <p>
-   * In this method is found the correct property for entered value. After that is used second property where is used the suffix
-   * which will be connected after found property name and then will be used the value of this property for getting value of
-   * enumeration.
+   * Returns information whether the line of panel attributes is stereotype line (line which starts with stereotype prefix and ends
+   * with stereotype suffix).
    *
-   * @param typeClass class type of enumeration type which will be returned.
-   * @param value value for which will be returned the correct value of enumeration type.
-   * @param propertySuffix suffix of property name which maps value of enumeration for entered value.
-   * @param cache cache which contains mapping of types.
-   * @return Value of mapped enumeration type; <code>null</code> in case that entered value is not mapped.
+   * @param line line of panel attributes.
+   * @return <code>true</code> if the line is stereotype line; <code>false</code> otherwise.
    */
-  protected <E extends Enum<E>> E getType(Class<E> typeClass, String value, String propertySuffix, Map<String, List<String>> cache) {
-    for (Entry<String, List<String>> typeEntry : cache.entrySet()) {
-      if (typeEntry.getValue().contains(value)) {
-        String property = typeEntry.getKey() + propertySuffix;
-        EnumPropertyKey<E> propertyKey = new EnumPropertyKey<E>(property, typeClass, null);
+  protected boolean isStereotype(String line) {
+    return line.startsWith(configuration.getStereotypePrefix()) && line.endsWith(configuration.getStereotypeSuffix());
+  }
 
-        return propertiesProvider.getValue(propertyKey);
+  /**
+   * Returns name of stereotype from stereotype line. All occurrences of stereotype prefix and suffix are removed from line.
+   *
+   * @param line stereotype line.
+   * @return Name of stereotype.
+   */
+  protected String getStereotypeName(String line) {
+    String stereotypePrefix = configuration.getStereotypePrefix();
+    String stereotypeSuffix = configuration.getStereotypeSuffix();
+
+    StringBuilder sb = new StringBuilder(line.length());
+    int prefixLength = stereotypePrefix.length();
+    int suffixLength = stereotypeSuffix.length();
+    for (int i = 0, n = line.length(); i < n;) {
+      if (prefixLength > 0 && line.startsWith(stereotypePrefix, i)) {
+        i += prefixLength;
+      }
+      else if (suffixLength > 0 && line.startsWith(stereotypeSuffix, i)) {
+        i += suffixLength;
+      }
+      else {
+        sb.append(line.charAt(i++));
       }
     }
 
-    return null;
+    return sb.toString();
+  }
+
+  /**
+   * Returns lookup table which maps arrows of actual initialized relation.
+   *
+   * @return Lookup table of arrows of relations.
+   */
+  protected RelationArrowTable getRelationArrowTable() {
+    return configuration.getRelationArrows();
   }
 
   /**
@@ -141,13 +138,13 @@ public class DefaultUmlElementFactory implements UmlElementFactory {
     UmlElementType elementType = getUmlElementType(umlElementDescriptor);
     switch (elementType) {
       case CLASS :
-        return getUmlClass(umlElementDescriptor);
+        return projection.contains(UmlElementPart.CLASSES) ? getUmlClass(umlElementDescriptor) : null;
 
       case RELATION :
-        return getUmlRelation(umlElementDescriptor);
+        return projection.contains(UmlElementPart.RELATIONS) ? getUmlRelation(umlElementDescriptor) : null;
 
       case NOTE :
-        return getUmlNote(umlElementDescriptor);
+        return projection.contains(UmlElementPart.NOTES) ? getUmlNote(umlElementDescriptor) : null;
 
       default :
         throw new UmlElementException(Strings.getFormatted(
@@ -155,6 +152,31 @@ public class DefaultUmlElementFactory implements UmlElementFactory {
     }
   }
 
+  /**
+   * Sets projection which determines parts of UML diagram built by this factory. For elements which are not in projection is
+   * returned <code>null</code>.
+   *
+   * @param projection projection of UML diagram.
+   */
+  @Override
+  public void setProjection(UmlElementProjection projection) {
+    if (projection == null) {
+      throw new IllegalArgumentException(Strings.get("exc.uml.null-projection"));
+    }
+
+    this.projection = projection;
+  }
+
+  /**
+   * Returns projection which determines parts of UML diagram built by this factory.
+   *
+   * @return Projection of UML diagram.
+   */
+  @Override
+  public UmlElementProjection getProjection() {
+    return projection;
+  }
+
   /**
    * Returns factored UML element type from entered descriptor.
    *
@@ -213,84 +235,77 @@ public class DefaultUmlElementFactory implements UmlElementFactory {
       List<String> additionalLines = new ArrayList<String>();
       List<String> extraLines = new ArrayList<String>();
 
-      String classTypePrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.STEREOTYPE_PREFIX);
-      String classTypeSuffix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.STEREOTYPE_SUFFIX);
-
-      String elementLineCommentPrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ELEMENT_COMMENT_PREFIX);
-      String elementFontSizePrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ELEMENT_FONT_SIZE_PREFIX);
-      String elementBackgroundPrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ELEMENT_BACKGROUND_PREFIX);
-      String elementForegroundPrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ELEMENT_FOREGROUND_PREFIX);
+      PanelAttributesClassifier classifier = configuration.getElementLinesClassifier();
+      char italicFontDelimiter = configuration.getItalicFontDelimiter();
+      char boldFontDelimiter = configuration.getBoldFontDelimiter();
+      char underlineFontDelimiter = configuration.getUnderlineFontDelimiter();
 
       String[] lines = panelAttributes.split("\n");
       for (int i = 0, j = 0; i < lines.length; i++) {
         String line = lines[i];
-        if (j == 0 && line.startsWith(classTypePrefix) && line.endsWith(classTypeSuffix)) {
-          String classTypeName = line.replaceAll("(" + classTypePrefix + "|" + classTypeSuffix + ")", "");
-          clazz.setClassType(getUmlClassType(classTypeName.toLowerCase()));
+        if (j == 0 && isStereotype(line)) {
+          clazz.setClassType(getUmlClassType(getStereotypeName(line).toLowerCase()));
           attributes.setAttribute(UmlElementAttributesNames.STEREOTYPE, line.toLowerCase());
           j++;
+          continue;
         }
-        else if (line.startsWith(elementLineCommentPrefix)) {
+
+        PanelAttributeLineType lineType = classifier.classify(line);
+        if (lineType == PanelAttributeLineType.COMMENT) {
           commentedLines.add(line);
         }
-        else if (line.startsWith(elementFontSizePrefix)) {
+        else if (lineType == PanelAttributeLineType.FONT_SIZE) {
           extraLines.add(line);
 
           try {
-            double fontSize = Double.valueOf(line.replaceFirst(elementFontSizePrefix, ""));
+            double fontSize = Double.valueOf(classifier.getValue(lineType, line));
             attributes.setAttribute(UmlElementAttributesNames.FONT_SIZE, fontSize);
           }
           catch (NumberFormatException exc) {
             additionalLines.add(line);
           }
         }
-        else if (line.startsWith(elementBackgroundPrefix)) {
+        else if (lineType == PanelAttributeLineType.BACKGROUND) {
           extraLines.add(line);
 
-          try {
-            String colorName = line.replaceFirst(elementBackgroundPrefix, "");
-            java.lang.reflect.Field colorField = Color.class.getField(colorName.toUpperCase());
-            attributes.setAttribute(UmlElementAttributesNames.BACKGROUND, colorField.get(null));
+          Color color = ColorUtils.getColor(classifier.getValue(lineType, line));
+          if (color != null) {
+            attributes.setAttribute(UmlElementAttributesNames.BACKGROUND, color);
           }
-          catch (Exception exc) {
+          else {
             additionalLines.add(line);
           }
         }
-        else if (line.startsWith(elementForegroundPrefix)) {
+        else if (lineType == PanelAttributeLineType.FOREGROUND) {
           extraLines.add(line);
 
-          try {
-            String colorName = line.replaceFirst(elementForegroundPrefix, "");
-            java.lang.reflect.Field colorField = Color.class.getField(colorName.toUpperCase());
-            attributes.setAttribute(UmlElementAttributesNames.FOREGROUND, colorField.get(null));
+          Color color = ColorUtils.getColor(classifier.getValue(lineType, line));
+          if (color != null) {
+            attributes.setAttribute(UmlElementAttributesNames.FOREGROUND, color);
           }
-          catch (Exception exc) {
+          else {
             additionalLines.add(line);
           }
         }
         else if (j == 0 || j == 1) { // name is on first or second (readable) line
           UmlFont font = new UmlFont();
 
-          char italic = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ITALIC_FONT_DELIMITER);
-          char bold = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.BOLD_FONT_DELIMITER);
-          char underline = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.UNDERLINE_FONT_DELIMITER);
-
           String name = line;
           int n = line.length();
           for (int k = 0; k < n; k++) {
             char c = name.charAt(k);
             if (c == name.charAt(n - k - 1)) {
-              if (c == italic) {
+              if (c == italicFontDelimiter) {
                 if (!font.isItalic()) {
                   font.setStyle(font.getStyle() | UmlFont.ITALIC);
                 }
               }
-              else if (c == bold) {
+              else if (c == boldFontDelimiter) {
                 if (!font.isBold()) {
                   font.setStyle(font.getStyle() | UmlFont.BOLD);
                 }
               }
-              else if (c == underline) {
+              else if (c == underlineFontDelimiter) {
                 if (!font.isUnderlined()) {
                   font.setStyle(font.getStyle() | UmlFont.UNDERLINED);
                 }
@@ -357,8 +372,8 @@ public class DefaultUmlElementFactory implements UmlElementFactory {
     UmlRelation relation = new UmlRelation();
 
     // Sets default types of relation
-    relation.setRelationType(propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.DEFAULT_RELATION_TYPE));
-    relation.setRelationOrientationType(propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.DEFAULT_RELATION_ORIENTATION_TYPE));
+    relation.setRelationType(configuration.getDefaultRelationType());
+    relation.setRelationOrientationType(configuration.getDefaultRelationOrientationType());
 
     // initializes relation from panel attributes
     initUmlRelation(relation, umlElementDescriptor);
@@ -400,60 +415,61 @@ public class DefaultUmlElementFactory implements UmlElementFactory {
       List<String> commentedLines = new ArrayList<String>();
       List<String> additionalLines = new ArrayList<String>();
 
-      String relationStereotypePrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.STEREOTYPE_PREFIX);
-      String relationStereotypeSuffix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.STEREOTYPE_SUFFIX);
-
-      String relationTypePrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.RELATION_TYPE_PREFIX);
-      String qualifier1Prefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.RELATION_QUALIFIER_1_PREFIX);
-      String qualifier2Prefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.RELATION_QUALIFIER_2_PREFIX);
-      String multiplicity1Prefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.RELATION_MULTIPLICITY_1_PREFIX);
-      String multiplicity2Prefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.RELATION_MULTIPLICITY_2_PREFIX);
-      String role1Prefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.RELATION_ROLE_1_PREFIX);
-      String role2Prefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.RELATION_ROLE_2_PREFIX);
-
-      String elementLineCommentPrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ELEMENT_COMMENT_PREFIX);
+      PanelAttributesClassifier classifier = configuration.getRelationLinesClassifier();
 
       String[] lines = panelAttributes.split("\n");
       for (int i = 0, j = 0; i < lines.length; i++) {
         String line = lines[i];
-        if (j == 0 && line.startsWith(relationStereotypePrefix) && line.endsWith(relationStereotypeSuffix)) {
+        if (j == 0 && isStereotype(line)) {
           attributes.setAttribute(UmlElementAttributesNames.STEREOTYPE, line.toLowerCase());
           j++;
+          continue;
         }
-        else if (line.startsWith(relationTypePrefix)) {
-          String lineArrow = line.replace(relationTypePrefix, "");
-          relation.setRelationType(getUmlRelationType(lineArrow));
-          relation.setRelationOrientationType(getUmlRelationOrientationType(lineArrow));
-        }
-        else if (line.startsWith(qualifier1Prefix)) {
-          String mul = line.replace(qualifier1Prefix, "");
-          qualifiers[0] = mul;
-        }
-        else if (line.startsWith(qualifier2Prefix)) {
-          String mul = line.replace(qualifier2Prefix, "");
-          qualifiers[1] = mul;
-        }
-        else if (line.startsWith(multiplicity1Prefix)) {
-          String mul = line.replace(multiplicity1Prefix, "");
-          multiplicity[0] = mul;
-        }
-        else if (line.startsWith(multiplicity2Prefix)) {
-          String mul = line.replace(multiplicity2Prefix, "");
-          multiplicity[1] = mul;
-        }
-        else if (line.startsWith(role1Prefix)) {
-          String role = line.replace(role1Prefix, "");
-          roles[0] = role;
-        }
-        else if (line.startsWith(role2Prefix)) {
-          String role = line.replace(role2Prefix, "");
-          roles[1] = role;
-        }
-        else if (line.startsWith(elementLineCommentPrefix)) {
-          commentedLines.add(line);
-        }
-        else {
+
+        PanelAttributeLineType lineType = classifier.classify(line);
+        if (lineType == null) {
           additionalLines.add(line);
+          continue;
+        }
+
+        switch (lineType) {
+          case RELATION_TYPE :
+            RelationArrowTable.Arrow arrow = getRelationArrowTable().getArrow(classifier.getValue(lineType, line));
+            relation.setRelationType(arrow.getRelationType());
+            relation.setRelationOrientationType(arrow.getRelationOrientationType());
+            break;
+
+          case RELATION_QUALIFIER_1 :
+            qualifiers[0] = classifier.getValue(lineType, line);
+            break;
+
+          case RELATION_QUALIFIER_2 :
+            qualifiers[1] = classifier.getValue(lineType, line);
+            break;
+
+          case RELATION_MULTIPLICITY_1 :
+            multiplicity[0] = classifier.getValue(lineType, line);
+            break;
+
+          case RELATION_MULTIPLICITY_2 :
+            multiplicity[1] = classifier.getValue(lineType, line);
+            break;
+
+          case RELATION_ROLE_1 :
+            roles[0] = classifier.getValue(lineType, line);
+            break;
+
+          case RELATION_ROLE_2 :
+            roles[1] = classifier.getValue(lineType, line);
+            break;
+
+          case COMMENT :
+            commentedLines.add(line);
+            break;
+
+          default :
+            additionalLines.add(line);
+            break;
         }
       }
 
@@ -472,6 +488,17 @@ public class DefaultUmlElementFactory implements UmlElementFactory {
     // initializes relation line
     relation.setRelationLine(getUmlRelationLine(umlElementDescriptor));
 
+    // only ends of relation which are in projection are set
+    if (!projection.contains(UmlElementPart.RELATION_QUALIFIERS)) {
+      qualifiers = new String[2];
+    }
+    if (!projection.contains(UmlElementPart.RELATION_MULTIPLICITIES)) {
+      multiplicity = new String[2];
+    }
+    if (!projection.contains(UmlElementPart.RELATION_ROLES)) {
+      roles = new String[2];
+    }
+
     switch (relation.getRelationOrientationType()) {
       case LEFT :
         setAttribute(attributes, UmlElementAttributesNames.QUALIFIER_FROM, qualifiers[1]);
@@ -502,10 +529,7 @@ public class DefaultUmlElementFactory implements UmlElementFactory {
    * @return Type of relation for entered arrow.
    */
   protected UmlRelationType getUmlRelationType(String relationArrow) {
-    UmlRelationType type = getType(UmlRelationType.class, relationArrow, DefaultUmlElementFactoryPropertyKeys.RELATION_PROPERTY_SUFFIX,
-        relationTypePropertiesCache);
-
-    return (type == null) ? UmlRelationType.UNDEFINED : type;
+    return getRelationArrowTable().getArrow(relationArrow).getRelationType();
   }
 
   /**
@@ -515,38 +539,74 @@ public class DefaultUmlElementFactory implements UmlElementFactory {
    * @return Type of relation orientation for entered arrow.
    */
   protected UmlRelationOrientationType getUmlRelationOrientationType(String relationArrow) {
-    UmlRelationOrientationType orientationType = getType(UmlRelationOrientationType.class, relationArrow,
-        DefaultUmlElementFactoryPropertyKeys.RELATION_PROPERTY_SUFFIX, relationOrientationTypePropertiesCache);
-
-    return orientationType == null ? UmlRelationOrientationType.UNDEFINED : orientationType;
+    return getRelationArrowTable().getArrow(relationArrow).getRelationOrientationType();
   }
 
   /**
-   * Returns factored line (shape) of UML relation.
+   * Returns factored line (shape) of UML relation. If the polylines of relations are not in projection, the line leads directly from
+   * start point to end point of relation. All coordinates are parsed and checked in both cases, so malformed coordinates are
+   * rejected regardless of projection. The coordinates are parsed directly from additional attributes into array of primitive values
+   * which backs the polyline.
    *
    * @param umlElementDescriptor descriptor of UML element from which will be factored the line (shape) of UML relation.
    * @return Factored line (shape).
    * @throws UmlElementException If some error occurs during line factoring.
    */
   protected UmlLineShape getUmlRelationLine(UmlElementDescriptor umlElementDescriptor) throws UmlElementException {
-    String panelAttributes = umlElementDescriptor.getAdditionalAttributes();
-    if (StringUtils.hasText(panelAttributes)) {
-      String separator = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.RELATION_COORDINATES_SEPARATOR);
-      String[] coordinates = panelAttributes.split(separator);
-
-      List<Double> coordinatesValues = new ArrayList<Double>();
-      for (int i = 0; i < coordinates.length; i++) {
-        double coordinate = Double.valueOf(Double.valueOf(coordinates[i]));
-        coordinate += (i % 2 == 0 ? umlElementDescriptor.getX() : umlElementDescriptor.getY());
-        coordinatesValues.add(coordinate);
+    String additionalAttributes = umlElementDescriptor.getAdditionalAttributes();
+    if (StringUtils.hasText(additionalAttributes)) {
+      String separator = configuration.getRelationCoordinatesSeparator();
+      int separatorLength = Math.max(separator.length(), 1);
+
+      // trailing empty coordinates are ignored (as by splitting of string)
+      int end = additionalAttributes.length();
+      while (separator.length() > 0 && additionalAttributes.startsWith(separator, end - separatorLength)) {
+        end -= separatorLength;
+      }
+
+      int n = 1;
+      int index = additionalAttributes.indexOf(separator);
+      while (index >= 0 && index < end) {
+        n++;
+        index = additionalAttributes.indexOf(separator, index + separatorLength);
+      }
+
+      double[] coordinates = new double[n];
+      for (int i = 0, start = 0; i < n; i++) {
+        int coordinateEnd = (i < n - 1) ? additionalAttributes.indexOf(separator, start) : end;
+        double coordinate = NumberUtils.parseDouble(additionalAttributes, start, coordinateEnd);
+        coordinates[i] = getRelationCoordinate(umlElementDescriptor, coordinate, i);
+
+        start = coordinateEnd + separatorLength;
+      }
+
+      if (!projection.contains(UmlElementPart.RELATION_POLYLINES) && n >= 4) {
+        if (n % 2 != 0) {
+          // the same error as for polyline with odd count of coordinates
+          throw new IllegalArgumentException(Strings.get("exc.geometry.polyline.odd-points"));
+        }
+
+        return new UmlLine(coordinates[0], coordinates[1], coordinates[n - 2], coordinates[n - 1]);
       }
 
-      return new UmlPolyline(coordinatesValues.toArray(new Double[coordinatesValues.size()]));
+      return new UmlPolyline(coordinates);
     }
 
     return null;
   }
 
+  /**
+   * Returns absolute coordinate of point of UML relation line. Coordinates of relation line are relative to coordinates of relation.
+   *
+   * @param umlElementDescriptor descriptor of UML element of relation.
+   * @param coordinate read relative coordinate.
+   * @param index index of coordinate (even indexes are X coordinates, odd indexes are Y coordinates).
+   * @return Absolute coordinate of point.
+   */
+  protected double getRelationCoordinate(UmlElementDescriptor umlElementDescriptor, double coordinate, int index) {
+    return coordinate + (index % 2 == 0 ? umlElementDescriptor.getX() : umlElementDescriptor.getY());
+  }
+
   /**
    * Returns factored UML note from entered descriptor.
    *
@@ -579,49 +639,45 @@ public class DefaultUmlElementFactory implements UmlElementFactory {
       List<String> commentedLines = new ArrayList<String>();
       List<String> extraLines = new ArrayList<String>();
 
-      String elementLineCommentPrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ELEMENT_COMMENT_PREFIX);
-      String elementFontSizePrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ELEMENT_FONT_SIZE_PREFIX);
-      String elementBackgroundPrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ELEMENT_BACKGROUND_PREFIX);
-      String elementForegroundPrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ELEMENT_FOREGROUND_PREFIX);
+      PanelAttributesClassifier classifier = configuration.getElementLinesClassifier();
 
       String[] lines = panelAttributes.split("\n");
       for (int i = 0; i < lines.length; i++) {
         String line = lines[i];
-        if (line.startsWith(elementLineCommentPrefix)) {
+        PanelAttributeLineType lineType = classifier.classify(line);
+        if (lineType == PanelAttributeLineType.COMMENT) {
           commentedLines.add(line);
         }
-        else if (line.startsWith(elementFontSizePrefix)) {
+        else if (lineType == PanelAttributeLineType.FONT_SIZE) {
           extraLines.add(line);
 
           try {
-            double fontSize = Double.valueOf(line.replaceFirst(elementFontSizePrefix, ""));
+            double fontSize = Double.valueOf(classifier.getValue(lineType, line));
             attributes.setAttribute(UmlElementAttributesNames.FONT_SIZE, fontSize);
           }
           catch (NumberFormatException exc) {
             sb.append(line + "\n");
           }
         }
-        else if (line.startsWith(elementBackgroundPrefix)) {
+        else if (lineType == PanelAttributeLineType.BACKGROUND) {
           extraLines.add(line);
 
-          try {
-            String colorName = line.replaceFirst(elementBackgroundPrefix, "");
-            java.lang.reflect.Field colorField = Color.class.getField(colorName.toUpperCase());
-            attributes.setAttribute(UmlElementAttributesNames.BACKGROUND, colorField.get(null));
+          Color color = ColorUtils.getColor(classifier.getValue(lineType, line));
+          if (color != null) {
+            attributes.setAttribute(UmlElementAttributesNames.BACKGROUND, color);
           }
-          catch (Exception exc) {
+          else {
             sb.append(line + "\n");
           }
         }
-        else if (line.startsWith(elementForegroundPrefix)) {
+        else if (lineType == PanelAttributeLineType.FOREGROUND) {
           extraLines.add(line);
 
-          try {
-            String colorName = line.replaceFirst(elementForegroundPrefix, "");
-            java.lang.reflect.Field colorField = Color.class.getField(colorName.toUpperCase());
-            attributes.setAttribute(UmlElementAttributesNames.FOREGROUND, colorField.get(null));
+          Color color = ColorUtils.getColor(classifier.getValue(lineType, line));
+          if (color != null) {
+            attributes.setAttribute(UmlElementAttributesNames.FOREGROUND, color);
           }
-          catch (Exception exc) {
+          else {
             sb.append(line + "\n");
           }
         }
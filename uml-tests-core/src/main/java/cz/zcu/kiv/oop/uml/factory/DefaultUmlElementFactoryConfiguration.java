@@ -0,0 +1,281 @@
+package cz.zcu.kiv.oop.uml.factory;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import cz.zcu.kiv.oop.properties.PropertiesProvider;
+import cz.zcu.kiv.oop.properties.keys.EnumPropertyKey;
+import cz.zcu.kiv.oop.properties.keys.StringPropertyKey;
+import cz.zcu.kiv.oop.uml.element.UmlRelationOrientationType;
+import cz.zcu.kiv.oop.uml.element.UmlRelationType;
+
+/**
+ * Immutable configuration of default UML elements factory which is compiled from properties of factory. The configuration
+ * contains everything what the factory reads from properties for each UML element (prefixes of lines of panel attributes,
+ * delimiters, mapping of arrows of relations etc.). The configuration is created only once for each properties provider (so once
+ * for each version of UXF) and it's shared by all factories; the factories are created for each reading of UXF and so they are
+ * cheap to create. The configuration is thread-safe.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class DefaultUmlElementFactoryConfiguration {
+
+  /** Configurations for properties providers. */
+  protected static final ConcurrentMap<PropertiesProvider, DefaultUmlElementFactoryConfiguration> CONFIGURATIONS = new ConcurrentHashMap<PropertiesProvider, DefaultUmlElementFactoryConfiguration>();
+
+  /** Provider which provides properties for factoring UML elements and their properties. */
+  protected final PropertiesProvider propertiesProvider;
+
+  /** Prefix of stereotype line. */
+  protected final String stereotypePrefix;
+  /** Suffix of stereotype line. */
+  protected final String stereotypeSuffix;
+  /** Delimiter of italic font of class name. */
+  protected final char italicFontDelimiter;
+  /** Delimiter of bold font of class name. */
+  protected final char boldFontDelimiter;
+  /** Delimiter of underlined font of class name. */
+  protected final char underlineFontDelimiter;
+  /** Separator of coordinates of relation line. */
+  protected final String relationCoordinatesSeparator;
+  /** Default type of relation. */
+  protected final UmlRelationType defaultRelationType;
+  /** Default orientation type of relation. */
+  protected final UmlRelationOrientationType defaultRelationOrientationType;
+
+  /** Classifier of lines of panel attributes of UML classes and notes. */
+  protected final PanelAttributesClassifier elementLinesClassifier;
+  /** Classifier of lines of panel attributes of UML relations. */
+  protected final PanelAttributesClassifier relationLinesClassifier;
+  /** Lookup table which maps arrows of relations to types and orientation types of relations. */
+  protected final RelationArrowTable relationArrows;
+
+  /**
+   * Constructs configuration from properties of factory.
+   *
+   * @param propertiesProvider provider which provides properties for factoring UML elements and their properties.
+   */
+  public DefaultUmlElementFactoryConfiguration(PropertiesProvider propertiesProvider) {
+    this.propertiesProvider = propertiesProvider;
+
+    stereotypePrefix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.STEREOTYPE_PREFIX);
+    stereotypeSuffix = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.STEREOTYPE_SUFFIX);
+    italicFontDelimiter = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.ITALIC_FONT_DELIMITER);
+    boldFontDelimiter = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.BOLD_FONT_DELIMITER);
+    underlineFontDelimiter = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.UNDERLINE_FONT_DELIMITER);
+    relationCoordinatesSeparator = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.RELATION_COORDINATES_SEPARATOR);
+    defaultRelationType = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.DEFAULT_RELATION_TYPE);
+    defaultRelationOrientationType = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.DEFAULT_RELATION_ORIENTATION_TYPE);
+
+    Map<PanelAttributeLineType, String> elementPrefixes = new EnumMap<PanelAttributeLineType, String>(PanelAttributeLineType.class);
+    putPrefix(elementPrefixes, PanelAttributeLineType.COMMENT, DefaultUmlElementFactoryPropertyKeys.ELEMENT_COMMENT_PREFIX);
+    putPrefix(elementPrefixes, PanelAttributeLineType.FONT_SIZE, DefaultUmlElementFactoryPropertyKeys.ELEMENT_FONT_SIZE_PREFIX);
+    putPrefix(elementPrefixes, PanelAttributeLineType.BACKGROUND, DefaultUmlElementFactoryPropertyKeys.ELEMENT_BACKGROUND_PREFIX);
+    putPrefix(elementPrefixes, PanelAttributeLineType.FOREGROUND, DefaultUmlElementFactoryPropertyKeys.ELEMENT_FOREGROUND_PREFIX);
+    elementLinesClassifier = new PanelAttributesClassifier(elementPrefixes);
+
+    Map<PanelAttributeLineType, String> relationPrefixes = new EnumMap<PanelAttributeLineType, String>(PanelAttributeLineType.class);
+    putPrefix(relationPrefixes, PanelAttributeLineType.RELATION_TYPE, DefaultUmlElementFactoryPropertyKeys.RELATION_TYPE_PREFIX);
+    putPrefix(relationPrefixes, PanelAttributeLineType.RELATION_QUALIFIER_1, DefaultUmlElementFactoryPropertyKeys.RELATION_QUALIFIER_1_PREFIX);
+    putPrefix(relationPrefixes, PanelAttributeLineType.RELATION_QUALIFIER_2, DefaultUmlElementFactoryPropertyKeys.RELATION_QUALIFIER_2_PREFIX);
+    putPrefix(relationPrefixes, PanelAttributeLineType.RELATION_MULTIPLICITY_1, DefaultUmlElementFactoryPropertyKeys.RELATION_MULTIPLICITY_1_PREFIX);
+    putPrefix(relationPrefixes, PanelAttributeLineType.RELATION_MULTIPLICITY_2, DefaultUmlElementFactoryPropertyKeys.RELATION_MULTIPLICITY_2_PREFIX);
+    putPrefix(relationPrefixes, PanelAttributeLineType.RELATION_ROLE_1, DefaultUmlElementFactoryPropertyKeys.RELATION_ROLE_1_PREFIX);
+    putPrefix(relationPrefixes, PanelAttributeLineType.RELATION_ROLE_2, DefaultUmlElementFactoryPropertyKeys.RELATION_ROLE_2_PREFIX);
+    putPrefix(relationPrefixes, PanelAttributeLineType.COMMENT, DefaultUmlElementFactoryPropertyKeys.ELEMENT_COMMENT_PREFIX);
+    relationLinesClassifier = new PanelAttributesClassifier(relationPrefixes);
+
+    relationArrows = createRelationArrowTable(DefaultUmlElementFactoryPropertyKeys.RELATION_TYPE_PROPERTY_PREFIX,
+        DefaultUmlElementFactoryPropertyKeys.RELATION_ORIENTATION_TYPE_PROPERTY_PREFIX);
+  }
+
+  /**
+   * Returns shared configuration for entered properties provider. The configuration is created only for the first call with the
+   * same provider, other calls return the same configuration.
+   *
+   * @param propertiesProvider provider which provides properties for factoring UML elements and their properties.
+   * @return Shared configuration of factory.
+   */
+  public static DefaultUmlElementFactoryConfiguration getInstance(PropertiesProvider propertiesProvider) {
+    DefaultUmlElementFactoryConfiguration configuration = CONFIGURATIONS.get(propertiesProvider);
+    if (configuration == null) {
+      DefaultUmlElementFactoryConfiguration createdConfiguration = new DefaultUmlElementFactoryConfiguration(propertiesProvider);
+      configuration = CONFIGURATIONS.putIfAbsent(propertiesProvider, createdConfiguration);
+      if (configuration == null) {
+        configuration = createdConfiguration;
+      }
+    }
+
+    return configuration;
+  }
+
+  /**
+   * Puts prefix of line type which is read from properties into map of prefixes.
+   *
+   * @param prefixes map of prefixes of line types.
+   * @param type type of line.
+   * @param propertyKey key of property which contains prefix of line type.
+   */
+  protected void putPrefix(Map<PanelAttributeLineType, String> prefixes, PanelAttributeLineType type, StringPropertyKey propertyKey) {
+    prefixes.put(type, propertiesProvider.getValue(propertyKey));
+  }
+
+  /**
+   * Creates lookup table which maps arrows of relations to types and orientation types of relations. The mapping uses these rules
+   * (example):
+   * <ol>
+   * <li>create property for arrow symbols as:<br />
+   * <tt>uxf.diagram.element.relation.# = list of arrow symbols for relation separated by |</tt></li>
+   * <li>create relation type for arrow symbols as:<br />
+   * <tt>uxf.diagram.element.relation.#.type = name of UMLRelationType field</tt></li>
+   * </ol>
+   *
+   * @param relationTypePropertyPrefix prefix of properties for mapping of relation types.
+   * @param relationOrientationTypePropertyPrefix prefix of properties for mapping of relation orientation types.
+   * @return Created lookup table.
+   */
+  protected RelationArrowTable createRelationArrowTable(String relationTypePropertyPrefix, String relationOrientationTypePropertyPrefix) {
+    return new RelationArrowTable(readArrowsMapping(UmlRelationType.class, relationTypePropertyPrefix),
+        readArrowsMapping(UmlRelationOrientationType.class, relationOrientationTypePropertyPrefix));
+  }
+
+  /**
+   * Reads mapping of arrows of relations to values of enumeration type from properties. Properties with arrow symbols are numbered
+   * from one; the value of enumeration for arrow symbols is in property whose name is connected from name of property with arrow
+   * symbols and suffix {@link DefaultUmlElementFactoryPropertyKeys#RELATION_PROPERTY_SUFFIX}. If the arrow symbol is in more
+   * properties, the first of them is used. Arrow symbols whose value of enumeration cannot be parsed are mapped to
+   * <code>null</code>.
+   *
+   * @param typeClass class type of enumeration type which is mapped.
+   * @param propertyPrefix prefix of mapping properties.
+   * @return Mapping of arrow symbols to values of enumeration type.
+   */
+  protected <E extends Enum<E>> Map<String, E> readArrowsMapping(Class<E> typeClass, String propertyPrefix) {
+    Map<String, E> mapping = new HashMap<String, E>();
+    for (int i = 1; propertiesProvider.getProperty(propertyPrefix + i) != null; i++) {
+      StringPropertyKey.List propertyKeyList = new StringPropertyKey.List(propertyPrefix + i, DefaultUmlElementFactoryPropertyKeys.RELATION_ARROWS_SEPARATOR);
+      String property = propertyPrefix + i + DefaultUmlElementFactoryPropertyKeys.RELATION_PROPERTY_SUFFIX;
+      E type = propertiesProvider.getValue(new EnumPropertyKey<E>(property, typeClass, null), true);
+
+      for (String arrow : propertiesProvider.getListValue(propertyKeyList)) {
+        if (!mapping.containsKey(arrow)) {
+          mapping.put(arrow, type);
+        }
+      }
+    }
+
+    return mapping;
+  }
+
+  /**
+   * Returns provider which provides properties for factoring UML elements and their properties.
+   *
+   * @return Properties provider of factory.
+   */
+  public PropertiesProvider getPropertiesProvider() {
+    return propertiesProvider;
+  }
+
+  /**
+   * Returns prefix of stereotype line.
+   *
+   * @return Prefix of stereotype line.
+   */
+  public String getStereotypePrefix() {
+    return stereotypePrefix;
+  }
+
+  /**
+   * Returns suffix of stereotype line.
+   *
+   * @return Suffix of stereotype line.
+   */
+  public String getStereotypeSuffix() {
+    return stereotypeSuffix;
+  }
+
+  /**
+   * Returns delimiter of italic font of class name.
+   *
+   * @return Delimiter of italic font.
+   */
+  public char getItalicFontDelimiter() {
+    return italicFontDelimiter;
+  }
+
+  /**
+   * Returns delimiter of bold font of class name.
+   *
+   * @return Delimiter of bold font.
+   */
+  public char getBoldFontDelimiter() {
+    return boldFontDelimiter;
+  }
+
+  /**
+   * Returns delimiter of underlined font of class name.
+   *
+   * @return Delimiter of underlined font.
+   */
+  public char getUnderlineFontDelimiter() {
+    return underlineFontDelimiter;
+  }
+
+  /**
+   * Returns separator of coordinates of relation line.
+   *
+   * @return Separator of coordinates.
+   */
+  public String getRelationCoordinatesSeparator() {
+    return relationCoordinatesSeparator;
+  }
+
+  /**
+   * Returns default type of relation which is used if the relation has no type line.
+   *
+   * @return Default type of relation.
+   */
+  public UmlRelationType getDefaultRelationType() {
+    return defaultRelationType;
+  }
+
+  /**
+   * Returns default orientation type of relation which is used if the relation has no type line.
+   *
+   * @return Default orientation type of relation.
+   */
+  public UmlRelationOrientationType getDefaultRelationOrientationType() {
+    return defaultRelationOrientationType;
+  }
+
+  /**
+   * Returns classifier of lines of panel attributes of UML classes and notes.
+   *
+   * @return Classifier of lines of UML classes and notes.
+   */
+  public PanelAttributesClassifier getElementLinesClassifier() {
+    return elementLinesClassifier;
+  }
+
+  /**
+   * Returns classifier of lines of panel attributes of UML relations.
+   *
+   * @return Classifier of lines of UML relations.
+   */
+  public PanelAttributesClassifier getRelationLinesClassifier() {
+    return relationLinesClassifier;
+  }
+
+  /**
+   * Returns lookup table which maps arrows of relations to types and orientation types of relations.
+   *
+   * @return Lookup table of arrows of relations.
+   */
+  public RelationArrowTable getRelationArrows() {
+    return relationArrows;
+  }
+
+}
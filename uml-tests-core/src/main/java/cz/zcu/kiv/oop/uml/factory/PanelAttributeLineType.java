@@ -0,0 +1,36 @@
+package cz.zcu.kiv.oop.uml.factory;
+
+/**
+ * Determines type of line of panel attributes of UML element. The type of line is determined by prefix of line (see
+ * {@link PanelAttributesClassifier}). The order of types is the priority of their prefixes; if the line starts with prefixes of
+ * more types, the line has the first of these types.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public enum PanelAttributeLineType {
+
+  /** Line with type (arrow) of UML relation. */
+  RELATION_TYPE,
+  /** Line with qualifier of first end of UML relation. */
+  RELATION_QUALIFIER_1,
+  /** Line with qualifier of second end of UML relation. */
+  RELATION_QUALIFIER_2,
+  /** Line with multiplicity of first end of UML relation. */
+  RELATION_MULTIPLICITY_1,
+  /** Line with multiplicity of second end of UML relation. */
+  RELATION_MULTIPLICITY_2,
+  /** Line with role of first end of UML relation. */
+  RELATION_ROLE_1,
+  /** Line with role of second end of UML relation. */
+  RELATION_ROLE_2,
+  /** Commented line. */
+  COMMENT,
+  /** Line with font size of UML element. */
+  FONT_SIZE,
+  /** Line with background color of UML element. */
+  BACKGROUND,
+  /** Line with foreground color of UML element. */
+  FOREGROUND,
+  ;
+
+}
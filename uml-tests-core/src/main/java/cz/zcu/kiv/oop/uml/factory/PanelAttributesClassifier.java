@@ -0,0 +1,141 @@
+package cz.zcu.kiv.oop.uml.factory;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable classifier of lines of panel attributes of UML elements. The classifier is built once from prefixes of line types
+ * (see {@link PanelAttributeLineType}) into prefix trie, so the type of line is determined by one pass through the beginning of
+ * line without repeated comparing of line with all prefixes and without regular expressions.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class PanelAttributesClassifier {
+
+  /** Root node of prefix trie. */
+  protected final Node root = new Node();
+  /** Prefixes of classified line types. */
+  protected final Map<PanelAttributeLineType, String> prefixes;
+
+  /**
+   * Constructs classifier for entered prefixes of line types. If the line starts with prefixes of more types, the line is
+   * classified by the type which is declared first in {@link PanelAttributeLineType}.
+   *
+   * @param prefixes prefixes of line types which will be classified.
+   */
+  public PanelAttributesClassifier(Map<PanelAttributeLineType, String> prefixes) {
+    this.prefixes = new EnumMap<PanelAttributeLineType, String>(prefixes);
+
+    // types are added in order of their priority so the node keeps type with the highest priority
+    for (Entry<PanelAttributeLineType, String> prefixEntry : this.prefixes.entrySet()) {
+      Node node = root;
+      String prefix = prefixEntry.getValue();
+      for (int i = 0; i < prefix.length(); i++) {
+        node = node.addChild(prefix.charAt(i));
+      }
+
+      if (node.type == null) {
+        node.type = prefixEntry.getKey();
+      }
+    }
+  }
+
+  /**
+   * Returns type of entered line of panel attributes.
+   *
+   * @param line line of panel attributes.
+   * @return Type of line with the highest priority whose prefix is at the beginning of line; <code>null</code> if the line
+   *         doesn't start with any prefix.
+   */
+  public PanelAttributeLineType classify(String line) {
+    PanelAttributeLineType type = root.type;
+    Node node = root;
+    for (int i = 0, n = line.length(); i < n; i++) {
+      node = node.getChild(line.charAt(i));
+      if (node == null) {
+        break;
+      }
+
+      if (node.type != null && (type == null || node.type.compareTo(type) < 0)) {
+        type = node.type;
+      }
+    }
+
+    return type;
+  }
+
+  /**
+   * Returns value of line of panel attributes of entered type (the rest of line after prefix of type).
+   *
+   * @param type type of line which was returned by {@link #classify(String)}.
+   * @param line line of panel attributes.
+   * @return Value of line.
+   */
+  public String getValue(PanelAttributeLineType type, String line) {
+    return line.substring(prefixes.get(type).length());
+  }
+
+  /**
+   * Returns prefix of entered line type.
+   *
+   * @param type type of line.
+   * @return Prefix of line type; <code>null</code> if the type is not classified by this classifier.
+   */
+  public String getPrefix(PanelAttributeLineType type) {
+    return prefixes.get(type);
+  }
+
+  /**
+   * Node of prefix trie. Children of node are stored in arrays because the nodes have only few children.
+   *
+   * @author Mr.FrAnTA (Michal Dékány)
+   */
+  protected static class Node {
+
+    /** Characters of children of node. */
+    protected char[] characters = new char[0];
+    /** Children of node. */
+    protected Node[] children = new Node[0];
+    /** Type of line whose prefix ends in this node; <code>null</code> if no prefix ends in this node. */
+    protected PanelAttributeLineType type;
+
+    /**
+     * Returns child of node for entered character.
+     *
+     * @param c character of child.
+     * @return Child of node; <code>null</code> if the node has no child for entered character.
+     */
+    protected Node getChild(char c) {
+      for (int i = 0; i < characters.length; i++) {
+        if (characters[i] == c) {
+          return children[i];
+        }
+      }
+
+      return null;
+    }
+
+    /**
+     * Returns child of node for entered character. If the child doesn't exist, it's created.
+     *
+     * @param c character of child.
+     * @return Child of node.
+     */
+    protected Node addChild(char c) {
+      Node child = getChild(c);
+      if (child == null) {
+        child = new Node();
+        characters = Arrays.copyOf(characters, characters.length + 1);
+        children = Arrays.copyOf(children, children.length + 1);
+        characters[characters.length - 1] = c;
+        children[children.length - 1] = child;
+      }
+
+      return child;
+    }
+
+  }
+
+}
@@ -0,0 +1,106 @@
+package cz.zcu.kiv.oop.uml.factory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import cz.zcu.kiv.oop.uml.element.UmlRelationOrientationType;
+import cz.zcu.kiv.oop.uml.element.UmlRelationType;
+
+/**
+ * Immutable lookup table which maps arrows of UML relations to types and orientation types of relations. The table is built once
+ * from mapping properties, so the type and the orientation type of relation are determined by one lookup without iterating over
+ * the mapping and without parsing of properties.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class RelationArrowTable {
+
+  /** Arrow which is used for unknown arrows; it has undefined type and undefined orientation type. */
+  public static final Arrow UNDEFINED = new Arrow(UmlRelationType.UNDEFINED, UmlRelationOrientationType.UNDEFINED);
+
+  /** Mapping of arrows of relations. */
+  protected final Map<String, Arrow> arrows;
+
+  /**
+   * Constructs lookup table from mapping of arrows to types of relations and mapping of arrows to orientation types of relations.
+   * Types which are not mapped for an arrow are undefined.
+   *
+   * @param relationTypes mapping of arrows to types of relations.
+   * @param relationOrientationTypes mapping of arrows to orientation types of relations.
+   */
+  public RelationArrowTable(Map<String, UmlRelationType> relationTypes,
+      Map<String, UmlRelationOrientationType> relationOrientationTypes) {
+    Set<String> arrowSymbols = new HashSet<String>(relationTypes.keySet());
+    arrowSymbols.addAll(relationOrientationTypes.keySet());
+
+    Map<String, Arrow> arrows = new HashMap<String, Arrow>();
+    for (String arrowSymbol : arrowSymbols) {
+      UmlRelationType relationType = relationTypes.get(arrowSymbol);
+      UmlRelationOrientationType relationOrientationType = relationOrientationTypes.get(arrowSymbol);
+
+      arrows.put(arrowSymbol, new Arrow(relationType == null ? UmlRelationType.UNDEFINED : relationType,
+          relationOrientationType == null ? UmlRelationOrientationType.UNDEFINED : relationOrientationType));
+    }
+
+    this.arrows = Collections.unmodifiableMap(arrows);
+  }
+
+  /**
+   * Returns mapped arrow of relation for entered arrow symbol.
+   *
+   * @param arrowSymbol symbol of arrow of relation.
+   * @return Mapped arrow; {@link #UNDEFINED} if the arrow symbol is not mapped.
+   */
+  public Arrow getArrow(String arrowSymbol) {
+    Arrow arrow = arrows.get(arrowSymbol);
+
+    return (arrow == null) ? UNDEFINED : arrow;
+  }
+
+  /**
+   * Immutable pair of type and orientation type of relation which are mapped to an arrow.
+   *
+   * @author Mr.FrAnTA (Michal Dékány)
+   */
+  public static class Arrow {
+
+    /** Type of relation. */
+    protected final UmlRelationType relationType;
+    /** Orientation type of relation. */
+    protected final UmlRelationOrientationType relationOrientationType;
+
+    /**
+     * Constructs arrow of relation.
+     *
+     * @param relationType type of relation.
+     * @param relationOrientationType orientation type of relation.
+     */
+    public Arrow(UmlRelationType relationType, UmlRelationOrientationType relationOrientationType) {
+      this.relationType = relationType;
+      this.relationOrientationType = relationOrientationType;
+    }
+
+    /**
+     * Returns type of relation.
+     *
+     * @return Type of relation.
+     */
+    public UmlRelationType getRelationType() {
+      return relationType;
+    }
+
+    /**
+     * Returns orientation type of relation.
+     *
+     * @return Orientation type of relation.
+     */
+    public UmlRelationOrientationType getRelationOrientationType() {
+      return relationOrientationType;
+    }
+
+  }
+
+}
@@ -20,4 +20,19 @@ public interface UmlElementFactory {
    */
   public UmlElement getUmlElement(UmlElementDescriptor umlElementDescriptor) throws UmlElementException;
 
+  /**
+   * Sets projection which determines parts of UML diagram built by this factory. For elements which are not in projection is
+   * returned <code>null</code>.
+   *
+   * @param projection projection of UML diagram.
+   */
+  public void setProjection(UmlElementProjection projection);
+
+  /**
+   * Returns projection which determines parts of UML diagram built by this factory.
+   *
+   * @return Projection of UML diagram.
+   */
+  public UmlElementProjection getProjection();
+
 }
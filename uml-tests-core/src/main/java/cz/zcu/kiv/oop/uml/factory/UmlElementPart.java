@@ -0,0 +1,47 @@
+package cz.zcu.kiv.oop.uml.factory;
+
+/**
+ * Enumeration of parts of UML diagram which can be built by factory of UML elements. Parts which are not in projection of factory
+ * (see {@link UmlElementProjection}) are skipped, so the tests have to read only the parts which are in projection.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public enum UmlElementPart {
+
+  /** UML notes. */
+  NOTES(null),
+  /** UML classes. */
+  CLASSES(null),
+  /** UML relations (with types, stereotypes and lines from start point to end point); they are linked to classes. */
+  RELATIONS(CLASSES),
+  /** Whole polylines of UML relations; if they are not built, the relations have only lines from start point to end point. */
+  RELATION_POLYLINES(RELATIONS),
+  /** Qualifiers of UML relations. */
+  RELATION_QUALIFIERS(RELATIONS),
+  /** Multiplicities of UML relations. */
+  RELATION_MULTIPLICITIES(RELATIONS),
+  /** Roles of UML relations. */
+  RELATION_ROLES(RELATIONS);
+
+  /** Part which is required by this part; <code>null</code> if the part requires no other part. */
+  protected final UmlElementPart requiredPart;
+
+  /**
+   * Constructs part of UML diagram.
+   *
+   * @param requiredPart part which is required by this part (<code>null</code> if the part requires no other part).
+   */
+  private UmlElementPart(UmlElementPart requiredPart) {
+    this.requiredPart = requiredPart;
+  }
+
+  /**
+   * Returns part which is required by this part.
+   *
+   * @return Part which is required by this part; <code>null</code> if the part requires no other part.
+   */
+  public UmlElementPart getRequiredPart() {
+    return requiredPart;
+  }
+
+}
@@ -0,0 +1,111 @@
+package cz.zcu.kiv.oop.uml.factory;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable projection of UML diagram which determines parts of UML diagram built by factory of UML elements. The parts which are
+ * not in projection are skipped during reading of UML diagram (for example elements of some type or polylines of relations), so
+ * the projection can contain only parts which are read by tests. The projection contains also all parts required by its parts.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlElementProjection implements Serializable {
+
+  /** Serial version UID. */
+  private static final long serialVersionUID = -2204327467357215047L;
+
+  /** Projection which contains all parts of UML diagram. */
+  public static final UmlElementProjection ALL = new UmlElementProjection(UmlElementPart.values());
+
+  /** Parts of UML diagram which are in projection. */
+  protected final Set<UmlElementPart> parts;
+
+  /**
+   * Constructs projection which contains given parts of UML diagram and parts required by them.
+   *
+   * @param parts parts of UML diagram which will be in projection.
+   */
+  public UmlElementProjection(UmlElementPart... parts) {
+    this(Arrays.asList(parts));
+  }
+
+  /**
+   * Constructs projection which contains given parts of UML diagram and parts required by them.
+   *
+   * @param parts parts of UML diagram which will be in projection.
+   */
+  public UmlElementProjection(Collection<UmlElementPart> parts) {
+    Set<UmlElementPart> projectedParts = EnumSet.noneOf(UmlElementPart.class);
+    for (UmlElementPart part : parts) {
+      for (UmlElementPart requiredPart = part; requiredPart != null; requiredPart = requiredPart.getRequiredPart()) {
+        projectedParts.add(requiredPart);
+      }
+    }
+
+    this.parts = Collections.unmodifiableSet(projectedParts);
+  }
+
+  /**
+   * Returns information whether the part of UML diagram is in projection.
+   *
+   * @param part part of UML diagram.
+   * @return <code>true</code> if the part is in projection; <code>false</code> otherwise.
+   */
+  public boolean contains(UmlElementPart part) {
+    return parts.contains(part);
+  }
+
+  /**
+   * Returns parts of UML diagram which are in projection.
+   *
+   * @return Unmodifiable set of parts which are in projection.
+   */
+  public Set<UmlElementPart> getParts() {
+    return parts;
+  }
+
+  /**
+   * Returns a hash code value for this projection.
+   *
+   * @return A hash code value for this projection.
+   */
+  @Override
+  public int hashCode() {
+    return parts.hashCode();
+  }
+
+  /**
+   * Indicates whether some other object is "equal to" this projection.
+   *
+   * @param obj the reference object with which to compare.
+   * @return <code>true</code> if this projection is the same as the obj argument; <code>false</code> otherwise.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+
+    if (!(obj instanceof UmlElementProjection)) {
+      return false;
+    }
+
+    return parts.equals(((UmlElementProjection)obj).parts);
+  }
+
+  /**
+   * Returns string value of projection.
+   *
+   * @return String value of projection.
+   */
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + parts;
+  }
+
+}
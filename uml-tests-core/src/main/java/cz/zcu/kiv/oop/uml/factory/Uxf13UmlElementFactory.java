@@ -1,19 +1,8 @@
 package cz.zcu.kiv.oop.uml.factory;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-import org.springframework.util.StringUtils;
-
 import cz.zcu.kiv.oop.properties.PropertiesProvider;
 import cz.zcu.kiv.oop.uml.element.UmlRelation;
-import cz.zcu.kiv.oop.uml.element.UmlRelationOrientationType;
-import cz.zcu.kiv.oop.uml.element.UmlRelationType;
 import cz.zcu.kiv.oop.uml.exception.UmlElementException;
-import cz.zcu.kiv.oop.uml.geometry.UmlLineShape;
-import cz.zcu.kiv.oop.uml.geometry.UmlPolyline;
 import cz.zcu.kiv.oop.uxf.reader.sax.UmlElementDescriptor;
 
 /**
@@ -28,33 +17,32 @@ public class Uxf13UmlElementFactory extends DefaultUmlElementFactory {
   /** Information whether the actual initialized UML relation is newer relation from UXF version 13. */
   protected boolean newRelationType;
 
-  /** Cache of properties for mapping of relation types for newer relation from UXF version 13. */
-  protected Map<String, List<String>> newRelationTypePropertiesCache;
-  /** Cache of properties for mapping of relation orientation types for newer relation from UXF version 13. */
-  protected Map<String, List<String>> newRelationOrientationTypePropertiesCache;
-
   /**
-   * Constructs factory.
+   * Constructs factory with shared configuration for entered properties provider.
    *
    * @param propertiesProvider provider which provides properties for factoring UML elements and their properties.
    */
   public Uxf13UmlElementFactory(PropertiesProvider propertiesProvider) {
-    super(propertiesProvider);
+    this(Uxf13UmlElementFactoryConfiguration.getInstance(propertiesProvider));
   }
 
   /**
-   * Initializes factory. This method is called at the end of factory construction.
+   * Constructs factory with entered configuration. The configuration is immutable so it can be shared by more factories.
+   *
+   * @param configuration configuration of factory which is compiled from properties of factory.
    */
-  @Override
-  protected void init() {
-    super.init();
-
-    newRelationTypePropertiesCache = new HashMap<String, List<String>>();
-    newRelationOrientationTypePropertiesCache = new HashMap<String, List<String>>();
+  public Uxf13UmlElementFactory(Uxf13UmlElementFactoryConfiguration configuration) {
+    super(configuration);
+  }
 
-    String newRelationTypeSuffix = Uxf13UmlElementFactoryPropertyKeys.NEW_RELATION_TYPE_SUFFIX;
-    initCache(DefaultUmlElementFactoryPropertyKeys.RELATION_TYPE_PROPERTY_PREFIX + newRelationTypeSuffix, newRelationTypePropertiesCache);
-    initCache(DefaultUmlElementFactoryPropertyKeys.RELATION_ORIENTATION_TYPE_PROPERTY_PREFIX + newRelationTypeSuffix, newRelationOrientationTypePropertiesCache);
+  /**
+   * Returns shared configuration of factory which is compiled from properties of factory.
+   *
+   * @return Configuration of factory.
+   */
+  @Override
+  public Uxf13UmlElementFactoryConfiguration getConfiguration() {
+    return (Uxf13UmlElementFactoryConfiguration)configuration;
   }
 
   /**
@@ -66,77 +54,40 @@ public class Uxf13UmlElementFactory extends DefaultUmlElementFactory {
    */
   @Override
   protected void initUmlRelation(UmlRelation relation, UmlElementDescriptor umlElementDescriptor) throws UmlElementException {
-    String newType = propertiesProvider.getValue(Uxf13UmlElementFactoryPropertyKeys.NEW_RELATION_TYPE);
-    newRelationType = umlElementDescriptor.getElementType().equals(newType);
+    newRelationType = umlElementDescriptor.getElementType().equals(getConfiguration().getNewRelationTypeName());
     super.initUmlRelation(relation, umlElementDescriptor);
     newRelationType = false;
   }
 
   /**
-   * Returns relation type from entered arrow.
-   *
-   * @param relationArrow arrow of relation.
-   * @return Type of relation for entered arrow.
-   */
-  @Override
-  protected UmlRelationType getUmlRelationType(String relationArrow) {
-    if (newRelationType) {
-      UmlRelationType type = getType(UmlRelationType.class, relationArrow, DefaultUmlElementFactoryPropertyKeys.RELATION_PROPERTY_SUFFIX,
-          newRelationTypePropertiesCache);
-
-      return (type == null) ? UmlRelationType.UNDEFINED : type;
-    }
-
-    return super.getUmlRelationType(relationArrow);
-  }
-
-  /**
-   * Returns relation orientation type from entered arrow.
+   * Returns lookup table which maps arrows of actual initialized relation. Newer relations from UXF version 13 have different
+   * mapping of arrows.
    *
-   * @param relationArrow arrow of relation.
-   * @return Type of relation orientation for entered arrow.
+   * @return Lookup table of arrows of relations.
    */
   @Override
-  protected UmlRelationOrientationType getUmlRelationOrientationType(String relationArrow) {
-    if (newRelationType) {
-      UmlRelationOrientationType orientationType = getType(UmlRelationOrientationType.class, relationArrow,
-          DefaultUmlElementFactoryPropertyKeys.RELATION_PROPERTY_SUFFIX, newRelationOrientationTypePropertiesCache);
-
-      return orientationType == null ? UmlRelationOrientationType.UNDEFINED : orientationType;
-    }
-
-    return super.getUmlRelationOrientationType(relationArrow);
+  protected RelationArrowTable getRelationArrowTable() {
+    return newRelationType ? getConfiguration().getNewRelationArrows() : super.getRelationArrowTable();
   }
 
   /**
-   * Returns factored line (shape) of UML relation.
+   * Returns absolute coordinate of point of UML relation line. Coordinates of newer relations from UXF version 13 are zoomed by zoom
+   * factor of diagram.
    *
-   * @param umlElementDescriptor descriptor of UML element from which will be factored the line (shape) of UML relation.
-   * @return Factored line (shape).
-   * @throws UmlElementException If some error occurs during line factoring.
+   * @param umlElementDescriptor descriptor of UML element of relation.
+   * @param coordinate read relative coordinate.
+   * @param index index of coordinate (even indexes are X coordinates, odd indexes are Y coordinates).
+   * @return Absolute coordinate of point.
    */
   @Override
-  protected UmlLineShape getUmlRelationLine(UmlElementDescriptor umlElementDescriptor) throws UmlElementException {
-    if(!newRelationType) {
-      return super.getUmlRelationLine(umlElementDescriptor);
+  protected double getRelationCoordinate(UmlElementDescriptor umlElementDescriptor, double coordinate, int index) {
+    if (!newRelationType) {
+      return super.getRelationCoordinate(umlElementDescriptor, coordinate, index);
     }
 
-    String panelAttributes = umlElementDescriptor.getAdditionalAttributes();
-    if (StringUtils.hasText(panelAttributes)) {
-      String separator = propertiesProvider.getValue(DefaultUmlElementFactoryPropertyKeys.RELATION_COORDINATES_SEPARATOR);
-      String[] coordinates = panelAttributes.split(separator);
-
-      List<Double> coordinatesValues = new ArrayList<Double>();
-      for (int i = 0; i < coordinates.length; i++) {
-        double coordinate = Double.valueOf(Double.valueOf(coordinates[i])) * umlElementDescriptor.getZoomFactor();
-        coordinate += (i % 2 == 0 ? umlElementDescriptor.getX() : umlElementDescriptor.getY());
-        coordinatesValues.add(coordinate);
-      }
-
-      return new UmlPolyline(coordinatesValues.toArray(new Double[coordinatesValues.size()]));
-    }
+    double value = coordinate * umlElementDescriptor.getZoomFactor();
 
-    return null;
+    return value + (index % 2 == 0 ? umlElementDescriptor.getX() : umlElementDescriptor.getY());
   }
 
 }
@@ -0,0 +1,78 @@
+package cz.zcu.kiv.oop.uml.factory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import cz.zcu.kiv.oop.properties.PropertiesProvider;
+
+/**
+ * Immutable configuration of UML elements factory for UXF version 13. In addition to default configuration it contains mapping of
+ * arrows of newer relations from UXF version 13. The configuration is created only once for each properties provider and it's
+ * shared by all factories.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class Uxf13UmlElementFactoryConfiguration extends DefaultUmlElementFactoryConfiguration {
+
+  /** Configurations for properties providers. */
+  protected static final ConcurrentMap<PropertiesProvider, Uxf13UmlElementFactoryConfiguration> CONFIGURATIONS = new ConcurrentHashMap<PropertiesProvider, Uxf13UmlElementFactoryConfiguration>();
+
+  /** Name of element type of newer relation from UXF version 13. */
+  protected final String newRelationTypeName;
+  /** Lookup table which maps arrows of newer relations from UXF version 13 to types and orientation types of relations. */
+  protected final RelationArrowTable newRelationArrows;
+
+  /**
+   * Constructs configuration from properties of factory.
+   *
+   * @param propertiesProvider provider which provides properties for factoring UML elements and their properties.
+   */
+  public Uxf13UmlElementFactoryConfiguration(PropertiesProvider propertiesProvider) {
+    super(propertiesProvider);
+
+    newRelationTypeName = propertiesProvider.getValue(Uxf13UmlElementFactoryPropertyKeys.NEW_RELATION_TYPE);
+
+    String newRelationTypeSuffix = Uxf13UmlElementFactoryPropertyKeys.NEW_RELATION_TYPE_SUFFIX;
+    newRelationArrows = createRelationArrowTable(DefaultUmlElementFactoryPropertyKeys.RELATION_TYPE_PROPERTY_PREFIX + newRelationTypeSuffix,
+        DefaultUmlElementFactoryPropertyKeys.RELATION_ORIENTATION_TYPE_PROPERTY_PREFIX + newRelationTypeSuffix);
+  }
+
+  /**
+   * Returns shared configuration for entered properties provider. The configuration is created only for the first call with the
+   * same provider, other calls return the same configuration.
+   *
+   * @param propertiesProvider provider which provides properties for factoring UML elements and their properties.
+   * @return Shared configuration of factory.
+   */
+  public static Uxf13UmlElementFactoryConfiguration getInstance(PropertiesProvider propertiesProvider) {
+    Uxf13UmlElementFactoryConfiguration configuration = CONFIGURATIONS.get(propertiesProvider);
+    if (configuration == null) {
+      Uxf13UmlElementFactoryConfiguration createdConfiguration = new Uxf13UmlElementFactoryConfiguration(propertiesProvider);
+      configuration = CONFIGURATIONS.putIfAbsent(propertiesProvider, createdConfiguration);
+      if (configuration == null) {
+        configuration = createdConfiguration;
+      }
+    }
+
+    return configuration;
+  }
+
+  /**
+   * Returns name of element type of newer relation from UXF version 13.
+   *
+   * @return Name of element type of newer relation.
+   */
+  public String getNewRelationTypeName() {
+    return newRelationTypeName;
+  }
+
+  /**
+   * Returns lookup table which maps arrows of newer relations from UXF version 13 to types and orientation types of relations.
+   *
+   * @return Lookup table of arrows of newer relations.
+   */
+  public RelationArrowTable getNewRelationArrows() {
+    return newRelationArrows;
+  }
+
+}
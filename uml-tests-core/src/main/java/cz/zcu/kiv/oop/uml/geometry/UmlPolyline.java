@@ -14,10 +14,13 @@ import cz.zcu.kiv.oop.uml.geometry.lines.UmlLineIterator;
 public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
 
   /** Serial version UID. */
-  private static final long serialVersionUID = -10101879941188147L;
+  private static final long serialVersionUID = 4207730563962745302L;
 
-  /** Points of polyline which is composite of lines between each points. */
-  protected UmlPoint[] points;
+  /**
+   * Coordinates of points of polyline which is composite of lines between each points. The coordinates are stored in pairs
+   * (X and Y coordinate of each point), so the points are created only when they are requested.
+   */
+  protected double[] coordinates;
   /** Cashed bounding box of polyline. */
   protected UmlRectangle bounds;
 
@@ -55,7 +58,7 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
    */
   @Override
   public UmlPoint getStartPoint() {
-    return points[0];
+    return getPoint(0);
   }
 
   /**
@@ -65,7 +68,26 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
    */
   @Override
   public UmlPoint getEndPoint() {
-    return points[points.length - 1];
+    return getPoint(getPointsCount() - 1);
+  }
+
+  /**
+   * Returns point of polyline with entered index.
+   *
+   * @param index index of point.
+   * @return Point of polyline.
+   */
+  protected UmlPoint getPoint(int index) {
+    return new UmlPoint(coordinates[2 * index], coordinates[2 * index + 1]);
+  }
+
+  /**
+   * Returns count of points of polyline.
+   *
+   * @return Count of points of polyline.
+   */
+  public int getPointsCount() {
+    return coordinates.length / 2;
   }
 
   /**
@@ -74,7 +96,12 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
    * @return Array of point of polyline.
    */
   public UmlPoint[] getPoints() {
-    return Arrays.copyOf(points, points.length);
+    UmlPoint[] points = new UmlPoint[getPointsCount()];
+    for (int i = 0; i < points.length; i++) {
+      points[i] = getPoint(i);
+    }
+
+    return points;
   }
 
   /**
@@ -106,11 +133,7 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
       throw new IllegalArgumentException(Strings.get("exc.geometry.polyline.low-points"));
     }
 
-    this.points = new UmlPoint[n / 2];
-    for (int i = 0; i < this.points.length; i++) {
-      this.points[i] = new UmlPoint(points[2 * i], points[2 * i + 1]);
-    }
-
+    coordinates = Arrays.copyOf(points, n);
     bounds = null;
   }
 
@@ -124,7 +147,12 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
       throw new IllegalArgumentException(Strings.get("exc.geometry.polyline.low-points"));
     }
 
-    this.points = Arrays.copyOf(points, points.length);
+    coordinates = new double[2 * points.length];
+    for (int i = 0; i < points.length; i++) {
+      coordinates[2 * i] = points[i].getX();
+      coordinates[2 * i + 1] = points[i].getY();
+    }
+
     bounds = null;
   }
 
@@ -144,11 +172,11 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
     double maxX = Double.MIN_VALUE;
     double maxY = Double.MIN_VALUE;
 
-    for (UmlPoint point : points) {
-      minX = Math.min(point.getX(), minX);
-      minY = Math.min(point.getY(), minY);
-      maxX = Math.max(point.getX(), maxX);
-      maxY = Math.max(point.getY(), maxY);
+    for (int i = 0; i < coordinates.length; i += 2) {
+      minX = Math.min(coordinates[i], minX);
+      minY = Math.min(coordinates[i + 1], minY);
+      maxX = Math.max(coordinates[i], maxX);
+      maxY = Math.max(coordinates[i + 1], maxY);
     }
 
     bounds = new UmlRectangle(minX, minY, maxX - minX, maxY - minY);
@@ -262,14 +290,13 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
   @Override
   public Shape getShape() {
     Polygon polygon = new Polygon();
-    for (int i = 0; i < points.length; i++) {
-      UmlPoint point = points[i];
-      polygon.addPoint((int)point.getX(), (int)point.getY());
+    int n = getPointsCount();
+    for (int i = 0; i < n; i++) {
+      polygon.addPoint((int)coordinates[2 * i], (int)coordinates[2 * i + 1]);
     }
 
-    for (int i = points.length - 2; i > 0; i--) {
-      UmlPoint point = points[i];
-      polygon.addPoint((int)point.getX(), (int)point.getY());
+    for (int i = n - 2; i > 0; i--) {
+      polygon.addPoint((int)coordinates[2 * i], (int)coordinates[2 * i + 1]);
     }
 
     return polygon;
@@ -287,12 +314,14 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
 
       @Override
       public boolean hasNext() {
-        return (actual < points.length - 1);
+        return (actual < getPointsCount() - 1);
       }
 
       @Override
       protected UmlLine getNext() {
-        return new UmlLine(points[actual], points[++actual]);
+        int i = 2 * actual++;
+
+        return new UmlLine(coordinates[i], coordinates[i + 1], coordinates[i + 2], coordinates[i + 3]);
       }
     };
   }
@@ -304,12 +333,7 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
    */
   @Override
   public UmlPolyline clone() {
-    UmlPoint[] points = new UmlPoint[this.points.length];
-    for (int i = 0; i < points.length; i++) {
-      points[i] = this.points[i].clone();
-    }
-
-    return new UmlPolyline(points);
+    return new UmlPolyline(coordinates);
   }
 
   /**
@@ -323,7 +347,7 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
     final int prime = 31;
     int result = 1;
 
-    result = prime * result + Arrays.hashCode(points);
+    result = prime * result + Arrays.hashCode(coordinates);
 
     return result;
   }
@@ -349,7 +373,7 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
     }
 
     UmlPolyline other = (UmlPolyline)obj;
-    if (!Arrays.equals(points, other.points)) {
+    if (!Arrays.equals(coordinates, other.coordinates)) {
       return false;
     }
 
@@ -363,7 +387,7 @@ public class UmlPolyline implements UmlLineShape, Serializable, Cloneable {
    */
   @Override
   public String toString() {
-    return getClass().getName() + " [points=" + Arrays.toString(points) + "]";
+    return getClass().getName() + " [points=" + Arrays.toString(getPoints()) + "]";
   }
 
 }
@@ -0,0 +1,29 @@
+package cz.zcu.kiv.oop.uml.junit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import cz.zcu.kiv.oop.uml.factory.UmlElementPart;
+
+/**
+ * Marks test class with parts of UML diagram which are read by its tests. Runners read only these parts (and parts required by
+ * them) from tested UXF files, other parts are skipped. If the test class is not marked, the whole UML diagram is read.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DiagramProjection {
+
+  /**
+   * Parts of UML diagram which are read by tests.
+   *
+   * @return Array of parts of UML diagram.
+   */
+  UmlElementPart[] value();
+
+}
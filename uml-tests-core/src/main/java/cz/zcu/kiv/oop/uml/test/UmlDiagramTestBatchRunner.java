@@ -1,18 +1,48 @@
 package cz.zcu.kiv.oop.uml.test;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.security.MessageDigest;
 import java.text.Collator;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
 import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
 import org.junit.runner.Result;
 import org.junit.runner.notification.Failure;
 import org.springframework.util.StringUtils;
 
 import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.uml.junit.DiagramProjection;
+import cz.zcu.kiv.oop.uml.test.result.CsvResultWriter;
+import cz.zcu.kiv.oop.uml.test.result.NdjsonResultWriter;
+import cz.zcu.kiv.oop.uml.test.result.UmlDiagramTestJournal;
+import cz.zcu.kiv.oop.uml.test.result.UmlDiagramTestRecord;
+import cz.zcu.kiv.oop.uml.test.result.UmlDiagramTestResultCache;
+import cz.zcu.kiv.oop.uml.test.result.UmlDiagramTestResultWriter;
+import cz.zcu.kiv.oop.util.DigestUtils;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactoryImpl;
+import cz.zcu.kiv.oop.uxf.util.UxfDirectoryWatcher;
 import cz.zcu.kiv.oop.uxf.util.UxfFilenameFilter;
+import cz.zcu.kiv.oop.uxf.util.UxfZipArchive;
+import cz.zcu.kiv.oop.uxf.util.UxfZipEntryFile;
+import cz.zcu.kiv.oop.uxf.util.UxfZipUtils;
 
 /**
  * Batch runner of UML diagram tests which can runs one or more tests in specified directory.
@@ -25,99 +55,1266 @@ public class UmlDiagramTestBatchRunner extends UmlDiagramTestRunner {
   public static final String PROPERTY_DIRECTORY_NAME = "directoryName";
   /** Name of property for boolean property whatever will be shown names of failed tests methods. */
   public static final String PROPERTY_SHOW_FAILED_TESTS_NAMES = "methodNames";
+  /** Name of property for count of workers which will test UXF files in parallel. */
+  public static final String PROPERTY_WORKERS_COUNT = "threads";
+  /** Name of property for file into which will be written results of tests in machine-readable format. */
+  public static final String PROPERTY_RESULT_FILE = "resultFile";
+  /** Name of property for journal file which allows to resume interrupted batch run. */
+  public static final String PROPERTY_JOURNAL_FILE = "journalFile";
+  /** Name of property for directory with cache of results of tests. */
+  public static final String PROPERTY_CACHE_DIRECTORY = "cacheDirectory";
+  /** Name of property for maximal count of results in cache. */
+  public static final String PROPERTY_CACHE_SIZE = "cacheSize";
+  /** Name of boolean property whatever the runner will watch directory with UXF files and test new files as they appear. */
+  public static final String PROPERTY_WATCH = "watch";
+  /** Name of property for interval of polling of watched directory (in milliseconds). */
+  public static final String PROPERTY_WATCH_INTERVAL = "watchInterval";
+  /** Name of property for shard of UXF files which will be tested in format <code>i/n</code> (i-th of n shards). */
+  public static final String PROPERTY_SHARD = "shard";
+  /** Name of property for file into which will be stored snapshot of statistics (it can be merged with snapshots of other shards). */
+  public static final String PROPERTY_STATISTICS_FILE = "statisticsFile";
+  /** Name of property for comma separated list of files with snapshots of statistics which will be merged and printed. */
+  public static final String PROPERTY_MERGE_STATISTICS = "mergeStatistics";
+
+  /** Extension of result file for which will be used CSV format (NDJSON format is used otherwise). */
+  protected static final String CSV_EXTENSION = "csv";
+
+  /** Default interval of polling of watched directory (in milliseconds). */
+  protected static final long DEFAULT_WATCH_INTERVAL = 200;
+  /** Maximal time of waiting for end of watching of directory when the JVM is shutting down (in milliseconds). */
+  protected static final long WATCH_SHUTDOWN_TIMEOUT = 10000;
+  /** Default maximal count of results in cache. */
+  protected static final int DEFAULT_CACHE_SIZE = 10000;
+  /** Name of configuration of tests generator which is part of fingerprint of tests (if it's available on class path). */
+  protected static final String TESTS_CONFIGURATION_RESOURCE = "/tests_generator.properties";
+  /** Version of cached results; it has to be changed when the printed output or statistics are changed. */
+  protected static final String CACHE_VERSION = "2";
+
+  /** Separator of index and count of shards in property {@value #PROPERTY_SHARD}. */
+  protected static final char SHARD_SEPARATOR = '/';
+
+  /** Default count of workers (UXF files are tested sequentially). */
+  protected static final int DEFAULT_WORKERS_COUNT = 1;
 
   /** Statistics of tests. */
   protected final UmlDiagramTestStatistics statistics;
   /** Information whether will be shown method names. */
   protected final boolean showFailedTestsNames;
+  /** Count of workers which test UXF files in parallel. */
+  protected final int workersCount;
+  /** Copies of test classes for workers mapped by test class (each worker has its own copy of static fields of test class). */
+  protected final ThreadLocal<Map<Class<?>, Class<?>>> workerTestClasses;
+  /** Executor shared by pipelines of all parallel runs; <code>null</code> if each pipeline creates its own executor. */
+  protected ExecutorService pipelineExecutor;
+  /** Information whether the runner will watch directory with UXF files. */
+  protected final boolean watch;
+  /** Interval of polling of watched directory (in milliseconds). */
+  protected final long watchInterval;
+  /** Times spent in stages of pipeline of last parallel run; <code>null</code> if the last run was sequential. */
+  protected String pipelineTimes;
+  /** Writer of results in machine-readable format; <code>null</code> if the results are not written. */
+  protected UmlDiagramTestResultWriter resultWriter;
+  /** Journal of tested UXF files; <code>null</code> if the journal is not used. */
+  protected UmlDiagramTestJournal journal;
+  /** Hashes of content of UXF files mapped by path of file (computed only if the journal or the cache is used). */
+  protected final Map<String, String> uxfFilesHashes = new HashMap<String, String>();
+  /** Cache of results of tests; <code>null</code> if the cache is not used. */
+  protected UmlDiagramTestResultCache cache;
+  /** Tested ZIP archive which is opened once per run; <code>null</code> if UXF files are not tested from ZIP archive. */
+  protected UxfZipArchive zipArchive;
+  /** Captured output of tests of one UXF file; <code>null</code> if the output is not captured. */
+  protected StringBuilder capturedOutput;
+
+  /**
+   * Constructs runner.
+   */
+  public UmlDiagramTestBatchRunner() {
+    statistics = new UmlDiagramTestStatistics();
+    showFailedTestsNames = Boolean.parseBoolean(System.getProperty(PROPERTY_SHOW_FAILED_TESTS_NAMES));
+    workersCount = getWorkersCount();
+    workerTestClasses = new ThreadLocal<Map<Class<?>, Class<?>>>() {
+      @Override
+      protected Map<Class<?>, Class<?>> initialValue() {
+        return new HashMap<Class<?>, Class<?>>();
+      }
+    };
+    watch = Boolean.parseBoolean(System.getProperty(PROPERTY_WATCH));
+    watchInterval = getWatchInterval();
+  }
+
+  /**
+   * Returns interval of polling of watched directory from property {@value #PROPERTY_WATCH_INTERVAL}.
+   *
+   * @return Interval of polling of watched directory in milliseconds.
+   */
+  protected long getWatchInterval() {
+    String value = System.getProperty(PROPERTY_WATCH_INTERVAL);
+    if (!StringUtils.hasText(value)) {
+      return DEFAULT_WATCH_INTERVAL;
+    }
+
+    try {
+      return Math.max(1, Long.parseLong(value.trim()));
+    }
+    catch (NumberFormatException exc) {
+      warn(Strings.getFormatted("log.warning.wrong-watch-interval", value, DEFAULT_WATCH_INTERVAL) + '\n');
+
+      return DEFAULT_WATCH_INTERVAL;
+    }
+  }
+
+  /**
+   * Returns count of workers from property {@value #PROPERTY_WORKERS_COUNT}. Zero or negative value means count of available
+   * processors.
+   *
+   * @return Count of workers.
+   */
+  protected int getWorkersCount() {
+    String value = System.getProperty(PROPERTY_WORKERS_COUNT);
+    if (!StringUtils.hasText(value)) {
+      return DEFAULT_WORKERS_COUNT;
+    }
+
+    try {
+      int count = Integer.parseInt(value.trim());
+      if (count <= 0) {
+        return Runtime.getRuntime().availableProcessors();
+      }
+
+      return count;
+    }
+    catch (NumberFormatException exc) {
+      warn(Strings.getFormatted("log.warning.wrong-workers-count", value, DEFAULT_WORKERS_COUNT) + '\n');
+
+      return DEFAULT_WORKERS_COUNT;
+    }
+  }
+
+  /**
+   * Writes a formated error message.
+   *
+   * @param errorMessage formated error message.
+   * @param args arguments for error message.
+   */
+  @Override
+  protected void error(String errorMessage, Object... args) {
+    System.out.printf(errorMessage, args);
+  }
+
+  /**
+   * Writes a formated info message. If the output is captured, the message is also added to captured output.
+   *
+   * @param infoMessage formated info message.
+   * @param args arguments for info message.
+   */
+  @Override
+  protected void info(String infoMessage, Object... args) {
+    String message = String.format(infoMessage, args);
+    if (capturedOutput != null) {
+      capturedOutput.append(message);
+    }
+
+    System.out.print(message);
+  }
+
+  /**
+   * Prints help.
+   */
+  @Override
+  public void printHelp() {
+    String jarFile = getJarName();
+
+    info(Strings.getFormatted("log.info.batch-runner-help.1", PROPERTY_SHOW_FAILED_TESTS_NAMES, PROPERTY_WORKERS_COUNT, jarFile), + '\n' + '\n');
+    info(Strings.get("log.info.batch-runner-help.2")  + '\n');
+    info(Strings.getFormatted("log.info.batch-runner-help.3", PROPERTY_SHOW_FAILED_TESTS_NAMES), + '\n');
+    info(Strings.getFormatted("log.info.batch-runner-help.workers", PROPERTY_WORKERS_COUNT) + '\n');
+    info(Strings.getFormatted("log.info.batch-runner-help.result-file", PROPERTY_RESULT_FILE) + '\n');
+    info(Strings.getFormatted("log.info.batch-runner-help.journal-file", PROPERTY_JOURNAL_FILE) + '\n');
+    info(Strings.getFormatted("log.info.batch-runner-help.cache-directory", PROPERTY_CACHE_DIRECTORY, PROPERTY_CACHE_SIZE) + '\n');
+    info(Strings.getFormatted("log.info.batch-runner-help.watch", PROPERTY_WATCH, PROPERTY_WATCH_INTERVAL) + '\n');
+    info(Strings.getFormatted("log.info.batch-runner-help.shard", PROPERTY_SHARD) + '\n');
+    info(Strings.getFormatted("log.info.batch-runner-help.statistics-file", PROPERTY_STATISTICS_FILE) + '\n');
+    info(Strings.getFormatted("log.info.batch-runner-help.merge-statistics", PROPERTY_MERGE_STATISTICS) + '\n');
+    info(Strings.get("log.info.batch-runner-help.4")  + '\n');
+    info(Strings.get("log.info.batch-runner-help.5")  + '\n');
+  }
+
+  /**
+   * Runs tests from test class.
+   */
+  @Override
+  public void run() {
+    clear(); // clears runner
+
+    String directoryName = System.getProperty(PROPERTY_DIRECTORY_NAME);
+    if (PRINT_HELP_FILE_NAME.equalsIgnoreCase(directoryName)) {
+      printHelp();
+      return;
+    }
+
+    if (StringUtils.hasText(System.getProperty(PROPERTY_MERGE_STATISTICS))) {
+      runMerge();
+      return;
+    }
+
+    if (!checkDirectoryName()) {
+      return;
+    }
+
+    if (watch) {
+      runWatching();
+      return;
+    }
+
+    File[] uxfFiles = getUxfFiles();
+    try {
+      testUxfFiles(uxfFiles);
+    }
+    finally {
+      closeZipArchive();
+    }
+  }
+
+  /**
+   * Tests UXF files from directory with UXF files.
+   *
+   * @param uxfFiles array of UXF files; <code>null</code> if UXF files cannot be read.
+   */
+  protected void testUxfFiles(File[] uxfFiles) {
+    if (uxfFiles == null || uxfFiles.length == 0) {
+      warn(Strings.get("log.warning.no-ufx-files") + '\n');
+
+      return;
+    }
+
+    Class<?> testClass = getTestClass();
+    if (testClass == null) {
+      return;
+    }
+
+    statistics.setTestClass(testClass);
+
+    sortUxfFiles(uxfFiles);
+    uxfFiles = getShardFiles(uxfFiles);
+    if (uxfFiles == null) {
+      return;
+    }
+
+    openResultWriter();
+    openJournal();
+    openCache(testClass);
+    try {
+      if (workersCount > 1 && uxfFiles.length > 1) {
+        runTestsInParallel(uxfFiles, testClass);
+      }
+      else {
+        runTestsSequentially(uxfFiles, testClass);
+      }
+    }
+    finally {
+      cache = null;
+      closeJournal();
+      closeResultWriter();
+    }
+
+    storeStatistics();
+
+    if (statistics.getTestsCounterValue() == 0) {
+      warn('\n' + Strings.get("log.warning.no-tests") + '\n');
+
+      return;
+    }
+
+    if (pipelineTimes != null) {
+      info(pipelineTimes + "\n\n");
+    }
+
+    printStatistics();
+  }
+
+  /**
+   * Prints statistics of ran tests.
+   */
+  protected void printStatistics() {
+    info("======================================================================\n\n");
+    statistics.print();
+  }
+
+  /**
+   * Merges snapshots of statistics from files in property {@value #PROPERTY_MERGE_STATISTICS} and prints them. The printed
+   * statistics are same as statistics of run which tests UXF files of all shards in one process.
+   */
+  protected void runMerge() {
+    Class<?> testClass = getTestClass();
+    if (testClass == null) {
+      return;
+    }
+
+    statistics.setTestClass(testClass);
+
+    String[] fileNames = StringUtils.commaDelimitedListToStringArray(System.getProperty(PROPERTY_MERGE_STATISTICS));
+    for (String fileName : fileNames) {
+      fileName = fileName.trim();
+      if (fileName.length() == 0) {
+        continue;
+      }
+
+      try {
+        InputStream is = new FileInputStream(fileName);
+        try {
+          statistics.loadSnapshot(is);
+        }
+        finally {
+          is.close();
+        }
+      }
+      catch (IOException exc) {
+        error(Strings.getFormatted("log.error.statistics-file", fileName, exc.getMessage()) + '\n');
+
+        return;
+      }
+    }
+
+    if (statistics.getTestsCounterValue() == 0) {
+      warn(Strings.get("log.warning.no-tests") + '\n');
+
+      return;
+    }
+
+    printStatistics();
+  }
+
+  /**
+   * Returns name of file into which will be stored snapshot of statistics.
+   *
+   * @return Name of file from property {@value #PROPERTY_STATISTICS_FILE}; <code>null</code> if the property was not set.
+   */
+  protected String getStatisticsFileName() {
+    return System.getProperty(PROPERTY_STATISTICS_FILE);
+  }
+
+  /**
+   * Stores snapshot of statistics into file from property {@value #PROPERTY_STATISTICS_FILE} (if the property was set).
+   */
+  protected void storeStatistics() {
+    String statisticsFileName = getStatisticsFileName();
+    if (!StringUtils.hasText(statisticsFileName)) {
+      return;
+    }
+
+    try {
+      OutputStream os = new FileOutputStream(statisticsFileName);
+      try {
+        statistics.storeSnapshot(os);
+      }
+      finally {
+        os.close();
+      }
+    }
+    catch (IOException exc) {
+      error(Strings.getFormatted("log.error.statistics-file", statisticsFileName, exc.getMessage()) + '\n');
+    }
+  }
+
+  /**
+   * Returns UXF files of shard from property {@value #PROPERTY_SHARD}. Sorted files are assigned to shards in round-robin order
+   * (the file with index <code>k</code> belongs to shard <code>k % n + 1</code>), so each shard gets files of students from whole
+   * range of names and all shards together test each file exactly once.
+   *
+   * @param uxfFiles sorted array of UXF files.
+   * @return UXF files of shard (all files if the property was not set); <code>null</code> if the property has wrong format.
+   */
+  protected File[] getShardFiles(File[] uxfFiles) {
+    String value = System.getProperty(PROPERTY_SHARD);
+    if (!StringUtils.hasText(value)) {
+      return uxfFiles;
+    }
+
+    int[] shard = parseShard(value);
+    if (shard == null) {
+      error(Strings.getFormatted("log.error.wrong-shard", value) + '\n');
+
+      return null;
+    }
+
+    return getShardFiles(uxfFiles, shard[0], shard[1]);
+  }
+
+  /**
+   * Returns UXF files of shard.
+   *
+   * @param uxfFiles sorted array of UXF files.
+   * @param shardIndex index of shard (starting from 1).
+   * @param shardsCount count of shards.
+   * @return UXF files of shard.
+   */
+  protected static File[] getShardFiles(File[] uxfFiles, int shardIndex, int shardsCount) {
+    List<File> shardFiles = new ArrayList<File>();
+    for (int i = shardIndex - 1; i < uxfFiles.length; i += shardsCount) {
+      shardFiles.add(uxfFiles[i]);
+    }
+
+    return shardFiles.toArray(new File[shardFiles.size()]);
+  }
+
+  /**
+   * Parses shard in format <code>i/n</code> where <code>1 &lt;= i &lt;= n</code>.
+   *
+   * @param value value of shard.
+   * @return Array with index of shard (starting from 1) and count of shards; <code>null</code> if the value has wrong format.
+   */
+  protected static int[] parseShard(String value) {
+    int separatorIndex = value.indexOf(SHARD_SEPARATOR);
+    if (separatorIndex < 0) {
+      return null;
+    }
+
+    try {
+      int shardIndex = Integer.parseInt(value.substring(0, separatorIndex).trim());
+      int shardsCount = Integer.parseInt(value.substring(separatorIndex + 1).trim());
+      if (shardsCount < 1 || shardIndex < 1 || shardIndex > shardsCount) {
+        return null;
+      }
+
+      return new int[] {shardIndex, shardsCount};
+    }
+    catch (NumberFormatException exc) {
+      return null;
+    }
+  }
+
+  /**
+   * Runs tests of UXF files in watched directory. Results are written into result file and journal immediately after each file.
+   * Watching is stopped by interruption of the current thread or by shutdown of JVM (for example by Ctrl+C); statistics of all
+   * tested files are printed after that.
+   */
+  protected void runWatching() {
+    String directoryName = System.getProperty(PROPERTY_DIRECTORY_NAME);
+    if (!new File(directoryName).isDirectory()) {
+      error(Strings.getFormatted("log.error.path-is-not-a-folder", directoryName) + '\n');
+
+      return;
+    }
+
+    Class<?> testClass = getTestClass();
+    if (testClass == null) {
+      return;
+    }
+
+    statistics.setTestClass(testClass);
+
+    Thread shutdownHook = createWatchShutdownHook(Thread.currentThread());
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+    try {
+      openResultWriter();
+      openJournal();
+      openCache(testClass);
+      boolean sharedExecutor = (workersCount > 1 && pipelineExecutor == null);
+      if (sharedExecutor) {
+        pipelineExecutor = UmlDiagramTestPipeline.newExecutor(workersCount, workersCount);
+      }
+
+      try {
+        watchDirectory(testClass);
+      }
+      finally {
+        if (sharedExecutor) {
+          pipelineExecutor.shutdownNow();
+          pipelineExecutor = null;
+        }
+
+        cache = null;
+        closeJournal();
+        closeResultWriter();
+      }
+
+      storeStatistics();
+      if (statistics.getTestsCounterValue() == 0) {
+        warn('\n' + Strings.get("log.warning.no-tests") + '\n');
+
+        return;
+      }
+
+      printStatistics();
+    }
+    finally {
+      try {
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+      }
+      catch (IllegalStateException exc) {
+        // JVM is already shutting down
+      }
+    }
+  }
+
+  /**
+   * Creates shutdown hook which stops watching of directory and waits until the statistics are printed.
+   *
+   * @param watchingThread thread which watches directory.
+   * @return Created shutdown hook.
+   */
+  protected Thread createWatchShutdownHook(final Thread watchingThread) {
+    return new Thread() {
+      @Override
+      public void run() {
+        watchingThread.interrupt();
+        try {
+          watchingThread.join(WATCH_SHUTDOWN_TIMEOUT);
+        }
+        catch (InterruptedException exc) {
+          // JVM ends anyway
+        }
+      }
+    };
+  }
+
+  /**
+   * Tests UXF files one by one. Testing is stopped when the current thread is interrupted (watching of directory was stopped).
+   *
+   * @param uxfFiles sorted array of tested UXF files.
+   * @param testClass class with tests.
+   */
+  protected void runTestsSequentially(File[] uxfFiles, Class<?> testClass) {
+    for (File uxfFile : uxfFiles) {
+      if (Thread.currentThread().isInterrupted()) {
+        break;
+      }
+
+      testFile(uxfFile, testClass);
+    }
+  }
+
+  /**
+   * Tests one UXF file and prints its result.
+   *
+   * @param uxfFile tested UXF file.
+   * @param testClass class with tests.
+   */
+  protected void testFile(File uxfFile, Class<?> testClass) {
+    UmlDiagramTestRecord journalRecord = getJournalRecord(uxfFile);
+    if (journalRecord != null) {
+      info(Strings.getFormatted("log.info.test-file", uxfFile.getName()) + '\n');
+      replayRecord(journalRecord);
+      info("\n");
+
+      return;
+    }
+
+    System.setProperty(PROPERTY_UXF_FILE_NAME, uxfFile.getAbsolutePath()); // sets next testing UXF file
+
+    info(Strings.getFormatted("log.info.test-file", uxfFile.getName()) + '\n');
+    if (checkUxfFile(uxfFile, true)) {
+      UmlDiagramTestResultCache.Entry cacheEntry = getCacheEntry(uxfFile);
+      if (cacheEntry != null) {
+        replayCacheEntry(uxfFile, cacheEntry);
+      }
+      else {
+        Result result;
+        if (uxfFile instanceof UxfZipEntryFile) {
+          result = runTests(testClass, createZipEntryContext((UxfZipEntryFile)uxfFile, getProjection(testClass)));
+        }
+        else {
+          result = runTests(testClass, new UmlDiagramTestContext(uxfFile.getAbsolutePath(), getProjection(testClass)));
+        }
+
+        if (result != null) {
+          printAndProcessResult(uxfFile, result);
+        }
+      }
+
+      info("\n");
+    }
+  }
+
+  /**
+   * Returns projection which determines parts of UML diagrams read by tests from test class (see {@link DiagramProjection}). If the
+   * test class is not marked by the annotation (for example older generated test class), the whole UML diagrams are read.
+   *
+   * @param testClass class with tests.
+   * @return Projection of UML diagrams for test class.
+   */
+  protected UmlElementProjection getProjection(Class<?> testClass) {
+    DiagramProjection diagramProjection = testClass.getAnnotation(DiagramProjection.class);
+    if (diagramProjection == null) {
+      return UmlElementProjection.ALL;
+    }
+
+    return new UmlElementProjection(diagramProjection.value());
+  }
+
+  /**
+   * Creates context with UML diagram read from UXF file in ZIP archive. Errors are kept in context and thrown again by tests.
+   *
+   * @param uxfFile UXF file in ZIP archive.
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Context with UML diagram.
+   */
+  protected UmlDiagramTestContext createZipEntryContext(UxfZipEntryFile uxfFile, UmlElementProjection projection) {
+    try {
+      byte[] uxfContent = UmlDiagramTestContext.readContent(uxfFile);
+      UmlDiagram diagram = UmlDiagramTestContext.readDiagram(uxfContent, uxfFile.getAbsolutePath(), projection);
+
+      return new UmlDiagramTestContext(uxfFile.getAbsolutePath(), diagram, null);
+    }
+    catch (Throwable exc) {
+      return new UmlDiagramTestContext(uxfFile.getAbsolutePath(), null, exc);
+    }
+  }
+
+  /**
+   * Watches directory with UXF files and tests new and changed UXF files as they appear (files which are in the directory at start
+   * are tested too). Files which appeared at once are tested in parallel by {@link #workersCount} workers (if there are more
+   * workers). The method runs until the current thread is interrupted.
+   *
+   * @param testClass class with tests.
+   */
+  protected void watchDirectory(Class<?> testClass) {
+    UxfDirectoryWatcher watcher = new UxfDirectoryWatcher(new File(System.getProperty(PROPERTY_DIRECTORY_NAME)));
+    info(Strings.getFormatted("log.info.watching-directory", watcher.getDirectory().getPath()) + "\n\n");
+
+    while (!Thread.currentThread().isInterrupted()) {
+      List<File> uxfFiles = watcher.poll();
+      if (!uxfFiles.isEmpty()) {
+        File[] sortedUxfFiles = uxfFiles.toArray(new File[uxfFiles.size()]);
+        sortUxfFiles(sortedUxfFiles);
+        for (File uxfFile : sortedUxfFiles) {
+          uxfFilesHashes.remove(uxfFile.getAbsolutePath()); // file could be changed
+        }
+
+        if (workersCount > 1 && sortedUxfFiles.length > 1) {
+          runTestsInParallel(sortedUxfFiles, testClass);
+        }
+        else {
+          runTestsSequentially(sortedUxfFiles, testClass);
+        }
+      }
+
+      try {
+        Thread.sleep(watchInterval);
+      }
+      catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Tests UXF files in parallel by {@link #workersCount} workers using {@link UmlDiagramTestPipeline}. Each UXF file is read only
+   * once and tested in its own context. Results are printed (and added to statistics) in the same order as in sequential run.
+   * Printing is stopped when the current thread is interrupted (watching of directory was stopped).
+   *
+   * @param uxfFiles sorted array of tested UXF files.
+   * @param testClass class with tests.
+   */
+  protected void runTestsInParallel(File[] uxfFiles, Class<?> testClass) {
+    List<UmlDiagramTestJob> jobs = new ArrayList<UmlDiagramTestJob>(uxfFiles.length);
+    UmlDiagramTestRecord[] journalRecords = new UmlDiagramTestRecord[uxfFiles.length];
+    boolean[] correctFiles = new boolean[uxfFiles.length];
+    UmlDiagramTestResultCache.Entry[] cacheEntries = new UmlDiagramTestResultCache.Entry[uxfFiles.length];
+    for (int i = 0; i < uxfFiles.length; i++) {
+      UmlDiagramTestJob job = null;
+      journalRecords[i] = getJournalRecord(uxfFiles[i]);
+      if (journalRecords[i] == null) {
+        correctFiles[i] = checkUxfFile(uxfFiles[i], false);
+        if (correctFiles[i]) {
+          cacheEntries[i] = getCacheEntry(uxfFiles[i]);
+          if (cacheEntries[i] == null) {
+            UxfZipEntryFile zipEntryFile = (uxfFiles[i] instanceof UxfZipEntryFile) ? (UxfZipEntryFile)uxfFiles[i] : null;
+            job = new UmlDiagramTestJob(uxfFiles[i].getAbsolutePath(), zipEntryFile);
+          }
+        }
+      }
+
+      jobs.add(job);
+    }
+
+    UmlDiagramTestPipeline pipeline = createPipeline(testClass);
+    try {
+      pipeline.start(jobs);
+
+      for (int i = 0; i < uxfFiles.length && !Thread.currentThread().isInterrupted(); i++) {
+        File uxfFile = uxfFiles[i];
+
+        info(Strings.getFormatted("log.info.test-file", uxfFile.getName()) + '\n');
+        if (journalRecords[i] != null) {
+          replayRecord(journalRecords[i]);
+          info("\n");
+        }
+        else if (!correctFiles[i]) {
+          checkUxfFile(uxfFile, true); // prints errors of file
+        }
+        else if (cacheEntries[i] != null) {
+          replayCacheEntry(uxfFile, cacheEntries[i]);
+          info("\n");
+        }
+        else {
+          Result result = getResult(jobs.get(i));
+          if (result != null) {
+            printAndProcessResult(uxfFile, result);
+          }
+
+          info("\n");
+        }
+      }
+    }
+    finally {
+      pipeline.shutdown();
+    }
+
+    pipelineTimes = Strings.getFormatted("log.info.pipeline-times", pipeline.getPrefetchTime(), pipeline.getParseTime(),
+            pipeline.getTestTime());
+  }
+
+  /**
+   * Creates pipeline which tests UXF files by {@link #workersCount} workers. The pipeline reads only parts of UML diagrams which
+   * are read by tests from test class.
+   *
+   * @param testClass class with tests.
+   * @return Created pipeline.
+   */
+  protected UmlDiagramTestPipeline createPipeline(final Class<?> testClass) {
+    UmlDiagramTestPipeline pipeline = new UmlDiagramTestPipeline(workersCount, workersCount) {
+      @Override
+      protected Result runTests(UmlDiagramTestContext context) throws Exception {
+        return UmlDiagramTestBatchRunner.this.runTests(getWorkerTestClass(testClass), context);
+      }
+    };
+    pipeline.setProjection(getProjection(testClass));
+    pipeline.setExecutor(pipelineExecutor);
+
+    return pipeline;
+  }
+
+  /**
+   * Returns copy of test class for current worker.
+   *
+   * @param testClass class with tests.
+   * @return Copy of test class for current worker.
+   * @throws ClassNotFoundException If the copy of test class cannot be created.
+   */
+  protected Class<?> getWorkerTestClass(Class<?> testClass) throws ClassNotFoundException {
+    Map<Class<?>, Class<?>> testClasses = workerTestClasses.get();
+    Class<?> clazz = testClasses.get(testClass);
+    if (clazz == null) {
+      clazz = new UmlDiagramTestClassLoader(testClass).loadTestClass();
+      testClasses.put(testClass, clazz);
+    }
+
+    return clazz;
+  }
+
+  /**
+   * Runs tests from test class in given context.
+   *
+   * @param testClass class with tests.
+   * @param context context of tested UXF file.
+   * @return Result of ran tests.
+   */
+  protected Result runTests(Class<?> testClass, UmlDiagramTestContext context) {
+    UmlDiagramTestContext.setCurrentContext(context);
+    try {
+      return runTests(testClass);
+    }
+    finally {
+      UmlDiagramTestContext.clearCurrentContext();
+    }
+  }
 
   /**
-   * Constructs runner.
+   * Runs tests from test class. Time of each test method is added into statistics.
+   *
+   * @param testClass class with tests.
+   * @return Result of ran tests.
    */
-  public UmlDiagramTestBatchRunner() {
-    statistics = new UmlDiagramTestStatistics();
-    showFailedTestsNames = Boolean.parseBoolean(System.getProperty(PROPERTY_SHOW_FAILED_TESTS_NAMES));
+  @Override
+  protected Result runTests(Class<?> testClass) {
+    JUnitCore core = new JUnitCore();
+    core.addListener(new UmlDiagramTestTimingListener(statistics));
+
+    return core.run(testClass);
   }
 
   /**
-   * Writes a formated error message.
+   * Waits for result of tests ran by worker.
    *
-   * @param errorMessage formated error message.
-   * @param args arguments for error message.
+   * @param job job of tested UXF file.
+   * @return Result of ran tests; <code>null</code> if the tests were not ran.
    */
-  @Override
-  protected void error(String errorMessage, Object... args) {
-    System.out.printf(errorMessage, args);
+  protected Result getResult(UmlDiagramTestJob job) {
+    if (job == null) {
+      return null;
+    }
+
+    try {
+      return job.awaitResult();
+    }
+    catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+    }
+    catch (ExecutionException exc) {
+      Throwable cause = exc.getCause();
+      error(Strings.getFormatted("log.error.worker-failed", cause.getClass().getName(), cause.getMessage()) + '\n');
+    }
+
+    return null;
   }
 
   /**
-   * Prints help.
+   * Opens writer of results into file from property {@value #PROPERTY_RESULT_FILE} (if the property was set). For files with
+   * extension {@value #CSV_EXTENSION} is used CSV format, NDJSON format is used otherwise.
    */
-  @Override
-  public void printHelp() {
-    String jarFile = getJarName();
+  protected void openResultWriter() {
+    String resultFileName = System.getProperty(PROPERTY_RESULT_FILE);
+    if (!StringUtils.hasText(resultFileName)) {
+      return;
+    }
 
-    info(Strings.getFormatted("log.info.batch-runner-help.1", PROPERTY_SHOW_FAILED_TESTS_NAMES, jarFile), + '\n' + '\n');
-    info(Strings.get("log.info.batch-runner-help.2")  + '\n');
-    info(Strings.getFormatted("log.info.batch-runner-help.3", PROPERTY_SHOW_FAILED_TESTS_NAMES), + '\n');
-    info(Strings.get("log.info.batch-runner-help.4")  + '\n');
-    info(Strings.get("log.info.batch-runner-help.5")  + '\n');
+    File resultFile = new File(resultFileName);
+    try {
+      if (CSV_EXTENSION.equalsIgnoreCase(StringUtils.getFilenameExtension(resultFileName))) {
+        resultWriter = new CsvResultWriter(resultFile);
+      }
+      else {
+        resultWriter = new NdjsonResultWriter(resultFile);
+      }
+    }
+    catch (IOException exc) {
+      error(Strings.getFormatted("log.error.result-file", resultFileName, exc.getMessage()) + '\n');
+    }
   }
 
   /**
-   * Runs tests from test class.
+   * Creates record with result of tests of UXF file.
+   *
+   * @param uxfFile tested UXF file.
+   * @param testResult result of ran tests.
+   * @return Record with result of tests.
    */
-  @Override
-  public void run() {
-    clear(); // clears runner
+  protected UmlDiagramTestRecord createRecord(File uxfFile, Result testResult) {
+    List<String> failedMethods = new ArrayList<String>(testResult.getFailureCount());
+    for (Failure failure : testResult.getFailures()) {
+      failedMethods.add(getFailedMethodName(failure));
+    }
 
-    String directoryName = System.getProperty(PROPERTY_DIRECTORY_NAME);
-    if (PRINT_HELP_FILE_NAME.equalsIgnoreCase(directoryName)) {
-      printHelp();
+    return new UmlDiagramTestRecord(uxfFile, testResult.getRunCount(), testResult.getFailureCount(), failedMethods,
+            testResult.getRunTime());
+  }
+
+  /**
+   * Prints result of tests of UXF file which was just tested and processes its record. If the cache is used, the printed output is
+   * captured and stored into cache with the record.
+   *
+   * @param uxfFile tested UXF file.
+   * @param testResult result of ran tests.
+   */
+  protected void printAndProcessResult(File uxfFile, Result testResult) {
+    if (cache != null) {
+      capturedOutput = new StringBuilder();
+    }
+
+    try {
+      printResult(testResult);
+    }
+    finally {
+      String output = (capturedOutput == null) ? null : capturedOutput.toString();
+      capturedOutput = null;
+
+      UmlDiagramTestRecord record = createRecord(uxfFile, testResult);
+      processRecord(uxfFile, record);
+      putCacheEntry(uxfFile, record, output);
+    }
+  }
+
+  /**
+   * Processes record with result of tests of UXF file which was just tested. The record is written into result file and into
+   * journal.
+   *
+   * @param uxfFile tested UXF file.
+   * @param record record with result of tests.
+   */
+  protected void processRecord(File uxfFile, UmlDiagramTestRecord record) {
+    writeResult(record);
+    appendToJournal(uxfFile, record);
+  }
+
+  /**
+   * Writes record with result of tests of UXF file (if the results are written).
+   *
+   * @param record record with result of tests.
+   */
+  protected void writeResult(UmlDiagramTestRecord record) {
+    if (resultWriter == null) {
       return;
     }
 
-    if (!checkDirectoryName()) {
+    try {
+      resultWriter.write(record);
+    }
+    catch (IOException exc) {
+      error(Strings.getFormatted("log.error.result-file", System.getProperty(PROPERTY_RESULT_FILE), exc.getMessage()) + '\n');
+      closeResultWriter(); // results won't be written anymore
+    }
+  }
+
+  /**
+   * Closes writer of results (if the results are written).
+   */
+  protected void closeResultWriter() {
+    if (resultWriter == null) {
       return;
     }
 
-    File[] uxfFiles = getUxfFiles();
-    if (uxfFiles == null || uxfFiles.length == 0) {
-      warn(Strings.get("log.warning.no-ufx-files") + '\n');
+    try {
+      resultWriter.close();
+    }
+    catch (IOException exc) {
+      error(Strings.getFormatted("log.error.result-file", System.getProperty(PROPERTY_RESULT_FILE), exc.getMessage()) + '\n');
+    }
+    finally {
+      resultWriter = null;
+    }
+  }
 
+  /**
+   * Opens journal in file from property {@value #PROPERTY_JOURNAL_FILE} (if the property was set).
+   */
+  protected void openJournal() {
+    String journalFileName = System.getProperty(PROPERTY_JOURNAL_FILE);
+    if (!StringUtils.hasText(journalFileName)) {
       return;
     }
 
-    Class<?> testClass = getTestClass();
-    if (testClass == null) {
+    try {
+      journal = new UmlDiagramTestJournal(new File(journalFileName));
+      if (journal.getRecordsCount() > 0) {
+        info(Strings.getFormatted("log.info.journal-loaded", journal.getRecordsCount(), journalFileName) + "\n\n");
+      }
+    }
+    catch (IOException exc) {
+      error(Strings.getFormatted("log.error.journal-file", journalFileName, exc.getMessage()) + '\n');
+    }
+  }
+
+  /**
+   * Returns hash of content of UXF file. Hashes are computed only once for each file.
+   *
+   * @param uxfFile UXF file.
+   * @return Hash of content of UXF file; <code>null</code> if the file cannot be read.
+   */
+  protected String getUxfFileHash(File uxfFile) {
+    String path = uxfFile.getAbsolutePath();
+    String hash = uxfFilesHashes.get(path);
+    if (hash == null) {
+      try {
+        MessageDigest digest = DigestUtils.newSha256();
+        InputStream is = openUxfFile(uxfFile);
+        try {
+          DigestUtils.update(digest, is);
+        }
+        finally {
+          is.close();
+        }
+
+        hash = DigestUtils.toHex(digest.digest());
+        uxfFilesHashes.put(path, hash);
+      }
+      catch (IOException exc) {
+        return null; // file will be tested (and test will report the error)
+      }
+    }
+
+    return hash;
+  }
+
+  /**
+   * Opens input stream with content of UXF file (UXF file can be on disk or in ZIP archive).
+   *
+   * @param uxfFile UXF file.
+   * @return Input stream with content of UXF file.
+   * @throws IOException If the file cannot be opened.
+   */
+  protected InputStream openUxfFile(File uxfFile) throws IOException {
+    if (uxfFile instanceof UxfZipEntryFile) {
+      return ((UxfZipEntryFile)uxfFile).openStream();
+    }
+
+    return new FileInputStream(uxfFile);
+  }
+
+  /**
+   * Checks the name of UXF file. Files on disk are checked by {@link #checkFileName(String, boolean)}, for UXF files in ZIP
+   * archives is checked only name of entry.
+   *
+   * @param uxfFile checked UXF file.
+   * @param printErrors information whether will be printed errors of checked file.
+   * @return <code>true</code> if the name of file has correct format; <code>false</code> otherwise.
+   */
+  protected boolean checkUxfFile(File uxfFile, boolean printErrors) {
+    if (uxfFile instanceof UxfZipEntryFile) {
+      return checkUxfFileName(uxfFile.getName(), printErrors);
+    }
+
+    return checkFileName(uxfFile.getAbsolutePath(), printErrors);
+  }
+
+  /**
+   * Returns record of UXF file from journal (if the journal is used).
+   *
+   * @param uxfFile UXF file.
+   * @return Record of UXF file; <code>null</code> if the file was not tested yet or it was changed or the journal is not used.
+   */
+  protected UmlDiagramTestRecord getJournalRecord(File uxfFile) {
+    if (journal == null) {
+      return null;
+    }
+
+    String hash = getUxfFileHash(uxfFile);
+    if (hash == null) {
+      return null;
+    }
+
+    return journal.getRecord(uxfFile.getAbsolutePath(), hash);
+  }
+
+  /**
+   * Adds record of UXF file which was already tested into statistics and result file without running of tests.
+   *
+   * @param record record with result of tests.
+   */
+  protected void replayRecord(UmlDiagramTestRecord record) {
+    info(Strings.getFormatted("log.info.test-file-from-journal", record.getTestsCount(), record.getFailuresCount()) + '\n');
+
+    statistics.addRecord(record);
+    writeResult(record);
+  }
+
+  /**
+   * Appends record of tested UXF file into journal (if the journal is used).
+   *
+   * @param uxfFile tested UXF file.
+   * @param record record with result of tests.
+   */
+  protected void appendToJournal(File uxfFile, UmlDiagramTestRecord record) {
+    if (journal == null) {
       return;
     }
 
-    statistics.setTestClass(testClass);
+    String hash = getUxfFileHash(uxfFile);
+    if (hash == null) {
+      return;
+    }
 
-    sortUxfFiles(uxfFiles);
-    for (File uxfFile : uxfFiles) {
-      System.setProperty(PROPERTY_UXF_FILE_NAME, uxfFile.getAbsolutePath()); // sets next testing UXF file
+    try {
+      journal.append(uxfFile.getAbsolutePath(), hash, record);
+    }
+    catch (IOException exc) {
+      error(Strings.getFormatted("log.error.journal-file", System.getProperty(PROPERTY_JOURNAL_FILE), exc.getMessage()) + '\n');
+      closeJournal(); // results won't be journaled anymore
+    }
+  }
 
-      info(Strings.getFormatted("log.info.test-file", uxfFile.getName()) + '\n');
-      if (checkFileName()) {
-        Result result = runTests(testClass);
-        if (result != null) {
-          printResult(result);
-        }
+  /**
+   * Closes journal (if the journal is used).
+   */
+  protected void closeJournal() {
+    if (journal == null) {
+      return;
+    }
+
+    try {
+      journal.close();
+    }
+    catch (IOException exc) {
+      error(Strings.getFormatted("log.error.journal-file", System.getProperty(PROPERTY_JOURNAL_FILE), exc.getMessage()) + '\n');
+    }
+    finally {
+      journal = null;
+    }
+  }
+
+  /**
+   * Opens cache of results in directory from property {@value #PROPERTY_CACHE_DIRECTORY} (if the property was set).
+   *
+   * @param testClass class with tests.
+   */
+  protected void openCache(Class<?> testClass) {
+    String cacheDirectoryName = System.getProperty(PROPERTY_CACHE_DIRECTORY);
+    if (!StringUtils.hasText(cacheDirectoryName)) {
+      return;
+    }
+
+    int cacheSize = DEFAULT_CACHE_SIZE;
+    String cacheSizeValue = System.getProperty(PROPERTY_CACHE_SIZE);
+    if (StringUtils.hasText(cacheSizeValue)) {
+      try {
+        cacheSize = Integer.parseInt(cacheSizeValue.trim());
+      }
+      catch (NumberFormatException exc) {
+        warn(Strings.getFormatted("log.warning.wrong-cache-size", cacheSizeValue, DEFAULT_CACHE_SIZE) + '\n');
+      }
+    }
+
+    try {
+      cache = new UmlDiagramTestResultCache(new File(cacheDirectoryName), cacheSize, getTestsFingerprint(testClass));
+    }
+    catch (IOException exc) {
+      error(Strings.getFormatted("log.error.cache-directory", cacheDirectoryName, exc.getMessage()) + '\n');
+    }
+  }
+
+  /**
+   * Returns fingerprint of tests. The fingerprint is made from bytes of test class (which is generated from configuration of tests
+   * generator), from configuration of tests generator (if it's available on class path), from settings which change printed output
+   * of tests (shown names of failed methods, locale of messages and type of XML parser) and from version of core of tests.
+   *
+   * @param testClass class with tests.
+   * @return Fingerprint of tests.
+   * @throws IOException If the test class or the core of tests cannot be read.
+   */
+  protected String getTestsFingerprint(Class<?> testClass) throws IOException {
+    MessageDigest digest = DigestUtils.newSha256();
+    digest.update(CACHE_VERSION.getBytes("UTF-8"));
+
+    StringBuilder settings = new StringBuilder();
+    settings.append('\n').append(PROPERTY_SHOW_FAILED_TESTS_NAMES).append('=').append(showFailedTestsNames);
+    settings.append('\n').append("locale=").append(Locale.getDefault());
+    settings.append('\n').append("parser=").append(UxfReaderFactoryImpl.getInstance().getParserType());
+    settings.append('\n');
+    digest.update(settings.toString().getBytes("UTF-8"));
+
+    updateCoreVersion(digest);
+
+    InputStream is = testClass.getResourceAsStream(testClass.getSimpleName() + ".class");
+    if (is == null) {
+      throw new IOException(testClass.getName());
+    }
+
+    try {
+      DigestUtils.update(digest, is);
+    }
+    finally {
+      is.close();
+    }
 
-        info("\n");
+    is = testClass.getResourceAsStream(TESTS_CONFIGURATION_RESOURCE);
+    if (is != null) {
+      try {
+        DigestUtils.update(digest, is);
+      }
+      finally {
+        is.close();
       }
     }
 
-    if (statistics.getTestsCounterValue() == 0) {
-      warn('\n' + Strings.get("log.warning.no-tests") + '\n');
+    return DigestUtils.toHex(digest.digest());
+  }
+
+  /**
+   * Updates digest by version of core of tests (readers of UXF files and factory of UML elements). If the core is loaded from JAR
+   * file, the content of JAR file is digested, so each build of core has its own version. Otherwise the implementation version of
+   * package of core is digested (if it's available) and changes of core have to be reflected by {@link #CACHE_VERSION}.
+   *
+   * @param digest updated digest.
+   * @throws IOException If the JAR file of core cannot be read.
+   */
+  protected void updateCoreVersion(MessageDigest digest) throws IOException {
+    File coreFile = getCoreFile();
+    if (coreFile != null && coreFile.isFile()) {
+      InputStream is = new FileInputStream(coreFile);
+      try {
+        DigestUtils.update(digest, is);
+      }
+      finally {
+        is.close();
+      }
 
       return;
     }
 
-    info("======================================================================\n\n");
-    statistics.print();
+    Package corePackage = UmlDiagramTestBatchRunner.class.getPackage();
+    String version = (corePackage == null) ? null : corePackage.getImplementationVersion();
+    digest.update(String.valueOf(version).getBytes("UTF-8"));
+  }
+
+  /**
+   * Returns file (JAR file or directory) from which is loaded core of tests.
+   *
+   * @return File from which is loaded core of tests; <code>null</code> if the location of core is unknown.
+   */
+  protected File getCoreFile() {
+    CodeSource codeSource = UmlDiagramTestBatchRunner.class.getProtectionDomain().getCodeSource();
+    if (codeSource == null || codeSource.getLocation() == null) {
+      return null;
+    }
+
+    try {
+      return new File(codeSource.getLocation().toURI());
+    }
+    catch (URISyntaxException exc) {
+      return null;
+    }
+    catch (IllegalArgumentException exc) {
+      return null; // location is not a file (for example nested JAR)
+    }
+  }
+
+  /**
+   * Returns cached result of tests of UXF file (if the cache is used).
+   *
+   * @param uxfFile UXF file.
+   * @return Cached result; <code>null</code> if the result is not cached or the cache is not used.
+   */
+  protected UmlDiagramTestResultCache.Entry getCacheEntry(File uxfFile) {
+    if (cache == null) {
+      return null;
+    }
+
+    String hash = getUxfFileHash(uxfFile);
+    if (hash == null) {
+      return null;
+    }
+
+    return cache.get(uxfFile, hash);
+  }
+
+  /**
+   * Prints cached output of tests of UXF file and adds its record into statistics, result file and journal.
+   *
+   * @param uxfFile tested UXF file.
+   * @param cacheEntry cached result.
+   */
+  protected void replayCacheEntry(File uxfFile, UmlDiagramTestResultCache.Entry cacheEntry) {
+    info("%s", cacheEntry.getOutput());
+
+    UmlDiagramTestRecord record = cacheEntry.getRecord();
+    statistics.addRecord(record);
+    processRecord(uxfFile, record);
+  }
+
+  /**
+   * Stores result of tests of UXF file into cache (if the cache is used).
+   *
+   * @param uxfFile tested UXF file.
+   * @param record record with result of tests.
+   * @param output printed output of tests.
+   */
+  protected void putCacheEntry(File uxfFile, UmlDiagramTestRecord record, String output) {
+    if (cache == null || output == null) {
+      return;
+    }
+
+    String hash = getUxfFileHash(uxfFile);
+    if (hash == null) {
+      return;
+    }
+
+    try {
+      cache.put(hash, record, output);
+    }
+    catch (IOException exc) {
+      error(Strings.getFormatted("log.error.cache-directory", System.getProperty(PROPERTY_CACHE_DIRECTORY), exc.getMessage()) + '\n');
+      cache = null; // results won't be cached anymore
+    }
   }
 
   /**
@@ -125,13 +1322,15 @@ public class UmlDiagramTestBatchRunner extends UmlDiagramTestRunner {
    */
   protected void clear() {
     statistics.clear();
+    pipelineTimes = null;
+    uxfFilesHashes.clear();
   }
 
   /**
-   * Checks if directory with UXF files was set and if exists and is directory.
+   * Checks if directory with UXF files was set and if exists and is directory (or ZIP archive).
    *
-   * @return <code>true</code> if file name in property {@value #PROPERTY_DIRECTORY_NAME} was set and if exists and is directory;
-   *         <code>false</code> otherwise.
+   * @return <code>true</code> if file name in property {@value #PROPERTY_DIRECTORY_NAME} was set and if exists and is directory or
+   *         ZIP archive; <code>false</code> otherwise.
    */
   protected boolean checkDirectoryName() {
     String directoryName = System.getProperty(PROPERTY_DIRECTORY_NAME);
@@ -148,7 +1347,7 @@ public class UmlDiagramTestBatchRunner extends UmlDiagramTestRunner {
       return false;
     }
 
-    if (!directory.isDirectory()) {
+    if (!directory.isDirectory() && !(directory.isFile() && UxfZipUtils.isZipFileName(directoryName))) {
       error(Strings.getFormatted("log.error.path-is-not-a-folder", directoryName) + '\n');
 
       return false;
@@ -158,16 +1357,52 @@ public class UmlDiagramTestBatchRunner extends UmlDiagramTestRunner {
   }
 
   /**
-   * Returns array of UXF files in directory with UXF files.
+   * Returns array of UXF files in directory with UXF files. If the directory is ZIP archive, returns UXF files from the archive
+   * (and from nested archives) which are read directly from the archive. The archive is opened only once and it stays opened until
+   * {@link #closeZipArchive()} is called.
    *
-   * @return Array of UXF files.
+   * @return Array of UXF files; <code>null</code> if the ZIP archive cannot be read.
    */
   protected File[] getUxfFiles() {
     File directory = new File(System.getProperty(PROPERTY_DIRECTORY_NAME));
+    if (directory.isFile()) {
+      closeZipArchive(); // archive from previous run
+      try {
+        zipArchive = new UxfZipArchive(directory);
+        List<UxfZipEntryFile> uxfFiles = UxfZipUtils.listUxfFiles(zipArchive);
+
+        return uxfFiles.toArray(new File[uxfFiles.size()]);
+      }
+      catch (IOException exc) {
+        error(Strings.getFormatted("log.error.zip-file", directory.getPath(), exc.getMessage()) + '\n');
+        closeZipArchive();
+
+        return null;
+      }
+    }
 
     return directory.listFiles(UxfFilenameFilter.getInstance());
   }
 
+  /**
+   * Closes tested ZIP archive (if UXF files are tested from ZIP archive).
+   */
+  protected void closeZipArchive() {
+    if (zipArchive == null) {
+      return;
+    }
+
+    try {
+      zipArchive.close();
+    }
+    catch (IOException exc) {
+      error(Strings.getFormatted("log.error.zip-file", zipArchive.getFile().getPath(), exc.getMessage()) + '\n');
+    }
+    finally {
+      zipArchive = null;
+    }
+  }
+
   /**
    * Sorts array of UXF files.
    *
@@ -214,19 +1449,7 @@ public class UmlDiagramTestBatchRunner extends UmlDiagramTestRunner {
       info(Strings.getFormatted("log.info.number-of-failures", testResult.getFailureCount()), + '\n');
       info(Strings.get("log.info.list-of-failures") + '\n');
       for (Failure failure : testResult.getFailures()) {
-        Description testDescription = failure.getDescription();
-        String className = testDescription.getClassName();
-        String methodName = testDescription.getMethodName();
-        if (methodName == null && className != null) {
-          StackTraceElement[] stackTrace = failure.getException().getStackTrace();
-          for (int i = 0; i < stackTrace.length; i++) {
-            StackTraceElement element = stackTrace[i];
-            if (className.equals(element.getClassName())) {
-              methodName = element.getMethodName();
-              break;
-            }
-          }
-        }
+        String methodName = getFailedMethodName(failure);
 
         statistics.addFailedMethod(methodName);
 
@@ -256,6 +1479,32 @@ public class UmlDiagramTestBatchRunner extends UmlDiagramTestRunner {
     }
 
 //    info("\nTest trval: %dms\n", testResult.getRunTime());
-    statistics.addSpentTime(testResult.getRunTime());
+    statistics.addSubmissionTime(testResult.getRunTime());
+  }
+
+  /**
+   * Returns name of failed test method. If the failure doesn't describe method (for example failure of method which is run before
+   * class), the name is found in stack trace of failure.
+   *
+   * @param failure failure of test.
+   * @return Name of failed test method; <code>null</code> if the name was not found.
+   */
+  protected String getFailedMethodName(Failure failure) {
+    Description testDescription = failure.getDescription();
+    String className = testDescription.getClassName();
+    String methodName = testDescription.getMethodName();
+    if (methodName == null && className != null) {
+      StackTraceElement[] stackTrace = failure.getException().getStackTrace();
+      for (int i = 0; i < stackTrace.length; i++) {
+        StackTraceElement element = stackTrace[i];
+        if (className.equals(element.getClassName())) {
+          methodName = element.getMethodName();
+          break;
+        }
+      }
+    }
+
+    return methodName;
   }
+
 }
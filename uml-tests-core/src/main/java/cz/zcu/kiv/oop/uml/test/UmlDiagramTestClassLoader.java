@@ -0,0 +1,152 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+/**
+ * Class loader which defines its own copy of test class (and its inner classes). Other classes are loaded by parent class loader.
+ * Generated test classes keep tested diagram in static fields so each worker of batch runner needs its own copy of test class.
+ * <p>
+ * Class files of test class can be read from other source than parent class loader (for example from JAR file of assignment), so
+ * test classes of more assignments (which have same name) can be loaded in one JVM and share classes of parent class loader.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestClassLoader extends ClassLoader {
+
+  /** Size of buffer for reading of class files. */
+  protected static final int BUFFER_SIZE = 8192;
+
+  /** Full name of test class. */
+  protected final String testClassName;
+  /** Class loader from which are read class files of test class and resources. */
+  protected final ClassLoader source;
+
+  /**
+   * Constructs class loader for test class.
+   *
+   * @param testClass test class loaded by parent class loader.
+   */
+  public UmlDiagramTestClassLoader(Class<?> testClass) {
+    this(testClass.getClassLoader(), testClass.getName(), testClass.getClassLoader());
+  }
+
+  /**
+   * Constructs class loader for test class whose class files are read from given source.
+   *
+   * @param parent parent class loader which loads other classes than test class.
+   * @param testClassName full name of test class.
+   * @param source class loader from which are read class files of test class and resources.
+   */
+  public UmlDiagramTestClassLoader(ClassLoader parent, String testClassName, ClassLoader source) {
+    super(parent);
+
+    this.testClassName = testClassName;
+    this.source = source;
+  }
+
+  /**
+   * Returns copy of test class defined by this class loader.
+   *
+   * @return Copy of test class.
+   * @throws ClassNotFoundException If the test class cannot be defined.
+   */
+  public Class<?> loadTestClass() throws ClassNotFoundException {
+    return loadClass(testClassName);
+  }
+
+  /**
+   * Loads class with given name. Test class and its inner classes are defined by this class loader.
+   *
+   * @param name full name of loaded class.
+   * @param resolve information whether the class will be resolved.
+   * @return Loaded class.
+   * @throws ClassNotFoundException If the class was not found.
+   */
+  @Override
+  protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+    if (!isTestClass(name)) {
+      return super.loadClass(name, resolve);
+    }
+
+    Class<?> clazz = findLoadedClass(name);
+    if (clazz == null) {
+      byte[] bytes = readClassBytes(name);
+      clazz = defineClass(name, bytes, 0, bytes.length, getClass().getProtectionDomain());
+    }
+
+    if (resolve) {
+      resolveClass(clazz);
+    }
+
+    return clazz;
+  }
+
+  /**
+   * Checks whether the class with given name is test class or its inner class.
+   *
+   * @param name full name of class.
+   * @return <code>true</code> if the class is test class or its inner class; <code>false</code> otherwise.
+   */
+  protected boolean isTestClass(String name) {
+    return name.equals(testClassName) || name.startsWith(testClassName + "$");
+  }
+
+  /**
+   * Finds resource with given name. If the source of test class is not parent class loader, the resource is searched in the source
+   * first (so the test class and its configuration are found in the source).
+   *
+   * @param name name of resource.
+   * @return URL of resource; <code>null</code> if the resource was not found.
+   */
+  @Override
+  public URL getResource(String name) {
+    if (source != getParent()) {
+      URL url = source.getResource(name);
+      if (url != null) {
+        return url;
+      }
+    }
+
+    return super.getResource(name);
+  }
+
+  /**
+   * Reads bytes of class file from source of test class.
+   *
+   * @param name full name of class.
+   * @return Bytes of class file.
+   * @throws ClassNotFoundException If the class file was not found or cannot be read.
+   */
+  protected byte[] readClassBytes(String name) throws ClassNotFoundException {
+    InputStream is = source.getResourceAsStream(name.replace('.', '/') + ".class");
+    if (is == null) {
+      throw new ClassNotFoundException(name);
+    }
+
+    try {
+      ByteArrayOutputStream os = new ByteArrayOutputStream(BUFFER_SIZE);
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int count;
+      while ((count = is.read(buffer)) != -1) {
+        os.write(buffer, 0, count);
+      }
+
+      return os.toByteArray();
+    }
+    catch (IOException exc) {
+      throw new ClassNotFoundException(name, exc);
+    }
+    finally {
+      try {
+        is.close();
+      }
+      catch (IOException exc) {
+        // nevermind
+      }
+    }
+  }
+
+}
@@ -0,0 +1,258 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.util.StreamUtils;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactory;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactoryImpl;
+import cz.zcu.kiv.oop.uxf.exception.UxfException;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+import cz.zcu.kiv.oop.uxf.util.UxfZipEntryFile;
+
+/**
+ * Grading context of one tested UXF file. The context is bound to the thread which runs tests of the file so more files can be
+ * tested in parallel without sharing of JVM-global system property {@value UmlDiagramTestRunner#PROPERTY_UXF_FILE_NAME}. The
+ * context can also carry UML diagram which was already read from the file (or error which occurs during its reading) so tests don't
+ * have to read the file again.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestContext {
+
+  /** Context bound to the current thread. */
+  protected static final ThreadLocal<UmlDiagramTestContext> CURRENT_CONTEXT = new ThreadLocal<UmlDiagramTestContext>();
+
+  /** Name of tested UXF file. */
+  protected final String fileName;
+  /** UML diagram read from tested UXF file; <code>null</code> if the diagram was not read yet. */
+  protected final UmlDiagram diagram;
+  /** Error which occurs during reading of UML diagram; <code>null</code> if no error occurs. */
+  protected final Throwable diagramError;
+  /** Projection which determines parts of UML diagram read by tests. */
+  protected final UmlElementProjection projection;
+
+  /**
+   * Constructs context for tested UXF file. UML diagram will be read by tests.
+   *
+   * @param fileName name of tested UXF file.
+   */
+  public UmlDiagramTestContext(String fileName) {
+    this(fileName, UmlElementProjection.ALL);
+  }
+
+  /**
+   * Constructs context for tested UXF file. Projection of UML diagram will be read by tests.
+   *
+   * @param fileName name of tested UXF file.
+   * @param projection projection which determines parts of UML diagram read by tests.
+   */
+  public UmlDiagramTestContext(String fileName, UmlElementProjection projection) {
+    this.fileName = fileName;
+    this.diagram = null;
+    this.diagramError = null;
+    this.projection = projection;
+  }
+
+  /**
+   * Constructs context for tested UXF file with already read UML diagram.
+   *
+   * @param fileName name of tested UXF file.
+   * @param diagram UML diagram read from tested UXF file; <code>null</code> if the diagram will be read by tests.
+   * @param diagramError error which occurs during reading of UML diagram; <code>null</code> if no error occurs.
+   */
+  public UmlDiagramTestContext(String fileName, UmlDiagram diagram, Throwable diagramError) {
+    this.fileName = fileName;
+    this.diagram = diagram;
+    this.diagramError = diagramError;
+    this.projection = UmlElementProjection.ALL;
+  }
+
+  /**
+   * Returns name of tested UXF file.
+   *
+   * @return Name of tested UXF file.
+   */
+  public String getFileName() {
+    return fileName;
+  }
+
+  /**
+   * Returns UML diagram of tested UXF file. If the diagram was not read yet, its projection is read from the file. If some error
+   * occurs during reading of the diagram before, the error is thrown again (with stack trace of the current thread).
+   *
+   * @return UML diagram of tested UXF file.
+   * @throws UxfException If some error occurs during reading of UML diagram.
+   */
+  public UmlDiagram getDiagram() throws UxfException {
+    if (diagramError != null) {
+      diagramError.fillInStackTrace();
+      if (diagramError instanceof UxfException) {
+        throw (UxfException)diagramError;
+      }
+      if (diagramError instanceof RuntimeException) {
+        throw (RuntimeException)diagramError;
+      }
+
+      throw (Error)diagramError;
+    }
+
+    if (diagram == null) {
+      return readDiagram(fileName, projection);
+    }
+
+    return diagram;
+  }
+
+  /**
+   * Returns context bound to the current thread.
+   *
+   * @return Context bound to the current thread; <code>null</code> if no context was bound.
+   */
+  public static UmlDiagramTestContext getCurrentContext() {
+    return CURRENT_CONTEXT.get();
+  }
+
+  /**
+   * Binds context to the current thread.
+   *
+   * @param context context which will be bound to the current thread.
+   */
+  public static void setCurrentContext(UmlDiagramTestContext context) {
+    CURRENT_CONTEXT.set(context);
+  }
+
+  /**
+   * Removes context bound to the current thread.
+   */
+  public static void clearCurrentContext() {
+    CURRENT_CONTEXT.remove();
+  }
+
+  /**
+   * Returns name of tested UXF file from context bound to the current thread. If no context was bound, the name is read from system
+   * property {@value UmlDiagramTestRunner#PROPERTY_UXF_FILE_NAME} (single runner).
+   *
+   * @return Name of tested UXF file.
+   */
+  public static String getCurrentFileName() {
+    UmlDiagramTestContext context = getCurrentContext();
+    if (context == null) {
+      return System.getProperty(UmlDiagramTestRunner.PROPERTY_UXF_FILE_NAME);
+    }
+
+    return context.getFileName();
+  }
+
+  /**
+   * Returns UML diagram of tested UXF file from context bound to the current thread. If no context was bound, the diagram is read
+   * from file in system property {@value UmlDiagramTestRunner#PROPERTY_UXF_FILE_NAME} (single runner).
+   *
+   * @return UML diagram of tested UXF file.
+   * @throws UxfException If some error occurs during reading of UML diagram.
+   */
+  public static UmlDiagram getCurrentDiagram() throws UxfException {
+    UmlDiagramTestContext context = getCurrentContext();
+    if (context == null) {
+      return readDiagram(System.getProperty(UmlDiagramTestRunner.PROPERTY_UXF_FILE_NAME));
+    }
+
+    return context.getDiagram();
+  }
+
+  /**
+   * Reads UML diagram from UXF file by reader for version of the file. The file is read only once.
+   *
+   * @param fileName name of UXF file.
+   * @return Read UML diagram.
+   * @throws UxfException If some error occurs during reading of UML diagram.
+   */
+  public static UmlDiagram readDiagram(String fileName) throws UxfException {
+    UxfReaderFactory factory = UxfReaderFactoryImpl.getInstance();
+
+    return factory.readDiagram(fileName);
+  }
+
+  /**
+   * Reads projection of UML diagram from UXF file by reader for version of the file. Parts of UML diagram which are not in
+   * projection are skipped.
+   *
+   * @param fileName name of UXF file.
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram.
+   * @throws UxfException If some error occurs during reading of UML diagram.
+   */
+  public static UmlDiagram readDiagram(String fileName, UmlElementProjection projection) throws UxfException {
+    UxfReaderFactory factory = UxfReaderFactoryImpl.getInstance();
+
+    return factory.readDiagram(fileName, projection);
+  }
+
+  /**
+   * Reads UML diagram from content of UXF file.
+   *
+   * @param uxfContent content of UXF file.
+   * @return Read UML diagram.
+   * @throws UxfException If some error occurs during reading of UML diagram.
+   */
+  public static UmlDiagram readDiagram(byte[] uxfContent) throws UxfException {
+    return readDiagram(uxfContent, null);
+  }
+
+  /**
+   * Reads UML diagram from content of UXF file. The content is read directly without copying into stream.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return Read UML diagram.
+   * @throws UxfException If some error occurs during reading of UML diagram.
+   */
+  public static UmlDiagram readDiagram(byte[] uxfContent, String sourceName) throws UxfException {
+    UxfReaderFactory factory = UxfReaderFactoryImpl.getInstance();
+
+    return factory.readDiagram(uxfContent, sourceName);
+  }
+
+  /**
+   * Reads projection of UML diagram from content of UXF file. Parts of UML diagram which are not in projection are skipped.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram.
+   * @throws UxfException If some error occurs during reading of UML diagram.
+   */
+  public static UmlDiagram readDiagram(byte[] uxfContent, String sourceName, UmlElementProjection projection) throws UxfException {
+    UxfReaderFactory factory = UxfReaderFactoryImpl.getInstance();
+
+    return factory.readDiagram(uxfContent, sourceName, projection);
+  }
+
+  /**
+   * Reads content of UXF file (UXF file can be on disk or in ZIP archive).
+   *
+   * @param uxfFile UXF file.
+   * @return Content of UXF file.
+   * @throws UxfReaderException If the content cannot be read.
+   */
+  public static byte[] readContent(File uxfFile) throws UxfReaderException {
+    try {
+      if (uxfFile instanceof UxfZipEntryFile) {
+        return ((UxfZipEntryFile)uxfFile).readContent();
+      }
+
+      return StreamUtils.copyToByteArray(uxfFile);
+    }
+    catch (FileNotFoundException exc) {
+      throw new UxfReaderException(Strings.getFormatted("exc.uxf.uxf-file-not-found", uxfFile.getPath()), exc);
+    }
+    catch (IOException exc) {
+      throw new UxfReaderException(Strings.get("exc.uxf.io-exception"), exc);
+    }
+  }
+
+}
@@ -0,0 +1,180 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.runner.Result;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uxf.util.UxfZipEntryFile;
+
+/**
+ * Job of testing one UXF file which passes through stages of {@link UmlDiagramTestPipeline}. Each stage fills data for the next
+ * stage and the last stage sets result of ran tests.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestJob {
+
+  /** Name of tested UXF file. */
+  protected final String fileName;
+  /** Tested UXF file in ZIP archive; <code>null</code> if the tested file is on disk. */
+  protected final UxfZipEntryFile zipEntryFile;
+  /** Content of tested UXF file (it's kept only until the UML diagram is read). */
+  protected byte[] content;
+  /** UML diagram read from tested UXF file. */
+  protected UmlDiagram diagram;
+  /** Error which occurs during reading of UML diagram. */
+  protected Throwable diagramError;
+  /** Result of ran tests. */
+  protected Result result;
+  /** Error which occurs during running of tests. */
+  protected Throwable testsError;
+  /** Latch which is released after the job is done. */
+  protected final CountDownLatch done = new CountDownLatch(1);
+
+  /**
+   * Constructs job for tested UXF file.
+   *
+   * @param fileName name of tested UXF file.
+   */
+  public UmlDiagramTestJob(String fileName) {
+    this(fileName, null);
+  }
+
+  /**
+   * Constructs job for tested UXF file in ZIP archive.
+   *
+   * @param fileName name of tested UXF file.
+   * @param zipEntryFile tested UXF file in ZIP archive; <code>null</code> if the tested file is on disk.
+   */
+  public UmlDiagramTestJob(String fileName, UxfZipEntryFile zipEntryFile) {
+    this.fileName = fileName;
+    this.zipEntryFile = zipEntryFile;
+  }
+
+  /**
+   * Returns name of tested UXF file.
+   *
+   * @return Name of tested UXF file.
+   */
+  public String getFileName() {
+    return fileName;
+  }
+
+  /**
+   * Returns tested UXF file in ZIP archive.
+   *
+   * @return Tested UXF file in ZIP archive; <code>null</code> if the tested file is on disk.
+   */
+  public UxfZipEntryFile getZipEntryFile() {
+    return zipEntryFile;
+  }
+
+  /**
+   * Returns tested UXF file.
+   *
+   * @return Tested UXF file (on disk or in ZIP archive).
+   */
+  public File getUxfFile() {
+    if (zipEntryFile != null) {
+      return zipEntryFile;
+    }
+
+    return new File(fileName);
+  }
+
+  /**
+   * Returns content of tested UXF file.
+   *
+   * @return Content of tested UXF file; <code>null</code> if the content was not read (or it's no more needed).
+   */
+  public byte[] getContent() {
+    return content;
+  }
+
+  /**
+   * Sets content of tested UXF file.
+   *
+   * @param content content of tested UXF file.
+   */
+  public void setContent(byte[] content) {
+    this.content = content;
+  }
+
+  /**
+   * Sets UML diagram read from tested UXF file.
+   *
+   * @param diagram UML diagram read from tested UXF file.
+   */
+  public void setDiagram(UmlDiagram diagram) {
+    this.diagram = diagram;
+  }
+
+  /**
+   * Returns error which occurs during reading of UML diagram.
+   *
+   * @return Error which occurs during reading of UML diagram; <code>null</code> if no error occurs.
+   */
+  public Throwable getDiagramError() {
+    return diagramError;
+  }
+
+  /**
+   * Sets error which occurs during reading of UML diagram.
+   *
+   * @param diagramError error which occurs during reading of UML diagram.
+   */
+  public void setDiagramError(Throwable diagramError) {
+    this.diagramError = diagramError;
+  }
+
+  /**
+   * Creates context for running of tests. The context carries read UML diagram so tests don't read the file again.
+   *
+   * @return Context for running of tests.
+   */
+  public UmlDiagramTestContext createContext() {
+    return new UmlDiagramTestContext(fileName, diagram, diagramError);
+  }
+
+  /**
+   * Finishes the job with result of ran tests.
+   *
+   * @param result result of ran tests.
+   */
+  public void finish(Result result) {
+    this.result = result;
+    diagram = null; // diagram is no more needed
+    done.countDown();
+  }
+
+  /**
+   * Finishes the job with error which occurs during running of tests.
+   *
+   * @param testsError error which occurs during running of tests.
+   */
+  public void fail(Throwable testsError) {
+    this.testsError = testsError;
+    diagram = null; // diagram is no more needed
+    done.countDown();
+  }
+
+  /**
+   * Waits until the job is done and returns result of ran tests.
+   *
+   * @return Result of ran tests.
+   * @throws InterruptedException If the current thread was interrupted while waiting.
+   * @throws ExecutionException If some error occurs during running of tests.
+   */
+  public Result awaitResult() throws InterruptedException, ExecutionException {
+    done.await();
+    if (testsError != null) {
+      throw new ExecutionException(testsError);
+    }
+
+    return result;
+  }
+
+}
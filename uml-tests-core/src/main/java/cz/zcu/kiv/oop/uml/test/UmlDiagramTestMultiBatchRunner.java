@@ -0,0 +1,438 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import org.springframework.util.StringUtils;
+
+import cz.zcu.kiv.oop.Strings;
+
+/**
+ * Batch runner which tests UXF files of more assignments in one JVM. Each assignment is JAR file with generated test class (for
+ * example <code>uml-test-05-batch.jar</code>); all test classes have same name so each of them is loaded by its own class loader.
+ * Other classes (parser of UXF files, runner, JUnit) are loaded only once and they are shared by all assignments.
+ * <p>
+ * UXF files are routed to assignments by prefix of file name (<code>NN_</code>) which has to be same as test number of assignment
+ * (attribute <code>Test-Number</code> from manifest of JAR file). Files of each assignment are tested as by
+ * {@link UmlDiagramTestBatchRunner} and statistics are printed for each assignment. If the files are tested in parallel, all
+ * assignments share one pool of threads of pipeline.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestMultiBatchRunner extends UmlDiagramTestBatchRunner {
+
+  /** Name of property for comma separated list of JAR files of assignments (or directories with JAR files). */
+  public static final String PROPERTY_ASSIGNMENTS = "assignments";
+
+  /** Extension of JAR files of assignments. */
+  protected static final String JAR_EXTENSION = "jar";
+  /** Regular expression for name of UXF file which starts with test number. */
+  protected static final String TEST_NUMBER_PREFIX_REGEXP = "^[0-9]{2}_.*$";
+  /** Length of test number in name of UXF file. */
+  protected static final int TEST_NUMBER_LENGTH = 2;
+
+  /** Test class of currently tested assignment; <code>null</code> if no assignment is tested. */
+  protected Class<?> currentTestClass;
+  /** UXF files of currently tested assignment; <code>null</code> if no assignment is tested. */
+  protected File[] currentUxfFiles;
+  /**
+   * Information whether the result file, the journal and the tested ZIP archive are shared by all assignments (they are opened only
+   * once).
+   */
+  protected boolean sharedOutputs;
+
+  /**
+   * Main method which sets property for directory with UXF files whose will be tested from arguments and after that initializes and
+   * starts tests. JAR files of assignments are set by property {@value #PROPERTY_ASSIGNMENTS}.
+   *
+   * @param args arguments of program. For tests is important only one parameter with directory with UXF files whose will be tested.
+   */
+  public static void main(String[] args) {
+    System.setProperty(PROPERTY_DIRECTORY_NAME, ".");
+
+    if (args.length > 0) {
+      System.setProperty(PROPERTY_DIRECTORY_NAME, args[0]);
+    }
+
+    UmlDiagramTestBatchRunner runner = new UmlDiagramTestMultiBatchRunner();
+    runner.run();
+  }
+
+  /**
+   * Prints help.
+   */
+  @Override
+  public void printHelp() {
+    super.printHelp();
+    info(Strings.getFormatted("log.info.batch-runner-help.assignments", PROPERTY_ASSIGNMENTS) + '\n');
+  }
+
+  /**
+   * Runs tests of all assignments. UXF files are divided by test number and each assignment tests its own files.
+   */
+  @Override
+  public void run() {
+    String directoryName = System.getProperty(PROPERTY_DIRECTORY_NAME);
+    if (PRINT_HELP_FILE_NAME.equalsIgnoreCase(directoryName)) {
+      printHelp();
+      return;
+    }
+
+    if (watch || StringUtils.hasText(System.getProperty(PROPERTY_MERGE_STATISTICS))) {
+      error(Strings.getFormatted("log.error.multi-runner-unsupported", watch ? PROPERTY_WATCH : PROPERTY_MERGE_STATISTICS) + '\n');
+
+      return;
+    }
+
+    if (!checkDirectoryName()) {
+      return;
+    }
+
+    Map<String, Class<?>> testClasses = loadAssignments();
+    if (testClasses == null) {
+      return;
+    }
+
+    File[] uxfFiles = super.getUxfFiles();
+    if (uxfFiles == null || uxfFiles.length == 0) {
+      warn(Strings.get("log.warning.no-ufx-files") + '\n');
+      closeZipArchive();
+
+      return;
+    }
+
+    Map<String, List<File>> assignmentsFiles = getAssignmentsFiles(uxfFiles, testClasses);
+
+    super.openResultWriter();
+    super.openJournal();
+    sharedOutputs = true;
+    if (workersCount > 1) {
+      pipelineExecutor = UmlDiagramTestPipeline.newExecutor(workersCount, workersCount);
+    }
+
+    try {
+      for (Entry<String, Class<?>> assignment : testClasses.entrySet()) {
+        List<File> assignmentFiles = assignmentsFiles.get(assignment.getKey());
+        if (assignmentFiles == null) {
+          continue;
+        }
+
+        testNumber = assignment.getKey();
+        currentTestClass = assignment.getValue();
+        currentUxfFiles = assignmentFiles.toArray(new File[assignmentFiles.size()]);
+
+        info("\n" + Strings.getFormatted("log.info.assignment", testNumber, currentUxfFiles.length) + "\n\n");
+        super.run();
+      }
+    }
+    finally {
+      if (pipelineExecutor != null) {
+        pipelineExecutor.shutdownNow();
+        pipelineExecutor = null;
+      }
+
+      sharedOutputs = false;
+      currentTestClass = null;
+      currentUxfFiles = null;
+      closeJournal();
+      closeResultWriter();
+      closeZipArchive();
+    }
+  }
+
+  /**
+   * Loads test classes of assignments from JAR files from property {@value #PROPERTY_ASSIGNMENTS}.
+   *
+   * @return Test classes mapped by test number (sorted by test number); <code>null</code> if some assignment cannot be loaded. If
+   *         more JAR files have same test number, the first one is used.
+   */
+  protected Map<String, Class<?>> loadAssignments() {
+    String assignments = System.getProperty(PROPERTY_ASSIGNMENTS);
+    if (!StringUtils.hasText(assignments)) {
+      error(Strings.getFormatted("log.error.no-assignments", PROPERTY_ASSIGNMENTS) + '\n');
+
+      return null;
+    }
+
+    Map<String, Class<?>> testClasses = new TreeMap<String, Class<?>>();
+    for (File jarFile : getAssignmentsJarFiles(StringUtils.commaDelimitedListToStringArray(assignments))) {
+      try {
+        String assignmentTestNumber = getAssignmentTestNumber(jarFile);
+        if (testClasses.containsKey(assignmentTestNumber)) {
+          // for example simple and batch JAR file of same assignment in one directory
+          warn(Strings.getFormatted("log.warning.duplicate-assignment", assignmentTestNumber, jarFile.getPath()) + '\n');
+          continue;
+        }
+
+        testClasses.put(assignmentTestNumber, loadAssignmentTestClass(jarFile));
+      }
+      catch (Exception exc) { // IOException, ClassNotFoundException
+        error(Strings.getFormatted("log.error.assignment", jarFile.getPath(), exc.getMessage()) + '\n');
+
+        return null;
+      }
+    }
+
+    if (testClasses.isEmpty()) {
+      error(Strings.getFormatted("log.error.no-assignments", PROPERTY_ASSIGNMENTS) + '\n');
+
+      return null;
+    }
+
+    return testClasses;
+  }
+
+  /**
+   * Returns JAR files of assignments. Directories are replaced by JAR files which they contain.
+   *
+   * @param paths paths to JAR files or directories with JAR files.
+   * @return JAR files of assignments.
+   */
+  protected List<File> getAssignmentsJarFiles(String[] paths) {
+    List<File> jarFiles = new ArrayList<File>();
+    for (String path : paths) {
+      if (!StringUtils.hasText(path)) {
+        continue;
+      }
+
+      File file = new File(path.trim());
+      if (file.isDirectory()) {
+        File[] files = file.listFiles(new FileFilter() {
+          @Override
+          public boolean accept(File pathname) {
+            return pathname.isFile() && JAR_EXTENSION.equalsIgnoreCase(StringUtils.getFilenameExtension(pathname.getName()));
+          }
+        });
+
+        if (files != null) {
+          sortUxfFiles(files); // same ordering as for UXF files
+          for (File jarFile : files) {
+            jarFiles.add(jarFile);
+          }
+        }
+      }
+      else {
+        jarFiles.add(file);
+      }
+    }
+
+    return jarFiles;
+  }
+
+  /**
+   * Returns test number of assignment from manifest of its JAR file.
+   *
+   * @param jarFile JAR file of assignment.
+   * @return Test number of assignment.
+   * @throws IOException If the JAR file cannot be read or its manifest doesn't contain test number.
+   */
+  protected String getAssignmentTestNumber(File jarFile) throws IOException {
+    JarFile jar = new JarFile(jarFile);
+    try {
+      Manifest manifest = jar.getManifest();
+      String value = (manifest == null) ? null : manifest.getMainAttributes().getValue(TEST_NUMBER_MANIFEST_PROPERTY);
+      if (!StringUtils.hasText(value)) {
+        throw new IOException(Strings.getFormatted("exc.multi-runner.no-test-number", TEST_NUMBER_MANIFEST_PROPERTY));
+      }
+
+      return value.trim();
+    }
+    finally {
+      jar.close();
+    }
+  }
+
+  /**
+   * Loads test class of assignment from its JAR file. Only the test class (and its inner classes) is loaded from the JAR file, other
+   * classes are loaded by class loader of this runner.
+   *
+   * @param jarFile JAR file of assignment.
+   * @return Test class of assignment.
+   * @throws IOException If the path of JAR file is wrong.
+   * @throws ClassNotFoundException If the JAR file doesn't contain test class.
+   */
+  protected Class<?> loadAssignmentTestClass(File jarFile) throws IOException, ClassNotFoundException {
+    URL url = jarFile.toURI().toURL();
+    ClassLoader source = new URLClassLoader(new URL[] {url}, null); // only content of JAR file
+
+    return new UmlDiagramTestClassLoader(getClass().getClassLoader(), getTestClassName(), source).loadTestClass();
+  }
+
+  /**
+   * Divides UXF files by test number from prefix of file name. Files for which is no assignment are reported and skipped.
+   *
+   * @param uxfFiles UXF files from directory.
+   * @param testClasses test classes of assignments mapped by test number.
+   * @return UXF files of assignments mapped by test number.
+   */
+  protected Map<String, List<File>> getAssignmentsFiles(File[] uxfFiles, Map<String, Class<?>> testClasses) {
+    Map<String, List<File>> assignmentsFiles = new TreeMap<String, List<File>>();
+    for (File uxfFile : uxfFiles) {
+      String fileTestNumber = getFileTestNumber(uxfFile);
+      if (fileTestNumber == null || !testClasses.containsKey(fileTestNumber)) {
+        warn(Strings.getFormatted("log.warning.no-assignment-for-file", uxfFile.getName()) + '\n');
+        continue;
+      }
+
+      List<File> assignmentFiles = assignmentsFiles.get(fileTestNumber);
+      if (assignmentFiles == null) {
+        assignmentFiles = new ArrayList<File>();
+        assignmentsFiles.put(fileTestNumber, assignmentFiles);
+      }
+
+      assignmentFiles.add(uxfFile);
+    }
+
+    return assignmentsFiles;
+  }
+
+  /**
+   * Returns test number from prefix of name of UXF file.
+   *
+   * @param uxfFile UXF file.
+   * @return Test number of UXF file; <code>null</code> if the name of file doesn't start with test number.
+   */
+  protected static String getFileTestNumber(File uxfFile) {
+    String fileName = uxfFile.getName();
+    if (!fileName.matches(TEST_NUMBER_PREFIX_REGEXP)) {
+      return null;
+    }
+
+    return fileName.substring(0, TEST_NUMBER_LENGTH);
+  }
+
+  /**
+   * Returns test class of currently tested assignment.
+   *
+   * @return Test class of currently tested assignment.
+   */
+  @Override
+  protected Class<?> getTestClass() {
+    if (currentTestClass != null) {
+      return currentTestClass;
+    }
+
+    return super.getTestClass();
+  }
+
+  /**
+   * Returns UXF files of currently tested assignment.
+   *
+   * @return Array of UXF files.
+   */
+  @Override
+  protected File[] getUxfFiles() {
+    if (currentUxfFiles != null) {
+      return currentUxfFiles.clone();
+    }
+
+    return super.getUxfFiles();
+  }
+
+  /**
+   * Opens writer of results if it's not shared by all assignments.
+   */
+  @Override
+  protected void openResultWriter() {
+    if (!sharedOutputs) {
+      super.openResultWriter();
+    }
+  }
+
+  /**
+   * Closes writer of results if it's not shared by all assignments.
+   */
+  @Override
+  protected void closeResultWriter() {
+    if (!sharedOutputs) {
+      super.closeResultWriter();
+    }
+  }
+
+  /**
+   * Opens journal if it's not shared by all assignments.
+   */
+  @Override
+  protected void openJournal() {
+    if (!sharedOutputs) {
+      super.openJournal();
+    }
+  }
+
+  /**
+   * Closes journal if it's not shared by all assignments.
+   */
+  @Override
+  protected void closeJournal() {
+    if (!sharedOutputs) {
+      super.closeJournal();
+    }
+  }
+
+  /**
+   * Closes tested ZIP archive if it's not shared by all assignments.
+   */
+  @Override
+  protected void closeZipArchive() {
+    if (!sharedOutputs) {
+      super.closeZipArchive();
+    }
+  }
+
+  /**
+   * Returns name of file into which will be stored snapshot of statistics of currently tested assignment. Test number is added
+   * before extension of file name from property {@value #PROPERTY_STATISTICS_FILE}.
+   *
+   * @return Name of file with statistics of assignment; <code>null</code> if the property was not set.
+   */
+  @Override
+  protected String getStatisticsFileName() {
+    String statisticsFileName = super.getStatisticsFileName();
+    if (!StringUtils.hasText(statisticsFileName) || currentTestClass == null) {
+      return statisticsFileName;
+    }
+
+    String extension = StringUtils.getFilenameExtension(statisticsFileName);
+    if (extension == null) {
+      return statisticsFileName + '-' + testNumber;
+    }
+
+    return StringUtils.stripFilenameExtension(statisticsFileName) + '-' + testNumber + '.' + extension;
+  }
+
+  /**
+   * Prints statistics of currently tested assignment. The standard output stream stays opened for statistics of next assignments.
+   */
+  @Override
+  protected void printStatistics() {
+    info("======================================================================\n\n");
+    try {
+      statistics.print(new FilterOutputStream(System.out) {
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+          out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+          flush();
+        }
+      });
+    }
+    catch (IOException exc) {
+      // This should not happens and if yes... whatever...
+    }
+  }
+
+}
@@ -0,0 +1,320 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.runner.Result;
+
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactory;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactoryImpl;
+
+/**
+ * Staged pipeline for testing of UXF files. Each UXF file passes through three stages:
+ * <ol>
+ * <li>prefetch - one thread which reads content of UXF file into memory (the file is opened only once),</li>
+ * <li>parsing - pool of threads which read UML diagrams (or their projections) from content of UXF files (in one pass with reading
+ * of version),</li>
+ * <li>tests - pool of threads which run tests over read UML diagrams.</li>
+ * </ol>
+ * Stages are connected by bounded queues so stages which are faster wait for slower ones. UML diagram is read only once and passed
+ * to tests by {@link UmlDiagramTestContext}. Time spent in each stage is measured.
+ * <p>
+ * Threads of stages are run by executor which is created for each pipeline or which can be shared by more pipelines (see
+ * {@link #setExecutor(ExecutorService)}).
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public abstract class UmlDiagramTestPipeline {
+
+  /** Capacity of queue between stages for one worker of the next stage. */
+  protected static final int QUEUE_CAPACITY_PER_WORKER = 2;
+
+  /** Job which marks end of jobs in queue. */
+  protected static final UmlDiagramTestJob END_OF_JOBS = new UmlDiagramTestJob(null);
+
+  /** Count of threads which read UML diagrams. */
+  protected final int parseWorkersCount;
+  /** Count of threads which run tests. */
+  protected final int testWorkersCount;
+  /** Queue of jobs which wait for reading of UML diagram. */
+  protected final BlockingQueue<UmlDiagramTestJob> parseQueue;
+  /** Queue of jobs which wait for running of tests. */
+  protected final BlockingQueue<UmlDiagramTestJob> testQueue;
+  /** Count of running threads which read UML diagrams. */
+  protected final AtomicInteger runningParseWorkers;
+
+  /** Time spent in prefetch stage (in nanoseconds). */
+  protected final AtomicLong prefetchTime = new AtomicLong();
+  /** Time spent in parsing stage (in nanoseconds). */
+  protected final AtomicLong parseTime = new AtomicLong();
+  /** Time spent in tests stage (in nanoseconds). */
+  protected final AtomicLong testTime = new AtomicLong();
+
+  /** Projection which determines parts of UML diagrams read by parsing stage. */
+  protected volatile UmlElementProjection projection = UmlElementProjection.ALL;
+
+  /** Executor which runs threads of all stages. */
+  protected ExecutorService executor;
+  /** Information whether the executor is shared by more pipelines (it is not shut down by pipeline). */
+  protected boolean sharedExecutor;
+  /** Running threads of all stages. */
+  protected final List<Future<?>> stages = new ArrayList<Future<?>>();
+  /** Information whether the pipeline was stopped. */
+  protected volatile boolean stopped;
+
+  /**
+   * Constructs pipeline.
+   *
+   * @param parseWorkersCount count of threads which read UML diagrams.
+   * @param testWorkersCount count of threads which run tests.
+   */
+  public UmlDiagramTestPipeline(int parseWorkersCount, int testWorkersCount) {
+    this.parseWorkersCount = Math.max(1, parseWorkersCount);
+    this.testWorkersCount = Math.max(1, testWorkersCount);
+
+    parseQueue = new ArrayBlockingQueue<UmlDiagramTestJob>(this.parseWorkersCount * QUEUE_CAPACITY_PER_WORKER);
+    testQueue = new ArrayBlockingQueue<UmlDiagramTestJob>(this.testWorkersCount * QUEUE_CAPACITY_PER_WORKER);
+    runningParseWorkers = new AtomicInteger(this.parseWorkersCount);
+  }
+
+  /**
+   * Sets projection which determines parts of UML diagrams read by parsing stage. Has to be set before start of processing.
+   *
+   * @param projection projection of UML diagrams.
+   */
+  public void setProjection(UmlElementProjection projection) {
+    this.projection = projection;
+  }
+
+  /**
+   * Sets executor which is shared by more pipelines (for example by pipelines of more assignments), so the threads are not created
+   * for each pipeline. The executor is not shut down by pipeline. Has to be set before start of processing and it has to run all
+   * threads of stages at once (see {@link #newExecutor(int, int)}); pipelines which share executor cannot run at the same time.
+   *
+   * @param executor shared executor which runs threads of all stages.
+   */
+  public void setExecutor(ExecutorService executor) {
+    this.executor = executor;
+    sharedExecutor = (executor != null);
+  }
+
+  /**
+   * Creates executor which runs all threads of stages of pipeline at once.
+   *
+   * @param parseWorkersCount count of threads which read UML diagrams.
+   * @param testWorkersCount count of threads which run tests.
+   * @return Created executor.
+   */
+  public static ExecutorService newExecutor(int parseWorkersCount, int testWorkersCount) {
+    return Executors.newFixedThreadPool(1 + Math.max(1, parseWorkersCount) + Math.max(1, testWorkersCount));
+  }
+
+  /**
+   * Starts processing of jobs. Method doesn't wait for processing of jobs, the result of each job can be obtained by
+   * {@link UmlDiagramTestJob#awaitResult()}.
+   *
+   * @param jobs list of jobs which will be processed; <code>null</code> items are skipped.
+   */
+  public void start(final List<UmlDiagramTestJob> jobs) {
+    if (executor == null) {
+      executor = newExecutor(parseWorkersCount, testWorkersCount);
+    }
+
+    stages.add(executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        runPrefetchStage(jobs);
+      }
+    }));
+
+    for (int i = 0; i < parseWorkersCount; i++) {
+      stages.add(executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          runParseStage();
+        }
+      }));
+    }
+
+    for (int i = 0; i < testWorkersCount; i++) {
+      stages.add(executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          runTestStage();
+        }
+      }));
+    }
+  }
+
+  /**
+   * Stops all threads of pipeline. Unfinished jobs will be never done. Running tests can swallow the interruption of their thread,
+   * so the threads of tests stage are also woken up by end of jobs. Shared executor stays running.
+   */
+  public void shutdown() {
+    stopped = true;
+    for (Future<?> stage : stages) {
+      stage.cancel(true);
+    }
+
+    if (executor != null && !sharedExecutor) {
+      executor.shutdownNow();
+    }
+
+    testQueue.clear();
+    for (int i = 0; i < testWorkersCount; i++) {
+      testQueue.offer(END_OF_JOBS);
+    }
+  }
+
+  /**
+   * Runs prefetch stage which obtains readers for UXF files and passes the jobs to parsing stage.
+   *
+   * @param jobs list of jobs which will be processed.
+   */
+  protected void runPrefetchStage(List<UmlDiagramTestJob> jobs) {
+    try {
+      for (UmlDiagramTestJob job : jobs) {
+        if (job != null) {
+          long start = System.nanoTime();
+          prefetch(job);
+          prefetchTime.addAndGet(System.nanoTime() - start);
+
+          parseQueue.put(job);
+        }
+      }
+
+      for (int i = 0; i < parseWorkersCount; i++) {
+        parseQueue.put(END_OF_JOBS);
+      }
+    }
+    catch (InterruptedException exc) {
+      // pipeline was stopped
+    }
+  }
+
+  /**
+   * Runs parsing stage which reads UML diagrams and passes the jobs to tests stage.
+   */
+  protected void runParseStage() {
+    try {
+      for (UmlDiagramTestJob job = parseQueue.take(); job != END_OF_JOBS; job = parseQueue.take()) {
+        long start = System.nanoTime();
+        parse(job);
+        parseTime.addAndGet(System.nanoTime() - start);
+
+        testQueue.put(job);
+      }
+
+      if (runningParseWorkers.decrementAndGet() == 0) {
+        for (int i = 0; i < testWorkersCount; i++) {
+          testQueue.put(END_OF_JOBS);
+        }
+      }
+    }
+    catch (InterruptedException exc) {
+      // pipeline was stopped
+    }
+  }
+
+  /**
+   * Runs tests stage which runs tests over read UML diagrams and finishes the jobs.
+   */
+  protected void runTestStage() {
+    try {
+      for (UmlDiagramTestJob job = testQueue.take(); job != END_OF_JOBS && !stopped; job = testQueue.take()) {
+        long start = System.nanoTime();
+        try {
+          job.finish(runTests(job.createContext()));
+        }
+        catch (Throwable exc) {
+          job.fail(exc);
+        }
+        testTime.addAndGet(System.nanoTime() - start);
+      }
+    }
+    catch (InterruptedException exc) {
+      // pipeline was stopped
+    }
+  }
+
+  /**
+   * Reads content of tested UXF file into memory. Errors are kept in job and thrown again by tests.
+   *
+   * @param job processed job.
+   */
+  protected void prefetch(UmlDiagramTestJob job) {
+    try {
+      job.setContent(UmlDiagramTestContext.readContent(job.getUxfFile()));
+    }
+    catch (Throwable exc) {
+      job.setDiagramError(exc);
+    }
+  }
+
+  /**
+   * Reads UML diagram from tested UXF file. Errors are kept in job and thrown again by tests.
+   *
+   * @param job processed job.
+   */
+  protected void parse(UmlDiagramTestJob job) {
+    if (job.getDiagramError() != null || job.getContent() == null) {
+      return;
+    }
+
+    try {
+      UxfReaderFactory factory = UxfReaderFactoryImpl.getInstance();
+      job.setDiagram(factory.readDiagram(job.getContent(), job.getFileName(), projection));
+    }
+    catch (Throwable exc) {
+      job.setDiagramError(exc);
+    }
+    finally {
+      job.setContent(null); // content is no more needed
+    }
+  }
+
+  /**
+   * Runs tests in given context. The method is called by threads of tests stage.
+   *
+   * @param context context of tested UXF file.
+   * @return Result of ran tests.
+   * @throws Exception If the tests cannot be run.
+   */
+  protected abstract Result runTests(UmlDiagramTestContext context) throws Exception;
+
+  /**
+   * Returns time spent in prefetch stage.
+   *
+   * @return Time spent in prefetch stage in milliseconds.
+   */
+  public long getPrefetchTime() {
+    return prefetchTime.get() / 1000000L;
+  }
+
+  /**
+   * Returns time spent in parsing stage (sum of times of all threads).
+   *
+   * @return Time spent in parsing stage in milliseconds.
+   */
+  public long getParseTime() {
+    return parseTime.get() / 1000000L;
+  }
+
+  /**
+   * Returns time spent in tests stage (sum of times of all threads).
+   *
+   * @return Time spent in tests stage in milliseconds.
+   */
+  public long getTestTime() {
+    return testTime.get() / 1000000L;
+  }
+
+}
@@ -180,32 +180,63 @@ public class UmlDiagramTestRunner implements Runnable {
    *         <code>false</code> otherwise.
    */
   protected boolean checkFileName() {
-    String fileName = System.getProperty(PROPERTY_UXF_FILE_NAME);
+    return checkFileName(System.getProperty(PROPERTY_UXF_FILE_NAME), true);
+  }
+
+  /**
+   * Checks if testing file was set and if the name of file has correct format. Also tests if the file exists.
+   *
+   * @param fileName name of testing file.
+   * @param printErrors information whether will be printed errors of checked file.
+   * @return <code>true</code> if file name was set and has correct format and exists; <code>false</code> otherwise.
+   */
+  protected boolean checkFileName(String fileName, boolean printErrors) {
     if (!StringUtils.hasText(fileName)) {
-      error(Strings.get("log.error.no-input-file") + '\n');
+      if (printErrors) {
+        error(Strings.get("log.error.no-input-file") + '\n');
+      }
       return false;
     }
 
     File file = new File(fileName);
     if (!file.exists()) {
-      error(Strings.getFormatted("log.error.uxf-file-not-found", fileName) + '\n');
+      if (printErrors) {
+        error(Strings.getFormatted("log.error.uxf-file-not-found", fileName) + '\n');
+      }
       return false;
     }
 
-    fileName = file.getName();
+    return checkUxfFileName(file.getName(), printErrors);
+  }
+
+  /**
+   * Checks if the name of testing file has correct format (extension, pattern and test number). The existence of file is not
+   * checked, so the method can be used for UXF files which are not on disk (for example entries of ZIP archives).
+   *
+   * @param fileName name of testing file (without path).
+   * @param printErrors information whether will be printed errors of checked file.
+   * @return <code>true</code> if the name of file has correct format; <code>false</code> otherwise.
+   */
+  protected boolean checkUxfFileName(String fileName, boolean printErrors) {
     String extension = UxfFilenameFilter.UXF_EXTENSION;
     if (!extension.equalsIgnoreCase(StringUtils.getFilenameExtension(fileName))) {
-      error(Strings.getFormatted("log.error.wrong-file-extension", extension) + '\n');
+      if (printErrors) {
+        error(Strings.getFormatted("log.error.wrong-file-extension", extension) + '\n');
+      }
       return false;
     }
 
     if (!fileName.matches("^[0-9]{2}_[AESPKFRZD][0-9]{2}[BN][0-9]{4}[PK]\\..*$")) {
-      error(Strings.getFormatted("log.error.wrong-file-name", fileName) + '\n');
+      if (printErrors) {
+        error(Strings.getFormatted("log.error.wrong-file-name", fileName) + '\n');
+      }
       return false;
     }
 
     if (!DEFAULT_TEST_NUMBER.equals(testNumber) && !fileName.startsWith(testNumber)) {
-      error(Strings.get("log.error.wrong-test-number-in-file-name") + '\n');
+      if (printErrors) {
+        error(Strings.get("log.error.wrong-test-number-in-file-name") + '\n');
+      }
       return false;
     }
 
@@ -1,6 +1,7 @@
 package cz.zcu.kiv.oop.uml.test;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -10,19 +11,26 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.uml.test.result.UmlDiagramTestRecord;
 import cz.zcu.kiv.oop.util.Counter;
 import cz.zcu.kiv.oop.util.ImmutablePair;
+import cz.zcu.kiv.oop.util.LatencyHistogram;
 import cz.zcu.kiv.oop.util.Pair;
 
 /**
- * Statistics of ran tests in {@link UmlDiagramTestBatchRunner}.
+ * Statistics of ran tests in {@link UmlDiagramTestBatchRunner}. Statistics can be updated by more threads at once.
+ * <p>
+ * Besides counts of tests and failures the statistics contain histograms of latencies of tested submissions (UXF files) and of each
+ * test method, so it's possible to find which tests take the most of time.
  *
  * @author Mr.FrAnTA (Michal Dékány)
  */
@@ -31,6 +39,24 @@ public class UmlDiagramTestStatistics {
   /** Regular expression for test method name. */
   protected static final String TEST_METHOD_REGEXP = "^t[0-9]{7}_.+$";
 
+  /** Key of snapshot for count of ran tests. */
+  protected static final String SNAPSHOT_TESTS = "tests";
+  /** Key of snapshot for count of failed ran tests. */
+  protected static final String SNAPSHOT_FAILED_TESTS = "failedTests";
+  /** Key of snapshot for count of successful ran tests. */
+  protected static final String SNAPSHOT_SUCCESSFUL_TESTS = "successfulTests";
+  /** Key of snapshot for spent time by tests. */
+  protected static final String SNAPSHOT_SPENT_TIME = "spentTime";
+  /** Prefix of keys of snapshot for counts of failed methods. */
+  protected static final String SNAPSHOT_FAILED_METHOD_PREFIX = "failedMethod.";
+  /** Key of snapshot for histogram of latencies of submissions. */
+  protected static final String SNAPSHOT_SUBMISSION_LATENCY = "submissionLatency";
+  /** Prefix of keys of snapshot for histograms of latencies of test methods. */
+  protected static final String SNAPSHOT_METHOD_LATENCY_PREFIX = "methodLatency.";
+
+  /** Printed percentiles of latencies. */
+  protected static final double[] PERCENTILES = {50, 95, 99};
+
   /** Test class for which are made statistics. */
   protected Class<?> testClass;
 
@@ -42,10 +68,15 @@ public class UmlDiagramTestStatistics {
   protected final Counter successfulTestsCounter;
 
   /** Map for counting of failed methods of tests. */
-  protected final Map<String, Counter> failedMethods;
+  protected final ConcurrentMap<String, Counter> failedMethods;
 
   /** Counter for spent time by tests. */
-  protected long spentTime = 0;
+  protected final AtomicLong spentTime;
+
+  /** Histogram of latencies of tested submissions (in microseconds). */
+  protected final LatencyHistogram submissionLatencies;
+  /** Histograms of latencies of test methods (in microseconds) mapped by name of method. */
+  protected final ConcurrentMap<String, LatencyHistogram> methodLatencies;
 
   /**
    * Constructs statistics.
@@ -55,7 +86,12 @@ public class UmlDiagramTestStatistics {
     failedTestsCounter = new Counter();
     successfulTestsCounter = new Counter();
 
-    failedMethods = new HashMap<String, Counter>();
+    failedMethods = new ConcurrentHashMap<String, Counter>();
+
+    spentTime = new AtomicLong();
+
+    submissionLatencies = new LatencyHistogram();
+    methodLatencies = new ConcurrentHashMap<String, LatencyHistogram>();
   }
 
   /**
@@ -70,7 +106,10 @@ public class UmlDiagramTestStatistics {
 
     failedMethods.clear();
 
-    spentTime = 0;
+    spentTime.set(0);
+
+    submissionLatencies.reset();
+    methodLatencies.clear();
   }
 
   /**
@@ -145,7 +184,58 @@ public class UmlDiagramTestStatistics {
    * @param time spent time by test to add.
    */
   public void addSpentTime(long time) {
-    spentTime += time;
+    spentTime.addAndGet(time);
+  }
+
+  /**
+   * Adds time spent by tests of one submission (UXF file). The time is added into spent time and into histogram of latencies of
+   * submissions.
+   *
+   * @param time spent time by tests of submission (in milliseconds).
+   */
+  public void addSubmissionTime(long time) {
+    addSpentTime(time);
+    submissionLatencies.record(time * 1000L);
+  }
+
+  /**
+   * Adds time spent by one run of test method into histogram of latencies of the method.
+   *
+   * @param methodName name of test method; <code>null</code> is ignored.
+   * @param time spent time by test method (in microseconds).
+   */
+  public void addMethodTime(String methodName, long time) {
+    if (methodName != null) {
+      getMethodLatencies(methodName).record(time);
+    }
+  }
+
+  /**
+   * Returns histogram of latencies of test method. The histogram is created if it doesn't exist.
+   *
+   * @param methodName name of test method.
+   * @return Histogram of latencies of test method.
+   */
+  protected LatencyHistogram getMethodLatencies(String methodName) {
+    LatencyHistogram histogram = methodLatencies.get(methodName);
+    if (histogram == null) {
+      LatencyHistogram newHistogram = new LatencyHistogram();
+      histogram = methodLatencies.putIfAbsent(methodName, newHistogram);
+      if (histogram == null) {
+        histogram = newHistogram;
+      }
+    }
+
+    return histogram;
+  }
+
+  /**
+   * Returns histogram of latencies of tested submissions.
+   *
+   * @return Histogram of latencies of tested submissions (in microseconds).
+   */
+  public LatencyHistogram getSubmissionLatencies() {
+    return submissionLatencies;
   }
 
   /**
@@ -154,22 +244,145 @@ public class UmlDiagramTestStatistics {
    * @return Spent time by tests.
    */
   public long getSpentTime() {
-    return spentTime;
+    return spentTime.get();
   }
 
   /**
    * Adds failed method (increases counter for specified method).
    *
-   * @param methodName name of failed method.
+   * @param methodName name of failed method; <code>null</code> (unknown method) is ignored.
    */
   public void addFailedMethod(String methodName) {
+    addFailedMethodCount(methodName, 1);
+  }
+
+  /**
+   * Adds result of tests of one UXF file which was already tested (for example in previous run).
+   *
+   * @param record record with result of tests.
+   */
+  public void addRecord(UmlDiagramTestRecord record) {
+    increaseTestsCounter();
+    if (record.getFailuresCount() == 0) {
+      increaseSuccessfulTestsCounter();
+    }
+    else {
+      increaseFailedTestsCounter();
+      for (String methodName : record.getFailedMethods()) {
+        addFailedMethod(methodName);
+      }
+    }
+
+    addSubmissionTime(record.getRunTime());
+  }
+
+  /**
+   * Adds all values from other statistics into this statistics. Statistics of more parts of tests (for example shards of batch run)
+   * merged together are same as statistics of whole run.
+   *
+   * @param other statistics which will be added.
+   */
+  public void merge(UmlDiagramTestStatistics other) {
+    testsCounter.add(other.testsCounter.getValue());
+    failedTestsCounter.add(other.failedTestsCounter.getValue());
+    successfulTestsCounter.add(other.successfulTestsCounter.getValue());
+
+    for (Entry<String, Counter> method : other.failedMethods.entrySet()) {
+      addFailedMethodCount(method.getKey(), method.getValue().getValue());
+    }
+
+    spentTime.addAndGet(other.spentTime.get());
+
+    submissionLatencies.merge(other.submissionLatencies);
+    for (Entry<String, LatencyHistogram> method : other.methodLatencies.entrySet()) {
+      getMethodLatencies(method.getKey()).merge(method.getValue());
+    }
+  }
+
+  /**
+   * Adds count of fails of method.
+   *
+   * @param methodName name of failed method; <code>null</code> (unknown method) is ignored.
+   * @param count count of fails which will be added.
+   */
+  protected void addFailedMethodCount(String methodName, long count) {
+    if (methodName == null) {
+      return;
+    }
+
     Counter counter = failedMethods.get(methodName);
     if (counter == null) {
-      counter = new Counter();
-      failedMethods.put(methodName, counter);
+      Counter newCounter = new Counter();
+      counter = failedMethods.putIfAbsent(methodName, newCounter);
+      if (counter == null) {
+        counter = newCounter;
+      }
+    }
+
+    counter.add(count);
+  }
+
+  /**
+   * Stores snapshot of statistics (without test class) into output stream. The snapshot can be loaded by
+   * {@link #loadSnapshot(InputStream)} and merged with other statistics.
+   *
+   * @param os output stream into which will be stored the snapshot.
+   * @throws IOException If the snapshot cannot be stored.
+   */
+  public void storeSnapshot(OutputStream os) throws IOException {
+    Properties snapshot = new Properties();
+    snapshot.setProperty(SNAPSHOT_TESTS, String.valueOf(testsCounter.getValue()));
+    snapshot.setProperty(SNAPSHOT_FAILED_TESTS, String.valueOf(failedTestsCounter.getValue()));
+    snapshot.setProperty(SNAPSHOT_SUCCESSFUL_TESTS, String.valueOf(successfulTestsCounter.getValue()));
+    snapshot.setProperty(SNAPSHOT_SPENT_TIME, String.valueOf(spentTime.get()));
+    for (Entry<String, Counter> method : failedMethods.entrySet()) {
+      snapshot.setProperty(SNAPSHOT_FAILED_METHOD_PREFIX + method.getKey(), String.valueOf(method.getValue().getValue()));
+    }
+
+    snapshot.setProperty(SNAPSHOT_SUBMISSION_LATENCY, submissionLatencies.toSnapshot());
+    for (Entry<String, LatencyHistogram> method : methodLatencies.entrySet()) {
+      snapshot.setProperty(SNAPSHOT_METHOD_LATENCY_PREFIX + method.getKey(), method.getValue().toSnapshot());
+    }
+
+    snapshot.store(os, null);
+  }
+
+  /**
+   * Loads snapshot of statistics stored by {@link #storeSnapshot(OutputStream)} and adds its values into this statistics.
+   *
+   * @param is input stream from which will be loaded the snapshot.
+   * @throws IOException If the snapshot cannot be loaded or it's malformed.
+   */
+  public void loadSnapshot(InputStream is) throws IOException {
+    Properties snapshot = new Properties();
+    snapshot.load(is);
+
+    UmlDiagramTestStatistics statistics = new UmlDiagramTestStatistics();
+    try {
+      statistics.testsCounter.add(Long.parseLong(snapshot.getProperty(SNAPSHOT_TESTS, "0")));
+      statistics.failedTestsCounter.add(Long.parseLong(snapshot.getProperty(SNAPSHOT_FAILED_TESTS, "0")));
+      statistics.successfulTestsCounter.add(Long.parseLong(snapshot.getProperty(SNAPSHOT_SUCCESSFUL_TESTS, "0")));
+      statistics.spentTime.set(Long.parseLong(snapshot.getProperty(SNAPSHOT_SPENT_TIME, "0")));
+      if (snapshot.getProperty(SNAPSHOT_SUBMISSION_LATENCY) != null) {
+        statistics.submissionLatencies.loadSnapshot(snapshot.getProperty(SNAPSHOT_SUBMISSION_LATENCY));
+      }
+
+      for (String key : snapshot.stringPropertyNames()) {
+        if (key.startsWith(SNAPSHOT_FAILED_METHOD_PREFIX)) {
+          String methodName = key.substring(SNAPSHOT_FAILED_METHOD_PREFIX.length());
+          statistics.addFailedMethodCount(methodName, Long.parseLong(snapshot.getProperty(key)));
+        }
+        else if (key.startsWith(SNAPSHOT_METHOD_LATENCY_PREFIX)) {
+          String methodName = key.substring(SNAPSHOT_METHOD_LATENCY_PREFIX.length());
+          statistics.getMethodLatencies(methodName).loadSnapshot(snapshot.getProperty(key));
+        }
+      }
+    }
+    catch (IllegalArgumentException exc) { // NumberFormatException or malformed histogram
+      throw new IOException(Strings.get("exc.stats.malformed-snapshot"), exc);
     }
 
-    counter.increase();
+    merge(statistics);
   }
 
   /**
@@ -283,7 +496,9 @@ public class UmlDiagramTestStatistics {
       }
       printLine(osw);
 
-      println(osw, '\n' + Strings.getFormatted("log.info.total-time", spentTime));
+      println(osw, '\n' + Strings.getFormatted("log.info.total-time", spentTime.get()));
+
+      printLatencies(osw);
     }
     catch (IOException exc) {
       throw new IOException(Strings.get("exc.stats.io-exception"), exc);
@@ -307,6 +522,73 @@ public class UmlDiagramTestStatistics {
     }
   }
 
+  /**
+   * Prints percentiles of latencies of submissions and of test methods into specified writer. Test methods are sorted by total time
+   * spent by them (from the slowest one).
+   *
+   * @param writer writer into which will be printed the latencies.
+   * @throws IOException If some I/O error occurs.
+   */
+  protected void printLatencies(Writer writer) throws IOException {
+    if (submissionLatencies.getCount() == 0) {
+      return; // no latencies were recorded (for example statistics from old snapshot)
+    }
+
+    println(writer, '\n' + Strings.getFormatted("log.info.stats.submission-latency", formatLatencies(submissionLatencies)));
+    if (methodLatencies.isEmpty()) {
+      return; // all results were replayed from journal or cache
+    }
+
+    List<Entry<String, LatencyHistogram>> methods = new ArrayList<Entry<String, LatencyHistogram>>(methodLatencies.entrySet());
+    Collections.sort(methods, new Comparator<Entry<String, LatencyHistogram>>() {
+      @Override
+      public int compare(Entry<String, LatencyHistogram> method1, Entry<String, LatencyHistogram> method2) {
+        long sum1 = method1.getValue().getSum();
+        long sum2 = method2.getValue().getSum();
+        if (sum1 != sum2) {
+          return (sum1 > sum2) ? -1 : 1;
+        }
+
+        return method1.getKey().compareTo(method2.getKey());
+      }
+    });
+
+    writer.write('\n' + Strings.get("log.info.stats.method-latencies") + '\n');
+    printLine(writer);
+    for (Entry<String, LatencyHistogram> method : methods) {
+      LatencyHistogram histogram = method.getValue();
+      println(writer, Strings.getFormatted("log.info.stats.method-latency", method.getKey(), formatTime(histogram.getSum()),
+          formatLatencies(histogram)));
+    }
+    printLine(writer);
+  }
+
+  /**
+   * Formats percentiles and maximum of latencies.
+   *
+   * @param histogram histogram of latencies (in microseconds).
+   * @return Formated percentiles and maximum of latencies.
+   */
+  protected String formatLatencies(LatencyHistogram histogram) {
+    StringBuilder latencies = new StringBuilder();
+    for (double percentile : PERCENTILES) {
+      latencies.append(String.format("p%d %s ms, ", (int)percentile, formatTime(histogram.getPercentile(percentile))));
+    }
+    latencies.append(String.format("max %s ms", formatTime(histogram.getMax())));
+
+    return latencies.toString();
+  }
+
+  /**
+   * Formats time in microseconds as milliseconds.
+   *
+   * @param time time in microseconds.
+   * @return Formated time in milliseconds.
+   */
+  protected String formatTime(long time) {
+    return String.format("%.1f", time / 1000.0);
+  }
+
   /**
    * Prints formated text into specified writer.
    *
@@ -0,0 +1,48 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Listener of tests which measures time of each test method and adds it into statistics. One instance of listener can be used only
+ * by one run of tests (test methods are run one by one).
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestTimingListener extends RunListener {
+
+  /** Statistics into which are added times of test methods. */
+  protected final UmlDiagramTestStatistics statistics;
+  /** Time when the running test method was started (in nanoseconds). */
+  protected long startTime;
+
+  /**
+   * Constructs listener.
+   *
+   * @param statistics statistics into which will be added times of test methods.
+   */
+  public UmlDiagramTestTimingListener(UmlDiagramTestStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  /**
+   * Remembers time when the test method was started.
+   *
+   * @param description description of started test method.
+   */
+  @Override
+  public void testStarted(Description description) {
+    startTime = System.nanoTime();
+  }
+
+  /**
+   * Adds time of finished test method into statistics.
+   *
+   * @param description description of finished test method.
+   */
+  @Override
+  public void testFinished(Description description) {
+    statistics.addMethodTime(description.getMethodName(), (System.nanoTime() - startTime) / 1000L);
+  }
+
+}
@@ -0,0 +1,122 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+
+/**
+ * Abstract writer of results which writes records into file channel through buffer with fixed size. The memory used by writer
+ * doesn't depend on count of written records. The buffer is written into channel after each record so the file can be read (for
+ * example by <code>tail -f</code>) during the batch run.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public abstract class AbstractChannelResultWriter implements UmlDiagramTestResultWriter {
+
+  /** Size of buffer for encoded records. */
+  protected static final int BUFFER_SIZE = 8192;
+  /** Charset of written file. */
+  protected static final Charset CHARSET = Charset.forName("UTF-8");
+
+  /** Channel into which are written records. */
+  protected final FileChannel channel;
+  /** Buffer for encoded records. */
+  protected final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  /** Encoder of written characters. */
+  protected final CharsetEncoder encoder = CHARSET.newEncoder();
+  /** Builder of written record. */
+  protected final StringBuilder line = new StringBuilder();
+
+  /**
+   * Constructs writer which writes records into given file. Existing file is overwritten.
+   *
+   * @param file file into which will be written records.
+   * @throws IOException If the file cannot be opened for writing.
+   */
+  public AbstractChannelResultWriter(File file) throws IOException {
+    channel = new FileOutputStream(file).getChannel();
+  }
+
+  /**
+   * Writes record with result of tests of one UXF file.
+   *
+   * @param record written record.
+   * @throws IOException If some error occurs during writing of record.
+   */
+  @Override
+  public void write(UmlDiagramTestRecord record) throws IOException {
+    line.setLength(0);
+    formatRecord(record, line);
+    line.append('\n');
+
+    writeText(line);
+    flushBuffer();
+  }
+
+  /**
+   * Formats record into given builder (without line separator).
+   *
+   * @param record formatted record.
+   * @param builder builder into which will be record formatted.
+   */
+  protected abstract void formatRecord(UmlDiagramTestRecord record, StringBuilder builder);
+
+  /**
+   * Encodes text into buffer. If the buffer is full, it's written into channel.
+   *
+   * @param text written text.
+   * @throws IOException If some error occurs during writing into channel.
+   */
+  protected void writeText(CharSequence text) throws IOException {
+    CharBuffer chars = CharBuffer.wrap(text);
+    while (true) {
+      CoderResult result = encoder.encode(chars, buffer, false);
+      if (result.isOverflow()) {
+        flushBuffer();
+      }
+      else if (result.isError()) {
+        result.throwException();
+      }
+      else {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Writes content of buffer into channel.
+   *
+   * @throws IOException If some error occurs during writing into channel.
+   */
+  protected void flushBuffer() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Writes rest of buffer and closes the channel.
+   *
+   * @throws IOException If some error occurs during writing into channel.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      encoder.encode(CharBuffer.allocate(0), buffer, true);
+      encoder.flush(buffer);
+      flushBuffer();
+    }
+    finally {
+      channel.close();
+    }
+  }
+
+}
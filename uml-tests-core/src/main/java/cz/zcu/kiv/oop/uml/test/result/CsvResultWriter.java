@@ -0,0 +1,82 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writer of results in CSV format. The first line contains header, names of failed methods are separated by space. Unknown names
+ * of failed methods (<code>null</code>) are written as empty strings (as in journal).
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class CsvResultWriter extends AbstractChannelResultWriter {
+
+  /** Header of CSV file. */
+  protected static final String HEADER = "file,testNumber,personalNumber,tests,failures,failedMethods,runTime\n";
+
+  /**
+   * Constructs writer which writes records into given file. Existing file is overwritten.
+   *
+   * @param file file into which will be written records.
+   * @throws IOException If the file cannot be opened for writing.
+   */
+  public CsvResultWriter(File file) throws IOException {
+    super(file);
+
+    writeText(HEADER);
+    flushBuffer();
+  }
+
+  /**
+   * Formats record as line of CSV file.
+   *
+   * @param record formatted record.
+   * @param builder builder into which will be record formatted.
+   */
+  @Override
+  protected void formatRecord(UmlDiagramTestRecord record, StringBuilder builder) {
+    appendValue(builder, record.getFileName());
+    builder.append(',');
+    appendValue(builder, record.getTestNumber());
+    builder.append(',');
+    appendValue(builder, record.getPersonalNumber());
+    builder.append(',').append(record.getTestsCount());
+    builder.append(',').append(record.getFailuresCount());
+    builder.append(',');
+
+    StringBuilder failedMethods = new StringBuilder();
+    List<String> methods = record.getFailedMethods();
+    for (int i = 0; i < methods.size(); i++) {
+      if (i > 0) {
+        failedMethods.append(' ');
+      }
+      if (methods.get(i) != null) {
+        failedMethods.append(methods.get(i));
+      }
+    }
+    appendValue(builder, failedMethods.toString());
+
+    builder.append(',').append(record.getRunTime());
+  }
+
+  /**
+   * Appends value of CSV cell into builder. Values which contain separators or quotes are quoted.
+   *
+   * @param builder builder into which will be appended the value.
+   * @param value appended value.
+   */
+  protected void appendValue(StringBuilder builder, String value) {
+    if (value == null) {
+      return;
+    }
+
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      builder.append(value);
+      return;
+    }
+
+    builder.append('"').append(value.replace("\"", "\"\"")).append('"');
+  }
+
+}
@@ -0,0 +1,95 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writer of results in NDJSON format (one JSON object per line).
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class NdjsonResultWriter extends AbstractChannelResultWriter {
+
+  /**
+   * Constructs writer which writes records into given file. Existing file is overwritten.
+   *
+   * @param file file into which will be written records.
+   * @throws IOException If the file cannot be opened for writing.
+   */
+  public NdjsonResultWriter(File file) throws IOException {
+    super(file);
+  }
+
+  /**
+   * Formats record as JSON object.
+   *
+   * @param record formatted record.
+   * @param builder builder into which will be record formatted.
+   */
+  @Override
+  protected void formatRecord(UmlDiagramTestRecord record, StringBuilder builder) {
+    builder.append("{\"file\":");
+    appendString(builder, record.getFileName());
+    builder.append(",\"testNumber\":");
+    appendString(builder, record.getTestNumber());
+    builder.append(",\"personalNumber\":");
+    appendString(builder, record.getPersonalNumber());
+    builder.append(",\"tests\":").append(record.getTestsCount());
+    builder.append(",\"failures\":").append(record.getFailuresCount());
+    builder.append(",\"failedMethods\":[");
+    List<String> failedMethods = record.getFailedMethods();
+    for (int i = 0; i < failedMethods.size(); i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      appendString(builder, failedMethods.get(i));
+    }
+    builder.append("],\"runTime\":").append(record.getRunTime());
+    builder.append('}');
+  }
+
+  /**
+   * Appends JSON string (or <code>null</code>) into builder.
+   *
+   * @param builder builder into which will be appended the string.
+   * @param value appended string.
+   */
+  protected void appendString(StringBuilder builder, String value) {
+    if (value == null) {
+      builder.append("null");
+      return;
+    }
+
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' :
+          builder.append("\\\"");
+          break;
+        case '\\' :
+          builder.append("\\\\");
+          break;
+        case '\n' :
+          builder.append("\\n");
+          break;
+        case '\r' :
+          builder.append("\\r");
+          break;
+        case '\t' :
+          builder.append("\\t");
+          break;
+        default :
+          if (c < 0x20) {
+            builder.append(String.format("\\u%04x", (int)c));
+          }
+          else {
+            builder.append(c);
+          }
+      }
+    }
+    builder.append('"');
+  }
+
+}
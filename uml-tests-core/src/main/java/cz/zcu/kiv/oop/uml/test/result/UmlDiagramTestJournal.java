@@ -0,0 +1,288 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only journal of tested UXF files. Each line of journal contains path of tested file, hash of its content and result of
+ * its tests. Restarted batch run reads the journal and skips files which were already tested (and which were not changed).
+ * <p>
+ * Line of journal has format (values are separated by tabulator, names of failed methods by comma):
+ *
+ * <pre>
+ *  hash    tests    failures    runTime    failedMethods    path
+ * </pre>
+ *
+ * Incomplete or malformed lines (for example last line of killed run) are ignored.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestJournal implements Closeable {
+
+  /** Charset of journal. */
+  protected static final String CHARSET = "UTF-8";
+  /** Separator of values in line of journal. */
+  protected static final char VALUE_SEPARATOR = '\t';
+  /** Separator of names of failed methods. */
+  protected static final char METHOD_SEPARATOR = ',';
+  /** Count of values in line of journal. */
+  protected static final int VALUES_COUNT = 6;
+
+  /** File with journal. */
+  protected final File file;
+  /** Records of tested files mapped by path of file. */
+  protected final Map<String, Entry> entries = new HashMap<String, Entry>();
+  /** Writer into journal; <code>null</code> if the journal was not opened for appending. */
+  protected Writer writer;
+
+  /**
+   * Constructs journal in given file. Records which are already in journal are read.
+   *
+   * @param file file with journal.
+   * @throws IOException If the journal cannot be read.
+   */
+  public UmlDiagramTestJournal(File file) throws IOException {
+    this.file = file;
+
+    read();
+  }
+
+  /**
+   * Reads records from journal file (if exists).
+   *
+   * @throws IOException If the journal cannot be read.
+   */
+  protected void read() throws IOException {
+    if (!file.exists()) {
+      return;
+    }
+
+    BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET));
+    try {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        Entry entry = parseLine(line);
+        if (entry != null) {
+          entries.put(entry.path, entry);
+        }
+      }
+    }
+    finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Parses line of journal.
+   *
+   * @param line parsed line.
+   * @return Parsed entry; <code>null</code> if the line is malformed.
+   */
+  protected Entry parseLine(String line) {
+    String[] values = line.split(String.valueOf(VALUE_SEPARATOR), VALUES_COUNT);
+    if (values.length != VALUES_COUNT || values[0].length() == 0 || values[5].length() == 0) {
+      return null;
+    }
+
+    try {
+      int testsCount = Integer.parseInt(values[1]);
+      int failuresCount = Integer.parseInt(values[2]);
+      long runTime = Long.parseLong(values[3]);
+
+      List<String> failedMethods = parseFailedMethods(values[4], failuresCount);
+      if (failedMethods == null) {
+        return null;
+      }
+
+      File uxfFile = new File(values[5]);
+      UmlDiagramTestRecord record = new UmlDiagramTestRecord(uxfFile, testsCount, failuresCount, failedMethods, runTime);
+
+      return new Entry(values[5], values[0], record);
+    }
+    catch (NumberFormatException exc) {
+      return null;
+    }
+  }
+
+  /**
+   * Formats names of failed methods (separated by {@value #METHOD_SEPARATOR}) into builder. Unknown names (<code>null</code>) are
+   * formatted as empty strings.
+   *
+   * @param failedMethods names of failed methods.
+   * @param builder builder into which will be names formatted.
+   */
+  protected static void formatFailedMethods(List<String> failedMethods, StringBuilder builder) {
+    for (int i = 0; i < failedMethods.size(); i++) {
+      if (i > 0) {
+        builder.append(METHOD_SEPARATOR);
+      }
+      if (failedMethods.get(i) != null) {
+        builder.append(failedMethods.get(i));
+      }
+    }
+  }
+
+  /**
+   * Parses names of failed methods formatted by {@link #formatFailedMethods(List, StringBuilder)}.
+   *
+   * @param value parsed value.
+   * @param failuresCount expected count of failed methods.
+   * @return Names of failed methods; <code>null</code> if the count of names is not same as expected count.
+   */
+  protected static List<String> parseFailedMethods(String value, int failuresCount) {
+    List<String> failedMethods = new ArrayList<String>(failuresCount);
+    if (failuresCount > 0) {
+      for (String method : value.split(String.valueOf(METHOD_SEPARATOR), -1)) {
+        failedMethods.add(method.length() == 0 ? null : method);
+      }
+    }
+
+    if (failedMethods.size() != failuresCount) {
+      return null;
+    }
+
+    return failedMethods;
+  }
+
+  /**
+   * Returns record of tested file from journal. The record is returned only if the hash of file content is same as hash in journal.
+   *
+   * @param path path of tested file.
+   * @param hash hash of content of tested file.
+   * @return Record of tested file; <code>null</code> if the file is not in journal or it was changed.
+   */
+  public UmlDiagramTestRecord getRecord(String path, String hash) {
+    Entry entry = entries.get(path);
+    if (entry == null || !entry.hash.equals(hash)) {
+      return null;
+    }
+
+    return entry.record;
+  }
+
+  /**
+   * Returns count of records in journal.
+   *
+   * @return Count of records in journal.
+   */
+  public int getRecordsCount() {
+    return entries.size();
+  }
+
+  /**
+   * Appends record of tested file into journal. The record is written immediately.
+   *
+   * @param path path of tested file.
+   * @param hash hash of content of tested file.
+   * @param record record with result of tests.
+   * @throws IOException If the record cannot be written.
+   */
+  public void append(String path, String hash, UmlDiagramTestRecord record) throws IOException {
+    if (writer == null) {
+      writer = openWriter();
+    }
+
+    StringBuilder line = new StringBuilder();
+    line.append(hash).append(VALUE_SEPARATOR);
+    line.append(record.getTestsCount()).append(VALUE_SEPARATOR);
+    line.append(record.getFailuresCount()).append(VALUE_SEPARATOR);
+    line.append(record.getRunTime()).append(VALUE_SEPARATOR);
+
+    formatFailedMethods(record.getFailedMethods(), line);
+    line.append(VALUE_SEPARATOR).append(path).append('\n');
+
+    writer.write(line.toString());
+    writer.flush();
+
+    entries.put(path, new Entry(path, hash, record));
+  }
+
+  /**
+   * Opens writer which appends lines at the end of journal file. If the last line of journal is incomplete, it's terminated so
+   * the appended line is not joined with it.
+   *
+   * @return Opened writer.
+   * @throws IOException If the journal file cannot be opened.
+   */
+  protected Writer openWriter() throws IOException {
+    boolean terminateLine = file.length() > 0 && !endsWithNewLine();
+    Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), CHARSET));
+    if (terminateLine) {
+      writer.write('\n');
+    }
+
+    return writer;
+  }
+
+  /**
+   * Checks whether the journal file ends with line separator.
+   *
+   * @return <code>true</code> if the last character of journal is line separator; <code>false</code> otherwise.
+   * @throws IOException If the journal file cannot be read.
+   */
+  protected boolean endsWithNewLine() throws IOException {
+    FileInputStream is = new FileInputStream(file);
+    try {
+      is.skip(file.length() - 1);
+
+      return is.read() == '\n';
+    }
+    finally {
+      is.close();
+    }
+  }
+
+  /**
+   * Closes the journal.
+   *
+   * @throws IOException If the journal cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+
+  /**
+   * Entry of journal.
+   *
+   * @author Mr.FrAnTA (Michal Dékány)
+   */
+  protected static class Entry {
+
+    /** Path of tested file. */
+    protected final String path;
+    /** Hash of content of tested file. */
+    protected final String hash;
+    /** Record with result of tests. */
+    protected final UmlDiagramTestRecord record;
+
+    /**
+     * Constructs entry of journal.
+     *
+     * @param path path of tested file.
+     * @param hash hash of content of tested file.
+     * @param record record with result of tests.
+     */
+    public Entry(String path, String hash, UmlDiagramTestRecord record) {
+      this.path = path;
+      this.hash = hash;
+      this.record = record;
+    }
+
+  }
+
+}
@@ -0,0 +1,116 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Record with result of tests of one UXF file (one submission) which is written by {@link UmlDiagramTestResultWriter}.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestRecord {
+
+  /** Name of tested UXF file (without path). */
+  protected final String fileName;
+  /** Number of test (assignment) from name of UXF file. */
+  protected final String testNumber;
+  /** Personal number of student from name of UXF file. */
+  protected final String personalNumber;
+  /** Count of ran tests. */
+  protected final int testsCount;
+  /** Count of failures. */
+  protected final int failuresCount;
+  /** Names of failed test methods. */
+  protected final List<String> failedMethods;
+  /** Time spent by tests in milliseconds. */
+  protected final long runTime;
+
+  /**
+   * Constructs record with result of tests.
+   *
+   * @param uxfFile tested UXF file.
+   * @param testsCount count of ran tests.
+   * @param failuresCount count of failures.
+   * @param failedMethods names of failed test methods.
+   * @param runTime time spent by tests in milliseconds.
+   */
+  public UmlDiagramTestRecord(File uxfFile, int testsCount, int failuresCount, List<String> failedMethods, long runTime) {
+    fileName = uxfFile.getName();
+
+    int index1 = fileName.lastIndexOf('_');
+    int index2 = fileName.lastIndexOf('.');
+    testNumber = (index1 >= 2) ? fileName.substring(index1 - 2, index1) : null;
+    personalNumber = (index1 >= 0 && index2 > index1) ? fileName.substring(index1 + 1, index2) : null;
+
+    this.testsCount = testsCount;
+    this.failuresCount = failuresCount;
+    this.failedMethods = Collections.unmodifiableList(new ArrayList<String>(failedMethods));
+    this.runTime = runTime;
+  }
+
+  /**
+   * Returns name of tested UXF file (without path).
+   *
+   * @return Name of tested UXF file.
+   */
+  public String getFileName() {
+    return fileName;
+  }
+
+  /**
+   * Returns number of test (assignment) from name of UXF file.
+   *
+   * @return Number of test; <code>null</code> if the name of file has wrong format.
+   */
+  public String getTestNumber() {
+    return testNumber;
+  }
+
+  /**
+   * Returns personal number of student from name of UXF file.
+   *
+   * @return Personal number of student; <code>null</code> if the name of file has wrong format.
+   */
+  public String getPersonalNumber() {
+    return personalNumber;
+  }
+
+  /**
+   * Returns count of ran tests.
+   *
+   * @return Count of ran tests.
+   */
+  public int getTestsCount() {
+    return testsCount;
+  }
+
+  /**
+   * Returns count of failures.
+   *
+   * @return Count of failures.
+   */
+  public int getFailuresCount() {
+    return failuresCount;
+  }
+
+  /**
+   * Returns unmodifiable list of names of failed test methods.
+   *
+   * @return Names of failed test methods.
+   */
+  public List<String> getFailedMethods() {
+    return failedMethods;
+  }
+
+  /**
+   * Returns time spent by tests.
+   *
+   * @return Time spent by tests in milliseconds.
+   */
+  public long getRunTime() {
+    return runTime;
+  }
+
+}
@@ -0,0 +1,322 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import cz.zcu.kiv.oop.util.DigestUtils;
+
+/**
+ * Persistent cache of results of tests. Results are stored in directory, each result in its own file whose name is derived from
+ * name and hash of content of tested UXF file and from fingerprint of tests (test class and its configuration). Byte-identical UXF
+ * files with same name tested by same tests have same result, so the tests don't have to be run again. The name of file is part of
+ * key because tests check number of test and personal number of student from it.
+ * <p>
+ * Count of cached results is limited; the least recently used results are removed. Time of last use of result is stored as time of
+ * last modification of its file so it's kept between runs.
+ * <p>
+ * File with cached result contains the first line with values separated by tabulator (names of failed methods are separated by
+ * comma) and printed output of tests on next lines:
+ *
+ * <pre>
+ *  tests    failures    runTime    failedMethods
+ *  output...
+ * </pre>
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestResultCache {
+
+  /** Extension of files with cached results. */
+  public static final String CACHE_FILE_EXTENSION = ".result";
+
+  /** Charset of files with cached results. */
+  protected static final String CHARSET = "UTF-8";
+  /** Separator of values in the first line of cached result. */
+  protected static final char VALUE_SEPARATOR = '\t';
+  /** Count of values in the first line of cached result. */
+  protected static final int VALUES_COUNT = 4;
+  /** Size of buffer for reading of cached outputs. */
+  protected static final int BUFFER_SIZE = 1024;
+
+  /** Directory with cached results. */
+  protected final File directory;
+  /** Maximal count of cached results. */
+  protected final int maxEntries;
+  /** Fingerprint of tests (test class and its configuration). */
+  protected final String testsFingerprint;
+  /** Files with cached results mapped by key; ordered from the least recently used. */
+  protected final LinkedHashMap<String, File> index = new LinkedHashMap<String, File>(16, 0.75f, true);
+
+  /**
+   * Constructs cache in given directory. The directory is created if it doesn't exist.
+   *
+   * @param directory directory with cached results.
+   * @param maxEntries maximal count of cached results.
+   * @param testsFingerprint fingerprint of tests (test class and its configuration).
+   * @throws IOException If the directory cannot be created.
+   */
+  public UmlDiagramTestResultCache(File directory, int maxEntries, String testsFingerprint) throws IOException {
+    this.directory = directory;
+    this.maxEntries = Math.max(1, maxEntries);
+    this.testsFingerprint = testsFingerprint;
+
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException(directory.getPath());
+    }
+
+    loadIndex();
+  }
+
+  /**
+   * Loads index of cached results ordered by time of last use.
+   */
+  protected void loadIndex() {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+
+    final long[] lastModified = new long[files.length];
+    Integer[] order = new Integer[files.length];
+    for (int i = 0; i < files.length; i++) {
+      lastModified[i] = files[i].lastModified();
+      order[i] = i;
+    }
+
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer index1, Integer index2) {
+        long time1 = lastModified[index1];
+        long time2 = lastModified[index2];
+
+        return (time1 < time2) ? -1 : ((time1 == time2) ? 0 : 1);
+      }
+    });
+
+    for (Integer i : order) {
+      String name = files[i].getName();
+      if (files[i].isFile() && name.endsWith(CACHE_FILE_EXTENSION)) {
+        index.put(name.substring(0, name.length() - CACHE_FILE_EXTENSION.length()), files[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns key of cached result for UXF file with given name and hash.
+   *
+   * @param uxfFileName name of UXF file (without path).
+   * @param uxfFileHash hash of content of UXF file.
+   * @return Key of cached result.
+   */
+  protected String getKey(String uxfFileName, String uxfFileHash) {
+    return DigestUtils.sha256Hex(testsFingerprint + ':' + uxfFileName + ':' + uxfFileHash);
+  }
+
+  /**
+   * Returns cached result of tests of UXF file.
+   *
+   * @param uxfFile tested UXF file.
+   * @param uxfFileHash hash of content of tested UXF file.
+   * @return Cached result; <code>null</code> if the result is not cached (or it cannot be read).
+   */
+  public Entry get(File uxfFile, String uxfFileHash) {
+    String key = getKey(uxfFile.getName(), uxfFileHash);
+    File file = index.get(key);
+    if (file == null) {
+      return null;
+    }
+
+    try {
+      Entry entry = read(uxfFile, file);
+      if (entry == null) {
+        remove(key);
+      }
+      else {
+        file.setLastModified(System.currentTimeMillis());
+      }
+
+      return entry;
+    }
+    catch (IOException exc) {
+      remove(key);
+
+      return null;
+    }
+  }
+
+  /**
+   * Reads cached result from file.
+   *
+   * @param uxfFile tested UXF file.
+   * @param file file with cached result.
+   * @return Cached result; <code>null</code> if the file is malformed.
+   * @throws IOException If the file cannot be read.
+   */
+  protected Entry read(File uxfFile, File file) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET));
+    try {
+      String line = reader.readLine();
+      if (line == null) {
+        return null;
+      }
+
+      String[] values = line.split(String.valueOf(VALUE_SEPARATOR), VALUES_COUNT);
+      if (values.length != VALUES_COUNT) {
+        return null;
+      }
+
+      int testsCount = Integer.parseInt(values[0]);
+      int failuresCount = Integer.parseInt(values[1]);
+      long runTime = Long.parseLong(values[2]);
+      List<String> failedMethods = UmlDiagramTestJournal.parseFailedMethods(values[3], failuresCount);
+      if (failedMethods == null) {
+        return null;
+      }
+
+      StringBuilder output = new StringBuilder();
+      char[] buffer = new char[BUFFER_SIZE];
+      int count;
+      while ((count = reader.read(buffer)) != -1) {
+        output.append(buffer, 0, count);
+      }
+
+      UmlDiagramTestRecord record = new UmlDiagramTestRecord(uxfFile, testsCount, failuresCount, failedMethods, runTime);
+
+      return new Entry(record, output.toString());
+    }
+    catch (NumberFormatException exc) {
+      return null;
+    }
+    finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Stores result of tests of UXF file into cache. If the cache is full, the least recently used results are removed.
+   *
+   * @param uxfFileHash hash of content of tested UXF file.
+   * @param record record with result of tests.
+   * @param output printed output of tests.
+   * @throws IOException If the result cannot be stored.
+   */
+  public void put(String uxfFileHash, UmlDiagramTestRecord record, String output) throws IOException {
+    String key = getKey(record.getFileName(), uxfFileHash);
+    File file = new File(directory, key + CACHE_FILE_EXTENSION);
+    File tempFile = new File(directory, key + CACHE_FILE_EXTENSION + ".tmp");
+
+    Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), CHARSET);
+    try {
+      StringBuilder line = new StringBuilder();
+      line.append(record.getTestsCount()).append(VALUE_SEPARATOR);
+      line.append(record.getFailuresCount()).append(VALUE_SEPARATOR);
+      line.append(record.getRunTime()).append(VALUE_SEPARATOR);
+      UmlDiagramTestJournal.formatFailedMethods(record.getFailedMethods(), line);
+      line.append('\n');
+
+      writer.write(line.toString());
+      writer.write(output);
+    }
+    finally {
+      writer.close();
+    }
+
+    // replace of file is not atomic on all platforms, so the old file is deleted first
+    if ((file.exists() && !file.delete()) || !tempFile.renameTo(file)) {
+      tempFile.delete();
+      throw new IOException(file.getPath());
+    }
+
+    index.put(key, file);
+    evict();
+  }
+
+  /**
+   * Removes the least recently used results while the count of cached results is greater than maximal count.
+   */
+  protected void evict() {
+    Iterator<Map.Entry<String, File>> iterator = index.entrySet().iterator();
+    while (index.size() > maxEntries && iterator.hasNext()) {
+      File file = iterator.next().getValue();
+      iterator.remove();
+      file.delete();
+    }
+  }
+
+  /**
+   * Removes cached result with given key.
+   *
+   * @param key key of removed result.
+   */
+  protected void remove(String key) {
+    File file = index.remove(key);
+    if (file != null) {
+      file.delete();
+    }
+  }
+
+  /**
+   * Returns count of cached results.
+   *
+   * @return Count of cached results.
+   */
+  public int size() {
+    return index.size();
+  }
+
+  /**
+   * Cached result of tests of UXF file.
+   *
+   * @author Mr.FrAnTA (Michal Dékány)
+   */
+  public static class Entry {
+
+    /** Record with result of tests. */
+    protected final UmlDiagramTestRecord record;
+    /** Printed output of tests. */
+    protected final String output;
+
+    /**
+     * Constructs cached result.
+     *
+     * @param record record with result of tests.
+     * @param output printed output of tests.
+     */
+    public Entry(UmlDiagramTestRecord record, String output) {
+      this.record = record;
+      this.output = output;
+    }
+
+    /**
+     * Returns record with result of tests.
+     *
+     * @return Record with result of tests.
+     */
+    public UmlDiagramTestRecord getRecord() {
+      return record;
+    }
+
+    /**
+     * Returns printed output of tests.
+     *
+     * @return Printed output of tests.
+     */
+    public String getOutput() {
+      return output;
+    }
+
+  }
+
+}
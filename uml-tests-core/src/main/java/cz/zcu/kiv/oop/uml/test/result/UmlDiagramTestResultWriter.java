@@ -0,0 +1,22 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Interface for writers which stream results of tests of UXF files (one record per tested file) in machine-readable format.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public interface UmlDiagramTestResultWriter extends Closeable {
+
+  /**
+   * Writes record with result of tests of one UXF file. The record is written immediately so the output can be read during the
+   * batch run.
+   *
+   * @param record written record.
+   * @throws IOException If some error occurs during writing of record.
+   */
+  public void write(UmlDiagramTestRecord record) throws IOException;
+
+}
@@ -0,0 +1,122 @@
+package cz.zcu.kiv.oop.util;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.InvalidMarkException;
+
+/**
+ * Input stream which reads remaining bytes of byte buffer (also of direct or memory-mapped buffer) without copying of them. The
+ * stream reads its own view of buffer, so the position of given buffer is not changed. The stream supports marking.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class ByteBufferInputStream extends InputStream {
+
+  /** View of read buffer. */
+  protected final ByteBuffer buffer;
+
+  /**
+   * Constructs input stream which reads remaining bytes of byte buffer.
+   *
+   * @param buffer read byte buffer.
+   */
+  public ByteBufferInputStream(ByteBuffer buffer) {
+    this.buffer = buffer.slice();
+  }
+
+  /**
+   * Reads the next byte.
+   *
+   * @return The next byte; <code>-1</code> if there are no remaining bytes.
+   */
+  @Override
+  public int read() {
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+
+    return buffer.get() & 0xFF;
+  }
+
+  /**
+   * Reads bytes into array.
+   *
+   * @param bytes array into which will be read bytes.
+   * @param offset offset in array.
+   * @param length maximal count of read bytes.
+   * @return Count of read bytes; <code>-1</code> if there are no remaining bytes.
+   */
+  @Override
+  public int read(byte[] bytes, int offset, int length) {
+    if (length == 0) {
+      return 0;
+    }
+
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+
+    int count = Math.min(length, buffer.remaining());
+    buffer.get(bytes, offset, count);
+
+    return count;
+  }
+
+  /**
+   * Skips bytes.
+   *
+   * @param count count of bytes which will be skipped.
+   * @return Count of skipped bytes.
+   */
+  @Override
+  public long skip(long count) {
+    int skipped = (int)Math.max(0, Math.min(count, buffer.remaining()));
+    buffer.position(buffer.position() + skipped);
+
+    return skipped;
+  }
+
+  /**
+   * Returns count of remaining bytes.
+   *
+   * @return Count of remaining bytes.
+   */
+  @Override
+  public int available() {
+    return buffer.remaining();
+  }
+
+  /**
+   * Returns information that marking is supported.
+   *
+   * @return Always <code>true</code>.
+   */
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  /**
+   * Marks actual position. The limit is ignored because all bytes are available.
+   *
+   * @param readLimit maximal count of bytes read before reset (ignored).
+   */
+  @Override
+  public synchronized void mark(int readLimit) {
+    buffer.mark();
+  }
+
+  /**
+   * Resets position to the marked position (or to the beginning if no position was marked).
+   */
+  @Override
+  public synchronized void reset() {
+    try {
+      buffer.reset();
+    }
+    catch (InvalidMarkException exc) {
+      buffer.rewind();
+    }
+  }
+
+}
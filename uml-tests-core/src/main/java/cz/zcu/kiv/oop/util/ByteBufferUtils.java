@@ -0,0 +1,84 @@
+package cz.zcu.kiv.oop.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Utilities for reading of files into byte buffers. Large files are memory-mapped so their content is read by parser directly from
+ * page cache without copying. Small files are read into direct buffer which is pooled for each thread (mapping of small files is
+ * more expensive than reading of them).
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class ByteBufferUtils {
+
+  /** Minimal size of file (in bytes) which is memory-mapped. Smaller files are read into pooled buffers. */
+  public static final int MAPPING_THRESHOLD = 256 * 1024;
+  /** Initial size of pooled buffers. */
+  protected static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+  /** Pooled direct buffers of threads; the buffer is reused by next reading of file in the same thread. */
+  protected static final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<ByteBuffer>();
+
+  /**
+   * Private constructor which makes this class "static".
+   */
+  private ByteBufferUtils() {}
+
+  /**
+   * Reads whole content of file into byte buffer. If the size of file is at least {@value #MAPPING_THRESHOLD} bytes, the file is
+   * memory-mapped; otherwise it's read into pooled direct buffer of current thread. The pooled buffer is overwritten by next
+   * reading of file in the same thread, so the returned buffer has to be processed before next call of this method.
+   *
+   * @param file file which will be read.
+   * @return Buffer with content of file (its position is zero and its limit is size of content).
+   * @throws IOException If the file cannot be read.
+   */
+  public static ByteBuffer readFile(File file) throws IOException {
+    FileInputStream is = new FileInputStream(file);
+    try {
+      FileChannel channel = is.getChannel();
+      long size = channel.size();
+      if (size >= MAPPING_THRESHOLD) {
+        // mapped buffer stays valid after closing of channel
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+
+      ByteBuffer buffer = getBuffer((int)size);
+      while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+        // reads until the buffer is full or the end of file is reached
+      }
+      buffer.flip();
+
+      return buffer;
+    }
+    finally {
+      is.close();
+    }
+  }
+
+  /**
+   * Returns pooled direct buffer of current thread which is cleared and limited to specified size. If the pooled buffer is smaller,
+   * new larger buffer is created and pooled instead of it.
+   *
+   * @param size required size of buffer.
+   * @return Pooled direct buffer with specified limit.
+   */
+  protected static ByteBuffer getBuffer(int size) {
+    ByteBuffer buffer = buffers.get();
+    if (buffer == null || buffer.capacity() < size) {
+      int capacity = Math.max(INITIAL_BUFFER_SIZE, Integer.highestOneBit(Math.max(size, 1) - 1) << 1);
+      buffer = ByteBuffer.allocateDirect(capacity);
+      buffers.set(buffer);
+    }
+
+    buffer.clear();
+    buffer.limit(size);
+
+    return buffer;
+  }
+
+}
@@ -0,0 +1,84 @@
+package cz.zcu.kiv.oop.util;
+
+import java.awt.Color;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Utilities for resolving of colors from their names which are used in UXF files. Named colors are looked up in immutable table
+ * which is shared by all threads; hexadecimal colors (<tt>#rrggbb</tt>) are parsed directly. No reflection is used and no
+ * exception is thrown for unknown colors.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class ColorUtils {
+
+  /** Table of named colors; names are compared case-insensitively. */
+  protected static final Map<String, Color> COLORS;
+
+  static {
+    // UMLet resolves named colors by names of constants of AWT colors
+    Map<String, Color> colors = new TreeMap<String, Color>(String.CASE_INSENSITIVE_ORDER);
+    colors.put("WHITE", Color.WHITE);
+    colors.put("LIGHT_GRAY", Color.LIGHT_GRAY);
+    colors.put("GRAY", Color.GRAY);
+    colors.put("DARK_GRAY", Color.DARK_GRAY);
+    colors.put("BLACK", Color.BLACK);
+    colors.put("RED", Color.RED);
+    colors.put("PINK", Color.PINK);
+    colors.put("ORANGE", Color.ORANGE);
+    colors.put("YELLOW", Color.YELLOW);
+    colors.put("GREEN", Color.GREEN);
+    colors.put("MAGENTA", Color.MAGENTA);
+    colors.put("CYAN", Color.CYAN);
+    colors.put("BLUE", Color.BLUE);
+
+    COLORS = Collections.unmodifiableMap(colors);
+  }
+
+  /**
+   * Private constructor which makes this class "static".
+   */
+  private ColorUtils() {}
+
+  /**
+   * Returns color for entered name. The name can be name of AWT color constant (case-insensitive, for example <tt>red</tt> or
+   * <tt>LIGHT_GRAY</tt>) or hexadecimal value of color (<tt>#rrggbb</tt>).
+   *
+   * @param name name of color.
+   * @return Color for entered name; <code>null</code> if the name is not valid name of color.
+   */
+  public static Color getColor(String name) {
+    if (name == null) {
+      return null;
+    }
+
+    if (name.length() == 7 && name.charAt(0) == '#') {
+      return getHexColor(name);
+    }
+
+    return COLORS.get(name);
+  }
+
+  /**
+   * Parses hexadecimal value of color in format <tt>#rrggbb</tt>.
+   *
+   * @param value hexadecimal value of color.
+   * @return Parsed color; <code>null</code> if the value contains character which is not hexadecimal digit.
+   */
+  protected static Color getHexColor(String value) {
+    int rgb = 0;
+    for (int i = 1; i < value.length(); i++) {
+      int digit = Character.digit(value.charAt(i), 16);
+      if (digit < 0) {
+        return null;
+      }
+
+      rgb = (rgb << 4) | digit;
+    }
+
+    return new Color(rgb);
+  }
+
+}
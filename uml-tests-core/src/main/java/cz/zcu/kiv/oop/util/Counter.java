@@ -1,14 +1,16 @@
 package cz.zcu.kiv.oop.util;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Simple counter which provides basic operations.
+ * Simple counter which provides basic operations. Operations are atomic so the counter can be used by more threads.
  *
  * @author Mr.FrAnTA (Michal Dékány)
  */
 public class Counter {
 
   /** Counter value. */
-  protected long value;
+  protected final AtomicLong value;
   /** Initial value of counter. */
   public final long initialValue;
 
@@ -25,7 +27,7 @@ public class Counter {
    * @param initialValue initial value of counter.
    */
   public Counter(long initialValue) {
-    value = initialValue;
+    value = new AtomicLong(initialValue);
     this.initialValue = initialValue;
   }
 
@@ -35,7 +37,7 @@ public class Counter {
    * @return New value of counter (oldValue + 1).
    */
   public long increase() {
-    return ++value;
+    return value.incrementAndGet();
   }
 
   /**
@@ -44,7 +46,17 @@ public class Counter {
    * @return New value of counter (oldValue - 1).
    */
   public long decrease() {
-    return --value;
+    return value.decrementAndGet();
+  }
+
+  /**
+   * Adds given value to value of counter.
+   *
+   * @param delta value which will be added.
+   * @return New value of counter (oldValue + delta).
+   */
+  public long add(long delta) {
+    return value.addAndGet(delta);
   }
 
   /**
@@ -53,7 +65,7 @@ public class Counter {
    * @return Actual value of counter.
    */
   public long getValue() {
-    return value;
+    return value.get();
   }
 
   /**
@@ -71,14 +83,14 @@ public class Counter {
    * @return <code>true</code> if value of counter is equal to zero; <code>false</code> otherwise.
    */
   public boolean isZero() {
-    return value == 0;
+    return value.get() == 0;
   }
 
   /**
    * Resets counter.
    */
   public void reset() {
-    value = initialValue;
+    value.set(initialValue);
   }
 
   /**
@@ -92,7 +104,8 @@ public class Counter {
     final int prime = 31;
     int result = 1;
 
-    result = prime * result + (int)(value ^ (value >>> 32));
+    long actualValue = value.get();
+    result = prime * result + (int)(actualValue ^ (actualValue >>> 32));
 
     return result;
   }
@@ -118,7 +131,7 @@ public class Counter {
     }
 
     Counter other = (Counter)obj;
-    if (value != other.value) {
+    if (value.get() != other.value.get()) {
       return false;
     }
 
@@ -0,0 +1,125 @@
+package cz.zcu.kiv.oop.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utilities for computing of message digests (hashes) of files and data.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class DigestUtils {
+
+  /** Name of SHA-256 algorithm. */
+  public static final String SHA_256 = "SHA-256";
+
+  /** Charset used for hashing of texts. */
+  protected static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  /** Size of buffer for reading of files. */
+  protected static final int BUFFER_SIZE = 8192;
+
+  /** Hexadecimal digits. */
+  protected static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  /**
+   * Private constructor which makes this class "static".
+   */
+  private DigestUtils() {}
+
+  /**
+   * Returns new instance of SHA-256 message digest.
+   *
+   * @return New instance of SHA-256 message digest.
+   */
+  public static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance(SHA_256);
+    }
+    catch (NoSuchAlgorithmException exc) {
+      // SHA-256 has to be supported by every implementation of Java platform
+      throw new IllegalStateException(exc);
+    }
+  }
+
+  /**
+   * Updates message digest by content of file.
+   *
+   * @param digest updated message digest.
+   * @param file file whose content will be added into message digest.
+   * @throws IOException If the file cannot be read.
+   */
+  public static void update(MessageDigest digest, File file) throws IOException {
+    InputStream is = new FileInputStream(file);
+    try {
+      update(digest, is);
+    }
+    finally {
+      is.close();
+    }
+  }
+
+  /**
+   * Updates message digest by content of input stream. The stream is read to the end but it's not closed.
+   *
+   * @param digest updated message digest.
+   * @param is input stream whose content will be added into message digest.
+   * @throws IOException If the stream cannot be read.
+   */
+  public static void update(MessageDigest digest, InputStream is) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int count;
+    while ((count = is.read(buffer)) != -1) {
+      digest.update(buffer, 0, count);
+    }
+  }
+
+  /**
+   * Returns SHA-256 hash of file content as hexadecimal string.
+   *
+   * @param file file whose hash will be returned.
+   * @return Hexadecimal SHA-256 hash of file content.
+   * @throws IOException If the file cannot be read.
+   */
+  public static String sha256Hex(File file) throws IOException {
+    MessageDigest digest = newSha256();
+    update(digest, file);
+
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Returns SHA-256 hash of text (encoded in UTF-8) as hexadecimal string.
+   *
+   * @param text text whose hash will be returned.
+   * @return Hexadecimal SHA-256 hash of text.
+   */
+  public static String sha256Hex(String text) {
+    MessageDigest digest = newSha256();
+    digest.update(text.getBytes(UTF_8));
+
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Converts bytes into hexadecimal string.
+   *
+   * @param bytes converted bytes.
+   * @return Hexadecimal string (two lower-case digits per byte).
+   */
+  public static String toHex(byte[] bytes) {
+    char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+      chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+    }
+
+    return new String(chars);
+  }
+
+}
@@ -0,0 +1,247 @@
+package cz.zcu.kiv.oop.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies which can be updated from more threads. Latencies are stored in buckets with logarithmic size;
+ * each power of two is divided into {@value #SUB_BUCKETS_COUNT} buckets so relative error of percentiles is at most 12.5 %.
+ * Latencies lower than {@value #SUB_BUCKETS_COUNT} are stored exactly.
+ * <p>
+ * Histogram can be stored into string and loaded from it by {@link #toSnapshot()} and {@link #loadSnapshot(String)}, so histograms
+ * from more processes can be merged.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class LatencyHistogram {
+
+  /** Count of buckets for each power of two (it has to be power of two). */
+  protected static final int SUB_BUCKETS_COUNT = 8;
+  /** Binary logarithm of {@value #SUB_BUCKETS_COUNT}. */
+  protected static final int SUB_BUCKETS_BITS = 3;
+  /** Count of all buckets (for all non-negative values of type long). */
+  protected static final int BUCKETS_COUNT = SUB_BUCKETS_COUNT + (63 - SUB_BUCKETS_BITS) * SUB_BUCKETS_COUNT;
+
+  /** Separator of values in snapshot of histogram. */
+  protected static final char SNAPSHOT_SEPARATOR = ';';
+  /** Separator of buckets in snapshot of histogram. */
+  protected static final char SNAPSHOT_BUCKETS_SEPARATOR = ',';
+  /** Separator of index of bucket and its count in snapshot of histogram. */
+  protected static final char SNAPSHOT_BUCKET_SEPARATOR = ':';
+
+  /** Counts of latencies in buckets. */
+  protected final AtomicLongArray buckets = new AtomicLongArray(BUCKETS_COUNT);
+  /** Count of recorded latencies. */
+  protected final AtomicLong count = new AtomicLong();
+  /** Sum of recorded latencies. */
+  protected final AtomicLong sum = new AtomicLong();
+  /** Maximal recorded latency. */
+  protected final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records latency. Negative latency is recorded as zero.
+   *
+   * @param latency recorded latency.
+   */
+  public void record(long latency) {
+    if (latency < 0) {
+      latency = 0;
+    }
+
+    buckets.incrementAndGet(getBucketIndex(latency));
+    count.incrementAndGet();
+    sum.addAndGet(latency);
+    updateMax(latency);
+  }
+
+  /**
+   * Updates maximal recorded latency.
+   *
+   * @param latency recorded latency.
+   */
+  protected void updateMax(long latency) {
+    long current = max.get();
+    while (latency > current && !max.compareAndSet(current, latency)) {
+      current = max.get();
+    }
+  }
+
+  /**
+   * Returns index of bucket for latency.
+   *
+   * @param latency non-negative latency.
+   * @return Index of bucket for latency.
+   */
+  protected static int getBucketIndex(long latency) {
+    if (latency < SUB_BUCKETS_COUNT) {
+      return (int)latency;
+    }
+
+    int exponent = 63 - Long.numberOfLeadingZeros(latency);
+    int subBucket = (int)(latency >>> (exponent - SUB_BUCKETS_BITS)) & (SUB_BUCKETS_COUNT - 1);
+
+    return SUB_BUCKETS_COUNT + (exponent - SUB_BUCKETS_BITS) * SUB_BUCKETS_COUNT + subBucket;
+  }
+
+  /**
+   * Returns the highest latency which belongs into bucket.
+   *
+   * @param index index of bucket.
+   * @return The highest latency which belongs into bucket.
+   */
+  protected static long getBucketUpperBound(int index) {
+    if (index < SUB_BUCKETS_COUNT) {
+      return index;
+    }
+
+    int shift = (index - SUB_BUCKETS_COUNT) / SUB_BUCKETS_COUNT;
+    long subBucket = (index - SUB_BUCKETS_COUNT) % SUB_BUCKETS_COUNT;
+    long lowerBound = (SUB_BUCKETS_COUNT + subBucket) << shift;
+
+    return lowerBound + (1L << shift) - 1;
+  }
+
+  /**
+   * Returns count of recorded latencies.
+   *
+   * @return Count of recorded latencies.
+   */
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * Returns sum of recorded latencies.
+   *
+   * @return Sum of recorded latencies.
+   */
+  public long getSum() {
+    return sum.get();
+  }
+
+  /**
+   * Returns maximal recorded latency.
+   *
+   * @return Maximal recorded latency; 0 if no latency was recorded.
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns percentile of recorded latencies. The returned value is the highest latency of bucket which contains the percentile (but
+   * not greater than maximal recorded latency).
+   *
+   * @param percentile percentile (from 0 to 100).
+   * @return Percentile of recorded latencies; 0 if no latency was recorded.
+   */
+  public long getPercentile(double percentile) {
+    long totalCount = count.get();
+    if (totalCount == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long)Math.ceil(percentile / 100.0 * totalCount));
+    long cumulativeCount = 0;
+    for (int i = 0; i < BUCKETS_COUNT; i++) {
+      cumulativeCount += buckets.get(i);
+      if (cumulativeCount >= rank) {
+        return Math.min(getBucketUpperBound(i), max.get());
+      }
+    }
+
+    return max.get();
+  }
+
+  /**
+   * Adds all latencies recorded by other histogram into this histogram.
+   *
+   * @param other histogram whose latencies will be added.
+   */
+  public void merge(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS_COUNT; i++) {
+      long bucketCount = other.buckets.get(i);
+      if (bucketCount != 0) {
+        buckets.addAndGet(i, bucketCount);
+      }
+    }
+
+    count.addAndGet(other.count.get());
+    sum.addAndGet(other.sum.get());
+    updateMax(other.max.get());
+  }
+
+  /**
+   * Removes all recorded latencies.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS_COUNT; i++) {
+      buckets.set(i, 0);
+    }
+
+    count.set(0);
+    sum.set(0);
+    max.set(0);
+  }
+
+  /**
+   * Returns snapshot of histogram in format <code>count;sum;max;index:count,index:count...</code> (only non-empty buckets are
+   * stored).
+   *
+   * @return Snapshot of histogram.
+   */
+  public String toSnapshot() {
+    StringBuilder snapshot = new StringBuilder();
+    snapshot.append(count.get()).append(SNAPSHOT_SEPARATOR);
+    snapshot.append(sum.get()).append(SNAPSHOT_SEPARATOR);
+    snapshot.append(max.get()).append(SNAPSHOT_SEPARATOR);
+
+    boolean first = true;
+    for (int i = 0; i < BUCKETS_COUNT; i++) {
+      long bucketCount = buckets.get(i);
+      if (bucketCount != 0) {
+        if (!first) {
+          snapshot.append(SNAPSHOT_BUCKETS_SEPARATOR);
+        }
+
+        snapshot.append(i).append(SNAPSHOT_BUCKET_SEPARATOR).append(bucketCount);
+        first = false;
+      }
+    }
+
+    return snapshot.toString();
+  }
+
+  /**
+   * Loads snapshot of histogram created by {@link #toSnapshot()} and adds its latencies into this histogram.
+   *
+   * @param snapshot snapshot of histogram.
+   * @throws IllegalArgumentException If the snapshot is malformed.
+   */
+  public void loadSnapshot(String snapshot) {
+    String[] values = snapshot.split(String.valueOf(SNAPSHOT_SEPARATOR), -1);
+    if (values.length != 4) {
+      throw new IllegalArgumentException(snapshot);
+    }
+
+    LatencyHistogram histogram = new LatencyHistogram();
+    try {
+      histogram.count.set(Long.parseLong(values[0]));
+      histogram.sum.set(Long.parseLong(values[1]));
+      histogram.max.set(Long.parseLong(values[2]));
+      if (values[3].length() > 0) {
+        for (String bucket : values[3].split(String.valueOf(SNAPSHOT_BUCKETS_SEPARATOR))) {
+          int separatorIndex = bucket.indexOf(SNAPSHOT_BUCKET_SEPARATOR);
+          int index = Integer.parseInt(bucket.substring(0, separatorIndex));
+          histogram.buckets.addAndGet(index, Long.parseLong(bucket.substring(separatorIndex + 1)));
+        }
+      }
+    }
+    catch (RuntimeException exc) { // NumberFormatException, IndexOutOfBoundsException
+      throw new IllegalArgumentException(snapshot, exc);
+    }
+
+    merge(histogram);
+  }
+
+}
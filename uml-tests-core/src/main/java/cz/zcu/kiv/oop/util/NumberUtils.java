@@ -0,0 +1,143 @@
+package cz.zcu.kiv.oop.util;
+
+/**
+ * Utilities for parsing of numbers directly from sequences of characters (for example from buffers of SAX handlers) without creating
+ * of strings. Common formats of numbers (integers and decimal numbers without exponent) are parsed directly, other formats are parsed
+ * by {@link Double#parseDouble(String)} and {@link Integer#parseInt(String)}, so results and accepted formats are the same.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class NumberUtils {
+
+  /** Maximal mantissa which can be exactly represented by double. */
+  protected static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+  /** Powers of ten which can be exactly represented by double. */
+  protected static final double[] EXACT_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13,
+    1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  /**
+   * Private constructor which makes this class "static".
+   */
+  private NumberUtils() {}
+
+  /**
+   * Parses double value from part of sequence of characters. Leading and trailing whitespaces are ignored (the same as by
+   * {@link Double#parseDouble(String)}).
+   *
+   * @param chars sequence of characters.
+   * @param start index of the first character of number.
+   * @param end index after the last character of number.
+   * @return Parsed double value.
+   * @throws NumberFormatException If the number has wrong format.
+   */
+  public static double parseDouble(CharSequence chars, int start, int end) throws NumberFormatException {
+    int from = start;
+    int to = end;
+    while (from < to && chars.charAt(from) <= ' ') {
+      from++;
+    }
+    while (to > from && chars.charAt(to - 1) <= ' ') {
+      to--;
+    }
+
+    int index = from;
+    boolean negative = false;
+    if (index < to && (chars.charAt(index) == '-' || chars.charAt(index) == '+')) {
+      negative = chars.charAt(index) == '-';
+      index++;
+    }
+
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = -1;
+    for (; index < to; index++) {
+      char character = chars.charAt(index);
+      if (character >= '0' && character <= '9') {
+        mantissa = mantissa * 10 + (character - '0');
+        digits++;
+        if (fractionDigits >= 0) {
+          fractionDigits++;
+        }
+
+        if (mantissa >= MAX_EXACT_MANTISSA) {
+          return Double.parseDouble(chars.subSequence(start, end).toString());
+        }
+      }
+      else if (character == '.' && fractionDigits < 0) {
+        fractionDigits = 0;
+      }
+      else {
+        return Double.parseDouble(chars.subSequence(start, end).toString());
+      }
+    }
+
+    if (digits == 0 || fractionDigits >= EXACT_POWERS_OF_TEN.length) {
+      return Double.parseDouble(chars.subSequence(start, end).toString());
+    }
+
+    // both mantissa and power of ten are exact, so the division is correctly rounded (the same as parsing)
+    double value = (fractionDigits > 0) ? mantissa / EXACT_POWERS_OF_TEN[fractionDigits] : mantissa;
+
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses double value from sequence of characters.
+   *
+   * @param chars sequence of characters.
+   * @return Parsed double value.
+   * @throws NumberFormatException If the number has wrong format.
+   */
+  public static double parseDouble(CharSequence chars) throws NumberFormatException {
+    return parseDouble(chars, 0, chars.length());
+  }
+
+  /**
+   * Parses integer value from part of sequence of characters. Whitespaces are not allowed (the same as by
+   * {@link Integer#parseInt(String)}).
+   *
+   * @param chars sequence of characters.
+   * @param start index of the first character of number.
+   * @param end index after the last character of number.
+   * @return Parsed integer value.
+   * @throws NumberFormatException If the number has wrong format or it's out of range of integer.
+   */
+  public static int parseInt(CharSequence chars, int start, int end) throws NumberFormatException {
+    int index = start;
+    boolean negative = false;
+    if (index < end && (chars.charAt(index) == '-' || chars.charAt(index) == '+')) {
+      negative = chars.charAt(index) == '-';
+      index++;
+    }
+
+    if (index == end || end - index > 9) {
+      // empty number or number which could be out of range of integer
+      return Integer.parseInt(chars.subSequence(start, end).toString());
+    }
+
+    int value = 0;
+    for (; index < end; index++) {
+      char character = chars.charAt(index);
+      if (character < '0' || character > '9') {
+        return Integer.parseInt(chars.subSequence(start, end).toString());
+      }
+
+      value = value * 10 + (character - '0');
+    }
+
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses integer value from sequence of characters.
+   *
+   * @param chars sequence of characters.
+   * @return Parsed integer value.
+   * @throws NumberFormatException If the number has wrong format or it's out of range of integer.
+   */
+  public static int parseInt(CharSequence chars) throws NumberFormatException {
+    return parseInt(chars, 0, chars.length());
+  }
+
+}
@@ -0,0 +1,59 @@
+package cz.zcu.kiv.oop.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Utilities for reading of input streams and files into memory.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class StreamUtils {
+
+  /** Size of buffer for reading of streams. */
+  protected static final int BUFFER_SIZE = 8192;
+
+  /**
+   * Private constructor which makes this class "static".
+   */
+  private StreamUtils() {}
+
+  /**
+   * Reads whole content of input stream. The stream is not closed.
+   *
+   * @param is input stream which will be read.
+   * @return Content of input stream.
+   * @throws IOException If the stream cannot be read.
+   */
+  public static byte[] copyToByteArray(InputStream is) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream(BUFFER_SIZE);
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int count;
+    while ((count = is.read(buffer)) != -1) {
+      os.write(buffer, 0, count);
+    }
+
+    return os.toByteArray();
+  }
+
+  /**
+   * Reads whole content of file.
+   *
+   * @param file file which will be read.
+   * @return Content of file.
+   * @throws IOException If the file cannot be read.
+   */
+  public static byte[] copyToByteArray(File file) throws IOException {
+    InputStream is = new FileInputStream(file);
+    try {
+      return copyToByteArray(is);
+    }
+    finally {
+      is.close();
+    }
+  }
+
+}
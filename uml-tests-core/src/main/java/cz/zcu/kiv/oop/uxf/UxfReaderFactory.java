@@ -1,6 +1,14 @@
 package cz.zcu.kiv.oop.uxf;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
 import cz.zcu.kiv.oop.uxf.exception.UxfReaderFactoryException;
+import cz.zcu.kiv.oop.uxf.reader.UmlElementVisitor;
+import cz.zcu.kiv.oop.uxf.reader.UxfParserType;
 import cz.zcu.kiv.oop.uxf.reader.UxfReader;
 
 /**
@@ -20,4 +28,183 @@ public interface UxfReaderFactory {
    */
   public UxfReader getReader(String uxfFile) throws UxfReaderFactoryException;
 
+  /**
+   * Returns UXF reader depends on version of UXF content from input stream. The stream is read only to obtain the version (it's not
+   * closed), so the content has to be passed to returned reader by other stream.
+   *
+   * @param uxfStream input stream with content of UXF file for which will be returned reader.
+   * @return UXF reader which can reads UXF files of specified version.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation (for example if cannot be found implementation of
+   *           UXF reader for some version).
+   */
+  public UxfReader getReader(InputStream uxfStream) throws UxfReaderFactoryException;
+
+  /**
+   * Reads UML diagram from UXF file with specified path. The file is opened and read only once; the version of UXF file is read
+   * from the beginning of the same content which is then read by UXF reader for that version.
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @return Read UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  public UmlDiagram readDiagram(String uxfFile) throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads UML diagram from input stream with content of UXF file. The content is read only once; the version of UXF file is read
+   * from the beginning of the stream which is then read by UXF reader for that version. The stream is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @return Read UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(InputStream uxfStream) throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads UML diagram from input stream with content of UXF file (see {@link #readDiagram(InputStream)}). The name of source is used
+   * in error messages.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @return Read UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(InputStream uxfStream, String sourceName) throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads UML diagram from content of UXF file which is stored in memory (for example content of UXF file from ZIP archive). The
+   * content is not copied. The name of source is used in error messages.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @return Read UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(byte[] uxfContent, String sourceName) throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads UML diagram from remaining bytes of buffer with content of UXF file (buffer can be direct or memory-mapped). The content
+   * is not copied and the position of buffer is not changed. The name of source is used in error messages.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @return Read UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(ByteBuffer uxfContent, String sourceName) throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads projection of UML diagram from UXF file with specified path (see {@link #readDiagram(String)}). Parts of UML diagram
+   * which are not in projection are skipped during reading.
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  public UmlDiagram readDiagram(String uxfFile, UmlElementProjection projection)
+    throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads projection of UML diagram from content of UXF file which is stored in memory (see {@link #readDiagram(byte[], String)}).
+   * Parts of UML diagram which are not in projection are skipped during reading.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(byte[] uxfContent, String sourceName, UmlElementProjection projection)
+    throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads projection of UML diagram from remaining bytes of buffer with content of UXF file (see
+   * {@link #readDiagram(ByteBuffer, String)}). Parts of UML diagram which are not in projection are skipped during reading.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(ByteBuffer uxfContent, String sourceName, UmlElementProjection projection)
+    throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads UML elements from UXF file with specified path and passes them to visitor as they are read. No UML diagram is created and
+   * relations are not linked to classes. The reading can be stopped by visitor (for example when the visitor found searched
+   * element).
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  public void readElements(String uxfFile, UmlElementVisitor visitor) throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads UML elements which are in projection from UXF file with specified path and passes them to visitor as they are read (see
+   * {@link #readElements(String, UmlElementVisitor)}).
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  public void readElements(String uxfFile, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads UML elements which are in projection from content of UXF file which is stored in memory and passes them to visitor as
+   * they are read. No UML diagram is created and relations are not linked to classes. The reading can be stopped by visitor.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public void readElements(byte[] uxfContent, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Reads UML elements which are in projection from remaining bytes of buffer with content of UXF file and passes them to visitor as
+   * they are read. No UML diagram is created and relations are not linked to classes. The reading can be stopped by visitor. The
+   * position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public void readElements(ByteBuffer uxfContent, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderFactoryException, UxfReaderException;
+
+  /**
+   * Sets type of XML parser which will be used by returned readers. For versions of UXF files for which there is no reader using
+   * specified type of parser will be returned readers using SAX.
+   *
+   * @param parserType type of XML parser.
+   */
+  public void setParserType(UxfParserType parserType);
+
+  /**
+   * Returns type of XML parser which is used by returned readers.
+   *
+   * @return Type of XML parser.
+   */
+  public UxfParserType getParserType();
+
 }
@@ -1,14 +1,27 @@
 package cz.zcu.kiv.oop.uxf;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.util.StringUtils;
 
 import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.util.ByteBufferUtils;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
 import cz.zcu.kiv.oop.uxf.exception.UxfReaderFactoryException;
 import cz.zcu.kiv.oop.uxf.exception.UxfVersionReaderException;
+import cz.zcu.kiv.oop.uxf.reader.UmlElementVisitor;
+import cz.zcu.kiv.oop.uxf.reader.UxfParserType;
 import cz.zcu.kiv.oop.uxf.reader.UxfReader;
+import cz.zcu.kiv.oop.uxf.reader.UxfReaderUtils;
 import cz.zcu.kiv.oop.uxf.version.UxfVersion;
 import cz.zcu.kiv.oop.uxf.version.UxfVersionReader;
 import cz.zcu.kiv.oop.uxf.version.UxfVersionReaderImpl;
@@ -23,10 +36,12 @@ public class UxfReaderFactoryImpl implements UxfReaderFactory {
   /** Singleton instance of this factory. */
   protected static UxfReaderFactory instance;
 
-  /** Cache for created readers. This cache maps UXF version to created reader. */
-  protected final Map<Integer, UxfReader> readersCache = new HashMap<Integer, UxfReader>();
+  /** Cache for created readers. This cache maps class name of reader implementation to created reader; it's thread-safe. */
+  protected final ConcurrentMap<String, UxfReader> readersCache = new ConcurrentHashMap<String, UxfReader>();
   /** Reader of version of UXF file. */
   protected final UxfVersionReader versionReader = UxfVersionReaderImpl.getInstance();
+  /** Type of XML parser which is used by returned readers. */
+  protected volatile UxfParserType parserType = UxfParserType.SAX;
 
   /**
    * Private constructor which makes from this class the singleton.
@@ -47,16 +62,365 @@ public class UxfReaderFactoryImpl implements UxfReaderFactory {
       throw new UxfReaderFactoryException(Strings.get("exc.uxf.empty-filename"));
     }
 
-    UxfVersion uxfVersion = getUxfVersion(uxfFile);
-    UxfReader reader = readersCache.get(uxfVersion.getMajor());
+    return getReader(getUxfVersion(uxfFile));
+  }
+
+  /**
+   * Returns UXF reader depends on version of UXF content from input stream. The stream is read only to obtain the version (it's not
+   * closed), so the content has to be passed to returned reader by other stream.
+   *
+   * @param uxfStream input stream with content of UXF file for which will be returned reader.
+   * @return UXF reader which can reads UXF files of specified version.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation (for example if cannot be found implementation of
+   *           UXF reader for some version).
+   */
+  @Override
+  public UxfReader getReader(InputStream uxfStream) throws UxfReaderFactoryException {
+    if (uxfStream == null) {
+      throw new UxfReaderFactoryException(Strings.get("exc.uxf.null-stream"));
+    }
+
+    return getReader(getUxfVersion(uxfStream));
+  }
+
+  /**
+   * Reads UML diagram from UXF file with specified path. The file is opened and read only once; the version of UXF file is read
+   * from the beginning of the same content which is then read by UXF reader for that version. Large files are memory-mapped and
+   * small files are read into pooled buffers (see {@link ByteBufferUtils#readFile(File)}).
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @return Read UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  @Override
+  public UmlDiagram readDiagram(String uxfFile) throws UxfReaderFactoryException, UxfReaderException {
+    return readDiagram(uxfFile, UmlElementProjection.ALL);
+  }
+
+  /**
+   * Reads projection of UML diagram from UXF file with specified path (see {@link #readDiagram(String)}). Parts of UML diagram
+   * which are not in projection are skipped during reading.
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  @Override
+  public UmlDiagram readDiagram(String uxfFile, UmlElementProjection projection)
+    throws UxfReaderFactoryException, UxfReaderException {
+    return readDiagram(readFile(uxfFile), uxfFile, projection);
+  }
+
+  /**
+   * Reads UML diagram from input stream with content of UXF file. The content is read only once; the version of UXF file is read
+   * from the beginning of the stream which is then read by UXF reader for that version. The stream is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @return Read UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(InputStream uxfStream) throws UxfReaderFactoryException, UxfReaderException {
+    return readDiagram(uxfStream, null);
+  }
+
+  /**
+   * Reads UML diagram from input stream with content of UXF file (see {@link #readDiagram(InputStream)}). The name of source is used
+   * in error messages.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @return Read UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(InputStream uxfStream, String sourceName) throws UxfReaderFactoryException, UxfReaderException {
+    if (uxfStream == null) {
+      throw new UxfReaderFactoryException(Strings.get("exc.uxf.null-stream"));
+    }
+
+    InputStream is = uxfStream.markSupported() ? uxfStream : new BufferedInputStream(uxfStream);
+    UxfReader reader = getReader(peekUxfVersion(is, sourceName));
+
+    return reader.readDiagram(is, sourceName);
+  }
+
+  /**
+   * Reads UML diagram from content of UXF file which is stored in memory (for example content of UXF file from ZIP archive). The
+   * content is not copied. The name of source is used in error messages.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @return Read UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(byte[] uxfContent, String sourceName) throws UxfReaderFactoryException, UxfReaderException {
+    return readDiagram(uxfContent, sourceName, UmlElementProjection.ALL);
+  }
+
+  /**
+   * Reads projection of UML diagram from content of UXF file which is stored in memory (see {@link #readDiagram(byte[], String)}).
+   * Parts of UML diagram which are not in projection are skipped during reading.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(byte[] uxfContent, String sourceName, UmlElementProjection projection)
+    throws UxfReaderFactoryException, UxfReaderException {
+    return getReader(uxfContent, sourceName).readDiagram(uxfContent, sourceName, projection);
+  }
+
+  /**
+   * Reads UML diagram from remaining bytes of buffer with content of UXF file (buffer can be direct or memory-mapped). The content
+   * is not copied and the position of buffer is not changed. The name of source is used in error messages.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @return Read UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(ByteBuffer uxfContent, String sourceName) throws UxfReaderFactoryException, UxfReaderException {
+    return readDiagram(uxfContent, sourceName, UmlElementProjection.ALL);
+  }
+
+  /**
+   * Reads projection of UML diagram from remaining bytes of buffer with content of UXF file (see
+   * {@link #readDiagram(ByteBuffer, String)}). Parts of UML diagram which are not in projection are skipped during reading.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(ByteBuffer uxfContent, String sourceName, UmlElementProjection projection)
+    throws UxfReaderFactoryException, UxfReaderException {
+    return getReader(uxfContent, sourceName).readDiagram(uxfContent, sourceName, projection);
+  }
+
+  /**
+   * Reads UML elements from UXF file with specified path and passes them to visitor as they are read. No UML diagram is created and
+   * relations are not linked to classes. The reading can be stopped by visitor.
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  @Override
+  public void readElements(String uxfFile, UmlElementVisitor visitor) throws UxfReaderFactoryException, UxfReaderException {
+    readElements(uxfFile, UmlElementProjection.ALL, visitor);
+  }
+
+  /**
+   * Reads UML elements which are in projection from UXF file with specified path and passes them to visitor as they are read (see
+   * {@link #readElements(String, UmlElementVisitor)}).
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  @Override
+  public void readElements(String uxfFile, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderFactoryException, UxfReaderException {
+    readElements(readFile(uxfFile), uxfFile, projection, visitor);
+  }
+
+  /**
+   * Reads UML elements which are in projection from content of UXF file which is stored in memory and passes them to visitor as
+   * they are read. No UML diagram is created and relations are not linked to classes. The reading can be stopped by visitor.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public void readElements(byte[] uxfContent, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderFactoryException, UxfReaderException {
+    getReader(uxfContent, sourceName).readElements(uxfContent, sourceName, projection, visitor);
+  }
+
+  /**
+   * Reads UML elements which are in projection from remaining bytes of buffer with content of UXF file and passes them to visitor as
+   * they are read. No UML diagram is created and relations are not linked to classes. The reading can be stopped by visitor. The
+   * position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content (for example path to UXF file; can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public void readElements(ByteBuffer uxfContent, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderFactoryException, UxfReaderException {
+    getReader(uxfContent, sourceName).readElements(uxfContent, sourceName, projection, visitor);
+  }
+
+  /**
+   * Reads whole content of UXF file with specified path into byte buffer. Large files are memory-mapped and small files are read
+   * into pooled buffers (see {@link ByteBufferUtils#readFile(File)}).
+   *
+   * @param uxfFile path to UXF file.
+   * @return Buffer with content of UXF file.
+   * @throws UxfReaderFactoryException If the path to UXF file is empty.
+   * @throws UxfReaderException If the UXF file cannot be read.
+   */
+  protected ByteBuffer readFile(String uxfFile) throws UxfReaderFactoryException, UxfReaderException {
+    if (!StringUtils.hasText(uxfFile)) {
+      throw new UxfReaderFactoryException(Strings.get("exc.uxf.empty-filename"));
+    }
+
+    try {
+      return ByteBufferUtils.readFile(new File(uxfFile));
+    }
+    catch (FileNotFoundException exc) {
+      throw new UxfReaderException(Strings.getFormatted("exc.uxf.uxf-file-not-found", uxfFile), exc);
+    }
+    catch (IOException exc) {
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.io-exception", uxfFile), exc);
+    }
+  }
+
+  /**
+   * Returns UXF reader depends on version of UXF content which is stored in memory.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return UXF reader which can reads UXF content of read version.
+   * @throws UxfReaderFactoryException If the version cannot be read or if there is no reader for the version.
+   */
+  protected UxfReader getReader(byte[] uxfContent, String sourceName) throws UxfReaderFactoryException {
+    if (uxfContent == null) {
+      throw new UxfReaderFactoryException(Strings.get("exc.uxf.null-content"));
+    }
+
+    UxfVersion version;
+    try {
+      version = versionReader.readVersion(uxfContent);
+    }
+    catch (UxfVersionReaderException exc) {
+      throw new UxfReaderFactoryException(UxfReaderUtils.getMessage("exc.uxf.version-reader-exception", sourceName), exc);
+    }
+
+    return getReader(checkUxfVersion(version, sourceName));
+  }
+
+  /**
+   * Returns UXF reader depends on version of UXF content in remaining bytes of buffer. The position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return UXF reader which can reads UXF content of read version.
+   * @throws UxfReaderFactoryException If the version cannot be read or if there is no reader for the version.
+   */
+  protected UxfReader getReader(ByteBuffer uxfContent, String sourceName) throws UxfReaderFactoryException {
+    if (uxfContent == null) {
+      throw new UxfReaderFactoryException(Strings.get("exc.uxf.null-content"));
+    }
+
+    UxfVersion version;
+    try {
+      version = versionReader.readVersion(uxfContent);
+    }
+    catch (UxfVersionReaderException exc) {
+      throw new UxfReaderFactoryException(UxfReaderUtils.getMessage("exc.uxf.version-reader-exception", sourceName), exc);
+    }
+
+    return getReader(checkUxfVersion(version, sourceName));
+  }
+
+  /**
+   * Returns UXF reader for specified version of UXF file which uses actual type of XML parser.
+   *
+   * @param uxfVersion version of UXF file.
+   * @return UXF reader which can reads UXF files of specified version.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   */
+  protected UxfReader getReader(UxfVersion uxfVersion) throws UxfReaderFactoryException {
+    return getReader(uxfVersion, parserType);
+  }
+
+  /**
+   * Returns UXF reader for specified version of UXF file which uses specified type of XML parser. If there is no implementation of
+   * reader using that type of parser for the version, the reader using SAX is returned.
+   *
+   * @param uxfVersion version of UXF file.
+   * @param type type of XML parser.
+   * @return UXF reader which can reads UXF files of specified version.
+   * @throws UxfReaderFactoryException If some error occurs during reader creation.
+   */
+  protected UxfReader getReader(UxfVersion uxfVersion, UxfParserType type) throws UxfReaderFactoryException {
+    String uxfReaderImplementationName = getReaderClassName(uxfVersion, type);
+    UxfReader reader = readersCache.get(uxfReaderImplementationName);
     if (reader == null) {
-      reader = createReader(uxfVersion);
-      readersCache.put(uxfVersion.getMajor(), reader);
+      try {
+        reader = createReader(uxfReaderImplementationName);
+      }
+      catch (UxfReaderFactoryException exc) {
+        if (type == UxfParserType.SAX || !(exc.getCause() instanceof ClassNotFoundException)) {
+          throw exc;
+        }
+
+        reader = getReader(uxfVersion, UxfParserType.SAX);
+      }
+
+      UxfReader cachedReader = readersCache.putIfAbsent(uxfReaderImplementationName, reader);
+      if (cachedReader != null) {
+        reader = cachedReader;
+      }
     }
 
     return reader;
   }
 
+  /**
+   * Sets type of XML parser which will be used by returned readers. For versions of UXF files for which there is no reader using
+   * specified type of parser will be returned readers using SAX.
+   *
+   * @param parserType type of XML parser.
+   */
+  @Override
+  public void setParserType(UxfParserType parserType) {
+    if (parserType == null) {
+      throw new IllegalArgumentException(Strings.get("exc.uxf.null-parser-type"));
+    }
+
+    this.parserType = parserType;
+  }
+
+  /**
+   * Returns type of XML parser which is used by returned readers.
+   *
+   * @return Type of XML parser.
+   */
+  @Override
+  public UxfParserType getParserType() {
+    return parserType;
+  }
+
   /**
    * Returns version of UXF file with specified path.
    *
@@ -66,29 +430,82 @@ public class UxfReaderFactoryImpl implements UxfReaderFactory {
    */
   protected UxfVersion getUxfVersion(String uxfFile) throws UxfReaderFactoryException {
     try {
-      UxfVersion version = versionReader.readVersion(uxfFile);
-      if (version == null) {
-        throw new UxfReaderFactoryException(Strings.get("exc.uxf.cannot-read-version"));
-      }
+      return checkUxfVersion(versionReader.readVersion(uxfFile));
+    }
+    catch (UxfVersionReaderException exc) {
+      throw new UxfReaderFactoryException(Strings.get("exc.uxf.version-reader-exception"), exc);
+    }
+  }
 
-      return version;
+  /**
+   * Returns version of UXF content from input stream.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @return Version of UXF content.
+   * @throws UxfReaderFactoryException If version of UXF cannot be obtained (read from UXF content).
+   */
+  protected UxfVersion getUxfVersion(InputStream uxfStream) throws UxfReaderFactoryException {
+    try {
+      return checkUxfVersion(versionReader.readVersion(uxfStream));
     }
     catch (UxfVersionReaderException exc) {
       throw new UxfReaderFactoryException(Strings.get("exc.uxf.version-reader-exception"), exc);
     }
   }
 
+  /**
+   * Returns version of UXF content from input stream which supports marking. The stream is reset after reading of version.
+   *
+   * @param uxfStream input stream with content of UXF file (it has to support marking).
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return Version of UXF content.
+   * @throws UxfReaderFactoryException If version of UXF cannot be obtained (read from UXF content).
+   */
+  protected UxfVersion peekUxfVersion(InputStream uxfStream, String sourceName) throws UxfReaderFactoryException {
+    try {
+      return checkUxfVersion(versionReader.peekVersion(uxfStream), sourceName);
+    }
+    catch (UxfVersionReaderException exc) {
+      throw new UxfReaderFactoryException(UxfReaderUtils.getMessage("exc.uxf.version-reader-exception", sourceName), exc);
+    }
+  }
+
+  /**
+   * Checks that the version of UXF file was read.
+   *
+   * @param version read version of UXF file.
+   * @return Read version of UXF file.
+   * @throws UxfReaderFactoryException If the version was not read.
+   */
+  protected UxfVersion checkUxfVersion(UxfVersion version) throws UxfReaderFactoryException {
+    return checkUxfVersion(version, null);
+  }
+
+  /**
+   * Checks that the version of UXF content was read.
+   *
+   * @param version read version of UXF content.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return Read version of UXF content.
+   * @throws UxfReaderFactoryException If the version was not read.
+   */
+  protected UxfVersion checkUxfVersion(UxfVersion version, String sourceName) throws UxfReaderFactoryException {
+    if (version == null) {
+      throw new UxfReaderFactoryException(UxfReaderUtils.getMessage("exc.uxf.cannot-read-version", sourceName));
+    }
+
+    return version;
+  }
+
   /**
    * Creates reader for reading UXF files with specified version. Readers are cached and for same versions are returned same
    * instances of readers (readers are like singletons).
    *
-   * @param uxfVersion version of UXF file for which will be created reader.
+   * @param uxfReaderImplementationName class name of UXF reader implementation.
    * @return Created UXF reader which can read UXF files with specified version.
    * @throws UxfReaderFactoryException If some error occurs during UXF reader creation.
    */
-  protected UxfReader createReader(UxfVersion uxfVersion) throws UxfReaderFactoryException {
-    String uxfReaderImplementationName = getReaderClassName(uxfVersion);
-
+  protected UxfReader createReader(String uxfReaderImplementationName) throws UxfReaderFactoryException {
     Object uxfReaderObject = null;
     try {
       Class<?> uxfReaderImplementationClass = Class.forName(uxfReaderImplementationName);
@@ -111,20 +528,22 @@ public class UxfReaderFactoryImpl implements UxfReaderFactory {
   }
 
   /**
-   * Returns implementation class name for reader which serves for reading of UXF files with specified version. Name of reader
-   * implementation is made by this rule:
+   * Returns implementation class name for reader which serves for reading of UXF files with specified version using specified type
+   * of XML parser. Name of reader implementation is made by this rule:
    *
    * <pre>
-   *  {UxfReader.package}.v{UxfVersion.majorVersion}.UxfReaderImpl
+   *  {UxfReader.package}.v{UxfVersion.majorVersion}.{UxfParserType.readerPrefix}UxfReaderImpl
    * </pre>
    *
    * @param uxfVersion version of UXF file for which will be returned class name of implementation.
+   * @param type type of XML parser used by reader.
    * @return Class name of UXF reader implementation for specified version of UXF file.
    */
-  protected String getReaderClassName(UxfVersion uxfVersion) {
+  protected String getReaderClassName(UxfVersion uxfVersion, UxfParserType type) {
     Package uxfReaderPackage = UxfReader.class.getPackage();
 
-    return uxfReaderPackage.getName() + ".v" + uxfVersion.getMajor() + "." + UxfReader.class.getSimpleName() + "Impl";
+    return uxfReaderPackage.getName() + ".v" + uxfVersion.getMajor() + "." + type.getReaderPrefix()
+            + UxfReader.class.getSimpleName() + "Impl";
   }
 
   /**
@@ -132,7 +551,7 @@ public class UxfReaderFactoryImpl implements UxfReaderFactory {
    *
    * @return Singleton instance of this factory.
    */
-  public static UxfReaderFactory getInstance() {
+  public static synchronized UxfReaderFactory getInstance() {
     if (instance == null) {
       instance = new UxfReaderFactoryImpl();
     }
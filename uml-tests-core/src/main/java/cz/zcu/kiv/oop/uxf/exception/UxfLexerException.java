@@ -0,0 +1,47 @@
+package cz.zcu.kiv.oop.uxf.exception;
+
+/**
+ * Exception which is thrown by lexer of UXF files when the content of UXF file contains some construction which is not supported by
+ * the lexer (or when the content is not well-formed). Readers using the lexer read such UXF file by XML parser.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfLexerException extends UxfReaderException {
+
+  /** Serial version UID. */
+  private static final long serialVersionUID = -4129557736920458307L;
+
+  /**
+   * Constructs exception.
+   */
+  public UxfLexerException() {}
+
+  /**
+   * Constructs exception.
+   *
+   * @param message message with details for exception.
+   */
+  public UxfLexerException(String message) {
+    super(message);
+  }
+
+  /**
+   * Constructs exception.
+   *
+   * @param cause cause of this exception.
+   */
+  public UxfLexerException(Throwable cause) {
+    super(cause);
+  }
+
+  /**
+   * Constructs exception.
+   *
+   * @param message message with details for exception.
+   * @param cause cause of this exception.
+   */
+  public UxfLexerException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+}
@@ -0,0 +1,207 @@
+package cz.zcu.kiv.oop.uxf.reader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.springframework.util.StringUtils;
+
+import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.util.ByteBufferInputStream;
+import cz.zcu.kiv.oop.util.ByteBufferUtils;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+
+/**
+ * Abstract implementation of reader of UXF files which reads UXF files and in-memory contents of UXF files as input streams. All
+ * readers have to implement only methods {@link #readDiagram(InputStream, String, UmlElementProjection)} and
+ * {@link #readElements(InputStream, String, UmlElementProjection, UmlElementVisitor)}. Whole UML diagrams are read as projections
+ * which contain all parts of UML diagram (see {@link UmlElementProjection#ALL}).
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public abstract class AbstractUxfReader implements UxfReader {
+
+  /**
+   * Reads UML diagram from specified UXF file. The path of file is used as name of source of UXF content. Large files are
+   * memory-mapped and small files are read into pooled buffers (see {@link ByteBufferUtils#readFile(File)}), so the parser doesn't
+   * read the file by small unbuffered reads.
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @return Read UML diagram from specified UXF file.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  @Override
+  public UmlDiagram readDiagram(String uxfFile) throws UxfReaderException {
+    return readDiagram(readFile(uxfFile), uxfFile);
+  }
+
+  /**
+   * Reads whole content of specified UXF file into byte buffer (see {@link ByteBufferUtils#readFile(File)}).
+   *
+   * @param uxfFile path to UXF file.
+   * @return Buffer with content of UXF file.
+   * @throws UxfReaderException If the UXF file cannot be read.
+   */
+  protected ByteBuffer readFile(String uxfFile) throws UxfReaderException {
+    if (!StringUtils.hasText(uxfFile)) {
+      throw new UxfReaderException(Strings.get("exc.uxf.empty-filename"));
+    }
+
+    try {
+      return ByteBufferUtils.readFile(new File(uxfFile));
+    }
+    catch (FileNotFoundException exc) {
+      throw new UxfReaderException(Strings.getFormatted("exc.uxf.uxf-file-not-found", uxfFile), exc);
+    }
+    catch (IOException exc) {
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.io-exception", uxfFile), exc);
+    }
+  }
+
+  /**
+   * Reads UML diagram from input stream with content of UXF file. The stream is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @return Read UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(InputStream uxfStream) throws UxfReaderException {
+    return readDiagram(uxfStream, null);
+  }
+
+  /**
+   * Reads UML diagram from input stream with content of UXF file. The stream is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return Read UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(InputStream uxfStream, String sourceName) throws UxfReaderException {
+    return readDiagram(uxfStream, sourceName, UmlElementProjection.ALL);
+  }
+
+  /**
+   * Reads UML diagram from content of UXF file which is stored in memory.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return Read UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(byte[] uxfContent, String sourceName) throws UxfReaderException {
+    return readDiagram(uxfContent, sourceName, UmlElementProjection.ALL);
+  }
+
+  /**
+   * Reads projection of UML diagram from content of UXF file which is stored in memory.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(byte[] uxfContent, String sourceName, UmlElementProjection projection) throws UxfReaderException {
+    if (uxfContent == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-content"));
+    }
+
+    return readDiagram(new ByteArrayInputStream(uxfContent), sourceName, projection);
+  }
+
+  /**
+   * Reads UML diagram from remaining bytes of buffer with content of UXF file. The position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return Read UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(ByteBuffer uxfContent, String sourceName) throws UxfReaderException {
+    return readDiagram(uxfContent, sourceName, UmlElementProjection.ALL);
+  }
+
+  /**
+   * Reads projection of UML diagram from remaining bytes of buffer with content of UXF file. The position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(ByteBuffer uxfContent, String sourceName, UmlElementProjection projection)
+    throws UxfReaderException {
+    if (uxfContent == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-content"));
+    }
+
+    return readDiagram(new ByteBufferInputStream(uxfContent), sourceName, projection);
+  }
+
+  /**
+   * Reads UML elements from specified UXF file and passes them to visitor as they are read. The file is read in the same way as by
+   * {@link #readDiagram(String)}.
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  @Override
+  public void readElements(String uxfFile, UmlElementProjection projection, UmlElementVisitor visitor) throws UxfReaderException {
+    readElements(readFile(uxfFile), uxfFile, projection, visitor);
+  }
+
+  /**
+   * Reads UML elements from content of UXF file which is stored in memory and passes them to visitor as they are read.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public void readElements(byte[] uxfContent, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderException {
+    if (uxfContent == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-content"));
+    }
+
+    readElements(new ByteArrayInputStream(uxfContent), sourceName, projection, visitor);
+  }
+
+  /**
+   * Reads UML elements from remaining bytes of buffer with content of UXF file and passes them to visitor as they are read. The
+   * position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public void readElements(ByteBuffer uxfContent, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderException {
+    if (uxfContent == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-content"));
+    }
+
+    readElements(new ByteBufferInputStream(uxfContent), sourceName, projection, visitor);
+  }
+
+}
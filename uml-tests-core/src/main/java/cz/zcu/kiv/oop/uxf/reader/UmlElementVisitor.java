@@ -0,0 +1,23 @@
+package cz.zcu.kiv.oop.uxf.reader;
+
+import cz.zcu.kiv.oop.uml.element.UmlElement;
+
+/**
+ * Visitor of UML elements which are read from UXF file. The elements are passed to visitor as they are read, so the whole UML diagram
+ * doesn't have to be built (for example when only some element or count of elements is needed). Relations passed to visitor are not
+ * linked to classes (linking needs all classes of UML diagram).
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public interface UmlElementVisitor {
+
+  /**
+   * Visits UML element which was read from UXF file. If the visitor returns <code>false</code>, the reading of UXF file is stopped
+   * and no other element is read.
+   *
+   * @param element read UML element.
+   * @return <code>true</code> if the reading of UXF file should continue; <code>false</code> otherwise.
+   */
+  public boolean visitElement(UmlElement element);
+
+}
@@ -0,0 +1,65 @@
+package cz.zcu.kiv.oop.uxf.reader;
+
+/**
+ * Types of XML parsers which can be used by UXF readers. Implementation of reader for some version and type of parser is named by
+ * this rule:
+ *
+ * <pre>
+ *  {UxfReader.package}.v{UxfVersion.majorVersion}.{UxfParserType.readerPrefix}UxfReaderImpl
+ * </pre>
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public enum UxfParserType {
+
+  /** SAX parser; readers using SAX are available for all versions of UXF files. */
+  SAX(""),
+
+  /** StAX pull parser. */
+  STAX("Stax"),
+
+  /** Lexer which reads UXF without XML parser; UXF files which are not supported by lexer are read by SAX parser. */
+  LEXER("Lexer");
+
+  /** Prefix of simple name of reader implementation. */
+  private final String readerPrefix;
+
+  /**
+   * Constructs type of parser.
+   *
+   * @param readerPrefix prefix of simple name of reader implementation.
+   */
+  private UxfParserType(String readerPrefix) {
+    this.readerPrefix = readerPrefix;
+  }
+
+  /**
+   * Returns prefix of simple name of reader implementation.
+   *
+   * @return Prefix of simple name of reader implementation.
+   */
+  public String getReaderPrefix() {
+    return readerPrefix;
+  }
+
+  /**
+   * Returns type of parser for its name (case-insensitive).
+   *
+   * @param name name of type of parser.
+   * @return Type of parser for specified name; <code>null</code> if there is no type with that name.
+   */
+  public static UxfParserType parseType(String name) {
+    if (name == null) {
+      return null;
+    }
+
+    for (UxfParserType type : values()) {
+      if (type.name().equalsIgnoreCase(name.trim())) {
+        return type;
+      }
+    }
+
+    return null;
+  }
+
+}
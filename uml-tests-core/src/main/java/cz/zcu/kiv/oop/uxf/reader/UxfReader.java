@@ -1,6 +1,10 @@
 package cz.zcu.kiv.oop.uxf.reader;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
 import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
 import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
 
 /**
@@ -21,4 +25,132 @@ public interface UxfReader {
    */
   public UmlDiagram readDiagram(String uxfFile) throws UxfReaderException;
 
+  /**
+   * Reads UML diagram from input stream with content of UXF file (for example from entry of ZIP archive). The stream is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @return Read UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(InputStream uxfStream) throws UxfReaderException;
+
+  /**
+   * Reads UML diagram from input stream with content of UXF file. The stream is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return Read UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(InputStream uxfStream, String sourceName) throws UxfReaderException;
+
+  /**
+   * Reads UML diagram from content of UXF file which is stored in memory (for example uploaded or cached content).
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return Read UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(byte[] uxfContent, String sourceName) throws UxfReaderException;
+
+  /**
+   * Reads UML diagram from remaining bytes of buffer with content of UXF file. The position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @return Read UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(ByteBuffer uxfContent, String sourceName) throws UxfReaderException;
+
+  /**
+   * Reads projection of UML diagram from input stream with content of UXF file. Parts of UML diagram which are not in projection
+   * are skipped during reading. The stream is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(InputStream uxfStream, String sourceName, UmlElementProjection projection)
+    throws UxfReaderException;
+
+  /**
+   * Reads projection of UML diagram from content of UXF file which is stored in memory. Parts of UML diagram which are not in
+   * projection are skipped during reading.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(byte[] uxfContent, String sourceName, UmlElementProjection projection) throws UxfReaderException;
+
+  /**
+   * Reads projection of UML diagram from remaining bytes of buffer with content of UXF file. Parts of UML diagram which are not in
+   * projection are skipped during reading. The position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public UmlDiagram readDiagram(ByteBuffer uxfContent, String sourceName, UmlElementProjection projection)
+    throws UxfReaderException;
+
+  /**
+   * Reads UML elements from specified UXF file and passes them to visitor as they are read. No UML diagram is created and relations
+   * are not linked to classes. The reading can be stopped by visitor.
+   *
+   * @param uxfFile path to UXF file which contains UML diagram.
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   */
+  public void readElements(String uxfFile, UmlElementProjection projection, UmlElementVisitor visitor) throws UxfReaderException;
+
+  /**
+   * Reads UML elements from input stream with content of UXF file and passes them to visitor as they are read. No UML diagram is
+   * created and relations are not linked to classes. The reading can be stopped by visitor. The stream is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public void readElements(InputStream uxfStream, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderException;
+
+  /**
+   * Reads UML elements from content of UXF file which is stored in memory and passes them to visitor as they are read. No UML
+   * diagram is created and relations are not linked to classes. The reading can be stopped by visitor.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public void readElements(byte[] uxfContent, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderException;
+
+  /**
+   * Reads UML elements from remaining bytes of buffer with content of UXF file and passes them to visitor as they are read. No UML
+   * diagram is created and relations are not linked to classes. The reading can be stopped by visitor. The position of buffer is not
+   * changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  public void readElements(ByteBuffer uxfContent, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderException;
+
 }
@@ -0,0 +1,164 @@
+package cz.zcu.kiv.oop.uxf.reader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.properties.PropertiesProvider;
+import cz.zcu.kiv.oop.properties.keys.StringPropertyKey;
+import cz.zcu.kiv.oop.uml.element.UmlClass;
+import cz.zcu.kiv.oop.uml.element.UmlElement;
+import cz.zcu.kiv.oop.uml.element.UmlRelation;
+import cz.zcu.kiv.oop.uml.geometry.UmlLineShape;
+import cz.zcu.kiv.oop.uml.geometry.UmlRectangle;
+import cz.zcu.kiv.oop.uxf.reader.sax.UxfSaxReaderPropertyKeys;
+import cz.zcu.kiv.oop.uxf.version.UxfVersionReaderPropertyKeys;
+
+/**
+ * Utilities which are shared by readers of UXF files (independently on used XML parser).
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfReaderUtils {
+
+  /**
+   * Private constructor which makes this class "static".
+   */
+  private UxfReaderUtils() {}
+
+  /**
+   * Creates table of tags which are common for all versions of UXF files. Names of tags are read from properties.
+   *
+   * @param propertiesProvider properties provider of reader.
+   * @return Created table which maps lower-case names of tags to tags.
+   */
+  public static Map<String, UxfTag> createTags(PropertiesProvider propertiesProvider) {
+    Map<String, UxfTag> tags = new HashMap<String, UxfTag>();
+    putTag(tags, propertiesProvider, UxfVersionReaderPropertyKeys.TAG_DIAGRAM, UxfTag.DIAGRAM);
+    putTag(tags, propertiesProvider, UxfSaxReaderPropertyKeys.TAG_ZOOM_LEVEL, UxfTag.ZOOM_LEVEL);
+    putTag(tags, propertiesProvider, UxfSaxReaderPropertyKeys.TAG_HELP_TEXT, UxfTag.HELP_TEXT);
+    putTag(tags, propertiesProvider, UxfSaxReaderPropertyKeys.TAG_ELEMENT, UxfTag.ELEMENT);
+    putTag(tags, propertiesProvider, UxfSaxReaderPropertyKeys.TAG_ELEMENT_TYPE, UxfTag.ELEMENT_TYPE);
+    putTag(tags, propertiesProvider, UxfSaxReaderPropertyKeys.TAG_COORDINATE_X, UxfTag.COORDINATE_X);
+    putTag(tags, propertiesProvider, UxfSaxReaderPropertyKeys.TAG_COORDINATE_Y, UxfTag.COORDINATE_Y);
+    putTag(tags, propertiesProvider, UxfSaxReaderPropertyKeys.TAG_COORDINATE_WIDTH, UxfTag.COORDINATE_WIDTH);
+    putTag(tags, propertiesProvider, UxfSaxReaderPropertyKeys.TAG_COORDINATE_HEIGHT, UxfTag.COORDINATE_HEIGHT);
+    putTag(tags, propertiesProvider, UxfSaxReaderPropertyKeys.TAG_PANEL_ATTRIBUTES, UxfTag.PANEL_ATTRIBUTES);
+    putTag(tags, propertiesProvider, UxfSaxReaderPropertyKeys.TAG_ADDITIONAL_ATTRIBUTES, UxfTag.ADDITIONAL_ATTRIBUTES);
+
+    return tags;
+  }
+
+  /**
+   * Puts tag into table of tags under lower-case name of tag from properties. If there is already some tag with the same name, the
+   * first one is kept.
+   *
+   * @param tags table of tags.
+   * @param propertiesProvider properties provider of reader.
+   * @param tagKey property key for name of tag.
+   * @param tag tag which will be put into table.
+   */
+  public static void putTag(Map<String, UxfTag> tags, PropertiesProvider propertiesProvider, StringPropertyKey tagKey, UxfTag tag) {
+    String name = toTagName(propertiesProvider.getValue(tagKey));
+    if (!tags.containsKey(name)) {
+      tags.put(name, tag);
+    }
+  }
+
+  /**
+   * Returns tag for name of read tag. Names of tags are case-insensitive.
+   *
+   * @param tags table of tags.
+   * @param name name of read tag.
+   * @return Tag for name of read tag; <code>null</code> if the tag is not in table.
+   */
+  public static UxfTag getTag(Map<String, UxfTag> tags, String name) {
+    UxfTag tag = tags.get(name);
+    if (tag == null) {
+      tag = tags.get(toTagName(name));
+    }
+
+    return tag;
+  }
+
+  /**
+   * Converts name of tag to lower-case name which is used in table of tags.
+   *
+   * @param name name of tag.
+   * @return Lower-case name of tag.
+   */
+  public static String toTagName(String name) {
+    return name.toLowerCase(Locale.ENGLISH);
+  }
+
+  /**
+   * Returns message for key of message and name of source of UXF content.
+   *
+   * @param key key of message.
+   * @param sourceName name of source of UXF content (can be <code>null</code>).
+   * @return Message with name of source of UXF content (if it's known).
+   */
+  public static String getMessage(String key, String sourceName) {
+    if (sourceName == null) {
+      return Strings.get(key);
+    }
+
+    return Strings.getFormatted("exc.uxf.in-source", Strings.get(key), sourceName);
+  }
+
+  /**
+   * Links relations - sets from and into which class leads relations.
+   *
+   * @param elements read UML elements.
+   */
+  public static void linkRelations(List<UmlElement> elements) {
+    List<UmlRelation> relations = new ArrayList<UmlRelation>();
+    List<UmlClass> classes = new ArrayList<UmlClass>();
+
+    for (UmlElement element : elements) {
+      if (element instanceof UmlRelation) {
+        relations.add((UmlRelation)element);
+      }
+      else if (element instanceof UmlClass) {
+        classes.add((UmlClass)element);
+      }
+    }
+
+    for (UmlRelation relation : relations) {
+      UmlLineShape line = relation.getRelationLine();
+      UmlClass from = null;
+      UmlClass to = null;
+      for (UmlClass clazz : classes) {
+        UmlRectangle rectangle = clazz.getCoordinates();
+        if (rectangle.contains(line.getStartPoint()) && from == null) {
+          from = clazz;
+        }
+        else if (rectangle.contains(line.getEndPoint()) && to == null) {
+          to = clazz;
+        }
+
+        if (from != null && to != null) {
+          break;
+        }
+      }
+
+      switch (relation.getRelationOrientationType()) {
+        case LEFT :
+          relation.setFrom(to);
+          relation.setTo(from);
+          break;
+
+        case RIGHT :
+        case UNI :
+        case UNDEFINED :
+          relation.setFrom(from);
+          relation.setTo(to);
+          break;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,36 @@
+package cz.zcu.kiv.oop.uxf.reader;
+
+/**
+ * Tags of UXF files which are handled by readers. Names of tags are configured by properties (names can be different for each
+ * version of UXF file), so readers map names of read tags to these constants by table which is created only once.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public enum UxfTag {
+
+  /** Tag of UML diagram (contains version of UXF file). */
+  DIAGRAM,
+  /** Tag with zoom level of UML diagram. */
+  ZOOM_LEVEL,
+  /** Tag with help text of UXF. */
+  HELP_TEXT,
+  /** Tag which contains information about UML element. */
+  ELEMENT,
+  /** Tag which contains type of UML element. */
+  ELEMENT_TYPE,
+  /** Tag which contains id of UML element (id of element is same as type of element). */
+  ELEMENT_ID,
+  /** Tag which contains coordinate X of UML element. */
+  COORDINATE_X,
+  /** Tag which contains coordinate Y of UML element. */
+  COORDINATE_Y,
+  /** Tag which contains width of UML element. */
+  COORDINATE_WIDTH,
+  /** Tag which contains height of UML element. */
+  COORDINATE_HEIGHT,
+  /** Tag which contains panel attributes of UML element. */
+  PANEL_ATTRIBUTES,
+  /** Tag which contains additional attributes of UML element. */
+  ADDITIONAL_ATTRIBUTES;
+
+}
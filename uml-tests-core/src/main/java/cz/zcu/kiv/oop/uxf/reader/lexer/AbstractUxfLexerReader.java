@@ -0,0 +1,283 @@
+package cz.zcu.kiv.oop.uxf.reader.lexer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.xml.sax.SAXException;
+
+import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.element.UmlElement;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.util.ByteBufferInputStream;
+import cz.zcu.kiv.oop.util.StreamUtils;
+import cz.zcu.kiv.oop.uxf.exception.UxfLexerException;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+import cz.zcu.kiv.oop.uxf.reader.UmlElementVisitor;
+import cz.zcu.kiv.oop.uxf.reader.UxfReader;
+import cz.zcu.kiv.oop.uxf.reader.UxfReaderUtils;
+import cz.zcu.kiv.oop.uxf.reader.sax.AbstractUxfSaxReader;
+import cz.zcu.kiv.oop.uxf.reader.sax.UxfReadingStoppedException;
+import cz.zcu.kiv.oop.uxf.reader.sax.UxfSaxHandler;
+
+/**
+ * Abstract implementation of reader of UXF files which reads UXF by {@link UxfLexer} without XML parser. Read tags and texts are
+ * handled by the same SAX handlers as in readers using SAX, so both readers read the same UML diagrams. If the UXF content contains
+ * some construction which is not supported by the lexer, the content is read by SAX parser (so also the errors are the same).
+ * <p>
+ * In-memory contents of UXF files are read by lexer directly without copying.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public abstract class AbstractUxfLexerReader extends AbstractUxfSaxReader implements UxfReader {
+
+  /**
+   * Reads projection of UML diagram from input stream with content of UXF file. The whole content is read into memory. The stream
+   * is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(InputStream uxfStream, String sourceName, UmlElementProjection projection)
+    throws UxfReaderException {
+    if (uxfStream == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-stream"));
+    }
+
+    byte[] content;
+    try {
+      content = StreamUtils.copyToByteArray(uxfStream);
+    }
+    catch (IOException exc) {
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.io-exception", sourceName), exc);
+    }
+
+    return readDiagram(content, sourceName, projection);
+  }
+
+  /**
+   * Reads projection of UML diagram from content of UXF file by lexer. If the content is not supported by lexer, it's read by SAX
+   * parser.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(byte[] uxfContent, String sourceName, UmlElementProjection projection) throws UxfReaderException {
+    if (uxfContent == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-content"));
+    }
+
+    UxfSaxHandler uxfSaxHandler = createHandler(projection);
+    if (!parse(ByteBuffer.wrap(uxfContent), sourceName, uxfSaxHandler)) {
+      return super.readDiagram(new ByteArrayInputStream(uxfContent), sourceName, projection);
+    }
+
+    return uxfSaxHandler.getUmlDiagram();
+  }
+
+  /**
+   * Reads projection of UML diagram from remaining bytes of buffer with content of UXF file by lexer. If the content is not
+   * supported by lexer, it's read by SAX parser. The position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(ByteBuffer uxfContent, String sourceName, UmlElementProjection projection)
+    throws UxfReaderException {
+    if (uxfContent == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-content"));
+    }
+
+    UxfSaxHandler uxfSaxHandler = createHandler(projection);
+    if (!parse(uxfContent, sourceName, uxfSaxHandler)) {
+      return super.readDiagram(new ByteBufferInputStream(uxfContent), sourceName, projection);
+    }
+
+    return uxfSaxHandler.getUmlDiagram();
+  }
+
+  /**
+   * Reads UML elements from input stream with content of UXF file and passes them to visitor as they are read. The whole content is
+   * read into memory. The stream is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public void readElements(InputStream uxfStream, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderException {
+    if (uxfStream == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-stream"));
+    }
+
+    byte[] content;
+    try {
+      content = StreamUtils.copyToByteArray(uxfStream);
+    }
+    catch (IOException exc) {
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.io-exception", sourceName), exc);
+    }
+
+    readElements(content, sourceName, projection, visitor);
+  }
+
+  /**
+   * Reads UML elements from content of UXF file by lexer and passes them to visitor as they are read. If the content is not
+   * supported by lexer, it's read by SAX parser; elements which were already passed to visitor by lexer are not passed again.
+   *
+   * @param uxfContent content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public void readElements(byte[] uxfContent, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderException {
+    if (uxfContent == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-content"));
+    }
+
+    ResumableVisitor resumableVisitor = createResumableVisitor(visitor);
+    if (!parse(ByteBuffer.wrap(uxfContent), sourceName, createHandler(projection, resumableVisitor))) {
+      resumableVisitor.restart();
+      super.readElements(new ByteArrayInputStream(uxfContent), sourceName, projection, resumableVisitor);
+    }
+  }
+
+  /**
+   * Reads UML elements from remaining bytes of buffer with content of UXF file by lexer and passes them to visitor as they are read.
+   * If the content is not supported by lexer, it's read by SAX parser; elements which were already passed to visitor by lexer are not
+   * passed again. The position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public void readElements(ByteBuffer uxfContent, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderException {
+    if (uxfContent == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-content"));
+    }
+
+    ResumableVisitor resumableVisitor = createResumableVisitor(visitor);
+    if (!parse(uxfContent, sourceName, createHandler(projection, resumableVisitor))) {
+      resumableVisitor.restart();
+      super.readElements(new ByteBufferInputStream(uxfContent), sourceName, projection, resumableVisitor);
+    }
+  }
+
+  /**
+   * Parses remaining bytes of buffer with content of UXF file by lexer. If the reading is stopped by visitor of UML elements, the
+   * parsing ends normally.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param uxfSaxHandler handler which handles reading of UXF.
+   * @return <code>true</code> if the content was read by lexer; <code>false</code> if the content is not supported by lexer.
+   * @throws UxfReaderException If some error occurs in handler during reading of UXF content.
+   */
+  protected boolean parse(ByteBuffer uxfContent, String sourceName, UxfSaxHandler uxfSaxHandler) throws UxfReaderException {
+    try {
+      new UxfLexer(uxfContent).parse(uxfSaxHandler);
+    }
+    catch (UxfLexerException exc) {
+      return false;
+    }
+    catch (UxfReadingStoppedException exc) {
+      // reading was stopped by visitor
+    }
+    catch (SAXException exc) {
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.sax-exception", sourceName), exc);
+    }
+
+    return true;
+  }
+
+  /**
+   * Creates visitor which passes read UML elements to given visitor and which can be restarted when the content is read again by
+   * SAX parser.
+   *
+   * @param visitor visitor of read UML elements.
+   * @return Created visitor.
+   * @throws UxfReaderException If the visitor is not set.
+   */
+  protected static ResumableVisitor createResumableVisitor(UmlElementVisitor visitor) throws UxfReaderException {
+    if (visitor == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-visitor"));
+    }
+
+    return new ResumableVisitor(visitor);
+  }
+
+  /**
+   * Visitor of UML elements which passes read elements to another visitor. When the reading is restarted, the elements which were
+   * already passed to another visitor are skipped (both lexer and SAX parser read the same elements in the same order).
+   *
+   * @author Mr.FrAnTA (Michal Dékány)
+   */
+  protected static class ResumableVisitor implements UmlElementVisitor {
+
+    /** Visitor to which are passed read elements. */
+    protected final UmlElementVisitor visitor;
+    /** Count of elements which were passed to visitor. */
+    protected int visitedCount;
+    /** Count of elements read since the last (re)start of reading. */
+    protected int readCount;
+
+    /**
+     * Constructs visitor.
+     *
+     * @param visitor visitor to which are passed read elements.
+     */
+    public ResumableVisitor(UmlElementVisitor visitor) {
+      this.visitor = visitor;
+    }
+
+    /**
+     * Passes read element to visitor if it was not passed before restart of reading.
+     *
+     * @param element read UML element.
+     * @return <code>true</code> if the reading of UXF file should continue; <code>false</code> otherwise.
+     */
+    @Override
+    public boolean visitElement(UmlElement element) {
+      if (readCount++ < visitedCount) {
+        return true;
+      }
+
+      visitedCount++;
+
+      return visitor.visitElement(element);
+    }
+
+    /**
+     * Restarts reading of elements.
+     */
+    public void restart() {
+      readCount = 0;
+    }
+
+  }
+
+}
@@ -0,0 +1,660 @@
+package cz.zcu.kiv.oop.uxf.reader.lexer;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.uxf.exception.UxfLexerException;
+
+/**
+ * Strict lexer of UXF files which reads UXF content directly from buffer of characters and reports read tags and texts to SAX
+ * content handler (the same events as non-validating SAX parser without namespaces). The lexer supports only subset of XML which
+ * is used by UXF files: XML declaration, elements with attributes, texts with predefined entities and character references,
+ * comments and processing instructions. Any other construction (DTD, CDATA sections, other encoding than UTF-8, ...) or content
+ * which is not well-formed is refused by {@link UxfLexerException}, so such content can be read by XML parser.
+ * <p>
+ * Lexer is not thread-safe, each reading of UXF has to use its own lexer.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfLexer {
+
+  /** Charset of UXF files which are supported by lexer. */
+  protected static final Charset UTF_8 = Charset.forName("UTF-8");
+  /** Byte order mark. */
+  protected static final char BYTE_ORDER_MARK = '\uFEFF';
+  /** Beginning of XML declaration. */
+  protected static final String XML_DECLARATION = "<?xml";
+  /** Beginning of comment. */
+  protected static final String COMMENT_START = "<!--";
+  /** End of comment. */
+  protected static final String COMMENT_END = "-->";
+  /** End of processing instruction. */
+  protected static final String PROCESSING_INSTRUCTION_END = "?>";
+  /** Type of attributes which is reported by SAX parser without DTD. */
+  protected static final String ATTRIBUTE_TYPE = "CDATA";
+
+  /** Read characters of UXF content. */
+  protected final char[] chars;
+  /** Count of read characters of UXF content. */
+  protected final int length;
+  /** Actual position in UXF content. */
+  protected int position;
+
+  /** Names of opened elements. */
+  protected final List<String> openedElements = new ArrayList<String>();
+  /** Attributes of actual read element. */
+  protected final AttributesImpl attributes = new AttributesImpl();
+  /** Buffer for decoded values of attributes. */
+  protected final StringBuilder buffer = new StringBuilder();
+  /** Buffer for decoded characters of references. */
+  protected final char[] referenceChars = new char[2];
+
+  /**
+   * Constructs lexer for UXF content.
+   *
+   * @param content UXF content in UTF-8 encoding.
+   * @throws UxfLexerException If the content is not in UTF-8 encoding.
+   */
+  public UxfLexer(byte[] content) throws UxfLexerException {
+    this(ByteBuffer.wrap(content));
+  }
+
+  /**
+   * Constructs lexer for remaining bytes of buffer with UXF content. The position of buffer is not changed.
+   *
+   * @param content buffer with UXF content in UTF-8 encoding.
+   * @throws UxfLexerException If the content is not in UTF-8 encoding.
+   */
+  public UxfLexer(ByteBuffer content) throws UxfLexerException {
+    CharsetDecoder decoder = UTF_8.newDecoder();
+    decoder.onMalformedInput(CodingErrorAction.REPORT);
+    decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+
+    CharBuffer charBuffer;
+    try {
+      charBuffer = decoder.decode(content.duplicate());
+    }
+    catch (CharacterCodingException exc) {
+      throw new UxfLexerException(Strings.get("exc.uxf.lexer.encoding"), exc);
+    }
+
+    if (charBuffer.hasArray() && charBuffer.arrayOffset() == 0) {
+      chars = charBuffer.array();
+      length = charBuffer.limit();
+    }
+    else {
+      chars = charBuffer.toString().toCharArray();
+      length = chars.length;
+    }
+  }
+
+  /**
+   * Reads UXF content and reports read tags and texts to content handler.
+   *
+   * @param handler content handler which handles read tags and texts.
+   * @throws UxfLexerException If the content contains construction which is not supported by lexer or if it's not well-formed.
+   * @throws SAXException If some error occurs in content handler.
+   */
+  public void parse(ContentHandler handler) throws UxfLexerException, SAXException {
+    position = 0;
+    openedElements.clear();
+
+    readXmlDeclaration();
+    handler.startDocument();
+
+    boolean rootRead = false;
+    while (position < length) {
+      char character = chars[position];
+      if (character == '<') {
+        char next = charAt(position + 1);
+        if (next == '/') {
+          readEndTag(handler);
+        }
+        else if (next == '!') {
+          skipComment();
+        }
+        else if (next == '?') {
+          skipProcessingInstruction();
+        }
+        else {
+          if (rootRead && openedElements.isEmpty()) {
+            throw unexpected();
+          }
+
+          readStartTag(handler);
+          rootRead = true;
+        }
+      }
+      else if (openedElements.isEmpty()) {
+        if (!isWhitespace(character)) {
+          throw unexpected();
+        }
+        position++;
+      }
+      else {
+        readText(handler);
+      }
+    }
+
+    if (!rootRead || !openedElements.isEmpty()) {
+      throw unexpected();
+    }
+
+    handler.endDocument();
+  }
+
+  /**
+   * Reads XML declaration (if there is some). Only version 1.0 and encoding UTF-8 are supported.
+   *
+   * @throws UxfLexerException If the declaration has unsupported version or encoding or if it's not well-formed.
+   */
+  protected void readXmlDeclaration() throws UxfLexerException {
+    if (position < length && chars[position] == BYTE_ORDER_MARK) {
+      position++;
+    }
+
+    if (!startsWith(XML_DECLARATION, position) || !isWhitespace(charAt(position + XML_DECLARATION.length()))) {
+      return;
+    }
+
+    position += XML_DECLARATION.length();
+    String version = readPseudoAttribute("version");
+    String encoding = readPseudoAttribute("encoding");
+    String standalone = readPseudoAttribute("standalone");
+    skipWhitespaces();
+
+    if (!"1.0".equals(version) || !startsWith(PROCESSING_INSTRUCTION_END, position)) {
+      throw unexpected();
+    }
+    if (encoding != null && !encoding.equalsIgnoreCase("UTF-8") && !encoding.equalsIgnoreCase("UTF8")) {
+      throw unexpected();
+    }
+    if (standalone != null && !standalone.equals("yes") && !standalone.equals("no")) {
+      throw unexpected();
+    }
+
+    position += PROCESSING_INSTRUCTION_END.length();
+  }
+
+  /**
+   * Reads pseudo-attribute of XML declaration from actual position. The pseudo-attribute has to be separated by whitespace from
+   * previous content.
+   *
+   * @param name name of pseudo-attribute.
+   * @return Value of pseudo-attribute; <code>null</code> if there is no pseudo-attribute with specified name at actual position.
+   * @throws UxfLexerException If the pseudo-attribute is not well-formed.
+   */
+  protected String readPseudoAttribute(String name) throws UxfLexerException {
+    int start = position;
+    skipWhitespaces();
+    if (position == start || !startsWith(name, position)) {
+      position = start;
+      return null;
+    }
+
+    position += name.length();
+    skipWhitespaces();
+    if (charAt(position) != '=') {
+      throw unexpected();
+    }
+    position++;
+    skipWhitespaces();
+
+    char quote = charAt(position);
+    if (quote != '"' && quote != '\'') {
+      throw unexpected();
+    }
+
+    int valueStart = position + 1;
+    position = valueStart;
+    while (position < length && chars[position] != quote) {
+      if (chars[position] == '<' || chars[position] == '?') {
+        throw unexpected();
+      }
+      position++;
+    }
+
+    if (position >= length) {
+      throw unexpected();
+    }
+    position++;
+
+    return new String(chars, valueStart, position - valueStart - 1);
+  }
+
+  /**
+   * Reads start tag of element and reports start of element to content handler. For empty element is reported also end of
+   * element.
+   *
+   * @param handler content handler which handles read tags.
+   * @throws UxfLexerException If the tag is not well-formed.
+   * @throws SAXException If some error occurs in content handler.
+   */
+  protected void readStartTag(ContentHandler handler) throws UxfLexerException, SAXException {
+    position++;
+    String name = readName();
+    attributes.clear();
+
+    boolean empty;
+    while (true) {
+      boolean whitespace = isWhitespace(charAt(position));
+      skipWhitespaces();
+
+      char character = charAt(position);
+      if (character == '>') {
+        position++;
+        empty = false;
+        break;
+      }
+      else if (character == '/' && charAt(position + 1) == '>') {
+        position += 2;
+        empty = true;
+        break;
+      }
+      else if (!whitespace) {
+        throw unexpected();
+      }
+
+      String attributeName = readName();
+      skipWhitespaces();
+      if (charAt(position) != '=') {
+        throw unexpected();
+      }
+      position++;
+      skipWhitespaces();
+
+      String value = readAttributeValue();
+      if (attributes.getIndex(attributeName) >= 0) {
+        throw unexpected();
+      }
+
+      attributes.addAttribute("", "", attributeName, ATTRIBUTE_TYPE, value);
+    }
+
+    handler.startElement("", "", name, attributes);
+    if (empty) {
+      handler.endElement("", "", name);
+    }
+    else {
+      openedElements.add(name);
+    }
+  }
+
+  /**
+   * Reads end tag of element and reports end of element to content handler.
+   *
+   * @param handler content handler which handles read tags.
+   * @throws UxfLexerException If the tag is not well-formed or if it doesn't close the last opened element.
+   * @throws SAXException If some error occurs in content handler.
+   */
+  protected void readEndTag(ContentHandler handler) throws UxfLexerException, SAXException {
+    position += 2;
+    String name = readName();
+    skipWhitespaces();
+    if (charAt(position) != '>') {
+      throw unexpected();
+    }
+    position++;
+
+    int last = openedElements.size() - 1;
+    if (last < 0 || !openedElements.get(last).equals(name)) {
+      throw unexpected();
+    }
+    openedElements.remove(last);
+
+    handler.endElement("", "", name);
+  }
+
+  /**
+   * Reads text of element and reports read characters to content handler. Line ends are normalized and references are decoded (the
+   * same as by XML parser).
+   *
+   * @param handler content handler which handles read texts.
+   * @throws UxfLexerException If the text contains unsupported reference or invalid character.
+   * @throws SAXException If some error occurs in content handler.
+   */
+  protected void readText(ContentHandler handler) throws UxfLexerException, SAXException {
+    int start = position;
+    while (position < length) {
+      char character = chars[position];
+      if (character == '<') {
+        break;
+      }
+      else if (character == '&' || character == '\r') {
+        if (position > start) {
+          handler.characters(chars, start, position - start);
+        }
+
+        if (character == '&') {
+          handler.characters(referenceChars, 0, readReference());
+        }
+        else {
+          referenceChars[0] = '\n';
+          handler.characters(referenceChars, 0, 1);
+          position += (charAt(position + 1) == '\n') ? 2 : 1;
+        }
+        start = position;
+      }
+      else if (character == '>' && position >= 2 && chars[position - 1] == ']' && chars[position - 2] == ']') {
+        throw unexpected();
+      }
+      else if (!isValidCharacter(character)) {
+        throw unexpected();
+      }
+      else {
+        position++;
+      }
+    }
+
+    if (position > start) {
+      handler.characters(chars, start, position - start);
+    }
+  }
+
+  /**
+   * Reads value of attribute. Whitespaces are normalized and references are decoded (the same as by XML parser).
+   *
+   * @return Read value of attribute.
+   * @throws UxfLexerException If the value is not well-formed.
+   */
+  protected String readAttributeValue() throws UxfLexerException {
+    char quote = charAt(position);
+    if (quote != '"' && quote != '\'') {
+      throw unexpected();
+    }
+    position++;
+
+    buffer.setLength(0);
+    while (true) {
+      if (position >= length) {
+        throw unexpected();
+      }
+
+      char character = chars[position];
+      if (character == quote) {
+        position++;
+        break;
+      }
+      else if (character == '&') {
+        buffer.append(referenceChars, 0, readReference());
+      }
+      else if (character == '\r' || character == '\n' || character == '\t') {
+        buffer.append(' ');
+        position += (character == '\r' && charAt(position + 1) == '\n') ? 2 : 1;
+      }
+      else if (character == '<' || !isValidCharacter(character)) {
+        throw unexpected();
+      }
+      else {
+        buffer.append(character);
+        position++;
+      }
+    }
+
+    return buffer.toString();
+  }
+
+  /**
+   * Reads predefined entity or character reference and stores decoded characters into {@link #referenceChars}.
+   *
+   * @return Count of decoded characters.
+   * @throws UxfLexerException If the reference is not supported or if it's not well-formed.
+   */
+  protected int readReference() throws UxfLexerException {
+    int end = position + 1;
+    while (end < length && chars[end] != ';' && end - position <= 10) {
+      end++;
+    }
+
+    if (end >= length || chars[end] != ';') {
+      throw unexpected();
+    }
+
+    String reference = new String(chars, position + 1, end - position - 1);
+    position = end + 1;
+
+    char character;
+    if (reference.equals("lt")) {
+      character = '<';
+    }
+    else if (reference.equals("gt")) {
+      character = '>';
+    }
+    else if (reference.equals("amp")) {
+      character = '&';
+    }
+    else if (reference.equals("quot")) {
+      character = '"';
+    }
+    else if (reference.equals("apos")) {
+      character = '\'';
+    }
+    else if (reference.startsWith("#")) {
+      return Character.toChars(parseCodePoint(reference), referenceChars, 0);
+    }
+    else {
+      throw unexpected();
+    }
+
+    referenceChars[0] = character;
+
+    return 1;
+  }
+
+  /**
+   * Parses code point of character reference.
+   *
+   * @param reference character reference (without ampersand and semicolon).
+   * @return Code point of character reference.
+   * @throws UxfLexerException If the character reference is not well-formed or if it's not valid XML character.
+   */
+  protected int parseCodePoint(String reference) throws UxfLexerException {
+    boolean hexadecimal = reference.startsWith("#x");
+    String digits = reference.substring(hexadecimal ? 2 : 1);
+    if (digits.length() == 0 || digits.charAt(0) == '-' || digits.charAt(0) == '+') {
+      throw unexpected();
+    }
+
+    int codePoint;
+    try {
+      codePoint = Integer.parseInt(digits, hexadecimal ? 16 : 10);
+    }
+    catch (NumberFormatException exc) {
+      throw unexpected();
+    }
+
+    boolean valid = codePoint == '\t' || codePoint == '\n' || codePoint == '\r' || (codePoint >= 0x20 && codePoint <= 0xD7FF)
+      || (codePoint >= 0xE000 && codePoint <= 0xFFFD) || (codePoint >= 0x10000 && codePoint <= 0x10FFFF);
+    if (!valid) {
+      throw unexpected();
+    }
+
+    return codePoint;
+  }
+
+  /**
+   * Reads name of element or attribute. Only names from ASCII characters are supported.
+   *
+   * @return Read name.
+   * @throws UxfLexerException If the name is not supported.
+   */
+  protected String readName() throws UxfLexerException {
+    int start = position;
+    char character = charAt(position);
+    if (!isNameStartCharacter(character)) {
+      throw unexpected();
+    }
+
+    position++;
+    while (position < length && isNameCharacter(chars[position])) {
+      position++;
+    }
+
+    if (position < length && chars[position] > 0x7F) {
+      throw unexpected();
+    }
+
+    return new String(chars, start, position - start);
+  }
+
+  /**
+   * Skips comment.
+   *
+   * @throws UxfLexerException If there is no comment but another construction (DTD or CDATA section) or if the comment is not
+   *           well-formed.
+   */
+  protected void skipComment() throws UxfLexerException {
+    if (!startsWith(COMMENT_START, position)) {
+      throw unexpected();
+    }
+
+    int end = indexOf(COMMENT_END, position + COMMENT_START.length());
+    if (end < 0 || indexOf("--", position + COMMENT_START.length()) != end) {
+      throw unexpected();
+    }
+
+    position = end + COMMENT_END.length();
+  }
+
+  /**
+   * Skips processing instruction.
+   *
+   * @throws UxfLexerException If the processing instruction is not well-formed or if its target is reserved by XML.
+   */
+  protected void skipProcessingInstruction() throws UxfLexerException {
+    position += 2;
+    String target = readName();
+    if (target.toLowerCase(Locale.ENGLISH).startsWith("xml")) {
+      throw unexpected();
+    }
+    if (!isWhitespace(charAt(position)) && !startsWith(PROCESSING_INSTRUCTION_END, position)) {
+      throw unexpected();
+    }
+
+    int end = indexOf(PROCESSING_INSTRUCTION_END, position);
+    if (end < 0) {
+      throw unexpected();
+    }
+
+    position = end + PROCESSING_INSTRUCTION_END.length();
+  }
+
+  /**
+   * Skips whitespaces from actual position.
+   */
+  protected void skipWhitespaces() {
+    while (position < length && isWhitespace(chars[position])) {
+      position++;
+    }
+  }
+
+  /**
+   * Returns character at specified position in UXF content.
+   *
+   * @param index position in UXF content.
+   * @return Character at specified position; <code>0</code> if the position is after end of content.
+   */
+  protected char charAt(int index) {
+    return (index < length) ? chars[index] : 0;
+  }
+
+  /**
+   * Checks whether the UXF content contains specified string at specified position.
+   *
+   * @param string searched string.
+   * @param index position in UXF content.
+   * @return <code>true</code> if the content contains string at specified position; <code>false</code> otherwise.
+   */
+  protected boolean startsWith(String string, int index) {
+    if (index + string.length() > length) {
+      return false;
+    }
+
+    for (int i = 0; i < string.length(); i++) {
+      if (chars[index + i] != string.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns position of the first occurrence of specified string in UXF content from specified position.
+   *
+   * @param string searched string.
+   * @param index position from which will be string searched.
+   * @return Position of found string; <code>-1</code> if the string is not found.
+   */
+  protected int indexOf(String string, int index) {
+    for (int i = index; i + string.length() <= length; i++) {
+      if (startsWith(string, i)) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Creates exception about unexpected content at actual position.
+   *
+   * @return Created exception.
+   */
+  protected UxfLexerException unexpected() {
+    return new UxfLexerException(Strings.getFormatted("exc.uxf.lexer.unexpected", String.valueOf(position)));
+  }
+
+  /**
+   * Checks whether the character is XML whitespace.
+   *
+   * @param character checked character.
+   * @return <code>true</code> if the character is whitespace; <code>false</code> otherwise.
+   */
+  protected static boolean isWhitespace(char character) {
+    return character == ' ' || character == '\n' || character == '\r' || character == '\t';
+  }
+
+  /**
+   * Checks whether the character can be in XML content (surrogates are checked by decoder).
+   *
+   * @param character checked character.
+   * @return <code>true</code> if the character is valid; <code>false</code> otherwise.
+   */
+  protected static boolean isValidCharacter(char character) {
+    return (character >= 0x20 && character != '\uFFFE' && character != '\uFFFF') || character == '\n' || character == '\t';
+  }
+
+  /**
+   * Checks whether the character can be the first character of supported name.
+   *
+   * @param character checked character.
+   * @return <code>true</code> if the character can be the first character of name; <code>false</code> otherwise.
+   */
+  protected static boolean isNameStartCharacter(char character) {
+    return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z') || character == '_' || character == ':';
+  }
+
+  /**
+   * Checks whether the character can be in supported name.
+   *
+   * @param character checked character.
+   * @return <code>true</code> if the character can be in name; <code>false</code> otherwise.
+   */
+  protected static boolean isNameCharacter(char character) {
+    return isNameStartCharacter(character) || (character >= '0' && character <= '9') || character == '-' || character == '.';
+  }
+
+}
@@ -1,7 +1,11 @@
 package cz.zcu.kiv.oop.uxf.reader.sax;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
@@ -10,22 +14,27 @@ import org.xml.sax.helpers.DefaultHandler;
 import cz.zcu.kiv.oop.Strings;
 import cz.zcu.kiv.oop.exception.InitException;
 import cz.zcu.kiv.oop.properties.PropertiesProvider;
+import cz.zcu.kiv.oop.properties.keys.StringPropertyKey;
 import cz.zcu.kiv.oop.uml.UmlDiagram;
-import cz.zcu.kiv.oop.uml.element.UmlClass;
 import cz.zcu.kiv.oop.uml.element.UmlElement;
-import cz.zcu.kiv.oop.uml.element.UmlRelation;
 import cz.zcu.kiv.oop.uml.exception.UmlException;
 import cz.zcu.kiv.oop.uml.factory.DefaultUmlElementFactory;
 import cz.zcu.kiv.oop.uml.factory.UmlElementFactory;
-import cz.zcu.kiv.oop.uml.geometry.UmlLineShape;
-import cz.zcu.kiv.oop.uml.geometry.UmlRectangle;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.util.NumberUtils;
 import cz.zcu.kiv.oop.uxf.exception.UxfVersionFormatException;
+import cz.zcu.kiv.oop.uxf.reader.UmlElementVisitor;
+import cz.zcu.kiv.oop.uxf.reader.UxfReaderUtils;
+import cz.zcu.kiv.oop.uxf.reader.UxfTag;
 import cz.zcu.kiv.oop.uxf.version.UxfVersion;
 import cz.zcu.kiv.oop.uxf.version.UxfVersionReaderPropertyKeys;
 
 /**
  * Abstract SAX Handler for reading UXF files which contains basic and general implementation of reading handling. All readers using
  * SAX should extends this handler.
+ * <p>
+ * Names of read tags are mapped to {@link UxfTag} by immutable table which is created only once for each class of handler (names of
+ * tags are read from properties only when the table is created).
  *
  * @author Mr.FrAnTA (Michal Dékány)
  */
@@ -37,6 +46,9 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
   /** Size of buffer. */
   protected static final int BUFFER_SIZE = 256;
 
+  /** Tables of tags for classes of handlers. Each table maps lower-case names of tags to tags. */
+  protected static final ConcurrentMap<Class<?>, Map<String, UxfTag>> TAGS_TABLES = new ConcurrentHashMap<Class<?>, Map<String, UxfTag>>();
+
   /** Read UML diagram. */
   protected UmlDiagram umlDiagram;
   /** Read room level of UML diagram. */
@@ -60,6 +72,10 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
   protected PropertiesProvider propertiesProvider;
   /** Element provider which provides UML elements. */
   protected UmlElementFactory elementFactory;
+  /** Table which maps lower-case names of tags to tags. */
+  protected Map<String, UxfTag> tags;
+  /** Visitor of read UML elements; <code>null</code> if the elements are collected into UML diagram. */
+  protected UmlElementVisitor visitor;
 
   /**
    * Constructs and initializes handler.
@@ -67,6 +83,7 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
   public AbstractUxfSaxHandler() {
     initPropertiesProvider();
     initElementFactory();
+    initTags();
   }
 
   /**
@@ -83,6 +100,62 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
     elementFactory = new DefaultUmlElementFactory(propertiesProvider);
   }
 
+  /**
+   * Initializes table of tags. The table is created only for the first handler of the same class, other handlers use the same
+   * table.
+   */
+  protected void initTags() {
+    tags = TAGS_TABLES.get(getClass());
+    if (tags == null) {
+      Map<String, UxfTag> createdTags = Collections.unmodifiableMap(createTags());
+      tags = TAGS_TABLES.putIfAbsent(getClass(), createdTags);
+      if (tags == null) {
+        tags = createdTags;
+      }
+    }
+  }
+
+  /**
+   * Creates table of tags which are handled by this handler. Handlers for other versions can add their own tags.
+   *
+   * @return Created table which maps lower-case names of tags to tags.
+   */
+  protected Map<String, UxfTag> createTags() {
+    return UxfReaderUtils.createTags(propertiesProvider);
+  }
+
+  /**
+   * Puts tag into table of tags under lower-case name of tag from properties. If there is already some tag with the same name, the
+   * first one is kept (the same as order of checks of names).
+   *
+   * @param createdTags table of tags.
+   * @param tagKey property key for name of tag.
+   * @param tag tag which will be put into table.
+   */
+  protected void putTag(Map<String, UxfTag> createdTags, StringPropertyKey tagKey, UxfTag tag) {
+    UxfReaderUtils.putTag(createdTags, propertiesProvider, tagKey, tag);
+  }
+
+  /**
+   * Returns tag for name of read tag. Names of tags are case-insensitive.
+   *
+   * @param qName name of read tag.
+   * @return Tag for name of read tag; <code>null</code> if the tag is not handled.
+   */
+  protected UxfTag getTag(String qName) {
+    return UxfReaderUtils.getTag(tags, qName);
+  }
+
+  /**
+   * Converts name of tag to lower-case name which is used in table of tags.
+   *
+   * @param name name of tag.
+   * @return Lower-case name of tag.
+   */
+  protected static String toTagName(String name) {
+    return UxfReaderUtils.toTagName(name);
+  }
+
   /**
    * Action before start of XML file which clears read elements.
    */
@@ -92,10 +165,14 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
   }
 
   /**
-   * Action after end of XML file which links relations.
+   * Action after end of XML file which links relations. If the read elements are passed to visitor, no UML diagram is created.
    */
   @Override
   public void endDocument() {
+    if (visitor != null) {
+      return;
+    }
+
     linkRelations();
 
     umlDiagram = new UmlDiagram(elements);
@@ -105,50 +182,7 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
    * Links relations - sets from and into which class leads relations.
    */
   protected void linkRelations() {
-    List<UmlRelation> relations = new ArrayList<UmlRelation>();
-    List<UmlClass> classes = new ArrayList<UmlClass>();
-
-    for (UmlElement element : elements) {
-      if (element instanceof UmlRelation) {
-        relations.add((UmlRelation)element);
-      }
-      else if (element instanceof UmlClass) {
-        classes.add((UmlClass)element);
-      }
-    }
-
-    for (UmlRelation relation : relations) {
-      UmlLineShape line = relation.getRelationLine();
-      UmlClass from = null;
-      UmlClass to = null;
-      for (UmlClass clazz : classes) {
-        UmlRectangle rectangle = clazz.getCoordinates();
-        if (rectangle.contains(line.getStartPoint()) && from == null) {
-          from = clazz;
-        }
-        else if (rectangle.contains(line.getEndPoint()) && to == null) {
-          to = clazz;
-        }
-
-        if (from != null && to != null) {
-          break;
-        }
-      }
-
-      switch (relation.getRelationOrientationType()) {
-        case LEFT :
-          relation.setFrom(to);
-          relation.setTo(from);
-          break;
-
-        case RIGHT :
-        case UNI :
-        case UNDEFINED :
-          relation.setFrom(from);
-          relation.setTo(to);
-          break;
-      }
-    }
+    UxfReaderUtils.linkRelations(elements);
   }
 
   /**
@@ -162,25 +196,36 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
    */
   @Override
   public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
-    if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_ELEMENT))) {
-      actualUmlElement = new UmlElementDescriptor();
-      actualUmlElement.setZoomFactor(zoomLevel / (double)DEFAULT_ZOOM_LEVEL);
-    }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfVersionReaderPropertyKeys.TAG_DIAGRAM))) {
-      try {
-        String version = atts.getValue(propertiesProvider.getValue(UxfVersionReaderPropertyKeys.PARAMETER_VERSION));
-        uxfVersion = UxfVersion.parseVersion(version);
-      }
-      catch (UxfVersionFormatException exc) {
-        throw new SAXException(exc);
+    UxfTag tag = getTag(qName);
+    if (tag != null) {
+      switch (tag) {
+        case ELEMENT :
+          actualUmlElement = new UmlElementDescriptor();
+          actualUmlElement.setZoomFactor(zoomLevel / (double)DEFAULT_ZOOM_LEVEL);
+          break;
+
+        case DIAGRAM :
+          try {
+            String version = atts.getValue(propertiesProvider.getValue(UxfVersionReaderPropertyKeys.PARAMETER_VERSION));
+            uxfVersion = UxfVersion.parseVersion(version);
+          }
+          catch (UxfVersionFormatException exc) {
+            throw new SAXException(exc);
+          }
+          break;
+
+        case ZOOM_LEVEL :
+          zoomLevel = DEFAULT_ZOOM_LEVEL;
+          break;
+
+        case HELP_TEXT :
+          helpText = null;
+          break;
+
+        default :
+          break;
       }
     }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_ZOOM_LEVEL))) {
-      zoomLevel = DEFAULT_ZOOM_LEVEL;
-    }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_HELP_TEXT))) {
-      helpText = null;
-    }
 
     clearBufferBeforeRead();
   }
@@ -218,13 +263,19 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
    */
   @Override
   public void endElement(String uri, String localName, String qName) throws SAXException {
-    if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_ELEMENT))) {
+    UxfTag tag = getTag(qName);
+    if (tag == UxfTag.ELEMENT) {
       try {
         UmlElement umlElement = elementFactory.getUmlElement(actualUmlElement);
+        actualUmlElement = null;
         if (umlElement != null) {
-          elements.add(umlElement);
+          if (visitor == null) {
+            elements.add(umlElement);
+          }
+          else if (!visitor.visitElement(umlElement)) {
+            throw new UxfReadingStoppedException();
+          }
         }
-        actualUmlElement = null;
       }
       catch (UmlException exc) {
         throw new SAXException(exc);
@@ -232,14 +283,14 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
 
       return;
     }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfVersionReaderPropertyKeys.TAG_DIAGRAM))) {
+    else if (tag == UxfTag.DIAGRAM) {
       return;
     }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_ZOOM_LEVEL))) {
+    else if (tag == UxfTag.ZOOM_LEVEL) {
       zoomLevel = getIntegerValueFromBuffer(qName);
       return;
     }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_HELP_TEXT))) {
+    else if (tag == UxfTag.HELP_TEXT) {
       helpText = buffer.toString();
       return;
     }
@@ -248,27 +299,51 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
       throw new SAXException(Strings.getFormatted("exc.uxf.element-wrong-location", qName));
     }
 
-    // properties of element
-    if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_ELEMENT_TYPE))) {
-      actualUmlElement.setElementType(buffer.toString());
-    }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_COORDINATE_X))) {
-      actualUmlElement.setX(getDoubleValueFromBuffer(qName));
-    }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_COORDINATE_Y))) {
-      actualUmlElement.setY(getDoubleValueFromBuffer(qName));
-    }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_COORDINATE_WIDTH))) {
-      actualUmlElement.setWidth(getDoubleValueFromBuffer(qName));
+    if (tag != null) {
+      endElementProperty(tag, qName);
     }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_COORDINATE_HEIGHT))) {
-      actualUmlElement.setHeight(getDoubleValueFromBuffer(qName));
-    }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_PANEL_ATTRIBUTES))) {
-      actualUmlElement.setPanelAttributes(buffer.toString());
-    }
-    else if (qName.equalsIgnoreCase(propertiesProvider.getValue(UxfSaxReaderPropertyKeys.TAG_ADDITIONAL_ATTRIBUTES))) {
-      actualUmlElement.setAdditionalAttributes(buffer.toString());
+  }
+
+  /**
+   * Handling of end of XML element which contains property of actual read UML element. Stores read characters into descriptor of
+   * UML element.
+   *
+   * @param tag tag of element.
+   * @param qName The qualified name (with prefix), or the empty string if qualified names are not available.
+   * @throws SAXException If some error occurs during reading of property.
+   */
+  protected void endElementProperty(UxfTag tag, String qName) throws SAXException {
+    switch (tag) {
+      case ELEMENT_TYPE :
+        actualUmlElement.setElementType(buffer.toString());
+        break;
+
+      case COORDINATE_X :
+        actualUmlElement.setX(getDoubleValueFromBuffer(qName));
+        break;
+
+      case COORDINATE_Y :
+        actualUmlElement.setY(getDoubleValueFromBuffer(qName));
+        break;
+
+      case COORDINATE_WIDTH :
+        actualUmlElement.setWidth(getDoubleValueFromBuffer(qName));
+        break;
+
+      case COORDINATE_HEIGHT :
+        actualUmlElement.setHeight(getDoubleValueFromBuffer(qName));
+        break;
+
+      case PANEL_ATTRIBUTES :
+        actualUmlElement.setPanelAttributes(buffer.toString());
+        break;
+
+      case ADDITIONAL_ATTRIBUTES :
+        actualUmlElement.setAdditionalAttributes(buffer.toString());
+        break;
+
+      default :
+        break;
     }
   }
 
@@ -283,19 +358,18 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
   }
 
   /**
-   * Parses integer value which is stored in buffer.
+   * Parses integer value which is stored in buffer. The value is parsed directly from buffer (no string is created).
    *
    * @param elementName name of element which contains integer value.
    * @return Parsed integer value of string stored in buffer.
    * @throws SAXException If integer value is in wrong format.
    */
   protected int getIntegerValueFromBuffer(String elementName) throws SAXException {
-    String bufferValue = buffer.toString();
     try {
-      return Integer.parseInt(bufferValue);
+      return NumberUtils.parseInt(buffer);
     }
     catch (NumberFormatException exc) {
-      throw new SAXException(Strings.getFormatted("exc.uxf.number-format", bufferValue, elementName), exc);
+      throw new SAXException(Strings.getFormatted("exc.uxf.number-format", buffer.toString(), elementName), exc);
     }
   }
 
@@ -310,22 +384,41 @@ public abstract class AbstractUxfSaxHandler extends DefaultHandler implements Ux
   }
 
   /**
-   * Parses double value which is stored in buffer.
+   * Parses double value which is stored in buffer. The value is parsed directly from buffer (no string is created).
    *
    * @param elementName name of element which contains double value.
    * @return Parsed double value of string stored in buffer.
    * @throws SAXException If double value is in wrong format.
    */
   protected double getDoubleValueFromBuffer(String elementName) throws SAXException {
-    String bufferValue = buffer.toString();
     try {
-      return Double.valueOf(bufferValue);
+      return NumberUtils.parseDouble(buffer);
     }
     catch (NumberFormatException exc) {
-      throw new SAXException(Strings.getFormatted("exc.uxf.number-format", bufferValue, elementName), exc);
+      throw new SAXException(Strings.getFormatted("exc.uxf.number-format", buffer.toString(), elementName), exc);
     }
   }
 
+  /**
+   * Sets projection which determines parts of UML diagram read by this handler. The projection is set to element factory.
+   *
+   * @param projection projection of UML diagram.
+   */
+  @Override
+  public void setProjection(UmlElementProjection projection) {
+    elementFactory.setProjection(projection);
+  }
+
+  /**
+   * Sets visitor to which will be passed read UML elements instead of collecting them into UML diagram.
+   *
+   * @param visitor visitor of read UML elements.
+   */
+  @Override
+  public void setVisitor(UmlElementVisitor visitor) {
+    this.visitor = visitor;
+  }
+
   /**
    * Returns read UML diagram from UXF file.
    *
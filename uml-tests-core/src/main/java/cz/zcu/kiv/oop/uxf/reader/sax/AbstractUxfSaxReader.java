@@ -1,8 +1,5 @@
 package cz.zcu.kiv.oop.uxf.reader.sax;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -10,89 +7,160 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
-import org.springframework.util.StringUtils;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 
 import cz.zcu.kiv.oop.Strings;
 import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
 import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+import cz.zcu.kiv.oop.uxf.reader.AbstractUxfReader;
+import cz.zcu.kiv.oop.uxf.reader.UmlElementVisitor;
 import cz.zcu.kiv.oop.uxf.reader.UxfReader;
+import cz.zcu.kiv.oop.uxf.reader.UxfReaderUtils;
 
 /**
  * Abstract implementation of reader of UXF files version using SAX for reading of UXF. This reader could be ancestor of all UXF
  * readers (for any version). Main logic of reader is implemented but there is important to extends method {@link #createHandler()}
  * which provides handler for handling reading of UXF.
+ * <p>
+ * SAX parsers are not thread-safe and their creation is expensive, so each thread uses its own parser which is reset after each
+ * reading of UXF. Readers can be used by more threads at once.
  *
  * @author Mr.FrAnTA (Michal Dékány)
  */
-public abstract class AbstractUxfSaxReader implements UxfReader {
+public abstract class AbstractUxfSaxReader extends AbstractUxfReader implements UxfReader {
 
-  /** Factory which provides SAX parsers which are used for parsing UXF files. */
+  /** Factory which provides SAX parsers which are used for parsing UXF files (access has to be synchronized on the factory). */
   protected static final SAXParserFactory spf = SAXParserFactory.newInstance();
+  /** SAX parsers of threads; the parser is reset after each reading of UXF and used again. */
+  protected static final ThreadLocal<SAXParser> parsers = new ThreadLocal<SAXParser>();
 
   /**
    * Static constructor which initializes validating of UXF file.
    */
-  {
+  static {
     spf.setValidating(false);
   }
 
   /**
-   * Reads UML diagram from specified UXF file.
+   * Reads projection of UML diagram from input stream with content of UXF file. The stream is not closed.
    *
-   * @param uxfFile path to UXF file which contains UML diagram.
-   * @return Read UML diagram from specified UXF file.
-   * @throws UxfReaderException If some error occurs during reading of UXF file.
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
    */
   @Override
-  public UmlDiagram readDiagram(String uxfFile) throws UxfReaderException {
-    if (!StringUtils.hasText(uxfFile)) {
-      throw new UxfReaderException(Strings.get("exc.uxf.empty-filename"));
+  public UmlDiagram readDiagram(InputStream uxfStream, String sourceName, UmlElementProjection projection)
+    throws UxfReaderException {
+    UxfSaxHandler uxfSaxHandler = createHandler(projection);
+    parse(uxfStream, sourceName, uxfSaxHandler);
+
+    return uxfSaxHandler.getUmlDiagram();
+  }
+
+  /**
+   * Reads UML elements from input stream with content of UXF file and passes them to visitor as they are read. The stream is not
+   * closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public void readElements(InputStream uxfStream, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderException {
+    parse(uxfStream, sourceName, createHandler(projection, visitor));
+  }
+
+  /**
+   * Parses input stream with content of UXF file by SAX parser of the current thread. If the reading is stopped by visitor of UML
+   * elements, the parsing ends normally.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param uxfSaxHandler handler which handles reading of UXF.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  protected void parse(InputStream uxfStream, String sourceName, UxfSaxHandler uxfSaxHandler) throws UxfReaderException {
+    if (uxfStream == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-stream"));
     }
 
+    SAXParser saxParser = getParser();
     XMLReader xmlReader = null;
     try {
-      SAXParser saxParser = spf.newSAXParser();
       xmlReader = saxParser.getXMLReader();
     }
-    catch (ParserConfigurationException exc) {
-      throw new UxfReaderException(Strings.get("exc.uxf.cannot-create-SAX-parser"), exc);
-    }
     catch (SAXException exc) {
+      parsers.remove();
       throw new UxfReaderException(Strings.get("exc.uxf.cannot-create-XML-reader"), exc);
     }
 
-    UxfSaxHandler uxfSaxHandler = createHandler();
     xmlReader.setContentHandler(uxfSaxHandler);
 
-    InputStream is = null;
     try {
-      is = new FileInputStream(new File(uxfFile));
-      xmlReader.parse(new InputSource(is));
+      xmlReader.parse(new InputSource(uxfStream));
     }
-    catch (FileNotFoundException exc) {
-      throw new UxfReaderException(Strings.getFormatted("exc.uxf.uxf-file-not-found", uxfFile), exc);
+    catch (UxfReadingStoppedException exc) {
+      // reading was stopped by visitor
     }
     catch (IOException exc) {
-      throw new UxfReaderException(Strings.get("exc.uxf.io-exception"), exc);
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.io-exception", sourceName), exc);
     }
     catch (SAXException exc) {
-      throw new UxfReaderException(Strings.get("exc.uxf.sax-exception"), exc);
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.sax-exception", sourceName), exc);
     }
     finally {
-      if (is != null) {
-        try {
-          is.close();
-        }
-        catch (IOException exc) {
-          // this is not important...
+      releaseParser(saxParser);
+    }
+  }
+
+  /**
+   * Returns SAX parser of the current thread. The parser is created when the thread reads UXF for the first time.
+   *
+   * @return SAX parser of the current thread.
+   * @throws UxfReaderException If the SAX parser cannot be created.
+   */
+  protected static SAXParser getParser() throws UxfReaderException {
+    SAXParser saxParser = parsers.get();
+    if (saxParser == null) {
+      try {
+        synchronized (spf) {
+          saxParser = spf.newSAXParser();
         }
       }
+      catch (ParserConfigurationException exc) {
+        throw new UxfReaderException(Strings.get("exc.uxf.cannot-create-SAX-parser"), exc);
+      }
+      catch (SAXException exc) {
+        throw new UxfReaderException(Strings.get("exc.uxf.cannot-create-XML-reader"), exc);
+      }
+
+      parsers.set(saxParser);
     }
 
-    return uxfSaxHandler.getUmlDiagram();
+    return saxParser;
+  }
+
+  /**
+   * Resets SAX parser of the current thread after reading of UXF so it can be used again. If the parser cannot be reset, it's
+   * dropped and new parser will be created for the next reading.
+   *
+   * @param saxParser SAX parser of the current thread.
+   */
+  protected static void releaseParser(SAXParser saxParser) {
+    try {
+      saxParser.reset();
+    }
+    catch (UnsupportedOperationException exc) {
+      parsers.remove();
+    }
   }
 
   /**
@@ -102,4 +170,36 @@ public abstract class AbstractUxfSaxReader implements UxfReader {
    */
   protected abstract UxfSaxHandler createHandler();
 
+  /**
+   * Returns SAX handler for reading projection of UML diagram from UXF files. For each reading of UXF is returned new handler.
+   *
+   * @param projection projection which determines read parts of UML diagram.
+   * @return SAX handler for reading UXF files.
+   */
+  protected UxfSaxHandler createHandler(UmlElementProjection projection) {
+    UxfSaxHandler uxfSaxHandler = createHandler();
+    uxfSaxHandler.setProjection(projection);
+
+    return uxfSaxHandler;
+  }
+
+  /**
+   * Returns SAX handler which passes read UML elements to visitor. For each reading of UXF is returned new handler.
+   *
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @return SAX handler for reading UXF files.
+   * @throws UxfReaderException If the visitor is not set.
+   */
+  protected UxfSaxHandler createHandler(UmlElementProjection projection, UmlElementVisitor visitor) throws UxfReaderException {
+    if (visitor == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-visitor"));
+    }
+
+    UxfSaxHandler uxfSaxHandler = createHandler(projection);
+    uxfSaxHandler.setVisitor(visitor);
+
+    return uxfSaxHandler;
+  }
+
 }
@@ -0,0 +1,31 @@
+package cz.zcu.kiv.oop.uxf.reader.sax;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Exception which is thrown by SAX handler when the visitor of UML elements stops reading of UXF file. This exception is not an
+ * error; readers catch it and end reading normally.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfReadingStoppedException extends SAXException {
+
+  /** Serial version UID. */
+  private static final long serialVersionUID = 3650164720398624715L;
+
+  /**
+   * Constructs exception.
+   */
+  public UxfReadingStoppedException() {}
+
+  /**
+   * Stack trace is not filled because the exception only stops reading of UXF file.
+   *
+   * @return This exception.
+   */
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+}
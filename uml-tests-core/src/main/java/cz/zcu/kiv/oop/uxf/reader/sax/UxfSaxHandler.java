@@ -3,6 +3,8 @@ package cz.zcu.kiv.oop.uxf.reader.sax;
 import org.xml.sax.ContentHandler;
 
 import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.uxf.reader.UmlElementVisitor;
 import cz.zcu.kiv.oop.uxf.version.UxfVersion;
 
 /**
@@ -13,10 +15,25 @@ import cz.zcu.kiv.oop.uxf.version.UxfVersion;
  */
 public interface UxfSaxHandler extends ContentHandler {
 
+  /**
+   * Sets projection which determines parts of UML diagram read by this handler. Has to be set before reading of UXF.
+   *
+   * @param projection projection of UML diagram.
+   */
+  public void setProjection(UmlElementProjection projection);
+
+  /**
+   * Sets visitor to which will be passed read UML elements instead of collecting them into UML diagram (no UML diagram is created).
+   * If the visitor stops reading, the handler throws {@link UxfReadingStoppedException}. Has to be set before reading of UXF.
+   *
+   * @param visitor visitor of read UML elements.
+   */
+  public void setVisitor(UmlElementVisitor visitor);
+
   /**
    * Returns read UML diagram from UXF file.
    *
-   * @return Read UML diagram.
+   * @return Read UML diagram; <code>null</code> if the read elements were passed to visitor.
    */
   public UmlDiagram getUmlDiagram();
 
@@ -0,0 +1,365 @@
+package cz.zcu.kiv.oop.uxf.reader.stax;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.properties.PropertiesProvider;
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.element.UmlElement;
+import cz.zcu.kiv.oop.uml.exception.UmlException;
+import cz.zcu.kiv.oop.uml.factory.DefaultUmlElementFactory;
+import cz.zcu.kiv.oop.uml.factory.UmlElementFactory;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.util.NumberUtils;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+import cz.zcu.kiv.oop.uxf.reader.AbstractUxfReader;
+import cz.zcu.kiv.oop.uxf.reader.UmlElementVisitor;
+import cz.zcu.kiv.oop.uxf.reader.UxfReader;
+import cz.zcu.kiv.oop.uxf.reader.UxfReaderUtils;
+import cz.zcu.kiv.oop.uxf.reader.UxfTag;
+import cz.zcu.kiv.oop.uxf.reader.sax.AbstractUxfSaxHandler;
+import cz.zcu.kiv.oop.uxf.reader.sax.UmlElementDescriptor;
+
+/**
+ * Abstract implementation of reader of UXF files using StAX pull parser for reading of UXF. The reader reads the same UML diagrams
+ * as readers using SAX (it uses the same properties, tags and factories of UML elements), but the content of UXF is pulled by the
+ * reader so the text of tags is read directly without buffering of all characters of document.
+ * <p>
+ * Table of tags is created once for each reader and it's immutable, so readers can be used by more threads at once.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public abstract class AbstractUxfStaxReader extends AbstractUxfReader implements UxfReader {
+
+  /** Factory which provides StAX readers which are used for parsing UXF files (access has to be synchronized on the factory). */
+  protected static final XMLInputFactory xif = XMLInputFactory.newInstance();
+
+  /**
+   * Static constructor which initializes StAX factory (the same behavior as non-validating SAX parser without namespaces).
+   */
+  static {
+    xif.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+    xif.setProperty(XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
+    xif.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+  }
+
+  /** Properties provider which provides properties for reading of UXF. */
+  protected final PropertiesProvider propertiesProvider;
+  /** Table which maps lower-case names of tags to tags. */
+  protected final Map<String, UxfTag> tags;
+
+  /**
+   * Constructs and initializes reader.
+   */
+  public AbstractUxfStaxReader() {
+    propertiesProvider = getPropertiesProvider();
+    tags = Collections.unmodifiableMap(createTags());
+  }
+
+  /**
+   * Returns properties provider which provides properties for reading of UXF.
+   *
+   * @return Properties provider for reading of UXF.
+   */
+  protected abstract PropertiesProvider getPropertiesProvider();
+
+  /**
+   * Creates element factory which creates UML elements from read descriptors. For each reading of UXF is created new factory.
+   *
+   * @return Created element factory.
+   */
+  protected UmlElementFactory createElementFactory() {
+    return new DefaultUmlElementFactory(propertiesProvider);
+  }
+
+  /**
+   * Creates table of tags which are handled by this reader. Readers for other versions can add their own tags.
+   *
+   * @return Created table which maps lower-case names of tags to tags.
+   */
+  protected Map<String, UxfTag> createTags() {
+    return UxfReaderUtils.createTags(propertiesProvider);
+  }
+
+  /**
+   * Reads projection of UML diagram from input stream with content of UXF file. The stream is not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @return Read projection of UML diagram from UXF content.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public UmlDiagram readDiagram(InputStream uxfStream, String sourceName, UmlElementProjection projection)
+    throws UxfReaderException {
+    if (uxfStream == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-stream"));
+    }
+
+    UmlElementFactory elementFactory = createElementFactory();
+    elementFactory.setProjection(projection);
+
+    XMLStreamReader xmlStreamReader = createStreamReader(uxfStream);
+    try {
+      List<UmlElement> elements = readElements(xmlStreamReader, elementFactory);
+      UxfReaderUtils.linkRelations(elements);
+
+      return new UmlDiagram(elements);
+    }
+    catch (XMLStreamException exc) {
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.stax-exception", sourceName), exc);
+    }
+    catch (UmlException exc) {
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.stax-exception", sourceName), exc);
+    }
+    finally {
+      try {
+        xmlStreamReader.close();
+      }
+      catch (XMLStreamException exc) {
+        // this is not important...
+      }
+    }
+  }
+
+  /**
+   * Reads UML elements from input stream with content of UXF file and passes them to visitor as they are read. The stream is not
+   * closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @param sourceName name of source of UXF content which is used in error messages (can be <code>null</code>).
+   * @param projection projection which determines read parts of UML diagram.
+   * @param visitor visitor of read UML elements.
+   * @throws UxfReaderException If some error occurs during reading of UXF content.
+   */
+  @Override
+  public void readElements(InputStream uxfStream, String sourceName, UmlElementProjection projection, UmlElementVisitor visitor)
+    throws UxfReaderException {
+    if (uxfStream == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-stream"));
+    }
+    if (visitor == null) {
+      throw new UxfReaderException(Strings.get("exc.uxf.null-visitor"));
+    }
+
+    UmlElementFactory elementFactory = createElementFactory();
+    elementFactory.setProjection(projection);
+
+    XMLStreamReader xmlStreamReader = createStreamReader(uxfStream);
+    try {
+      readElements(xmlStreamReader, elementFactory, visitor);
+    }
+    catch (XMLStreamException exc) {
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.stax-exception", sourceName), exc);
+    }
+    catch (UmlException exc) {
+      throw new UxfReaderException(UxfReaderUtils.getMessage("exc.uxf.stax-exception", sourceName), exc);
+    }
+    finally {
+      try {
+        xmlStreamReader.close();
+      }
+      catch (XMLStreamException exc) {
+        // this is not important...
+      }
+    }
+  }
+
+  /**
+   * Creates StAX reader for input stream with content of UXF file.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @return Created StAX reader.
+   * @throws UxfReaderException If the StAX reader cannot be created.
+   */
+  protected static XMLStreamReader createStreamReader(InputStream uxfStream) throws UxfReaderException {
+    try {
+      synchronized (xif) {
+        return xif.createXMLStreamReader(uxfStream);
+      }
+    }
+    catch (XMLStreamException exc) {
+      throw new UxfReaderException(Strings.get("exc.uxf.cannot-create-StAX-reader"), exc);
+    }
+  }
+
+  /**
+   * Reads UML elements from UXF content.
+   *
+   * @param xmlStreamReader StAX reader of UXF content.
+   * @param elementFactory factory which creates UML elements from read descriptors.
+   * @return Read UML elements.
+   * @throws XMLStreamException If some error occurs during reading of UXF content.
+   * @throws UxfReaderException If some tag has wrong location or some number has wrong format.
+   * @throws UmlException If some UML element cannot be created.
+   */
+  protected List<UmlElement> readElements(XMLStreamReader xmlStreamReader, UmlElementFactory elementFactory)
+    throws XMLStreamException, UxfReaderException, UmlException {
+    final List<UmlElement> elements = new ArrayList<UmlElement>();
+    readElements(xmlStreamReader, elementFactory, new UmlElementVisitor() {
+      @Override
+      public boolean visitElement(UmlElement element) {
+        elements.add(element);
+
+        return true;
+      }
+    });
+
+    return elements;
+  }
+
+  /**
+   * Reads UML elements from UXF content and passes them to visitor as they are read. The reading ends when the visitor stops it.
+   *
+   * @param xmlStreamReader StAX reader of UXF content.
+   * @param elementFactory factory which creates UML elements from read descriptors.
+   * @param visitor visitor of read UML elements.
+   * @throws XMLStreamException If some error occurs during reading of UXF content.
+   * @throws UxfReaderException If some tag has wrong location or some number has wrong format.
+   * @throws UmlException If some UML element cannot be created.
+   */
+  protected void readElements(XMLStreamReader xmlStreamReader, UmlElementFactory elementFactory, UmlElementVisitor visitor)
+    throws XMLStreamException, UxfReaderException, UmlException {
+    UmlElementDescriptor actualUmlElement = null;
+    // zoom level is the same as in SAX handler when the tag is missing
+    int zoomLevel = 0;
+
+    while (xmlStreamReader.hasNext()) {
+      int event = xmlStreamReader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        String name = xmlStreamReader.getLocalName();
+        UxfTag tag = UxfReaderUtils.getTag(tags, name);
+        if (tag == null || tag == UxfTag.DIAGRAM) {
+          continue;
+        }
+
+        switch (tag) {
+          case ELEMENT :
+            actualUmlElement = new UmlElementDescriptor();
+            actualUmlElement.setZoomFactor(zoomLevel / (double)AbstractUxfSaxHandler.DEFAULT_ZOOM_LEVEL);
+            break;
+
+          case ZOOM_LEVEL :
+            zoomLevel = parseInt(xmlStreamReader.getElementText(), name);
+            break;
+
+          case HELP_TEXT :
+            xmlStreamReader.getElementText();
+            break;
+
+          default :
+            if (actualUmlElement == null) {
+              throw new UxfReaderException(Strings.getFormatted("exc.uxf.element-wrong-location", name));
+            }
+
+            readElementProperty(actualUmlElement, tag, name, xmlStreamReader.getElementText());
+            break;
+        }
+      }
+      else if (event == XMLStreamConstants.END_ELEMENT) {
+        String name = xmlStreamReader.getLocalName();
+        UxfTag tag = UxfReaderUtils.getTag(tags, name);
+        if (tag == UxfTag.ELEMENT) {
+          UmlElement umlElement = elementFactory.getUmlElement(actualUmlElement);
+          actualUmlElement = null;
+          if (umlElement != null && !visitor.visitElement(umlElement)) {
+            return;
+          }
+        }
+        else if (tag == null && actualUmlElement == null) {
+          throw new UxfReaderException(Strings.getFormatted("exc.uxf.element-wrong-location", name));
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads text of tag which contains property of actual read UML element into descriptor of UML element.
+   *
+   * @param actualUmlElement descriptor of actual read UML element.
+   * @param tag tag of element.
+   * @param name name of element.
+   * @param text text of element.
+   * @throws UxfReaderException If some error occurs during reading of property.
+   */
+  protected void readElementProperty(UmlElementDescriptor actualUmlElement, UxfTag tag, String name, String text)
+    throws UxfReaderException {
+    switch (tag) {
+      case ELEMENT_TYPE :
+        actualUmlElement.setElementType(text);
+        break;
+
+      case COORDINATE_X :
+        actualUmlElement.setX(parseDouble(text, name));
+        break;
+
+      case COORDINATE_Y :
+        actualUmlElement.setY(parseDouble(text, name));
+        break;
+
+      case COORDINATE_WIDTH :
+        actualUmlElement.setWidth(parseDouble(text, name));
+        break;
+
+      case COORDINATE_HEIGHT :
+        actualUmlElement.setHeight(parseDouble(text, name));
+        break;
+
+      case PANEL_ATTRIBUTES :
+        actualUmlElement.setPanelAttributes(text);
+        break;
+
+      case ADDITIONAL_ATTRIBUTES :
+        actualUmlElement.setAdditionalAttributes(text);
+        break;
+
+      default :
+        break;
+    }
+  }
+
+  /**
+   * Parses integer value from text of element.
+   *
+   * @param text text of element.
+   * @param elementName name of element which contains integer value.
+   * @return Parsed integer value.
+   * @throws UxfReaderException If integer value is in wrong format.
+   */
+  protected static int parseInt(String text, String elementName) throws UxfReaderException {
+    try {
+      return NumberUtils.parseInt(text);
+    }
+    catch (NumberFormatException exc) {
+      throw new UxfReaderException(Strings.getFormatted("exc.uxf.number-format", text, elementName), exc);
+    }
+  }
+
+  /**
+   * Parses double value from text of element.
+   *
+   * @param text text of element.
+   * @param elementName name of element which contains double value.
+   * @return Parsed double value.
+   * @throws UxfReaderException If double value is in wrong format.
+   */
+  protected static double parseDouble(String text, String elementName) throws UxfReaderException {
+    try {
+      return NumberUtils.parseDouble(text);
+    }
+    catch (NumberFormatException exc) {
+      throw new UxfReaderException(Strings.getFormatted("exc.uxf.number-format", text, elementName), exc);
+    }
+  }
+
+}
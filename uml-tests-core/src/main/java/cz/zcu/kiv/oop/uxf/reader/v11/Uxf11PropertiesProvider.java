@@ -38,7 +38,7 @@ public class Uxf11PropertiesProvider extends AbstractPropertiesProvider implemen
    *
    * @return Singleton instance of this provider.
    */
-  public static Uxf11PropertiesProvider getInstance() {
+  public static synchronized Uxf11PropertiesProvider getInstance() {
     if (instance == null) {
       instance = new Uxf11PropertiesProvider();
     }
@@ -0,0 +1,13 @@
+package cz.zcu.kiv.oop.uxf.reader.v12;
+
+import cz.zcu.kiv.oop.uxf.reader.UxfReader;
+
+/**
+ * Implementation of UXF reader for diagrams version 12 which reads UXF by lexer without XML parser. Between version 11 and 12 are
+ * no changes in UXF structure. Because of that, this reader is same as for version 11.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class LexerUxfReaderImpl extends cz.zcu.kiv.oop.uxf.reader.v11.LexerUxfReaderImpl implements UxfReader {
+
+}
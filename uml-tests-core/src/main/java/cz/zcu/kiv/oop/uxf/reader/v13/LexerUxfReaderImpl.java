@@ -0,0 +1,25 @@
+package cz.zcu.kiv.oop.uxf.reader.v13;
+
+import cz.zcu.kiv.oop.uxf.reader.UxfReader;
+import cz.zcu.kiv.oop.uxf.reader.lexer.AbstractUxfLexerReader;
+import cz.zcu.kiv.oop.uxf.reader.sax.UxfSaxHandler;
+
+/**
+ * Implementation of reader of UXF files version 13 which reads UXF by lexer without XML parser. UXF files which are not supported
+ * by the lexer are read by SAX (the same as by {@link UxfReaderImpl}).
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class LexerUxfReaderImpl extends AbstractUxfLexerReader implements UxfReader {
+
+  /**
+   * Returns SAX handler for reading UXF files version 13. For each reading of UXF is returned new handler.
+   *
+   * @return SAX handler for reading UXF files version 13.
+   */
+  @Override
+  protected UxfSaxHandler createHandler() {
+    return new Uxf13SaxHandler();
+  }
+
+}
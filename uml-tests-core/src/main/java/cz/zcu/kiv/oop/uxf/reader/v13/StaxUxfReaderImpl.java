@@ -0,0 +1,78 @@
+package cz.zcu.kiv.oop.uxf.reader.v13;
+
+import java.util.Map;
+
+import cz.zcu.kiv.oop.properties.PropertiesProvider;
+import cz.zcu.kiv.oop.uml.factory.UmlElementFactory;
+import cz.zcu.kiv.oop.uml.factory.Uxf13UmlElementFactory;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+import cz.zcu.kiv.oop.uxf.reader.UxfReader;
+import cz.zcu.kiv.oop.uxf.reader.UxfReaderUtils;
+import cz.zcu.kiv.oop.uxf.reader.UxfTag;
+import cz.zcu.kiv.oop.uxf.reader.sax.UmlElementDescriptor;
+import cz.zcu.kiv.oop.uxf.reader.stax.AbstractUxfStaxReader;
+
+/**
+ * Implementation of reader of UXF files version 13 which uses StAX for reading of UXF. The reader reads the same UML diagrams as
+ * {@link UxfReaderImpl} which uses SAX.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class StaxUxfReaderImpl extends AbstractUxfStaxReader implements UxfReader {
+
+  /**
+   * Returns properties provider for UXF reader version 13.
+   *
+   * @return Properties provider for UXF reader version 13.
+   */
+  @Override
+  protected PropertiesProvider getPropertiesProvider() {
+    return Uxf13PropertiesProvider.getInstance();
+  }
+
+  /**
+   * Creates element factory for UXF reader version 13.
+   *
+   * @return Created element factory.
+   */
+  @Override
+  protected UmlElementFactory createElementFactory() {
+    return new Uxf13UmlElementFactory(propertiesProvider);
+  }
+
+  /**
+   * Creates table of tags which are handled by this reader. This is only extension of reader version 11 where is tag "id" which
+   * contains type of UML element.
+   *
+   * @return Created table which maps lower-case names of tags to tags.
+   */
+  @Override
+  protected Map<String, UxfTag> createTags() {
+    Map<String, UxfTag> createdTags = super.createTags();
+    UxfReaderUtils.putTag(createdTags, propertiesProvider, Uxf13SaxReaderPropertyKeys.TAG_ELEMENT_ID, UxfTag.ELEMENT_ID);
+
+    return createdTags;
+  }
+
+  /**
+   * Reads text of tag which contains property of actual read UML element into descriptor of UML element. This is only extension of
+   * reader version 11 where is tag "id" read into type of UML element.
+   *
+   * @param actualUmlElement descriptor of actual read UML element.
+   * @param tag tag of element.
+   * @param name name of element.
+   * @param text text of element.
+   * @throws UxfReaderException If some error occurs during reading of property.
+   */
+  @Override
+  protected void readElementProperty(UmlElementDescriptor actualUmlElement, UxfTag tag, String name, String text)
+    throws UxfReaderException {
+    if (tag == UxfTag.ELEMENT_ID) {
+      actualUmlElement.setElementType(text);
+    }
+    else {
+      super.readElementProperty(actualUmlElement, tag, name, text);
+    }
+  }
+
+}
@@ -38,7 +38,7 @@ public class Uxf13PropertiesProvider extends AbstractPropertiesProvider implemen
    *
    * @return Singleton instance of this provider.
    */
-  public static Uxf13PropertiesProvider getInstance() {
+  public static synchronized Uxf13PropertiesProvider getInstance() {
     if (instance == null) {
       instance = new Uxf13PropertiesProvider();
     }
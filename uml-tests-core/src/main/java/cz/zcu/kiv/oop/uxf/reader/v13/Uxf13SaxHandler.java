@@ -1,8 +1,11 @@
 package cz.zcu.kiv.oop.uxf.reader.v13;
 
+import java.util.Map;
+
 import org.xml.sax.SAXException;
 
 import cz.zcu.kiv.oop.uml.factory.Uxf13UmlElementFactory;
+import cz.zcu.kiv.oop.uxf.reader.UxfTag;
 import cz.zcu.kiv.oop.uxf.reader.sax.AbstractUxfSaxHandler;
 import cz.zcu.kiv.oop.uxf.reader.sax.UxfSaxHandler;
 
@@ -31,22 +34,35 @@ public class Uxf13SaxHandler extends AbstractUxfSaxHandler implements UxfSaxHand
   }
 
   /**
-   * Handling of end of XML element. Primary stores read characters into correct structure. This is only extension of handler
-   * version 11 where is tag "id" read into type of UML element.
+   * Creates table of tags which are handled by this handler. This is only extension of handler version 11 where is tag "id" which
+   * contains type of UML element.
    *
-   * @param uri The Namespace URI, or the empty string if the element has no Namespace URI or if Namespace processing is not being
-   *          performed.
-   * @param localName The local name (without prefix), or the empty string if Namespace processing is not being performed.
-   * @param qName The qualified name (with prefix), or the empty string if qualified names are not available.
-   * @throws SAXException If some error occurs during reading UML elements from UXF file.
+   * @return Created table which maps lower-case names of tags to tags.
    */
   @Override
-  public void endElement(String uri, String localName, String qName) throws SAXException {
-    super.endElement(uri, localName, qName);
+  protected Map<String, UxfTag> createTags() {
+    Map<String, UxfTag> createdTags = super.createTags();
+    putTag(createdTags, Uxf13SaxReaderPropertyKeys.TAG_ELEMENT_ID, UxfTag.ELEMENT_ID);
 
-    if (qName.equalsIgnoreCase(propertiesProvider.getValue(Uxf13SaxReaderPropertyKeys.TAG_ELEMENT_ID))) {
+    return createdTags;
+  }
+
+  /**
+   * Handling of end of XML element which contains property of actual read UML element. This is only extension of handler version
+   * 11 where is tag "id" read into type of UML element.
+   *
+   * @param tag tag of element.
+   * @param qName The qualified name (with prefix), or the empty string if qualified names are not available.
+   * @throws SAXException If some error occurs during reading of property.
+   */
+  @Override
+  protected void endElementProperty(UxfTag tag, String qName) throws SAXException {
+    if (tag == UxfTag.ELEMENT_ID) {
       actualUmlElement.setElementType(buffer.toString());
     }
+    else {
+      super.endElementProperty(tag, qName);
+    }
   }
 
 }
@@ -0,0 +1,135 @@
+package cz.zcu.kiv.oop.uxf.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Watcher of directory with UXF files which finds new and changed UXF files by polling. The file is reported only after it's
+ * stable (its size and time of last modification are same in two subsequent polls), so files which are just being copied into the
+ * directory are not reported too early. Each version of file is reported only once.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfDirectoryWatcher {
+
+  /** Watched directory. */
+  protected final File directory;
+  /** States of files which were already reported mapped by path of file. */
+  protected final Map<String, FileState> reportedFiles = new HashMap<String, FileState>();
+  /** States of new or changed files from last poll mapped by path of file. */
+  protected final Map<String, FileState> pendingFiles = new HashMap<String, FileState>();
+
+  /**
+   * Constructs watcher of given directory.
+   *
+   * @param directory watched directory.
+   */
+  public UxfDirectoryWatcher(File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Returns watched directory.
+   *
+   * @return Watched directory.
+   */
+  public File getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Polls the directory and returns UXF files which are new or changed since they were reported last time and which are stable.
+   *
+   * @return List of new or changed UXF files; empty list if there are no such files.
+   */
+  public List<File> poll() {
+    List<File> files = new ArrayList<File>();
+
+    File[] uxfFiles = directory.listFiles(UxfFilenameFilter.getInstance());
+    if (uxfFiles == null) {
+      return files;
+    }
+
+    Map<String, FileState> currentPendingFiles = new HashMap<String, FileState>();
+    for (File uxfFile : uxfFiles) {
+      String path = uxfFile.getAbsolutePath();
+      FileState state = new FileState(uxfFile.length(), uxfFile.lastModified());
+      if (state.equals(reportedFiles.get(path))) {
+        continue; // this version of file was already reported
+      }
+
+      if (state.equals(pendingFiles.get(path))) {
+        reportedFiles.put(path, state);
+        files.add(uxfFile);
+      }
+      else {
+        currentPendingFiles.put(path, state);
+      }
+    }
+
+    pendingFiles.clear();
+    pendingFiles.putAll(currentPendingFiles);
+
+    return files;
+  }
+
+  /**
+   * State of file (size and time of last modification).
+   *
+   * @author Mr.FrAnTA (Michal Dékány)
+   */
+  protected static class FileState {
+
+    /** Size of file. */
+    protected final long length;
+    /** Time of last modification of file. */
+    protected final long lastModified;
+
+    /**
+     * Constructs state of file.
+     *
+     * @param length size of file.
+     * @param lastModified time of last modification of file.
+     */
+    public FileState(long length, long lastModified) {
+      this.length = length;
+      this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns a hash code value for the state of file.
+     *
+     * @return A hash code value for the state of file.
+     */
+    @Override
+    public int hashCode() {
+      return (int)(length ^ (length >>> 32)) * 31 + (int)(lastModified ^ (lastModified >>> 32));
+    }
+
+    /**
+     * Indicates whether some other object is "equal to" this state of file.
+     *
+     * @param obj the reference object with which to compare.
+     * @return <code>true</code> if this state of file is the same as the obj argument; <code>false</code> otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+
+      if (!(obj instanceof FileState)) {
+        return false;
+      }
+
+      FileState other = (FileState)obj;
+
+      return length == other.length && lastModified == other.lastModified;
+    }
+
+  }
+
+}
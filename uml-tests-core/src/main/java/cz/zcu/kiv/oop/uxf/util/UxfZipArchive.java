@@ -0,0 +1,82 @@
+package cz.zcu.kiv.oop.uxf.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import cz.zcu.kiv.oop.Strings;
+
+/**
+ * ZIP archive on disk which is opened once and shared by its UXF files (see {@link UxfZipUtils#listUxfFiles(UxfZipArchive)}). The
+ * central directory of archive is read only when the archive is opened, so UXF files are read from the archive without opening it
+ * again. The archive can be read by more threads at once.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfZipArchive implements Closeable {
+
+  /** ZIP archive on disk. */
+  protected final File file;
+  /** Opened ZIP archive. */
+  protected final ZipFile zip;
+
+  /**
+   * Opens ZIP archive.
+   *
+   * @param file ZIP archive on disk.
+   * @throws IOException If the archive cannot be opened.
+   */
+  public UxfZipArchive(File file) throws IOException {
+    this.file = file;
+    this.zip = new ZipFile(file);
+  }
+
+  /**
+   * Returns ZIP archive on disk.
+   *
+   * @return ZIP archive on disk.
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Returns opened ZIP archive.
+   *
+   * @return Opened ZIP archive.
+   */
+  public ZipFile getZip() {
+    return zip;
+  }
+
+  /**
+   * Opens input stream with content of entry of archive. The archive stays opened when the stream is closed.
+   *
+   * @param entryName name of entry.
+   * @return Input stream with content of entry.
+   * @throws IOException If the entry cannot be read or it was not found.
+   */
+  public InputStream openEntry(String entryName) throws IOException {
+    ZipEntry entry = zip.getEntry(entryName);
+    if (entry == null) {
+      throw new FileNotFoundException(Strings.getFormatted("exc.uxf.zip-entry-not-found", entryName, file.getPath()));
+    }
+
+    return zip.getInputStream(entry);
+  }
+
+  /**
+   * Closes ZIP archive. UXF files from the archive cannot be read anymore.
+   *
+   * @throws IOException If the archive cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    zip.close();
+  }
+
+}
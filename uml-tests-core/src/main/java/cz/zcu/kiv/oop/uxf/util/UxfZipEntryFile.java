@@ -0,0 +1,216 @@
+package cz.zcu.kiv.oop.uxf.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.util.StreamUtils;
+
+/**
+ * UXF file which is entry of ZIP archive (entry can be also in ZIP archive nested in other ZIP archive). The path of this file is
+ * made from path of ZIP archive and names of entries separated by {@value #ENTRY_SEPARATOR}, so name of this file is name of UXF
+ * file in archive. Content of file is read directly from the archive by {@link #openStream()}, the archive is not extracted.
+ * <p>
+ * The file can be read from shared opened archive ({@link UxfZipArchive}) or its content can be already read (UXF files from nested
+ * archives, which can be read only sequentially). Otherwise the archive is opened for each reading of file.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfZipEntryFile extends File {
+
+  /** Serial version UID. */
+  private static final long serialVersionUID = 1L;
+
+  /** Separator of ZIP archive and names of entries in path of file. */
+  public static final String ENTRY_SEPARATOR = "!/";
+
+  /** ZIP archive on disk which contains the entry. */
+  protected final File zipFile;
+  /** Names of entries from the outermost archive; all except the last one are names of nested ZIP archives. */
+  protected final List<String> entryNames;
+  /** Shared opened archive from which is read the entry; <code>null</code> if the archive is opened for each reading. */
+  protected final transient UxfZipArchive archive;
+  /** Already read content of entry; <code>null</code> if the content is read from archive. */
+  protected final transient byte[] content;
+
+  /**
+   * Constructs UXF file which is entry of ZIP archive.
+   *
+   * @param zipFile ZIP archive on disk which contains the entry.
+   * @param entryNames names of entries from the outermost archive (all except the last one are names of nested ZIP archives).
+   */
+  public UxfZipEntryFile(File zipFile, List<String> entryNames) {
+    this(zipFile, entryNames, null, null);
+  }
+
+  /**
+   * Constructs UXF file which is entry of shared opened ZIP archive (not of nested archive).
+   *
+   * @param archive shared opened ZIP archive which contains the entry.
+   * @param entryName name of entry.
+   */
+  public UxfZipEntryFile(UxfZipArchive archive, String entryName) {
+    this(archive.getFile(), Collections.singletonList(entryName), archive, null);
+  }
+
+  /**
+   * Constructs UXF file which is entry of ZIP archive with already read content.
+   *
+   * @param zipFile ZIP archive on disk which contains the entry.
+   * @param entryNames names of entries from the outermost archive (all except the last one are names of nested ZIP archives).
+   * @param content already read content of entry.
+   */
+  public UxfZipEntryFile(File zipFile, List<String> entryNames, byte[] content) {
+    this(zipFile, entryNames, null, content);
+  }
+
+  /**
+   * Constructs UXF file which is entry of ZIP archive.
+   *
+   * @param zipFile ZIP archive on disk which contains the entry.
+   * @param entryNames names of entries from the outermost archive (all except the last one are names of nested ZIP archives).
+   * @param archive shared opened archive (<code>null</code> if the archive is opened for each reading).
+   * @param content already read content of entry (<code>null</code> if the content is read from archive).
+   */
+  protected UxfZipEntryFile(File zipFile, List<String> entryNames, UxfZipArchive archive, byte[] content) {
+    super(createPath(zipFile, entryNames));
+
+    this.zipFile = zipFile;
+    this.entryNames = Collections.unmodifiableList(new ArrayList<String>(entryNames));
+    this.archive = archive;
+    this.content = content;
+  }
+
+  /**
+   * Creates path of file from path of ZIP archive and names of entries.
+   *
+   * @param zipFile ZIP archive on disk which contains the entry.
+   * @param entryNames names of entries from the outermost archive.
+   * @return Path of file.
+   */
+  protected static String createPath(File zipFile, List<String> entryNames) {
+    StringBuilder path = new StringBuilder(zipFile.getPath());
+    for (String entryName : entryNames) {
+      path.append(ENTRY_SEPARATOR).append(entryName);
+    }
+
+    return path.toString();
+  }
+
+  /**
+   * Returns ZIP archive on disk which contains the entry.
+   *
+   * @return ZIP archive on disk which contains the entry.
+   */
+  public File getZipFile() {
+    return zipFile;
+  }
+
+  /**
+   * Returns names of entries from the outermost archive.
+   *
+   * @return Unmodifiable list of names of entries.
+   */
+  public List<String> getEntryNames() {
+    return entryNames;
+  }
+
+  /**
+   * Opens input stream with content of entry. If the entry is not read from shared opened archive, the ZIP archive is opened and it's
+   * closed when the stream is closed.
+   *
+   * @return Input stream with content of entry.
+   * @throws IOException If the archive cannot be read or the entry was not found.
+   */
+  public InputStream openStream() throws IOException {
+    if (content != null) {
+      return new ByteArrayInputStream(content);
+    }
+
+    if (archive != null) {
+      return archive.openEntry(entryNames.get(0));
+    }
+
+    final ZipFile zip = new ZipFile(zipFile);
+    try {
+      String entryName = entryNames.get(0);
+      ZipEntry entry = zip.getEntry(entryName);
+      if (entry == null) {
+        throw new FileNotFoundException(Strings.getFormatted("exc.uxf.zip-entry-not-found", entryName, zipFile.getPath()));
+      }
+
+      InputStream is = zip.getInputStream(entry);
+      for (int i = 1; i < entryNames.size(); i++) {
+        is = openNestedEntry(is, entryNames.get(i), entryName);
+        entryName = entryNames.get(i);
+      }
+
+      return new FilterInputStream(is) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          }
+          finally {
+            zip.close();
+          }
+        }
+      };
+    }
+    catch (IOException exc) {
+      zip.close();
+      throw exc;
+    }
+  }
+
+  /**
+   * Finds entry in nested ZIP archive.
+   *
+   * @param is input stream with content of nested ZIP archive.
+   * @param entryName name of searched entry.
+   * @param zipName name of nested ZIP archive.
+   * @return Input stream with content of entry.
+   * @throws IOException If the archive cannot be read or the entry was not found.
+   */
+  protected static InputStream openNestedEntry(InputStream is, String entryName, String zipName) throws IOException {
+    ZipInputStream zis = new ZipInputStream(is);
+    for (ZipEntry entry = zis.getNextEntry(); entry != null; entry = zis.getNextEntry()) {
+      if (entryName.equals(entry.getName())) {
+        return zis;
+      }
+    }
+
+    throw new FileNotFoundException(Strings.getFormatted("exc.uxf.zip-entry-not-found", entryName, zipName));
+  }
+
+  /**
+   * Reads whole content of entry.
+   *
+   * @return Content of entry.
+   * @throws IOException If the archive cannot be read or the entry was not found.
+   */
+  public byte[] readContent() throws IOException {
+    if (content != null) {
+      return content.clone();
+    }
+
+    InputStream is = openStream();
+    try {
+      return StreamUtils.copyToByteArray(is);
+    }
+    finally {
+      is.close();
+    }
+  }
+
+}
@@ -0,0 +1,168 @@
+package cz.zcu.kiv.oop.uxf.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.springframework.util.StringUtils;
+
+import cz.zcu.kiv.oop.util.StreamUtils;
+
+/**
+ * Utilities for UXF files in ZIP archives (for example submissions exported from LMS). Archives are read directly, they are never
+ * extracted on disk.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfZipUtils {
+
+  /** Extension of ZIP archives. */
+  public static final String ZIP_EXTENSION = "zip";
+
+  /** Prefix of entries with metadata of files which are added into archives by Mac OS X. */
+  protected static final String MACOSX_METADATA_PREFIX = "__MACOSX/";
+
+  /**
+   * Private constructor which makes from this class the utility class.
+   */
+  private UxfZipUtils() {}
+
+  /**
+   * Checks whether the file name has extension of ZIP archive.
+   *
+   * @param fileName name of file.
+   * @return <code>true</code> if the file name has extension of ZIP archive; <code>false</code> otherwise.
+   */
+  public static boolean isZipFileName(String fileName) {
+    return ZIP_EXTENSION.equalsIgnoreCase(StringUtils.getFilenameExtension(fileName));
+  }
+
+  /**
+   * Returns UXF files from ZIP archive. UXF files from nested ZIP archives (for example archive for each student) are returned too.
+   * The archive is opened for each reading of returned UXF file (except UXF files from nested archives, see
+   * {@link #listNestedUxfFiles(File, List, ZipInputStream, List)}).
+   *
+   * @param zipFile ZIP archive on disk.
+   * @return UXF files from ZIP archive (in order of entries in archive).
+   * @throws IOException If the archive cannot be read.
+   */
+  public static List<UxfZipEntryFile> listUxfFiles(File zipFile) throws IOException {
+    ZipFile zip = new ZipFile(zipFile);
+    try {
+      return listUxfFiles(zipFile, zip, null);
+    }
+    finally {
+      zip.close();
+    }
+  }
+
+  /**
+   * Returns UXF files from shared opened ZIP archive. UXF files from nested ZIP archives are returned too. The returned UXF files are
+   * read from the opened archive, so they can be read only until the archive is closed.
+   *
+   * @param archive shared opened ZIP archive.
+   * @return UXF files from ZIP archive (in order of entries in archive).
+   * @throws IOException If the archive cannot be read.
+   */
+  public static List<UxfZipEntryFile> listUxfFiles(UxfZipArchive archive) throws IOException {
+    return listUxfFiles(archive.getFile(), archive.getZip(), archive);
+  }
+
+  /**
+   * Returns UXF files from opened ZIP archive.
+   *
+   * @param zipFile ZIP archive on disk.
+   * @param zip opened ZIP archive.
+   * @param archive shared opened archive from which will be read UXF files (<code>null</code> if the archive will be opened for each
+   *          reading).
+   * @return UXF files from ZIP archive (in order of entries in archive).
+   * @throws IOException If the archive cannot be read.
+   */
+  protected static List<UxfZipEntryFile> listUxfFiles(File zipFile, ZipFile zip, UxfZipArchive archive) throws IOException {
+    List<UxfZipEntryFile> uxfFiles = new ArrayList<UxfZipEntryFile>();
+
+    Enumeration<? extends ZipEntry> entries = zip.entries();
+    while (entries.hasMoreElements()) {
+      ZipEntry entry = entries.nextElement();
+      if (isIgnoredEntry(entry)) {
+        continue;
+      }
+
+      if (isUxfEntry(entry)) {
+        if (archive != null) {
+          uxfFiles.add(new UxfZipEntryFile(archive, entry.getName()));
+        }
+        else {
+          uxfFiles.add(new UxfZipEntryFile(zipFile, Collections.singletonList(entry.getName())));
+        }
+      }
+      else if (isZipFileName(entry.getName())) {
+        InputStream is = zip.getInputStream(entry);
+        try {
+          listNestedUxfFiles(zipFile, Collections.singletonList(entry.getName()), new ZipInputStream(is), uxfFiles);
+        }
+        finally {
+          is.close();
+        }
+      }
+    }
+
+    return uxfFiles;
+  }
+
+  /**
+   * Adds UXF files from nested ZIP archive into list. Nested archive can be read only sequentially, so the content of its UXF files
+   * is read now and each nested archive is read only once. The stream of nested archive is not closed.
+   *
+   * @param zipFile ZIP archive on disk.
+   * @param parentNames names of entries of nested archive.
+   * @param zis input stream with content of nested archive.
+   * @param uxfFiles list into which will be added UXF files.
+   * @throws IOException If the archive cannot be read.
+   */
+  protected static void listNestedUxfFiles(File zipFile, List<String> parentNames, ZipInputStream zis, List<UxfZipEntryFile> uxfFiles)
+      throws IOException {
+    for (ZipEntry entry = zis.getNextEntry(); entry != null; entry = zis.getNextEntry()) {
+      if (isIgnoredEntry(entry)) {
+        continue;
+      }
+
+      List<String> entryNames = new ArrayList<String>(parentNames);
+      entryNames.add(entry.getName());
+      if (isUxfEntry(entry)) {
+        uxfFiles.add(new UxfZipEntryFile(zipFile, entryNames, StreamUtils.copyToByteArray(zis)));
+      }
+      else if (isZipFileName(entry.getName())) {
+        listNestedUxfFiles(zipFile, entryNames, new ZipInputStream(zis), uxfFiles); // closing would close outer stream
+      }
+    }
+  }
+
+  /**
+   * Checks whether the entry is ignored (directories and metadata of Mac OS X).
+   *
+   * @param entry entry of ZIP archive.
+   * @return <code>true</code> if the entry is ignored; <code>false</code> otherwise.
+   */
+  protected static boolean isIgnoredEntry(ZipEntry entry) {
+    return entry.isDirectory() || entry.getName().startsWith(MACOSX_METADATA_PREFIX);
+  }
+
+  /**
+   * Checks whether the entry is UXF file.
+   *
+   * @param entry entry of ZIP archive.
+   * @return <code>true</code> if the entry is UXF file; <code>false</code> otherwise.
+   */
+  protected static boolean isUxfEntry(ZipEntry entry) {
+    return UxfFilenameFilter.getInstance().accept(null, entry.getName());
+  }
+
+}
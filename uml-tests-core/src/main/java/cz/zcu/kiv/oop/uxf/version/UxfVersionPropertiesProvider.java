@@ -38,7 +38,7 @@ public class UxfVersionPropertiesProvider extends AbstractPropertiesProvider imp
    *
    * @return Singleton instance of this provider.
    */
-  public static UxfVersionPropertiesProvider getInstance() {
+  public static synchronized UxfVersionPropertiesProvider getInstance() {
     if (instance == null) {
       instance = new UxfVersionPropertiesProvider();
     }
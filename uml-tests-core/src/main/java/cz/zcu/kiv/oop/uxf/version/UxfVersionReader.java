@@ -1,5 +1,8 @@
 package cz.zcu.kiv.oop.uxf.version;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
 import cz.zcu.kiv.oop.uxf.exception.UxfVersionReaderException;
 
 /**
@@ -19,4 +22,41 @@ public interface UxfVersionReader {
    */
   public UxfVersion readVersion(String uxfFile) throws UxfVersionReaderException;
 
+  /**
+   * Returns read version of UXF content from input stream. The stream is read only to the tag with version and it's not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @return Read version of UXF content.
+   * @throws UxfVersionReaderException If some error occurs during reading of UXF version.
+   */
+  public UxfVersion readVersion(InputStream uxfStream) throws UxfVersionReaderException;
+
+  /**
+   * Returns read version of UXF content which is stored in memory.
+   *
+   * @param uxfContent content of UXF file.
+   * @return Read version of UXF content.
+   * @throws UxfVersionReaderException If some error occurs during reading of UXF version.
+   */
+  public UxfVersion readVersion(byte[] uxfContent) throws UxfVersionReaderException;
+
+  /**
+   * Returns read version of UXF content from remaining bytes of buffer. The position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @return Read version of UXF content.
+   * @throws UxfVersionReaderException If some error occurs during reading of UXF version.
+   */
+  public UxfVersion readVersion(ByteBuffer uxfContent) throws UxfVersionReaderException;
+
+  /**
+   * Returns read version of UXF content from input stream which supports marking. After reading of version the stream is reset to
+   * the position before reading, so the same stream can be passed to UXF reader and the content is read only once.
+   *
+   * @param uxfStream input stream with content of UXF file (it has to support marking).
+   * @return Read version of UXF content.
+   * @throws UxfVersionReaderException If some error occurs during reading of UXF version or the stream cannot be reset.
+   */
+  public UxfVersion peekVersion(InputStream uxfStream) throws UxfVersionReaderException;
+
 }
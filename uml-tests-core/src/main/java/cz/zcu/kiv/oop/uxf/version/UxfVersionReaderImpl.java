@@ -1,12 +1,14 @@
 package cz.zcu.kiv.oop.uxf.version;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 import javax.xml.stream.XMLInputFactory;
@@ -18,6 +20,7 @@ import org.springframework.util.StringUtils;
 
 import cz.zcu.kiv.oop.Strings;
 import cz.zcu.kiv.oop.properties.PropertiesProvider;
+import cz.zcu.kiv.oop.util.ByteBufferInputStream;
 import cz.zcu.kiv.oop.uxf.exception.UxfVersionReaderException;
 
 /**
@@ -30,6 +33,13 @@ public class UxfVersionReaderImpl implements UxfVersionReader {
   /** Singleton instance of this version reader. */
   protected static UxfVersionReader instance;
 
+  /** Size of beginning of UXF content in which is searched the tag with version without XML parser. */
+  protected static final int PEEK_PREFIX_SIZE = 1024;
+  /** Limit of bytes which can be read from marked stream before the stream is reset (used by XML parser fallback). */
+  protected static final int PEEK_MARK_LIMIT = 1024 * 1024;
+  /** Name of encoding of UXF files. */
+  protected static final String UXF_ENCODING = "UTF-8";
+
   /** Properties provider for this version reader. */
   protected final PropertiesProvider propertiesProvider = UxfVersionPropertiesProvider.getInstance();
 
@@ -51,24 +61,45 @@ public class UxfVersionReaderImpl implements UxfVersionReader {
       throw new UxfVersionReaderException(Strings.get("exc.uxf.empty-filename"));
     }
 
-    XMLInputFactory factory = XMLInputFactory.newInstance();
-
     InputStream is = null;
     BufferedInputStream bis = null;
-    InputStreamReader isr = null;
-    XMLStreamReader xmlStreamReader = null;
     // If will be used java version 1.7, there could be used try-catch with handled resources
     try {
       is = new FileInputStream(uxfFile);
       bis = new BufferedInputStream(is);
-      isr = new InputStreamReader(bis, Charset.forName("UTF-8"));
-      xmlStreamReader = factory.createXMLStreamReader(isr);
 
-      return readUxfVersion(xmlStreamReader);
+      return readVersion(bis);
     }
     catch (FileNotFoundException exc) {
       throw new UxfVersionReaderException(Strings.getFormatted("exc.uxf.uxf-file-not-found", uxfFile), exc);
     }
+    finally {
+      closeResource(bis);
+      closeResource(is);
+    }
+  }
+
+  /**
+   * Returns read version of UXF content from input stream. The stream is read only to the tag with version and it's not closed.
+   *
+   * @param uxfStream input stream with content of UXF file.
+   * @return Read version of UXF content.
+   * @throws UxfVersionReaderException If some error occurs during reading of UXF version.
+   */
+  @Override
+  public UxfVersion readVersion(InputStream uxfStream) throws UxfVersionReaderException {
+    if (uxfStream == null) {
+      throw new UxfVersionReaderException(Strings.get("exc.uxf.null-stream"));
+    }
+
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+
+    XMLStreamReader xmlStreamReader = null;
+    try {
+      xmlStreamReader = factory.createXMLStreamReader(new InputStreamReader(uxfStream, Charset.forName("UTF-8")));
+
+      return readUxfVersion(xmlStreamReader);
+    }
     catch (XMLStreamException exc) {
       throw new UxfVersionReaderException(Strings.get("exc.uxf.io-exception"), exc);
     }
@@ -81,11 +112,181 @@ public class UxfVersionReaderImpl implements UxfVersionReader {
           // closing reader is not important for re-throwing of exception.
         }
       }
+    }
+  }
 
-      closeResource(isr);
-      closeResource(bis);
-      closeResource(is);
+  /**
+   * Returns read version of UXF content which is stored in memory. The version is searched in the beginning of the content
+   * (see {@link #peekVersion(InputStream)}).
+   *
+   * @param uxfContent content of UXF file.
+   * @return Read version of UXF content.
+   * @throws UxfVersionReaderException If some error occurs during reading of UXF version.
+   */
+  @Override
+  public UxfVersion readVersion(byte[] uxfContent) throws UxfVersionReaderException {
+    if (uxfContent == null) {
+      throw new UxfVersionReaderException(Strings.get("exc.uxf.null-content"));
+    }
+
+    return peekVersion(new ByteArrayInputStream(uxfContent));
+  }
+
+  /**
+   * Returns read version of UXF content from remaining bytes of buffer. The version is searched in the beginning of the content
+   * (see {@link #peekVersion(InputStream)}). The position of buffer is not changed.
+   *
+   * @param uxfContent buffer with content of UXF file.
+   * @return Read version of UXF content.
+   * @throws UxfVersionReaderException If some error occurs during reading of UXF version.
+   */
+  @Override
+  public UxfVersion readVersion(ByteBuffer uxfContent) throws UxfVersionReaderException {
+    if (uxfContent == null) {
+      throw new UxfVersionReaderException(Strings.get("exc.uxf.null-content"));
+    }
+
+    return peekVersion(new ByteBufferInputStream(uxfContent));
+  }
+
+  /**
+   * Returns read version of UXF content from input stream which supports marking. The version is searched in the beginning of
+   * the content without XML parser (the tag with version is usually on the first lines). If the tag is not found there (or there is
+   * some comment or CDATA before it), the version is read by XML parser. After reading of version the stream is reset.
+   *
+   * @param uxfStream input stream with content of UXF file (it has to support marking).
+   * @return Read version of UXF content.
+   * @throws UxfVersionReaderException If some error occurs during reading of UXF version or the stream cannot be reset.
+   */
+  @Override
+  public UxfVersion peekVersion(InputStream uxfStream) throws UxfVersionReaderException {
+    if (uxfStream == null) {
+      throw new UxfVersionReaderException(Strings.get("exc.uxf.null-stream"));
+    }
+
+    if (!uxfStream.markSupported()) {
+      throw new UxfVersionReaderException(Strings.get("exc.uxf.mark-not-supported"));
     }
+
+    try {
+      uxfStream.mark(PEEK_MARK_LIMIT);
+      byte[] prefix = new byte[PEEK_PREFIX_SIZE];
+      int length = readPrefix(uxfStream, prefix);
+      UxfVersion version = findVersion(new String(prefix, 0, length, UXF_ENCODING));
+      uxfStream.reset();
+
+      if (version == null) {
+        uxfStream.mark(PEEK_MARK_LIMIT);
+        version = readVersion(uxfStream);
+        uxfStream.reset();
+      }
+
+      return version;
+    }
+    catch (IOException exc) {
+      throw new UxfVersionReaderException(Strings.get("exc.uxf.io-exception"), exc);
+    }
+  }
+
+  /**
+   * Reads beginning of content from input stream into buffer.
+   *
+   * @param is input stream with content.
+   * @param prefix buffer into which will be read the beginning of content.
+   * @return Count of read bytes.
+   * @throws IOException If some error occurs during reading.
+   */
+  protected int readPrefix(InputStream is, byte[] prefix) throws IOException {
+    int length = 0;
+    while (length < prefix.length) {
+      int count = is.read(prefix, length, prefix.length - length);
+      if (count == -1) {
+        break;
+      }
+
+      length += count;
+    }
+
+    return length;
+  }
+
+  /**
+   * Searches version in the beginning of UXF content without XML parser. The version is searched only in the first tag with name of
+   * diagram which has to be whole in the given text. If there is some comment or CDATA before the tag, the version is not searched
+   * because the tag could be part of it.
+   *
+   * @param prefix beginning of UXF content.
+   * @return Found version of UXF content; <code>null</code> if the version cannot be found without XML parser.
+   */
+  protected UxfVersion findVersion(String prefix) {
+    String diagramTagName = propertiesProvider.getValue(UxfVersionReaderPropertyKeys.TAG_DIAGRAM);
+    String versionParameterName = propertiesProvider.getValue(UxfVersionReaderPropertyKeys.PARAMETER_VERSION);
+
+    int tagStart = prefix.indexOf('<' + diagramTagName);
+    while (tagStart != -1 && !isNameEnd(prefix, tagStart + diagramTagName.length() + 1)) {
+      tagStart = prefix.indexOf('<' + diagramTagName, tagStart + 1);
+    }
+
+    int tagEnd = (tagStart == -1) ? -1 : prefix.indexOf('>', tagStart);
+    if (tagEnd == -1 || prefix.lastIndexOf("<!", tagStart) != -1) {
+      return null;
+    }
+
+    String tag = prefix.substring(tagStart + diagramTagName.length() + 1, tagEnd);
+    int attributeStart = tag.indexOf(versionParameterName);
+    while (attributeStart != -1) {
+      int position = skipWhitespaces(tag, attributeStart + versionParameterName.length());
+      boolean nameStart = attributeStart > 0 && Character.isWhitespace(tag.charAt(attributeStart - 1));
+      if (nameStart && position < tag.length() && tag.charAt(position) == '=') {
+        position = skipWhitespaces(tag, position + 1);
+        if (position >= tag.length() || (tag.charAt(position) != '"' && tag.charAt(position) != '\'')) {
+          return null;
+        }
+
+        int valueEnd = tag.indexOf(tag.charAt(position), position + 1);
+        if (valueEnd == -1) {
+          return null;
+        }
+
+        return UxfVersion.parseVersion(tag.substring(position + 1, valueEnd));
+      }
+
+      attributeStart = tag.indexOf(versionParameterName, attributeStart + 1);
+    }
+
+    return null;
+  }
+
+  /**
+   * Checks whether the name of tag ends at given position of text.
+   *
+   * @param text searched text.
+   * @param position position in text.
+   * @return <code>true</code> if there is whitespace or end of tag at given position; <code>false</code> otherwise.
+   */
+  protected static boolean isNameEnd(String text, int position) {
+    if (position >= text.length()) {
+      return false;
+    }
+
+    char character = text.charAt(position);
+
+    return Character.isWhitespace(character) || character == '>' || character == '/';
+  }
+
+  /**
+   * Skips whitespaces in text.
+   *
+   * @param text text in which will be skipped whitespaces.
+   * @param position position from which will be skipped whitespaces.
+   * @return Position of the first character which is not whitespace (or length of text).
+   */
+  protected static int skipWhitespaces(String text, int position) {
+    while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+      position++;
+    }
+
+    return position;
   }
 
   /**
@@ -141,7 +342,7 @@ public class UxfVersionReaderImpl implements UxfVersionReader {
    *
    * @return Singleton instance of this version reader.
    */
-  public static UxfVersionReader getInstance() {
+  public static synchronized UxfVersionReader getInstance() {
     if (instance == null) {
       instance = new UxfVersionReaderImpl();
     }
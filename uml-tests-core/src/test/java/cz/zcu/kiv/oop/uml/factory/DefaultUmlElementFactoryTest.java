@@ -22,6 +22,7 @@ import cz.zcu.kiv.oop.uml.element.UmlRelation;
 import cz.zcu.kiv.oop.uml.element.UmlRelationOrientationType;
 import cz.zcu.kiv.oop.uml.element.UmlRelationType;
 import cz.zcu.kiv.oop.uml.exception.UmlElementException;
+import cz.zcu.kiv.oop.uml.geometry.UmlLine;
 import cz.zcu.kiv.oop.uml.geometry.UmlPolyline;
 import cz.zcu.kiv.oop.uml.geometry.UmlRectangle;
 import cz.zcu.kiv.oop.uxf.reader.sax.UmlElementDescriptor;
@@ -47,7 +48,6 @@ public class DefaultUmlElementFactoryTest {
   @BeforeClass
   public static void setUpBeforeClass() {
     factory = new DefaultUmlElementFactory(new MockPropertiesProvider());
-    factory.init();
   }
 
   /**
@@ -127,12 +127,11 @@ public class DefaultUmlElementFactoryTest {
   }
 
   protected UmlRelationType getRelationType(String value) {
-    return factory.getType(UmlRelationType.class, value, DefaultUmlElementFactoryPropertyKeys.RELATION_PROPERTY_SUFFIX, factory.relationTypePropertiesCache);
+    return factory.getUmlRelationType(value);
   }
 
   protected UmlRelationOrientationType getRelationOrientationType(String value) {
-    return factory.getType(UmlRelationOrientationType.class, value, DefaultUmlElementFactoryPropertyKeys.RELATION_PROPERTY_SUFFIX,
-        factory.relationOrientationTypePropertiesCache);
+    return factory.getUmlRelationOrientationType(value);
   }
 
   /**
@@ -196,7 +195,7 @@ public class DefaultUmlElementFactoryTest {
     Assert.assertEquals(UmlRelationType.IMPLEMENTATION, getRelationType("<<."));
     Assert.assertEquals(UmlRelationType.INHERITANCE, getRelationType("<<-"));
     Assert.assertEquals(UmlRelationType.DASHEDLINE, getRelationType("."));
-    Assert.assertEquals(null, getRelationType("<<->>")); // UNDEFINED
+    Assert.assertEquals(UmlRelationType.UNDEFINED, getRelationType("<<->>"));
   }
 
   /**
@@ -207,7 +206,7 @@ public class DefaultUmlElementFactoryTest {
     Assert.assertEquals(UmlRelationOrientationType.RIGHT, getRelationOrientationType("->"));
     Assert.assertEquals(UmlRelationOrientationType.LEFT, getRelationOrientationType("<."));
     Assert.assertEquals(UmlRelationOrientationType.UNI, getRelationOrientationType("<->"));
-    Assert.assertEquals(null, getRelationOrientationType("<<->>")); // UNDEFINED
+    Assert.assertEquals(UmlRelationOrientationType.UNDEFINED, getRelationOrientationType("<<->>"));
   }
 
   /**
@@ -383,6 +382,123 @@ public class DefaultUmlElementFactoryTest {
     Assert.assertEquals(new UmlPolyline(new double[] {1.0, 2.0, 11.0, 12.0}), factory.getUmlRelationLine(descriptor));
   }
 
+  /**
+   * Checks if trailing separators of coordinates of relation line are ignored and whitespaces around coordinates are allowed.
+   *
+   * @throws UmlElementException
+   */
+  @Test
+  public void testGetRelationLineWithTrailingSeparator() throws UmlElementException {
+    UmlElementDescriptor descriptor = new UmlElementDescriptor();
+    descriptor.setX(X);
+    descriptor.setY(Y);
+    descriptor.setAdditionalAttributes("1.0; 2;11 ;12.0;-5;7.5;;");
+
+    UmlPolyline expected = new UmlPolyline(new double[] {1.0 + X, 2.0 + Y, 11.0 + X, 12.0 + Y, -5.0 + X, 7.5 + Y});
+    Assert.assertEquals(expected, factory.getUmlRelationLine(descriptor));
+  }
+
+  /**
+   * Checks if null is returned for elements which are not in projection of factory.
+   *
+   * @throws UmlElementException
+   */
+  @Test
+  public void testGetUmlElementOutOfProjection() throws UmlElementException {
+    DefaultUmlElementFactory projectionFactory = new DefaultUmlElementFactory(new MockPropertiesProvider());
+    projectionFactory.setProjection(new UmlElementProjection(UmlElementPart.CLASSES));
+
+    UmlElementDescriptor descriptor = new UmlElementDescriptor();
+    descriptor.setElementType("com.umlet.element.Note");
+    setCoordinates(descriptor);
+    descriptor.setPanelAttributes(createNotePanelAttributes("Note"));
+    Assert.assertNull(projectionFactory.getUmlElement(descriptor));
+
+    descriptor.setElementType("com.umlet.element.Class");
+    descriptor.setPanelAttributes(createClassPanelAttributes(null, "Class"));
+    Assert.assertTrue(projectionFactory.getUmlElement(descriptor) instanceof UmlClass);
+  }
+
+  /**
+   * Checks if relation line leads directly from start point to end point when polylines are not in projection of factory.
+   *
+   * @throws UmlElementException
+   */
+  @Test
+  public void testGetRelationLineOutOfProjection() throws UmlElementException {
+    DefaultUmlElementFactory projectionFactory = new DefaultUmlElementFactory(new MockPropertiesProvider());
+    projectionFactory.setProjection(new UmlElementProjection(UmlElementPart.RELATIONS));
+
+    UmlElementDescriptor descriptor = new UmlElementDescriptor();
+    descriptor.setAdditionalAttributes("1.0;2;5;6;11;12.0");
+
+    Assert.assertEquals(new UmlLine(1.0, 2.0, 11.0, 12.0), projectionFactory.getUmlRelationLine(descriptor));
+  }
+
+  /**
+   * Checks if exception is thrown for odd count of coordinates of relation line when polylines are not in projection of factory
+   * (the same as when they are in projection).
+   *
+   * @throws UmlElementException
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetRelationLineOutOfProjectionWithOddCoordinates() throws UmlElementException {
+    DefaultUmlElementFactory projectionFactory = new DefaultUmlElementFactory(new MockPropertiesProvider());
+    projectionFactory.setProjection(new UmlElementProjection(UmlElementPart.RELATIONS));
+
+    UmlElementDescriptor descriptor = new UmlElementDescriptor();
+    descriptor.setAdditionalAttributes("1.0;2;5;11;12.0");
+    projectionFactory.getUmlRelationLine(descriptor);
+  }
+
+  /**
+   * Checks if exception is thrown for malformed inner coordinate of relation line when polylines are not in projection of factory
+   * (the same as when they are in projection).
+   *
+   * @throws UmlElementException
+   */
+  @Test(expected = NumberFormatException.class)
+  public void testGetRelationLineOutOfProjectionWithMalformedCoordinate() throws UmlElementException {
+    DefaultUmlElementFactory projectionFactory = new DefaultUmlElementFactory(new MockPropertiesProvider());
+    projectionFactory.setProjection(new UmlElementProjection(UmlElementPart.RELATIONS));
+
+    UmlElementDescriptor descriptor = new UmlElementDescriptor();
+    descriptor.setAdditionalAttributes("1.0;2;x;6;11;12.0");
+    projectionFactory.getUmlRelationLine(descriptor);
+  }
+
+  /**
+   * Checks if projection contains parts required by its parts.
+   */
+  @Test
+  public void testProjectionRequiredParts() {
+    UmlElementProjection projection = new UmlElementProjection(UmlElementPart.RELATION_ROLES);
+
+    Assert.assertTrue(projection.contains(UmlElementPart.RELATIONS));
+    Assert.assertTrue(projection.contains(UmlElementPart.CLASSES));
+    Assert.assertFalse(projection.contains(UmlElementPart.NOTES));
+    Assert.assertFalse(projection.contains(UmlElementPart.RELATION_POLYLINES));
+  }
+
+  /**
+   * Checks if exception is thrown when null projection is set.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testSetNullProjection() {
+    new DefaultUmlElementFactory(new MockPropertiesProvider()).setProjection(null);
+  }
+
+  /**
+   * Checks that factories with the same properties provider share the same configuration.
+   */
+  @Test
+  public void testSharedConfiguration() {
+    DefaultUmlElementFactory otherFactory = new DefaultUmlElementFactory(factory.getConfiguration().getPropertiesProvider());
+
+    Assert.assertSame(factory.getConfiguration(), otherFactory.getConfiguration());
+    Assert.assertNotSame(factory.getConfiguration(), new DefaultUmlElementFactory(new MockPropertiesProvider()).getConfiguration());
+  }
+
   protected static class MockPropertiesProvider extends AbstractPropertiesProvider {
 
     @Override
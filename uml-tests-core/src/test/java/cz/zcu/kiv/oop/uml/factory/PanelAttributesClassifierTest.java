@@ -0,0 +1,55 @@
+package cz.zcu.kiv.oop.uml.factory;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of classifier of lines of panel attributes.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class PanelAttributesClassifierTest {
+
+  /**
+   * Tests classification of lines by their prefixes.
+   */
+  @Test
+  public void testClassify() {
+    Map<PanelAttributeLineType, String> prefixes = new EnumMap<PanelAttributeLineType, String>(PanelAttributeLineType.class);
+    prefixes.put(PanelAttributeLineType.RELATION_TYPE, "lt=");
+    prefixes.put(PanelAttributeLineType.RELATION_MULTIPLICITY_1, "m1=");
+    prefixes.put(PanelAttributeLineType.COMMENT, "//");
+    PanelAttributesClassifier classifier = new PanelAttributesClassifier(prefixes);
+
+    Assert.assertEquals(PanelAttributeLineType.RELATION_TYPE, classifier.classify("lt=<<-"));
+    Assert.assertEquals(PanelAttributeLineType.RELATION_MULTIPLICITY_1, classifier.classify("m1=0..n"));
+    Assert.assertEquals(PanelAttributeLineType.COMMENT, classifier.classify("// lt=<<-"));
+    Assert.assertNull(classifier.classify("m2=1"));
+    Assert.assertNull(classifier.classify("lt"));
+    Assert.assertNull(classifier.classify(""));
+
+    Assert.assertEquals("0..n", classifier.getValue(PanelAttributeLineType.RELATION_MULTIPLICITY_1, "m1=0..n"));
+    Assert.assertEquals("", classifier.getValue(PanelAttributeLineType.RELATION_TYPE, "lt="));
+  }
+
+  /**
+   * Tests that the line which starts with prefixes of more types is classified by type with the highest priority.
+   */
+  @Test
+  public void testClassifyOverlappingPrefixes() {
+    Map<PanelAttributeLineType, String> prefixes = new EnumMap<PanelAttributeLineType, String>(PanelAttributeLineType.class);
+    prefixes.put(PanelAttributeLineType.COMMENT, "/");
+    prefixes.put(PanelAttributeLineType.FONT_SIZE, "/size=");
+    prefixes.put(PanelAttributeLineType.BACKGROUND, "bg=");
+    prefixes.put(PanelAttributeLineType.FOREGROUND, "b");
+    PanelAttributesClassifier classifier = new PanelAttributesClassifier(prefixes);
+
+    Assert.assertEquals(PanelAttributeLineType.COMMENT, classifier.classify("/size=10"));
+    Assert.assertEquals(PanelAttributeLineType.BACKGROUND, classifier.classify("bg=red"));
+    Assert.assertEquals(PanelAttributeLineType.FOREGROUND, classifier.classify("blue"));
+  }
+
+}
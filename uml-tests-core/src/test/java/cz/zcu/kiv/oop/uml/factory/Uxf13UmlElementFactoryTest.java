@@ -28,7 +28,6 @@ public class Uxf13UmlElementFactoryTest {
   @BeforeClass
   public static void setUpBeforeClass() {
     factory = new Uxf13UmlElementFactory(new MockPropertiesProvider());
-    factory.init();
   }
 
   /**
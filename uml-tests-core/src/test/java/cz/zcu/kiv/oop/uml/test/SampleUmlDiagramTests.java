@@ -0,0 +1,78 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uxf.exception.UxfException;
+
+/**
+ * Sample test class which is run by batch runners in tests. Like generated test classes, it keeps tested UML diagram in static
+ * fields which are filled before tests, so the tests fail if more workers share one copy of the class. Some tests fail only for
+ * some sample UXF files, so the results of sample files differ.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class SampleUmlDiagramTests {
+
+  /** Name of tested UXF file. */
+  protected static String fileName;
+  /** Tested UML diagram. */
+  protected static UmlDiagram diagram;
+
+  /**
+   * Reads tested UML diagram from context of runner.
+   *
+   * @throws UxfException if the diagram cannot be read.
+   */
+  @BeforeClass
+  public static void setUpBeforeClass() throws UxfException {
+    fileName = UmlDiagramTestContext.getCurrentFileName();
+    diagram = UmlDiagramTestContext.getCurrentDiagram();
+  }
+
+  /**
+   * Null all used static stuffs.
+   */
+  @AfterClass
+  public static void tearDownAfterClass() {
+    fileName = null;
+    diagram = null;
+  }
+
+  /**
+   * Tests that the diagram was read.
+   */
+  @Test
+  public void t0000001_diagram() {
+    Assert.assertNotNull(diagram);
+  }
+
+  /**
+   * Tests count of classes (fails for smaller diagrams).
+   */
+  @Test
+  public void t0000002_classes() {
+    Assert.assertTrue("Diagram has less than 9 classes", diagram.getClassesCount() >= 9);
+  }
+
+  /**
+   * Tests count of relations (fails for even count of relations).
+   */
+  @Test
+  public void t0000003_relations() {
+    Assert.assertEquals("Diagram has even count of relations", 1, diagram.getRelationsCount() % 2);
+  }
+
+  /**
+   * Tests that the static fields belong to the UXF file which is tested by the current thread.
+   */
+  @Test
+  public void t0000004_context() {
+    Thread.yield(); // gives a chance to other workers which would share the static fields
+    Assert.assertEquals(UmlDiagramTestContext.getCurrentFileName(), fileName);
+  }
+
+}
@@ -0,0 +1,466 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.Result;
+
+import cz.zcu.kiv.oop.Strings;
+import cz.zcu.kiv.oop.util.Pair;
+import cz.zcu.kiv.oop.util.StreamUtils;
+import cz.zcu.kiv.oop.uxf.reader.UxfSampleFiles;
+
+/**
+ * Tests that the batch runner which tests UXF files in parallel prints the same output and collects the same statistics as the
+ * batch runner which tests UXF files sequentially (also for mix of results from journal, results from cache and tested files).
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestBatchRunnerParallelTest {
+
+  /** Count of workers of parallel run. */
+  protected static final int WORKERS_COUNT = 4;
+  /** Maximal time of waiting for watching runner (in seconds). */
+  protected static final long TIMEOUT = 10;
+
+  /** Directory with tested UXF files. */
+  protected File directory;
+  /** Temporary files and directories which are removed after test. */
+  protected List<File> temporaryFiles;
+  /** Original values of system properties which are set by tests. */
+  protected Map<String, String> properties;
+
+  /**
+   * Creates directory with sample UXF files, UXF file which is not well-formed and UXF file with wrong name.
+   *
+   * @throws Exception if the directory cannot be created.
+   */
+  @Before
+  public void setUp() throws Exception {
+    temporaryFiles = new ArrayList<File>();
+    directory = createDirectory("uml-test-batch");
+    List<File> sampleFiles = new ArrayList<File>(UxfSampleFiles.getSampleFiles(11));
+    sampleFiles.addAll(UxfSampleFiles.getSampleFiles(13));
+    for (File sampleFile : sampleFiles) {
+      File uxfFile = new File(directory, sampleFile.getName());
+      if (!uxfFile.exists()) { // sample files of more modules can have same name
+        writeFile(uxfFile, StreamUtils.copyToByteArray(sampleFile));
+      }
+    }
+
+    writeFile(new File(directory, "05_A00B0001P.uxf"), "<diagram program=\"umlet\" version=\"13.2\"><element>".getBytes("UTF-8"));
+    writeFile(new File(directory, "wrong-name.uxf"), new byte[0]);
+
+    properties = new HashMap<String, String>();
+  }
+
+  /**
+   * Restores system properties and removes created files.
+   */
+  @After
+  public void tearDown() {
+    for (Entry<String, String> property : properties.entrySet()) {
+      if (property.getValue() == null) {
+        System.clearProperty(property.getKey());
+      }
+      else {
+        System.setProperty(property.getKey(), property.getValue());
+      }
+    }
+
+    for (File file : temporaryFiles) {
+      delete(file);
+    }
+  }
+
+  /**
+   * Tests that the parallel run prints results of all UXF files in sorted order and that its output and statistics are same as of
+   * the sequential run.
+   */
+  @Test
+  public void testParallelRun() {
+    TestedBatchRunner sequentialRunner = run(directory, 1);
+    TestedBatchRunner parallelRunner = run(directory, WORKERS_COUNT);
+
+    Assert.assertNull(sequentialRunner.pipelineTimes);
+    Assert.assertNotNull(parallelRunner.pipelineTimes);
+
+    String output = sequentialRunner.getOutput();
+    assertSortedOutput(sequentialRunner, output);
+    Assert.assertEquals(output, parallelRunner.getOutput());
+    assertSameStatistics(sequentialRunner.statistics, parallelRunner.statistics);
+
+    UmlDiagramTestStatistics statistics = sequentialRunner.statistics;
+    Assert.assertEquals(directory.list().length - 1, statistics.getTestsCounterValue()); // file with wrong name is not tested
+    Assert.assertTrue(statistics.getSuccessfulTestsCounterValue() > 0);
+    Assert.assertTrue(statistics.getFailedTestsCounterValue() > 0);
+    Assert.assertEquals(0, statistics.getFailedMethodCount("t0000004_context"));
+    Assert.assertEquals(sequentialRunner.testedFiles, parallelRunner.testedFiles);
+  }
+
+  /**
+   * Tests that the watching runner tests UXF files in parallel, that it's stopped by its shutdown hook and that it prints statistics
+   * after that. Output and statistics are same as of the sequential run.
+   *
+   * @throws Exception if the waiting for watching runner is interrupted.
+   */
+  @Test
+  public void testParallelWatching() throws Exception {
+    TestedBatchRunner sequentialRunner = run(directory, 1);
+
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_WATCH, "true");
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_WATCH_INTERVAL, "10");
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_WORKERS_COUNT, String.valueOf(WORKERS_COUNT));
+    final CountDownLatch tested = new CountDownLatch(1);
+    final TestedBatchRunner watchingRunner = new TestedBatchRunner() {
+      @Override
+      protected void runTestsInParallel(File[] uxfFiles, Class<?> testClass) {
+        super.runTestsInParallel(uxfFiles, testClass);
+        tested.countDown();
+      }
+    };
+
+    Thread watchingThread = new Thread() {
+      @Override
+      public void run() {
+        watchingRunner.run();
+      }
+    };
+    watchingThread.start();
+
+    Assert.assertTrue(tested.await(TIMEOUT, TimeUnit.SECONDS)); // all files are stable at once
+    watchingRunner.createWatchShutdownHook(watchingThread).run();
+    Assert.assertFalse(watchingThread.isAlive());
+
+    Assert.assertTrue(watchingRunner.statisticsPrinted);
+    Assert.assertNull(watchingRunner.pipelineExecutor);
+    Assert.assertTrue(watchingRunner.getOutput().endsWith(sequentialRunner.getOutput()));
+    assertSameStatistics(sequentialRunner.statistics, watchingRunner.statistics);
+  }
+
+  /**
+   * Tests that the parallel run prints results in sorted order and that its output and statistics are same as of the sequential run
+   * when results of some UXF files are in journal, results of some other files are in cache and the rest of files is tested. Only
+   * the files which are not in journal nor in cache are tested.
+   *
+   * @throws IOException if the journal or the cache cannot be created.
+   */
+  @Test
+  public void testParallelRunWithJournalAndCache() throws IOException {
+    File[] uxfFiles = directory.listFiles();
+    new TestedBatchRunner().sortUxfFiles(uxfFiles);
+
+    // files are divided into files from journal, files from cache and tested files (each third file)
+    File otherFiles = createDirectory("uml-test-other");
+    File cachedFiles = createDirectory("uml-test-cached");
+    Set<String> expectedTestedFiles = new TreeSet<String>();
+    for (int i = 0; i < uxfFiles.length; i++) {
+      if (i % 3 == 0) {
+        continue; // file stays in tested directory and its result will be in journal
+      }
+
+      if (i % 3 == 1) {
+        writeFile(new File(cachedFiles, uxfFiles[i].getName()), StreamUtils.copyToByteArray(uxfFiles[i]));
+      }
+      else if (new TestedBatchRunner().checkUxfFile(uxfFiles[i], false)) {
+        expectedTestedFiles.add(uxfFiles[i].getAbsolutePath());
+      }
+
+      Assert.assertTrue(uxfFiles[i].renameTo(new File(otherFiles, uxfFiles[i].getName())));
+    }
+
+    File journalFile = new File(createDirectory("uml-test-journal"), "journal.ndjson");
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_JOURNAL_FILE, journalFile.getPath());
+    run(directory, 1);
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_JOURNAL_FILE, null);
+
+    File cacheDirectory = createDirectory("uml-test-cache");
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_CACHE_DIRECTORY, cacheDirectory.getPath());
+    run(cachedFiles, 1);
+
+    for (File otherFile : otherFiles.listFiles()) {
+      Assert.assertTrue(otherFile.renameTo(new File(directory, otherFile.getName())));
+    }
+
+    // both runs use copies of journal and cache on the same paths (the paths are printed)
+    File journalCopy = new File(createDirectory("uml-test-journal"), journalFile.getName());
+    File cacheCopy = new File(createDirectory("uml-test-cache"), cacheDirectory.getName());
+    TestedBatchRunner sequentialRunner = runWithCopies(1, journalFile, journalCopy, cacheDirectory, cacheCopy);
+    TestedBatchRunner parallelRunner = runWithCopies(WORKERS_COUNT, journalFile, journalCopy, cacheDirectory, cacheCopy);
+
+    String output = sequentialRunner.getOutput();
+    assertSortedOutput(sequentialRunner, output);
+    Assert.assertEquals(output, parallelRunner.getOutput());
+    assertSameStatistics(sequentialRunner.statistics, parallelRunner.statistics);
+
+    Assert.assertEquals(expectedTestedFiles, sequentialRunner.testedFiles);
+    Assert.assertEquals(expectedTestedFiles, parallelRunner.testedFiles);
+    Assert.assertEquals(directory.list().length - 1, sequentialRunner.statistics.getTestsCounterValue());
+  }
+
+  /**
+   * Runs batch runner over tested directory with fresh copies of journal and cache, so each run starts with the same journal and
+   * cache.
+   *
+   * @param workersCount count of workers.
+   * @param journalFile journal file.
+   * @param journalCopy copy of journal file which is used by runner.
+   * @param cacheDirectory directory with cache.
+   * @param cacheCopy copy of directory with cache which is used by runner.
+   * @return Runner after the run.
+   * @throws IOException if the journal or the cache cannot be copied.
+   */
+  protected TestedBatchRunner runWithCopies(int workersCount, File journalFile, File journalCopy, File cacheDirectory,
+      File cacheCopy) throws IOException {
+    delete(journalCopy);
+    copy(journalFile, journalCopy);
+    delete(cacheCopy);
+    copy(cacheDirectory, cacheCopy);
+
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_JOURNAL_FILE, journalCopy.getPath());
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_CACHE_DIRECTORY, cacheCopy.getPath());
+
+    return run(directory, workersCount);
+  }
+
+  /**
+   * Runs batch runner over directory.
+   *
+   * @param uxfDirectory directory with UXF files.
+   * @param workersCount count of workers.
+   * @return Runner after the run.
+   */
+  protected TestedBatchRunner run(File uxfDirectory, int workersCount) {
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_DIRECTORY_NAME, uxfDirectory.getPath());
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_WORKERS_COUNT, String.valueOf(workersCount));
+
+    TestedBatchRunner runner = new TestedBatchRunner();
+    runner.run();
+
+    return runner;
+  }
+
+  /**
+   * Sets system property. The original value of property is restored after test.
+   *
+   * @param name name of property.
+   * @param value value of property; <code>null</code> if the property will be removed.
+   */
+  protected void setProperty(String name, String value) {
+    if (!properties.containsKey(name)) {
+      properties.put(name, System.getProperty(name));
+    }
+
+    if (value == null) {
+      System.clearProperty(name);
+    }
+    else {
+      System.setProperty(name, value);
+    }
+  }
+
+  /**
+   * Creates empty temporary directory which is removed after test.
+   *
+   * @param prefix prefix of name of directory.
+   * @return Created directory.
+   * @throws IOException if the directory cannot be created.
+   */
+  protected File createDirectory(String prefix) throws IOException {
+    File directory = File.createTempFile(prefix, "");
+    if (!directory.delete() || !directory.mkdir()) {
+      throw new IOException(directory.getPath());
+    }
+
+    temporaryFiles.add(directory);
+
+    return directory;
+  }
+
+  /**
+   * Asserts that the output contains results of all UXF files from tested directory in sorted order.
+   *
+   * @param runner runner which printed the output.
+   * @param output printed output.
+   */
+  protected void assertSortedOutput(UmlDiagramTestBatchRunner runner, String output) {
+    File[] uxfFiles = directory.listFiles();
+    runner.sortUxfFiles(uxfFiles);
+
+    int index = -1;
+    for (File uxfFile : uxfFiles) {
+      int fileIndex = output.indexOf(Strings.getFormatted("log.info.test-file", uxfFile.getName()) + '\n');
+      Assert.assertTrue(uxfFile.getName(), fileIndex > index);
+      index = fileIndex;
+    }
+  }
+
+  /**
+   * Asserts that the statistics have same counts of tests and same counts of failed methods. Times of tests are not compared.
+   *
+   * @param expected expected statistics.
+   * @param actual actual statistics.
+   */
+  protected static void assertSameStatistics(UmlDiagramTestStatistics expected, UmlDiagramTestStatistics actual) {
+    Assert.assertEquals(expected.getTestsCounterValue(), actual.getTestsCounterValue());
+    Assert.assertEquals(expected.getSuccessfulTestsCounterValue(), actual.getSuccessfulTestsCounterValue());
+    Assert.assertEquals(expected.getFailedTestsCounterValue(), actual.getFailedTestsCounterValue());
+    Assert.assertEquals(getFailedMethodsCounts(expected), getFailedMethodsCounts(actual));
+  }
+
+  /**
+   * Returns counts of fails of methods from statistics.
+   *
+   * @param statistics statistics of tests.
+   * @return Counts of fails mapped by name of method.
+   */
+  protected static Map<String, Long> getFailedMethodsCounts(UmlDiagramTestStatistics statistics) {
+    Map<String, Long> failedMethodsCounts = new TreeMap<String, Long>();
+    for (Pair<String, Long> failedMethodCount : statistics.getFailedMethodsCounts()) {
+      failedMethodsCounts.put(failedMethodCount.getKey(), failedMethodCount.getValue());
+    }
+
+    return failedMethodsCounts;
+  }
+
+  /**
+   * Writes content into file.
+   *
+   * @param file written file.
+   * @param content content of file.
+   * @throws IOException if the file cannot be written.
+   */
+  protected static void writeFile(File file, byte[] content) throws IOException {
+    OutputStream os = new FileOutputStream(file);
+    try {
+      os.write(content);
+    }
+    finally {
+      os.close();
+    }
+  }
+
+  /**
+   * Copies file or directory with its content.
+   *
+   * @param source copied file or directory.
+   * @param target copy of file or directory.
+   * @throws IOException if the file cannot be copied.
+   */
+  protected static void copy(File source, File target) throws IOException {
+    File[] files = source.listFiles();
+    if (files == null) {
+      writeFile(target, StreamUtils.copyToByteArray(source));
+      return;
+    }
+
+    if (!target.isDirectory() && !target.mkdir()) {
+      throw new IOException(target.getPath());
+    }
+
+    for (File file : files) {
+      copy(file, new File(target, file.getName()));
+    }
+  }
+
+  /**
+   * Removes file or directory with its content.
+   *
+   * @param file removed file or directory.
+   */
+  protected static void delete(File file) {
+    File[] files = file.listFiles();
+    if (files != null) {
+      for (File child : files) {
+        delete(child);
+      }
+    }
+
+    file.delete();
+  }
+
+  /**
+   * Batch runner which runs {@link SampleUmlDiagramTests} and captures printed output instead of printing. Statistics are not
+   * printed (they contain times of tests), they are compared directly.
+   *
+   * @author Mr.FrAnTA (Michal Dékány)
+   */
+  protected static class TestedBatchRunner extends UmlDiagramTestBatchRunner {
+
+    /** Printed output (without times of stages of pipeline). */
+    protected final StringBuilder output = new StringBuilder();
+    /** Names of tested UXF files (files whose results are from journal or cache are not tested). */
+    protected final Set<String> testedFiles = Collections.synchronizedSet(new TreeSet<String>());
+    /** Information whether the statistics would be printed. */
+    protected volatile boolean statisticsPrinted;
+
+    /**
+     * Returns printed output without times of stages of pipeline (which are printed only by parallel run).
+     *
+     * @return Printed output.
+     */
+    public String getOutput() {
+      if (pipelineTimes == null) {
+        return output.toString();
+      }
+
+      return output.toString().replace(pipelineTimes + "\n\n", "");
+    }
+
+    @Override
+    protected Class<?> getTestClass() {
+      return SampleUmlDiagramTests.class;
+    }
+
+    @Override
+    protected void error(String errorMessage, Object... args) {
+      output.append(String.format(errorMessage, args));
+    }
+
+    @Override
+    protected void warn(String warningMessage, Object... args) {
+      output.append(String.format(warningMessage, args));
+    }
+
+    @Override
+    protected void info(String infoMessage, Object... args) {
+      String message = String.format(infoMessage, args);
+      if (capturedOutput != null) {
+        capturedOutput.append(message);
+      }
+
+      output.append(message);
+    }
+
+    @Override
+    protected Result runTests(Class<?> testClass, UmlDiagramTestContext context) {
+      testedFiles.add(context.getFileName());
+
+      return super.runTests(testClass, context);
+    }
+
+    @Override
+    protected void printStatistics() {
+      statisticsPrinted = true; // statistics are compared directly
+    }
+
+  }
+
+}
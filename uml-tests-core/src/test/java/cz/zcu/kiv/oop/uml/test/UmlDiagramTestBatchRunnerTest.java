@@ -0,0 +1,48 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of fingerprint of tests which is used as part of key of cached results in batch runner.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestBatchRunnerTest {
+
+  /**
+   * Tests that the fingerprint is stable and that it's changed by settings which change printed output of tests.
+   *
+   * @throws IOException if the test class cannot be read.
+   */
+  @Test
+  public void testTestsFingerprint() throws IOException {
+    String showFailedTestsNames = System.getProperty(UmlDiagramTestBatchRunner.PROPERTY_SHOW_FAILED_TESTS_NAMES);
+    Locale locale = Locale.getDefault();
+    try {
+      System.setProperty(UmlDiagramTestBatchRunner.PROPERTY_SHOW_FAILED_TESTS_NAMES, "false");
+      String fingerprint = new UmlDiagramTestBatchRunner().getTestsFingerprint(getClass());
+      Assert.assertEquals(fingerprint, new UmlDiagramTestBatchRunner().getTestsFingerprint(getClass()));
+
+      System.setProperty(UmlDiagramTestBatchRunner.PROPERTY_SHOW_FAILED_TESTS_NAMES, "true");
+      String methodNamesFingerprint = new UmlDiagramTestBatchRunner().getTestsFingerprint(getClass());
+      Assert.assertFalse(fingerprint.equals(methodNamesFingerprint));
+
+      Locale.setDefault(Locale.GERMANY.equals(locale) ? Locale.FRANCE : Locale.GERMANY);
+      Assert.assertFalse(methodNamesFingerprint.equals(new UmlDiagramTestBatchRunner().getTestsFingerprint(getClass())));
+    }
+    finally {
+      Locale.setDefault(locale);
+      if (showFailedTestsNames == null) {
+        System.clearProperty(UmlDiagramTestBatchRunner.PROPERTY_SHOW_FAILED_TESTS_NAMES);
+      }
+      else {
+        System.setProperty(UmlDiagramTestBatchRunner.PROPERTY_SHOW_FAILED_TESTS_NAMES, showFailedTestsNames);
+      }
+    }
+  }
+
+}
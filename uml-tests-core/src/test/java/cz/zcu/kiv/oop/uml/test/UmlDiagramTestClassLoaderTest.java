@@ -0,0 +1,72 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.lang.reflect.Field;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+
+/**
+ * Tests of class loader which defines copy of test class for each worker of batch runner.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestClassLoaderTest {
+
+  /**
+   * Tests that each class loader defines its own copy of test class and that other classes are shared.
+   *
+   * @throws Exception if the copy of test class cannot be created.
+   */
+  @Test
+  public void testLoadTestClass() throws Exception {
+    Class<?> testClass = SampleUmlDiagramTests.class;
+    UmlDiagramTestClassLoader classLoader = new UmlDiagramTestClassLoader(testClass);
+    Class<?> copy = classLoader.loadTestClass();
+
+    Assert.assertEquals(testClass.getName(), copy.getName());
+    Assert.assertNotSame(testClass, copy);
+    Assert.assertSame(classLoader, copy.getClassLoader());
+    Assert.assertSame(copy, classLoader.loadTestClass());
+    Assert.assertNotSame(copy, new UmlDiagramTestClassLoader(testClass).loadTestClass());
+
+    Assert.assertSame(UmlDiagram.class, copy.getDeclaredField("diagram").getType());
+    Assert.assertSame(UmlDiagramTestContext.class, classLoader.loadClass(UmlDiagramTestContext.class.getName()));
+  }
+
+  /**
+   * Tests that copies of test class don't share static fields.
+   *
+   * @throws Exception if the copy of test class cannot be created.
+   */
+  @Test
+  public void testStaticFieldsIsolation() throws Exception {
+    Class<?> copy1 = new UmlDiagramTestClassLoader(SampleUmlDiagramTests.class).loadTestClass();
+    Class<?> copy2 = new UmlDiagramTestClassLoader(SampleUmlDiagramTests.class).loadTestClass();
+
+    Field field1 = copy1.getDeclaredField("fileName");
+    field1.setAccessible(true);
+    Field field2 = copy2.getDeclaredField("fileName");
+    field2.setAccessible(true);
+
+    field1.set(null, "05_A00B0001P.uxf");
+    field2.set(null, "05_A00B0002P.uxf");
+
+    Assert.assertEquals("05_A00B0001P.uxf", field1.get(null));
+    Assert.assertEquals("05_A00B0002P.uxf", field2.get(null));
+    Assert.assertNull(SampleUmlDiagramTests.fileName);
+  }
+
+  /**
+   * Tests that missing test class is reported.
+   *
+   * @throws ClassNotFoundException expected error.
+   */
+  @Test(expected = ClassNotFoundException.class)
+  public void testMissingTestClass() throws ClassNotFoundException {
+    ClassLoader parent = getClass().getClassLoader();
+    new UmlDiagramTestClassLoader(parent, "cz.zcu.kiv.oop.uml.test.MissingUmlDiagramTest", parent).loadTestClass();
+  }
+
+}
@@ -0,0 +1,97 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.element.UmlElement;
+import cz.zcu.kiv.oop.uxf.exception.UxfException;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+
+/**
+ * Tests of grading context bound to the thread.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestContextTest {
+
+  /**
+   * Removes context and property after each test.
+   */
+  @After
+  public void tearDown() {
+    UmlDiagramTestContext.clearCurrentContext();
+    System.clearProperty(UmlDiagramTestRunner.PROPERTY_UXF_FILE_NAME);
+  }
+
+  /**
+   * Tests that the file name is read from system property when no context was bound.
+   */
+  @Test
+  public void testFileNameFromProperty() {
+    System.setProperty(UmlDiagramTestRunner.PROPERTY_UXF_FILE_NAME, "05_A00B0000P.uxf");
+    Assert.assertEquals("05_A00B0000P.uxf", UmlDiagramTestContext.getCurrentFileName());
+  }
+
+  /**
+   * Tests that the file name from bound context has priority before system property.
+   */
+  @Test
+  public void testFileNameFromContext() {
+    System.setProperty(UmlDiagramTestRunner.PROPERTY_UXF_FILE_NAME, "05_A00B0000P.uxf");
+    UmlDiagramTestContext.setCurrentContext(new UmlDiagramTestContext("05_A00B0001P.uxf"));
+    Assert.assertEquals("05_A00B0001P.uxf", UmlDiagramTestContext.getCurrentFileName());
+  }
+
+  /**
+   * Tests that the context is bound only to the thread which bound it.
+   *
+   * @throws InterruptedException if the waiting for other thread was interrupted.
+   */
+  @Test
+  public void testContextIsolation() throws InterruptedException {
+    UmlDiagramTestContext.setCurrentContext(new UmlDiagramTestContext("05_A00B0001P.uxf"));
+
+    final String[] fileName = new String[1];
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        UmlDiagramTestContext.setCurrentContext(new UmlDiagramTestContext("05_A00B0002P.uxf"));
+        fileName[0] = UmlDiagramTestContext.getCurrentFileName();
+      }
+    });
+    thread.start();
+    thread.join();
+
+    Assert.assertEquals("05_A00B0002P.uxf", fileName[0]);
+    Assert.assertEquals("05_A00B0001P.uxf", UmlDiagramTestContext.getCurrentFileName());
+  }
+
+  /**
+   * Tests that already read diagram is returned from context.
+   *
+   * @throws UxfException if the diagram was read from file.
+   */
+  @Test
+  public void testDiagramFromContext() throws UxfException {
+    UmlDiagram diagram = new UmlDiagram(new ArrayList<UmlElement>());
+    UmlDiagramTestContext.setCurrentContext(new UmlDiagramTestContext("this-file-doesnt-exist.uxf", diagram, null));
+    Assert.assertSame(diagram, UmlDiagramTestContext.getCurrentDiagram());
+  }
+
+  /**
+   * Tests that error which occurs during reading of diagram is thrown again by context.
+   *
+   * @throws UxfException expected error.
+   */
+  @Test(expected = UxfReaderException.class)
+  public void testDiagramErrorFromContext() throws UxfException {
+    UxfReaderException exc = new UxfReaderException("error");
+    UmlDiagramTestContext.setCurrentContext(new UmlDiagramTestContext("05_A00B0000P.uxf", null, exc));
+    UmlDiagramTestContext.getCurrentDiagram();
+  }
+
+}
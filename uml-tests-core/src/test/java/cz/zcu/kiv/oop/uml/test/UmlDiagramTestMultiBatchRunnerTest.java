@@ -0,0 +1,265 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.zcu.kiv.oop.util.StreamUtils;
+import cz.zcu.kiv.oop.uxf.reader.UxfSampleFiles;
+
+/**
+ * Tests of routing of UXF files to assignments in multi-assignment batch runner, of isolation of test classes of assignments and of
+ * sharing of pool of threads by assignments.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestMultiBatchRunnerTest {
+
+  /** Count of workers of parallel run. */
+  protected static final int WORKERS_COUNT = 2;
+
+  /** Temporary directory with JAR files of assignments and UXF files. */
+  protected File directory;
+  /** Original values of system properties which are set by tests. */
+  protected Map<String, String> properties;
+
+  /**
+   * Creates temporary directory.
+   *
+   * @throws IOException if the directory cannot be created.
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = File.createTempFile("uml-test-multi", "");
+    if (!directory.delete() || !directory.mkdir()) {
+      throw new IOException(directory.getPath());
+    }
+
+    properties = new HashMap<String, String>();
+  }
+
+  /**
+   * Restores system properties and removes temporary directory.
+   */
+  @After
+  public void tearDown() {
+    for (Entry<String, String> property : properties.entrySet()) {
+      if (property.getValue() == null) {
+        System.clearProperty(property.getKey());
+      }
+      else {
+        System.setProperty(property.getKey(), property.getValue());
+      }
+    }
+
+    UmlDiagramTestBatchRunnerParallelTest.delete(directory);
+  }
+
+  /**
+   * Tests that test number is read from prefix of file name.
+   */
+  @Test
+  public void testFileTestNumber() {
+    Assert.assertEquals("05", UmlDiagramTestMultiBatchRunner.getFileTestNumber(new File("05_A00B0000P.uxf")));
+    Assert.assertEquals("08", UmlDiagramTestMultiBatchRunner.getFileTestNumber(new File("dir", "08_A00B0000P.uxf")));
+    Assert.assertNull(UmlDiagramTestMultiBatchRunner.getFileTestNumber(new File("A00B0000P.uxf")));
+    Assert.assertNull(UmlDiagramTestMultiBatchRunner.getFileTestNumber(new File("5_A00B0000P.uxf")));
+  }
+
+  /**
+   * Tests that UXF files are routed to assignments by test number and files without assignment are skipped.
+   */
+  @Test
+  public void testAssignmentsFiles() {
+    Map<String, Class<?>> testClasses = new TreeMap<String, Class<?>>();
+    testClasses.put("05", Object.class);
+    testClasses.put("06", String.class);
+
+    File file05a = new File("05_A00B0001P.uxf");
+    File file05b = new File("05_A00B0002P.uxf");
+    File file06 = new File("06_A00B0001P.uxf");
+    File file07 = new File("07_A00B0001P.uxf");
+
+    UmlDiagramTestMultiBatchRunner runner = new UmlDiagramTestMultiBatchRunner();
+    Map<String, List<File>> assignmentsFiles = runner.getAssignmentsFiles(new File[] {file05a, file06, file07, file05b}, testClasses);
+
+    Assert.assertEquals(2, assignmentsFiles.size());
+    Assert.assertEquals(Arrays.asList(file05a, file05b), assignmentsFiles.get("05"));
+    Assert.assertEquals(Arrays.asList(file06), assignmentsFiles.get("06"));
+  }
+
+  /**
+   * Tests that test classes with same name from JAR files of two assignments are loaded by their own class loaders, so they are
+   * distinct classes with their own static fields.
+   *
+   * @throws Exception if the JAR files cannot be created or the test classes cannot be accessed.
+   */
+  @Test
+  public void testAssignmentsIsolation() throws Exception {
+    setProperty(UmlDiagramTestMultiBatchRunner.PROPERTY_ASSIGNMENTS,
+        createAssignment("05").getPath() + "," + createAssignment("06").getPath());
+
+    Map<String, Class<?>> testClasses = new TestedMultiBatchRunner().loadAssignments();
+    Assert.assertNotNull(testClasses);
+    Assert.assertEquals(Arrays.asList("05", "06"), new ArrayList<String>(testClasses.keySet()));
+
+    Class<?> testClass05 = testClasses.get("05");
+    Class<?> testClass06 = testClasses.get("06");
+    Assert.assertEquals(SampleUmlDiagramTests.class.getName(), testClass05.getName());
+    Assert.assertEquals(SampleUmlDiagramTests.class.getName(), testClass06.getName());
+    Assert.assertNotSame(testClass05, testClass06);
+    Assert.assertNotSame(testClass05.getClassLoader(), testClass06.getClassLoader());
+    Assert.assertNotSame(SampleUmlDiagramTests.class, testClass05);
+    Assert.assertNotSame(SampleUmlDiagramTests.class, testClass06);
+
+    Field fileName05 = testClass05.getDeclaredField("fileName");
+    Field fileName06 = testClass06.getDeclaredField("fileName");
+    fileName05.setAccessible(true);
+    fileName06.setAccessible(true);
+    fileName05.set(null, "05_A00B0000P.uxf");
+    Assert.assertNull(fileName06.get(null));
+  }
+
+  /**
+   * Tests that the parallel runs of all assignments share one pool of threads which is shut down after the last assignment.
+   *
+   * @throws Exception if the JAR files or the UXF files cannot be created.
+   */
+  @Test
+  public void testSharedExecutor() throws Exception {
+    File uxfDirectory = new File(directory, "uxf");
+    Assert.assertTrue(uxfDirectory.mkdir());
+    List<File> sampleFiles = UxfSampleFiles.getSampleFiles(11);
+    for (String testNumber : new String[] {"05", "06"}) {
+      for (int i = 0; i < sampleFiles.size(); i++) {
+        File uxfFile = new File(uxfDirectory, testNumber + "_A00B000" + i + "P.uxf");
+        UmlDiagramTestBatchRunnerParallelTest.writeFile(uxfFile, StreamUtils.copyToByteArray(sampleFiles.get(i)));
+      }
+    }
+
+    setProperty(UmlDiagramTestMultiBatchRunner.PROPERTY_ASSIGNMENTS,
+        createAssignment("05").getPath() + "," + createAssignment("06").getPath());
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_DIRECTORY_NAME, uxfDirectory.getPath());
+    setProperty(UmlDiagramTestBatchRunner.PROPERTY_WORKERS_COUNT, String.valueOf(WORKERS_COUNT));
+
+    TestedMultiBatchRunner runner = new TestedMultiBatchRunner();
+    runner.run();
+
+    Assert.assertEquals(2, runner.executors.size());
+    Assert.assertNotNull(runner.executors.get(0));
+    Assert.assertSame(runner.executors.get(0), runner.executors.get(1));
+    Assert.assertTrue(runner.executors.get(0).isShutdown());
+    Assert.assertNull(runner.pipelineExecutor);
+  }
+
+  /**
+   * Creates JAR file of assignment which contains test class {@link SampleUmlDiagramTests}.
+   *
+   * @param testNumber test number of assignment.
+   * @return Created JAR file.
+   * @throws IOException if the JAR file cannot be created.
+   */
+  protected File createAssignment(String testNumber) throws IOException {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().putValue(UmlDiagramTestRunner.TEST_NUMBER_MANIFEST_PROPERTY, testNumber);
+
+    String classFileName = SampleUmlDiagramTests.class.getName().replace('.', '/') + ".class";
+    InputStream is = SampleUmlDiagramTests.class.getResourceAsStream(SampleUmlDiagramTests.class.getSimpleName() + ".class");
+    byte[] classFile = StreamUtils.copyToByteArray(is);
+
+    File jarFile = new File(directory, "uml-test-" + testNumber + "-batch.jar");
+    JarOutputStream jos = new JarOutputStream(new FileOutputStream(jarFile), manifest);
+    try {
+      jos.putNextEntry(new JarEntry(classFileName));
+      jos.write(classFile);
+      jos.closeEntry();
+    }
+    finally {
+      jos.close();
+    }
+
+    return jarFile;
+  }
+
+  /**
+   * Sets system property. The original value of property is restored after test.
+   *
+   * @param name name of property.
+   * @param value value of property.
+   */
+  protected void setProperty(String name, String value) {
+    if (!properties.containsKey(name)) {
+      properties.put(name, System.getProperty(name));
+    }
+
+    System.setProperty(name, value);
+  }
+
+  /**
+   * Multi-assignment batch runner whose assignments have test class {@link SampleUmlDiagramTests}. Runner remembers executors of
+   * created pipelines and it doesn't print anything.
+   *
+   * @author Mr.FrAnTA (Michal Dékány)
+   */
+  protected static class TestedMultiBatchRunner extends UmlDiagramTestMultiBatchRunner {
+
+    /** Executors of created pipelines. */
+    protected final List<ExecutorService> executors = Collections.synchronizedList(new ArrayList<ExecutorService>());
+
+    @Override
+    protected String getTestClassName() {
+      return SampleUmlDiagramTests.class.getName();
+    }
+
+    @Override
+    protected UmlDiagramTestPipeline createPipeline(Class<?> testClass) {
+      UmlDiagramTestPipeline pipeline = super.createPipeline(testClass);
+      executors.add(pipeline.executor);
+
+      return pipeline;
+    }
+
+    @Override
+    protected void info(String infoMessage, Object... args) {
+      // output is not printed
+    }
+
+    @Override
+    protected void warn(String warningMessage, Object... args) {
+      // output is not printed
+    }
+
+    @Override
+    protected void error(String errorMessage, Object... args) {
+      // output is not printed
+    }
+
+    @Override
+    protected void printStatistics() {
+      // statistics are not printed
+    }
+
+  }
+
+}
@@ -0,0 +1,280 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.Result;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+import cz.zcu.kiv.oop.uxf.reader.UxfSampleFiles;
+
+/**
+ * Tests of staged pipeline which tests UXF files in parallel.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestPipelineTest {
+
+  /** Maximal time of waiting for threads of pipeline (in seconds). */
+  protected static final long TIMEOUT = 10;
+
+  /** Sample UXF files. */
+  protected List<File> sampleFiles;
+
+  /**
+   * Prepares sample UXF files.
+   *
+   * @throws Exception if the sample files cannot be found.
+   */
+  @Before
+  public void setUp() throws Exception {
+    sampleFiles = new ArrayList<File>(UxfSampleFiles.getSampleFiles(11));
+    sampleFiles.addAll(UxfSampleFiles.getSampleFiles(13));
+  }
+
+  /**
+   * Tests that each job gets result of its own UXF file although the jobs are finished in other order and that the threads of all
+   * stages end after the last job.
+   *
+   * @throws Exception if some job fails.
+   */
+  @Test
+  public void testResultsOrder() throws Exception {
+    List<UmlDiagramTestJob> jobs = new ArrayList<UmlDiagramTestJob>();
+    for (File sampleFile : sampleFiles) {
+      jobs.add(new UmlDiagramTestJob(sampleFile.getPath()));
+      jobs.add(null); // skipped job
+    }
+
+    TestedPipeline pipeline = new TestedPipeline(3, 2);
+    pipeline.start(jobs);
+    for (UmlDiagramTestJob job : jobs) {
+      if (job != null) {
+        Result result = job.awaitResult();
+        Assert.assertSame(pipeline.results.get(job.getFileName()), result);
+        Assert.assertNotNull(pipeline.diagrams.get(job.getFileName()));
+      }
+    }
+
+    Assert.assertEquals(sampleFiles.size(), pipeline.results.size());
+    Assert.assertTrue(pipeline.errors.isEmpty());
+    assertTerminated(pipeline);
+  }
+
+  /**
+   * Tests that errors of prefetch and parsing stages are passed to tests (by context) and that error of tests stage fails only its
+   * own job.
+   *
+   * @throws Exception if some job fails unexpectedly.
+   */
+  @Test
+  public void testErrors() throws Exception {
+    UmlDiagramTestJob missingFileJob = new UmlDiagramTestJob(new File("this-file-doesnt-exist.uxf").getPath());
+    File sampleFile = sampleFiles.get(0);
+    UmlDiagramTestJob failingJob = new UmlDiagramTestJob(sampleFile.getPath());
+    UmlDiagramTestJob job = new UmlDiagramTestJob(sampleFiles.get(1).getPath());
+
+    TestedPipeline pipeline = new TestedPipeline(2, 2);
+    pipeline.failingFileName = sampleFile.getPath();
+    List<UmlDiagramTestJob> jobs = new ArrayList<UmlDiagramTestJob>();
+    jobs.add(missingFileJob);
+    jobs.add(failingJob);
+    jobs.add(job);
+    pipeline.start(jobs);
+
+    Assert.assertNotNull(missingFileJob.awaitResult());
+    Assert.assertTrue(pipeline.errors.get(missingFileJob.getFileName()) instanceof UxfReaderException);
+
+    try {
+      failingJob.awaitResult();
+      Assert.fail("Error of tests was not thrown");
+    }
+    catch (ExecutionException exc) {
+      Assert.assertTrue(exc.getCause() instanceof IllegalStateException);
+    }
+
+    Assert.assertNotNull(job.awaitResult());
+    Assert.assertNotNull(pipeline.diagrams.get(job.getFileName()));
+    assertTerminated(pipeline);
+  }
+
+  /**
+   * Tests that the error of parsing stage (content which is not well-formed) is kept in context of job.
+   *
+   * @throws Exception if the job fails.
+   */
+  @Test
+  public void testParseError() throws Exception {
+    UmlDiagramTestJob job = new UmlDiagramTestJob("05_A00B0001P.uxf");
+    TestedPipeline pipeline = new TestedPipeline(1, 1) {
+      @Override
+      protected void prefetch(UmlDiagramTestJob job) {
+        try {
+          job.setContent("<diagram program=\"umlet\" version=\"13.2\"><element>".getBytes("UTF-8"));
+        }
+        catch (UnsupportedEncodingException exc) {
+          job.setDiagramError(exc);
+        }
+      }
+    };
+    List<UmlDiagramTestJob> jobs = new ArrayList<UmlDiagramTestJob>();
+    jobs.add(job);
+    pipeline.start(jobs);
+
+    Assert.assertNotNull(job.awaitResult());
+    Assert.assertTrue(pipeline.errors.get(job.getFileName()) instanceof UxfReaderException);
+    Assert.assertNull(job.getContent());
+    assertTerminated(pipeline);
+  }
+
+  /**
+   * Tests that shutdown of pipeline interrupts running tests and stops threads of all stages although not all jobs were done.
+   *
+   * @throws Exception if the waiting for tests is interrupted.
+   */
+  @Test
+  public void testShutdown() throws Exception {
+    List<UmlDiagramTestJob> jobs = new ArrayList<UmlDiagramTestJob>();
+    for (File sampleFile : sampleFiles) {
+      jobs.add(new UmlDiagramTestJob(sampleFile.getPath()));
+    }
+
+    final CountDownLatch started = new CountDownLatch(1);
+    final AtomicInteger interrupted = new AtomicInteger();
+    TestedPipeline pipeline = new TestedPipeline(1, 1) {
+      @Override
+      protected Result runTests(UmlDiagramTestContext context) throws Exception {
+        started.countDown();
+        try {
+          new CountDownLatch(1).await(); // waits until it's interrupted
+        }
+        catch (InterruptedException exc) {
+          interrupted.incrementAndGet();
+          throw exc;
+        }
+
+        return new Result();
+      }
+    };
+    pipeline.start(jobs);
+
+    Assert.assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+    pipeline.shutdown();
+
+    Assert.assertTrue(pipeline.executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+    Assert.assertEquals(1, interrupted.get());
+    Assert.assertEquals(1, jobs.get(jobs.size() - 1).done.getCount()); // last job was not done
+  }
+
+  /**
+   * Tests that pipelines which are run one after another can share one executor and that the shared executor is not shut down by
+   * pipeline.
+   *
+   * @throws Exception if some job fails.
+   */
+  @Test
+  public void testSharedExecutor() throws Exception {
+    ExecutorService executor = UmlDiagramTestPipeline.newExecutor(2, 2);
+    try {
+      for (int i = 0; i < 2; i++) {
+        List<UmlDiagramTestJob> jobs = new ArrayList<UmlDiagramTestJob>();
+        for (File sampleFile : sampleFiles) {
+          jobs.add(new UmlDiagramTestJob(sampleFile.getPath()));
+        }
+
+        TestedPipeline pipeline = new TestedPipeline(2, 2);
+        pipeline.setExecutor(executor);
+        pipeline.start(jobs);
+        for (UmlDiagramTestJob job : jobs) {
+          Result result = job.awaitResult();
+          Assert.assertSame(pipeline.results.get(job.getFileName()), result);
+        }
+
+        pipeline.shutdown();
+        Assert.assertSame(executor, pipeline.executor);
+        Assert.assertFalse(executor.isShutdown());
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Asserts that threads of all stages ended after the last job (each stage got end of jobs).
+   *
+   * @param pipeline tested pipeline.
+   * @throws InterruptedException if the waiting for threads is interrupted.
+   */
+  protected static void assertTerminated(UmlDiagramTestPipeline pipeline) throws InterruptedException {
+    pipeline.executor.shutdown(); // threads are not interrupted
+    Assert.assertTrue(pipeline.executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Pipeline whose tests stage only remembers read UML diagrams and errors. The later jobs are finished sooner, so the jobs are
+   * finished in other order than they were started.
+   *
+   * @author Mr.FrAnTA (Michal Dékány)
+   */
+  protected static class TestedPipeline extends UmlDiagramTestPipeline {
+
+    /** Results of tests mapped by name of UXF file. */
+    protected final Map<String, Result> results = new ConcurrentHashMap<String, Result>();
+    /** Read UML diagrams mapped by name of UXF file. */
+    protected final Map<String, UmlDiagram> diagrams = new ConcurrentHashMap<String, UmlDiagram>();
+    /** Errors of reading of UML diagrams mapped by name of UXF file. */
+    protected final Map<String, Throwable> errors = new ConcurrentHashMap<String, Throwable>();
+    /** Count of jobs which were not tested yet. */
+    protected final AtomicInteger remainingJobs = new AtomicInteger(100);
+    /** Name of UXF file whose tests throw error; <code>null</code> if no tests throw error. */
+    protected volatile String failingFileName;
+
+    /**
+     * Constructs pipeline.
+     *
+     * @param parseWorkersCount count of threads which read UML diagrams.
+     * @param testWorkersCount count of threads which run tests.
+     */
+    public TestedPipeline(int parseWorkersCount, int testWorkersCount) {
+      super(parseWorkersCount, testWorkersCount);
+    }
+
+    @Override
+    protected Result runTests(UmlDiagramTestContext context) throws Exception {
+      Thread.sleep(remainingJobs.decrementAndGet() % 5); // later jobs are faster
+
+      String fileName = context.getFileName();
+      if (fileName.equals(failingFileName)) {
+        throw new IllegalStateException(fileName);
+      }
+
+      try {
+        diagrams.put(fileName, context.getDiagram());
+      }
+      catch (Exception exc) {
+        errors.put(fileName, exc);
+      }
+
+      Result result = new Result();
+      results.put(fileName, result);
+
+      return result;
+    }
+
+  }
+
+}
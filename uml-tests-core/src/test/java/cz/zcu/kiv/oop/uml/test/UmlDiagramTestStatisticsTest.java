@@ -0,0 +1,132 @@
+package cz.zcu.kiv.oop.uml.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.zcu.kiv.oop.uml.test.result.UmlDiagramTestRecord;
+
+/**
+ * Tests of merging of statistics of shards of batch run.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestStatisticsTest {
+
+  /** Records of tests of UXF files in sorted order. */
+  protected static final UmlDiagramTestRecord[] RECORDS = {
+    new UmlDiagramTestRecord(new File("05_A00B0001P.uxf"), 2, 0, Collections.<String> emptyList(), 10),
+    new UmlDiagramTestRecord(new File("05_A00B0002P.uxf"), 2, 1, Arrays.asList("t0000001_first"), 20),
+    new UmlDiagramTestRecord(new File("05_A00B0003P.uxf"), 2, 2, Arrays.asList("t0000001_first", "t0000002_second"), 30),
+    new UmlDiagramTestRecord(new File("05_A00B0004P.uxf"), 2, 1, Arrays.asList("t0000002_second"), 40),
+    new UmlDiagramTestRecord(new File("05_A00B0005P.uxf"), 2, 0, Collections.<String> emptyList(), 50)
+  };
+
+  /**
+   * Class with tests for printing of statistics.
+   */
+  public static class Tests {
+
+    /** Test method. */
+    public void t0000001_first() {}
+
+    /** Test method. */
+    public void t0000002_second() {}
+
+    /** Test method. */
+    public void t0000003_third() {}
+
+  }
+
+  /**
+   * Tests that statistics of shards stored into snapshots and merged are printed same as statistics of whole run.
+   *
+   * @throws IOException If some I/O error occurs.
+   */
+  @Test
+  public void testMergedSnapshotsOfShards() throws IOException {
+    UmlDiagramTestStatistics whole = new UmlDiagramTestStatistics();
+    whole.setTestClass(Tests.class);
+    for (UmlDiagramTestRecord record : RECORDS) {
+      whole.addRecord(record);
+    }
+
+    UmlDiagramTestStatistics merged = new UmlDiagramTestStatistics();
+    merged.setTestClass(Tests.class);
+    for (int shard = 0; shard < 2; shard++) {
+      UmlDiagramTestStatistics shardStatistics = new UmlDiagramTestStatistics();
+      for (int i = shard; i < RECORDS.length; i += 2) {
+        shardStatistics.addRecord(RECORDS[i]);
+      }
+
+      ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+      shardStatistics.storeSnapshot(snapshot);
+      merged.loadSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+    }
+
+    Assert.assertEquals(whole.getTestsCounterValue(), merged.getTestsCounterValue());
+    Assert.assertEquals(whole.getFailedTestsCounterValue(), merged.getFailedTestsCounterValue());
+    Assert.assertEquals(whole.getSuccessfulTestsCounterValue(), merged.getSuccessfulTestsCounterValue());
+    Assert.assertEquals(whole.getSpentTime(), merged.getSpentTime());
+    Assert.assertEquals(2, merged.getFailedMethodCount("t0000001_first"));
+    Assert.assertEquals(print(whole), print(merged));
+  }
+
+  /**
+   * Tests that malformed snapshot is refused.
+   *
+   * @throws IOException If the snapshot is malformed (expected).
+   */
+  @Test(expected = IOException.class)
+  public void testMalformedSnapshot() throws IOException {
+    new UmlDiagramTestStatistics().loadSnapshot(new ByteArrayInputStream("tests=x\n".getBytes("ISO-8859-1")));
+  }
+
+  /**
+   * Tests that shards of batch run contain each UXF file exactly once.
+   */
+  @Test
+  public void testShardFiles() {
+    File[] files = new File[7];
+    for (int i = 0; i < files.length; i++) {
+      files[i] = new File("05_A00B000" + i + "P.uxf");
+    }
+
+    List<File> shardsFiles = new ArrayList<File>();
+    for (int shard = 1; shard <= 3; shard++) {
+      shardsFiles.addAll(Arrays.asList(UmlDiagramTestBatchRunner.getShardFiles(files, shard, 3)));
+    }
+    Assert.assertEquals(files.length, shardsFiles.size());
+    Assert.assertEquals(new HashSet<File>(Arrays.asList(files)), new HashSet<File>(shardsFiles));
+
+    Assert.assertArrayEquals(new File[] {files[1], files[4]}, UmlDiagramTestBatchRunner.getShardFiles(files, 2, 3));
+    Assert.assertArrayEquals(new int[] {2, 3}, UmlDiagramTestBatchRunner.parseShard("2/3"));
+    Assert.assertNull(UmlDiagramTestBatchRunner.parseShard("4/3"));
+    Assert.assertNull(UmlDiagramTestBatchRunner.parseShard("0/3"));
+    Assert.assertNull(UmlDiagramTestBatchRunner.parseShard("3"));
+  }
+
+  /**
+   * Prints statistics into string.
+   *
+   * @param statistics printed statistics.
+   * @return Printed statistics.
+   * @throws IOException If some I/O error occurs.
+   */
+  protected static String print(UmlDiagramTestStatistics statistics) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    statistics.print(os);
+
+    return os.toString();
+  }
+
+}
@@ -0,0 +1,64 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of writer of results in CSV format.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class CsvResultWriterTest {
+
+  /**
+   * Tests that the header and records are written and that values with separators are quoted.
+   *
+   * @throws IOException if the file cannot be written or read.
+   */
+  @Test
+  public void testWrite() throws IOException {
+    File file = File.createTempFile("results", ".csv");
+    file.deleteOnExit();
+
+    UmlDiagramTestResultWriter writer = new CsvResultWriter(file);
+    try {
+      writer.write(new UmlDiagramTestRecord(new File("05_A00B0001P.uxf"), 10, 2, Arrays.asList("t0000001_a", "t,\"2"), 7));
+    }
+    finally {
+      writer.close();
+    }
+
+    List<String> lines = NdjsonResultWriterTest.readLines(file);
+    Assert.assertEquals(2, lines.size());
+    Assert.assertEquals("file,testNumber,personalNumber,tests,failures,failedMethods,runTime", lines.get(0));
+    Assert.assertEquals("05_A00B0001P.uxf,05,A00B0001P,10,2,\"t0000001_a t,\"\"2\",7", lines.get(1));
+  }
+
+  /**
+   * Tests that unknown names of failed methods are written as empty strings.
+   *
+   * @throws IOException if the file cannot be written or read.
+   */
+  @Test
+  public void testWriteUnknownFailedMethod() throws IOException {
+    File file = File.createTempFile("results", ".csv");
+    file.deleteOnExit();
+
+    UmlDiagramTestResultWriter writer = new CsvResultWriter(file);
+    try {
+      writer.write(new UmlDiagramTestRecord(new File("05_A00B0001P.uxf"), 10, 3, Arrays.asList("t0000001_a", null, "t0000003_c"), 7));
+    }
+    finally {
+      writer.close();
+    }
+
+    List<String> lines = NdjsonResultWriterTest.readLines(file);
+    Assert.assertEquals("05_A00B0001P.uxf,05,A00B0001P,10,3,t0000001_a  t0000003_c,7", lines.get(1));
+  }
+
+}
@@ -0,0 +1,71 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of writer of results in NDJSON format.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class NdjsonResultWriterTest {
+
+  /**
+   * Reads lines of given file.
+   *
+   * @param file read file.
+   * @return Lines of file.
+   * @throws IOException if the file cannot be read.
+   */
+  protected static List<String> readLines(File file) throws IOException {
+    List<String> lines = new ArrayList<String>();
+    BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+    try {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        lines.add(line);
+      }
+    }
+    finally {
+      reader.close();
+    }
+
+    return lines;
+  }
+
+  /**
+   * Tests that each record is written as one JSON object per line and that strings are escaped.
+   *
+   * @throws IOException if the file cannot be written or read.
+   */
+  @Test
+  public void testWrite() throws IOException {
+    File file = File.createTempFile("results", ".ndjson");
+    file.deleteOnExit();
+
+    UmlDiagramTestResultWriter writer = new NdjsonResultWriter(file);
+    try {
+      writer.write(new UmlDiagramTestRecord(new File("05_A00B0000P.uxf"), 10, 0, new ArrayList<String>(), 5));
+      writer.write(new UmlDiagramTestRecord(new File("05_A00B0001P.uxf"), 10, 2, Arrays.asList("t0000001_a", "t\"2"), 7));
+    }
+    finally {
+      writer.close();
+    }
+
+    List<String> lines = readLines(file);
+    Assert.assertEquals(2, lines.size());
+    Assert.assertEquals("{\"file\":\"05_A00B0000P.uxf\",\"testNumber\":\"05\",\"personalNumber\":\"A00B0000P\",\"tests\":10,"
+            + "\"failures\":0,\"failedMethods\":[],\"runTime\":5}", lines.get(0));
+    Assert.assertEquals("{\"file\":\"05_A00B0001P.uxf\",\"testNumber\":\"05\",\"personalNumber\":\"A00B0001P\",\"tests\":10,"
+            + "\"failures\":2,\"failedMethods\":[\"t0000001_a\",\"t\\\"2\"],\"runTime\":7}", lines.get(1));
+  }
+
+}
@@ -0,0 +1,95 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of journal of tested UXF files.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestJournalTest {
+
+  /**
+   * Tests that appended records are read by new journal and that records are returned only for same hash.
+   *
+   * @throws IOException if the journal cannot be written or read.
+   */
+  @Test
+  public void testAppendAndRead() throws IOException {
+    File file = File.createTempFile("journal", ".txt");
+    file.deleteOnExit();
+
+    UmlDiagramTestJournal journal = new UmlDiagramTestJournal(file);
+    try {
+      journal.append("/uxf/05_A00B0000P.uxf", "hash1",
+              new UmlDiagramTestRecord(new File("/uxf/05_A00B0000P.uxf"), 10, 2, Arrays.asList("t0000001_a", null), 5));
+    }
+    finally {
+      journal.close();
+    }
+
+    journal = new UmlDiagramTestJournal(file);
+    try {
+      Assert.assertEquals(1, journal.getRecordsCount());
+      Assert.assertNull(journal.getRecord("/uxf/05_A00B0000P.uxf", "hash2"));
+      Assert.assertNull(journal.getRecord("/uxf/05_A00B0001P.uxf", "hash1"));
+
+      UmlDiagramTestRecord record = journal.getRecord("/uxf/05_A00B0000P.uxf", "hash1");
+      Assert.assertNotNull(record);
+      Assert.assertEquals("05_A00B0000P.uxf", record.getFileName());
+      Assert.assertEquals(10, record.getTestsCount());
+      Assert.assertEquals(2, record.getFailuresCount());
+      Assert.assertEquals(Arrays.asList("t0000001_a", null), record.getFailedMethods());
+      Assert.assertEquals(5, record.getRunTime());
+    }
+    finally {
+      journal.close();
+    }
+  }
+
+  /**
+   * Tests that incomplete last line (for example of killed run) is ignored and that next record is not joined with it.
+   *
+   * @throws IOException if the journal cannot be written or read.
+   */
+  @Test
+  public void testIncompleteLine() throws IOException {
+    File file = File.createTempFile("journal", ".txt");
+    file.deleteOnExit();
+
+    FileOutputStream os = new FileOutputStream(file);
+    try {
+      os.write("hash1\t10\t0".getBytes("UTF-8"));
+    }
+    finally {
+      os.close();
+    }
+
+    UmlDiagramTestJournal journal = new UmlDiagramTestJournal(file);
+    try {
+      Assert.assertEquals(0, journal.getRecordsCount());
+      journal.append("/uxf/05_A00B0000P.uxf", "hash1",
+              new UmlDiagramTestRecord(new File("/uxf/05_A00B0000P.uxf"), 10, 0, new ArrayList<String>(), 5));
+    }
+    finally {
+      journal.close();
+    }
+
+    journal = new UmlDiagramTestJournal(file);
+    try {
+      Assert.assertEquals(1, journal.getRecordsCount());
+      Assert.assertNotNull(journal.getRecord("/uxf/05_A00B0000P.uxf", "hash1"));
+    }
+    finally {
+      journal.close();
+    }
+  }
+
+}
@@ -0,0 +1,123 @@
+package cz.zcu.kiv.oop.uml.test.result;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of persistent cache of results of tests.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UmlDiagramTestResultCacheTest {
+
+  /** Directory with cached results. */
+  protected File directory;
+
+  /**
+   * Creates empty directory for cache.
+   *
+   * @throws IOException if the directory cannot be created.
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = File.createTempFile("cache", "");
+    directory.delete();
+    directory.mkdir();
+  }
+
+  /**
+   * Removes directory for cache.
+   */
+  @After
+  public void tearDown() {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  /**
+   * Tests that stored result is returned (also by new instance of cache) with printed output.
+   *
+   * @throws IOException if the result cannot be stored.
+   */
+  @Test
+  public void testPutAndGet() throws IOException {
+    UmlDiagramTestResultCache cache = new UmlDiagramTestResultCache(directory, 10, "tests");
+    File uxfFile = new File("05_A00B0000P.uxf");
+    cache.put("hash1", new UmlDiagramTestRecord(uxfFile, 10, 1, Arrays.asList("t0000001_a"), 5), "output\nline 2\n");
+
+    cache = new UmlDiagramTestResultCache(directory, 10, "tests");
+    UmlDiagramTestResultCache.Entry entry = cache.get(new File("05_A00B0000P.uxf"), "hash1");
+    Assert.assertNotNull(entry);
+    Assert.assertEquals("output\nline 2\n", entry.getOutput());
+    Assert.assertEquals("05_A00B0000P.uxf", entry.getRecord().getFileName());
+    Assert.assertEquals(10, entry.getRecord().getTestsCount());
+    Assert.assertEquals(1, entry.getRecord().getFailuresCount());
+    Assert.assertEquals(Arrays.asList("t0000001_a"), entry.getRecord().getFailedMethods());
+    Assert.assertEquals(5, entry.getRecord().getRunTime());
+
+    Assert.assertNull(cache.get(uxfFile, "hash2"));
+  }
+
+  /**
+   * Tests that result of file is not returned for byte-identical file with other name (tests check numbers from name of file).
+   *
+   * @throws IOException if the result cannot be stored.
+   */
+  @Test
+  public void testFileName() throws IOException {
+    UmlDiagramTestResultCache cache = new UmlDiagramTestResultCache(directory, 10, "tests");
+    cache.put("hash1", new UmlDiagramTestRecord(new File("05_A00B0000P.uxf"), 10, 0, new ArrayList<String>(), 5), "output\n");
+
+    Assert.assertNull(cache.get(new File("05_A00B0001P.uxf"), "hash1"));
+    Assert.assertNotNull(cache.get(new File("05_A00B0000P.uxf"), "hash1"));
+  }
+
+  /**
+   * Tests that results of other tests (other fingerprint) are not returned.
+   *
+   * @throws IOException if the result cannot be stored.
+   */
+  @Test
+  public void testFingerprint() throws IOException {
+    File uxfFile = new File("05_A00B0000P.uxf");
+    new UmlDiagramTestResultCache(directory, 10, "tests1").put("hash1",
+            new UmlDiagramTestRecord(uxfFile, 10, 0, new ArrayList<String>(), 5), "output\n");
+
+    Assert.assertNull(new UmlDiagramTestResultCache(directory, 10, "tests2").get(uxfFile, "hash1"));
+  }
+
+  /**
+   * Tests that the least recently used result is removed when the cache is full.
+   *
+   * @throws IOException if the result cannot be stored.
+   */
+  @Test
+  public void testEviction() throws IOException {
+    UmlDiagramTestResultCache cache = new UmlDiagramTestResultCache(directory, 2, "tests");
+    File uxfFile = new File("05_A00B0000P.uxf");
+    UmlDiagramTestRecord record = new UmlDiagramTestRecord(uxfFile, 10, 0, new ArrayList<String>(), 5);
+
+    cache.put("hash1", record, "1");
+    cache.put("hash2", record, "2");
+    Assert.assertNotNull(cache.get(uxfFile, "hash1")); // hash2 is the least recently used now
+    cache.put("hash3", record, "3");
+
+    Assert.assertEquals(2, cache.size());
+    Assert.assertNotNull(cache.get(uxfFile, "hash1"));
+    Assert.assertNull(cache.get(uxfFile, "hash2"));
+    Assert.assertNotNull(cache.get(uxfFile, "hash3"));
+  }
+
+}
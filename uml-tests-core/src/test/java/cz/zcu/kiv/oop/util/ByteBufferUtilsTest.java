@@ -0,0 +1,112 @@
+package cz.zcu.kiv.oop.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of utilities for reading of files into byte buffers.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class ByteBufferUtilsTest {
+
+  /**
+   * Tests that small files are read into pooled direct buffer which is reused by next reading.
+   *
+   * @throws IOException if the file cannot be written or read.
+   */
+  @Test
+  public void testReadSmallFile() throws IOException {
+    byte[] content = createContent(1000);
+    File file = createFile(content);
+
+    ByteBuffer buffer = ByteBufferUtils.readFile(file);
+    Assert.assertTrue(buffer.isDirect());
+    assertContent(content, buffer);
+
+    Assert.assertSame(buffer, ByteBufferUtils.readFile(createFile(createContent(10))));
+    Assert.assertEquals(10, buffer.remaining());
+  }
+
+  /**
+   * Tests that large files are memory-mapped (they are not read into pooled buffer).
+   *
+   * @throws IOException if the file cannot be written or read.
+   */
+  @Test
+  public void testReadLargeFile() throws IOException {
+    byte[] content = createContent(ByteBufferUtils.MAPPING_THRESHOLD + 1);
+    ByteBuffer pooledBuffer = ByteBufferUtils.readFile(createFile(createContent(10)));
+
+    ByteBuffer buffer = ByteBufferUtils.readFile(createFile(content));
+    Assert.assertNotSame(pooledBuffer, buffer);
+    assertContent(content, buffer);
+    Assert.assertEquals(10, pooledBuffer.remaining());
+  }
+
+  /**
+   * Tests reading of empty file.
+   *
+   * @throws IOException if the file cannot be written or read.
+   */
+  @Test
+  public void testReadEmptyFile() throws IOException {
+    Assert.assertEquals(0, ByteBufferUtils.readFile(createFile(new byte[0])).remaining());
+  }
+
+  /**
+   * Checks that the buffer contains expected content.
+   *
+   * @param expected expected content.
+   * @param buffer checked buffer.
+   */
+  protected static void assertContent(byte[] expected, ByteBuffer buffer) {
+    Assert.assertEquals(0, buffer.position());
+    byte[] actual = new byte[buffer.remaining()];
+    buffer.duplicate().get(actual);
+    Assert.assertArrayEquals(expected, actual);
+  }
+
+  /**
+   * Creates content with specified size.
+   *
+   * @param size size of content.
+   * @return Created content.
+   */
+  protected static byte[] createContent(int size) {
+    byte[] content = new byte[size];
+    for (int i = 0; i < size; i++) {
+      content[i] = (byte)(i * 31);
+    }
+
+    return content;
+  }
+
+  /**
+   * Creates temporary file with specified content.
+   *
+   * @param content content of file.
+   * @return Created file.
+   * @throws IOException if the file cannot be written.
+   */
+  protected static File createFile(byte[] content) throws IOException {
+    File file = File.createTempFile("buffer", ".uxf");
+    file.deleteOnExit();
+
+    FileOutputStream os = new FileOutputStream(file);
+    try {
+      os.write(content);
+    }
+    finally {
+      os.close();
+    }
+
+    return file;
+  }
+
+}
@@ -0,0 +1,46 @@
+package cz.zcu.kiv.oop.util;
+
+import java.awt.Color;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of resolving of colors from their names.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class ColorUtilsTest {
+
+  /**
+   * Tests that names of AWT colors are resolved case-insensitively to the same colors as constants of AWT colors.
+   */
+  @Test
+  public void testGetNamedColor() {
+    Assert.assertSame(Color.RED, ColorUtils.getColor("red"));
+    Assert.assertSame(Color.BLUE, ColorUtils.getColor("BLUE"));
+    Assert.assertSame(Color.LIGHT_GRAY, ColorUtils.getColor("light_gray"));
+    Assert.assertSame(Color.DARK_GRAY, ColorUtils.getColor("Dark_Gray"));
+  }
+
+  /**
+   * Tests that hexadecimal values of colors are parsed.
+   */
+  @Test
+  public void testGetHexColor() {
+    Assert.assertEquals(new Color(0x12, 0xab, 0xEF), ColorUtils.getColor("#12abEF"));
+    Assert.assertEquals(Color.BLACK, ColorUtils.getColor("#000000"));
+  }
+
+  /**
+   * Tests that unknown names of colors are refused.
+   */
+  @Test
+  public void testGetUnknownColor() {
+    String[] names = {null, "", "redd", "lightgray", "#12345", "#12345g", "#1234567", "123456"};
+    for (String name : names) {
+      Assert.assertNull(name, ColorUtils.getColor(name));
+    }
+  }
+
+}
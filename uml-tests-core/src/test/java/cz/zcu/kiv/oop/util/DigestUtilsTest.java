@@ -0,0 +1,47 @@
+package cz.zcu.kiv.oop.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of utilities for computing of message digests.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class DigestUtilsTest {
+
+  /**
+   * Tests conversion of bytes into hexadecimal string.
+   */
+  @Test
+  public void testToHex() {
+    Assert.assertEquals("", DigestUtils.toHex(new byte[0]));
+    Assert.assertEquals("00ff7f80", DigestUtils.toHex(new byte[] {0, (byte)0xff, 0x7f, (byte)0x80}));
+  }
+
+  /**
+   * Tests SHA-256 hash of file content.
+   *
+   * @throws IOException if the file cannot be written or read.
+   */
+  @Test
+  public void testSha256Hex() throws IOException {
+    File file = File.createTempFile("digest", ".txt");
+    file.deleteOnExit();
+
+    FileOutputStream os = new FileOutputStream(file);
+    try {
+      os.write("abc".getBytes("UTF-8"));
+    }
+    finally {
+      os.close();
+    }
+
+    Assert.assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", DigestUtils.sha256Hex(file));
+  }
+
+}
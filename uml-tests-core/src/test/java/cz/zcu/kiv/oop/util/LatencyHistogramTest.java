@@ -0,0 +1,119 @@
+package cz.zcu.kiv.oop.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of lock-free histogram of latencies.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class LatencyHistogramTest {
+
+  /**
+   * Tests that percentiles are within relative error of buckets.
+   */
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+
+    Assert.assertEquals(1000, histogram.getCount());
+    Assert.assertEquals(500500, histogram.getSum());
+    Assert.assertEquals(1000, histogram.getMax());
+    assertPercentile(500, histogram.getPercentile(50));
+    assertPercentile(950, histogram.getPercentile(95));
+    assertPercentile(990, histogram.getPercentile(99));
+    Assert.assertEquals(1000, histogram.getPercentile(100));
+    Assert.assertEquals(0, new LatencyHistogram().getPercentile(50));
+  }
+
+  /**
+   * Tests that small latencies are stored exactly.
+   */
+  @Test
+  public void testSmallLatencies() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(3);
+    histogram.record(5);
+    histogram.record(-1);
+
+    Assert.assertEquals(3, histogram.getPercentile(50));
+    Assert.assertEquals(0, histogram.getPercentile(1));
+    Assert.assertEquals(5, histogram.getPercentile(99));
+  }
+
+  /**
+   * Tests that histogram loaded from snapshot and merged histograms contain same latencies.
+   */
+  @Test
+  public void testSnapshotAndMerge() {
+    LatencyHistogram histogram1 = new LatencyHistogram();
+    LatencyHistogram histogram2 = new LatencyHistogram();
+    LatencyHistogram whole = new LatencyHistogram();
+    for (int i = 0; i < 100; i++) {
+      long latency = i * 37L;
+      ((i % 2 == 0) ? histogram1 : histogram2).record(latency);
+      whole.record(latency);
+    }
+
+    LatencyHistogram merged = new LatencyHistogram();
+    merged.loadSnapshot(histogram1.toSnapshot());
+    merged.merge(histogram2);
+
+    Assert.assertEquals(whole.toSnapshot(), merged.toSnapshot());
+    Assert.assertEquals(whole.getPercentile(95), merged.getPercentile(95));
+  }
+
+  /**
+   * Tests that malformed snapshot is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testMalformedSnapshot() {
+    new LatencyHistogram().loadSnapshot("1;1;1;x:1");
+  }
+
+  /**
+   * Tests that latencies recorded by more threads are not lost.
+   *
+   * @throws InterruptedException If the current thread was interrupted.
+   */
+  @Test
+  public void testConcurrentRecording() throws InterruptedException {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 10000; j++) {
+            histogram.record(j % 100);
+          }
+        }
+      };
+      threads[i].start();
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    Assert.assertEquals(40000, histogram.getCount());
+    Assert.assertEquals(4 * 100 * 4950, histogram.getSum());
+    Assert.assertEquals(99, histogram.getMax());
+  }
+
+  /**
+   * Checks that the percentile is within relative error of buckets (12.5 %).
+   *
+   * @param expected exact percentile.
+   * @param actual percentile from histogram.
+   */
+  protected static void assertPercentile(long expected, long actual) {
+    Assert.assertTrue(actual + " < " + expected, actual >= expected);
+    Assert.assertTrue(actual + " > " + expected, actual <= expected * 1.125);
+  }
+
+}
@@ -0,0 +1,79 @@
+package cz.zcu.kiv.oop.util;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of parsing of numbers directly from sequences of characters.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class NumberUtilsTest {
+
+  /**
+   * Tests that doubles are parsed to the same values as by {@link Double#parseDouble(String)}.
+   */
+  @Test
+  public void testParseDouble() {
+    String[] values = {"0", "-0", "10", "+10", "-10", " 120 ", "0.1", ".5", "5.", "-12.75", "3.14159", "1e3", "1.5E-2", "NaN",
+      "-Infinity", "12345678901234567890", "0.000000000000000000000000123", "9007199254740993", "10d"};
+    for (String value : values) {
+      Assert.assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)),
+              Double.doubleToLongBits(NumberUtils.parseDouble(new StringBuilder(value))));
+    }
+
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      String value = String.valueOf(random.nextInt(100000)) + '.' + random.nextInt(1000);
+      Assert.assertEquals(value, Double.parseDouble(value), NumberUtils.parseDouble(value), 0);
+    }
+  }
+
+  /**
+   * Tests that doubles in wrong format are refused.
+   */
+  @Test
+  public void testParseWrongDouble() {
+    String[] values = {"", " ", "-", ".", "1.2.3", "1,5", "x"};
+    for (String value : values) {
+      try {
+        NumberUtils.parseDouble(value);
+        Assert.fail(value);
+      }
+      catch (NumberFormatException exc) {
+        // expected exception
+      }
+    }
+  }
+
+  /**
+   * Tests that integers are parsed to the same values as by {@link Integer#parseInt(String)}.
+   */
+  @Test
+  public void testParseInt() {
+    String[] values = {"0", "-0", "10", "+10", "-10", "999999999", "2147483647", "-2147483648"};
+    for (String value : values) {
+      Assert.assertEquals(value, Integer.parseInt(value), NumberUtils.parseInt(new StringBuilder(value)));
+    }
+  }
+
+  /**
+   * Tests that integers in wrong format or out of range are refused.
+   */
+  @Test
+  public void testParseWrongInt() {
+    String[] values = {"", "-", " 10", "1.5", "2147483648", "x"};
+    for (String value : values) {
+      try {
+        NumberUtils.parseInt(value);
+        Assert.fail(value);
+      }
+      catch (NumberFormatException exc) {
+        // expected exception
+      }
+    }
+  }
+
+}
@@ -1,14 +1,25 @@
 package cz.zcu.kiv.oop.uxf;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uml.element.UmlElement;
+import cz.zcu.kiv.oop.uml.factory.UmlElementProjection;
+import cz.zcu.kiv.oop.util.StreamUtils;
+import cz.zcu.kiv.oop.uxf.exception.UxfException;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
 import cz.zcu.kiv.oop.uxf.exception.UxfReaderFactoryException;
+import cz.zcu.kiv.oop.uxf.reader.UmlElementVisitor;
+import cz.zcu.kiv.oop.uxf.reader.UxfParserType;
 import cz.zcu.kiv.oop.uxf.reader.UxfReader;
 
 /**
@@ -123,4 +134,154 @@ public class UxfReaderFactoryImplTest {
     factory.getReader("this_file_doesnt_exist.uxf");
   }
 
+  /**
+   * Checks if UML diagram is read from uxf file in one pass.
+   *
+   * @throws UxfException
+   *   uxf file cannot be read
+   */
+  @Test
+  public void testReadDiagram() throws UxfException {
+    Assert.assertNotNull(factory.readDiagram(getFile("v13.uxf")));
+  }
+
+  /**
+   * Checks if UML diagram is read from content of uxf file in memory (array and direct buffer) and that the position of buffer is
+   * not changed.
+   *
+   * @throws UxfException
+   *   uxf content cannot be read
+   * @throws IOException
+   *   uxf file cannot be read
+   */
+  @Test
+  public void testReadDiagramFromContent() throws UxfException, IOException {
+    String uxfFile = getFile("v13.uxf");
+    byte[] content = StreamUtils.copyToByteArray(new File(uxfFile));
+    int elementsCount = factory.readDiagram(uxfFile).getElementsCount();
+
+    UmlDiagram diagram = factory.readDiagram(content, uxfFile);
+    Assert.assertEquals(elementsCount, diagram.getElementsCount());
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(content.length + 1);
+    buffer.put((byte)' ').put(content).flip();
+    buffer.position(1);
+    diagram = factory.readDiagram(buffer, uxfFile);
+    Assert.assertEquals(elementsCount, diagram.getElementsCount());
+    Assert.assertEquals(1, buffer.position());
+  }
+
+  /**
+   * Checks if name of source of uxf content is in message of error.
+   *
+   * @throws IOException
+   *   uxf file cannot be read
+   */
+  @Test
+  public void testSourceNameInError() throws IOException {
+    String uxfFile = getFile("no_version.uxf");
+    byte[] content = StreamUtils.copyToByteArray(new File(uxfFile));
+    try {
+      factory.readDiagram(content, "submission.zip!/diagram.uxf");
+      Assert.fail();
+    }
+    catch (UxfException exc) {
+      Assert.assertTrue(exc.getMessage(), exc.getMessage().contains("submission.zip!/diagram.uxf"));
+    }
+  }
+
+  /**
+   * Checks if all UML elements are passed to visitor by readers for all types of XML parsers.
+   *
+   * @throws UxfException
+   *   uxf file cannot be read
+   * @throws IOException
+   *   uxf file cannot be read
+   */
+  @Test
+  public void testReadElements() throws UxfException, IOException {
+    String uxfFile = getFile("v13.uxf");
+    byte[] content = StreamUtils.copyToByteArray(new File(uxfFile));
+    UxfParserType parserType = factory.getParserType();
+    try {
+      for (UxfParserType type : UxfParserType.values()) {
+        factory.setParserType(type);
+        int elementsCount = factory.readDiagram(uxfFile).getElementsCount();
+
+        CountingVisitor visitor = new CountingVisitor(Integer.MAX_VALUE);
+        factory.readElements(uxfFile, visitor);
+        Assert.assertEquals(type.name(), elementsCount, visitor.count);
+
+        visitor = new CountingVisitor(Integer.MAX_VALUE);
+        factory.readElements(content, uxfFile, UmlElementProjection.ALL, visitor);
+        Assert.assertEquals(type.name(), elementsCount, visitor.count);
+      }
+    }
+    finally {
+      factory.setParserType(parserType);
+    }
+  }
+
+  /**
+   * Checks if reading of UML elements is stopped when the visitor returns <code>false</code>.
+   *
+   * @throws UxfException
+   *   uxf file cannot be read
+   */
+  @Test
+  public void testStopReadingElements() throws UxfException {
+    String uxfFile = getFile("v13.uxf");
+    UxfParserType parserType = factory.getParserType();
+    try {
+      for (UxfParserType type : UxfParserType.values()) {
+        factory.setParserType(type);
+        CountingVisitor visitor = new CountingVisitor(1);
+        factory.readElements(uxfFile, visitor);
+        Assert.assertEquals(type.name(), 1, visitor.count);
+      }
+    }
+    finally {
+      factory.setParserType(parserType);
+    }
+  }
+
+  /**
+   * Checks if reading of UML elements without visitor fails.
+   *
+   * @throws UxfException
+   *   uxf file cannot be read
+   */
+  @Test(expected = UxfReaderException.class)
+  public void testReadElementsWithoutVisitor() throws UxfException {
+    factory.readElements(getFile("v13.uxf"), null);
+  }
+
+  /**
+   * Visitor which counts visited UML elements and stops reading after specified count of elements.
+   */
+  protected static class CountingVisitor implements UmlElementVisitor {
+
+    /** Count of elements after which the reading is stopped. */
+    protected final int limit;
+    /** Count of visited elements. */
+    protected int count;
+
+    /**
+     * Constructs visitor.
+     *
+     * @param limit count of elements after which the reading is stopped.
+     */
+    public CountingVisitor(int limit) {
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean visitElement(UmlElement element) {
+      Assert.assertNotNull(element);
+
+      return ++count < limit;
+    }
+
+  }
+
 }
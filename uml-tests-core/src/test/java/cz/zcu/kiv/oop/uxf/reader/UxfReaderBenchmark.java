@@ -0,0 +1,140 @@
+package cz.zcu.kiv.oop.uxf.reader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+
+import cz.zcu.kiv.oop.util.StreamUtils;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactory;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactoryImpl;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+import cz.zcu.kiv.oop.uxf.reader.sax.AbstractUxfSaxReader;
+import cz.zcu.kiv.oop.uxf.reader.sax.UxfSaxHandler;
+
+/**
+ * Simple benchmark which compares times of reading of UXF files by readers using different types of XML parsers. Readers which use
+ * SAX parsers are measured also with new SAX parser for each reading (instead of parser of thread which is reused). This is not
+ * unit test, it has to be run manually with paths to UXF files as arguments, for example:
+ *
+ * <pre>
+ *  java cz.zcu.kiv.oop.uxf.reader.UxfReaderBenchmark ../uml-test-08/src/main/uxf/08_A00B0000P.uxf
+ * </pre>
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfReaderBenchmark {
+
+  /** Count of readings of each file before measuring. */
+  protected static final int WARMUP_ITERATIONS = 2000;
+  /** Count of measured readings of each file. */
+  protected static final int ITERATIONS = 5000;
+
+  /**
+   * Private constructor which makes this class "static".
+   */
+  private UxfReaderBenchmark() {}
+
+  /**
+   * Runs benchmark for UXF files from arguments and prints average time of reading of each file in microseconds.
+   *
+   * @param args paths to UXF files.
+   * @throws Exception If some file cannot be read.
+   */
+  public static void main(String[] args) throws Exception {
+    UxfReaderFactory factory = UxfReaderFactoryImpl.getInstance();
+    for (String uxfFile : args) {
+      byte[] content = StreamUtils.copyToByteArray(new File(uxfFile));
+      StringBuilder result = new StringBuilder(uxfFile);
+      for (UxfParserType parserType : UxfParserType.values()) {
+        factory.setParserType(parserType);
+        UxfReader reader = factory.getReader(new ByteArrayInputStream(content));
+        boolean saxReader = (reader instanceof AbstractUxfSaxReader);
+
+        // both ways of reading are warmed up before measuring, so the second one is not favoured by JIT compilation
+        warmUp(reader, content, false);
+        if (saxReader) {
+          warmUp(reader, content, true);
+        }
+
+        result.append(' ').append(parserType).append('=').append(measure(reader, content, false)).append("us");
+        if (saxReader) {
+          result.append("/new-parser=").append(measure(reader, content, true)).append("us");
+        }
+
+        result.append(" (").append(reader.getClass().getSimpleName()).append(')');
+      }
+
+      System.out.println(result);
+    }
+  }
+
+  /**
+   * Reads UXF file repeatedly before measuring.
+   *
+   * @param reader reader of UXF file.
+   * @param content content of UXF file.
+   * @param newParser information whether the SAX parser of thread will be dropped before each reading (so new parser is created).
+   * @throws UxfReaderException If the file cannot be read.
+   */
+  protected static void warmUp(UxfReader reader, byte[] content, boolean newParser) throws UxfReaderException {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      read(reader, content, newParser);
+    }
+  }
+
+  /**
+   * Measures average time of reading of UXF file.
+   *
+   * @param reader reader of UXF file.
+   * @param content content of UXF file.
+   * @param newParser information whether the SAX parser of thread will be dropped before each reading (so new parser is created).
+   * @return Average time of reading of UXF file in microseconds.
+   * @throws UxfReaderException If the file cannot be read.
+   */
+  protected static long measure(UxfReader reader, byte[] content, boolean newParser) throws UxfReaderException {
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      read(reader, content, newParser);
+    }
+
+    return (System.nanoTime() - start) / ITERATIONS / 1000;
+  }
+
+  /**
+   * Reads UXF file.
+   *
+   * @param reader reader of UXF file.
+   * @param content content of UXF file.
+   * @param newParser information whether the SAX parser of thread will be dropped before reading (so new parser is created).
+   * @throws UxfReaderException If the file cannot be read.
+   */
+  protected static void read(UxfReader reader, byte[] content, boolean newParser) throws UxfReaderException {
+    if (newParser) {
+      SaxParserDropper.dropParser();
+    }
+
+    reader.readDiagram(new ByteArrayInputStream(content));
+  }
+
+  /**
+   * Helper which drops SAX parser of the current thread, so the SAX reader creates new parser for the next reading. It's not used
+   * as reader.
+   *
+   * @author Mr.FrAnTA (Michal Dékány)
+   */
+  protected static class SaxParserDropper extends AbstractUxfSaxReader {
+
+    /**
+     * Drops SAX parser of the current thread.
+     */
+    protected static void dropParser() {
+      parsers.remove();
+    }
+
+    @Override
+    protected UxfSaxHandler createHandler() {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+}
@@ -0,0 +1,194 @@
+package cz.zcu.kiv.oop.uxf.reader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.util.StreamUtils;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactory;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactoryImpl;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+
+/**
+ * Tests that readers of UXF files (which are shared by threads of batch runner) read the same diagrams from more threads at once
+ * as from one thread. Content which is not well-formed is read between sample files, so parsers of threads which are reused after
+ * error are tested too.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfReaderConcurrencyTest {
+
+  /** Count of threads which read UXF files at once. */
+  protected static final int THREADS_COUNT = 8;
+  /** Count of readings of all sample files by each thread. */
+  protected static final int ROUNDS_COUNT = 5;
+  /** Content of UXF file version 13 which is not well-formed. */
+  protected static final String NOT_WELL_FORMED_UXF = "<diagram program=\"umlet\" version=\"13.2\"><element><id>UMLClass</id>";
+
+  /** Tested factory of readers. */
+  protected UxfReaderFactory factory;
+  /** Type of parser of factory before test. */
+  protected UxfParserType parserType;
+  /** Sample UXF files. */
+  protected List<File> sampleFiles;
+  /** Contents of sample UXF files. */
+  protected List<byte[]> contents;
+
+  /**
+   * Reads contents of sample UXF files.
+   *
+   * @throws Exception if the sample files cannot be read.
+   */
+  @Before
+  public void setUp() throws Exception {
+    factory = UxfReaderFactoryImpl.getInstance();
+    parserType = factory.getParserType();
+
+    sampleFiles = new ArrayList<File>(UxfSampleFiles.getSampleFiles(11));
+    sampleFiles.addAll(UxfSampleFiles.getSampleFiles(13));
+    contents = new ArrayList<byte[]>();
+    for (File sampleFile : sampleFiles) {
+      contents.add(StreamUtils.copyToByteArray(sampleFile));
+    }
+  }
+
+  /**
+   * Restores type of parser of factory.
+   */
+  @After
+  public void tearDown() {
+    factory.setParserType(parserType);
+  }
+
+  /**
+   * Tests that the shared readers read the same diagrams from more threads at once as from one thread (for all types of parsers).
+   *
+   * @throws Exception if some diagram cannot be read.
+   */
+  @Test
+  public void testConcurrentReading() throws Exception {
+    for (UxfParserType type : UxfParserType.values()) {
+      factory.setParserType(type);
+      assertConcurrentReading(type);
+    }
+  }
+
+  /**
+   * Tests that all threads get the same instance of factory of readers.
+   *
+   * @throws Exception if the instance cannot be returned.
+   */
+  @Test
+  public void testConcurrentFactoryInstance() throws Exception {
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Callable<UxfReaderFactory>> tasks = new ArrayList<Callable<UxfReaderFactory>>();
+    for (int i = 0; i < THREADS_COUNT; i++) {
+      tasks.add(new Callable<UxfReaderFactory>() {
+        @Override
+        public UxfReaderFactory call() throws Exception {
+          start.await();
+
+          return UxfReaderFactoryImpl.getInstance();
+        }
+      });
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+    try {
+      List<Future<UxfReaderFactory>> futures = new ArrayList<Future<UxfReaderFactory>>();
+      for (Callable<UxfReaderFactory> task : tasks) {
+        futures.add(executor.submit(task));
+      }
+
+      start.countDown();
+      for (Future<UxfReaderFactory> future : futures) {
+        Assert.assertSame(factory, future.get());
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Asserts that the shared readers read the same diagrams from more threads at once as from one thread.
+   *
+   * @param type type of parser of readers.
+   * @throws Exception if some diagram cannot be read.
+   */
+  protected void assertConcurrentReading(UxfParserType type) throws Exception {
+    final List<UxfReader> readers = new ArrayList<UxfReader>();
+    final List<UmlDiagram> expected = new ArrayList<UmlDiagram>();
+    for (int i = 0; i < sampleFiles.size(); i++) {
+      UxfReader reader = factory.getReader(sampleFiles.get(i).getPath());
+      readers.add(reader);
+      expected.add(reader.readDiagram(contents.get(i), sampleFiles.get(i).getPath()));
+    }
+
+    final UxfReader notWellFormedReader = factory.getReader(sampleFiles.get(sampleFiles.size() - 1).getPath());
+    final byte[] notWellFormedContent = NOT_WELL_FORMED_UXF.getBytes("UTF-8");
+
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+    try {
+      List<Future<List<UmlDiagram>>> futures = new ArrayList<Future<List<UmlDiagram>>>();
+      for (int i = 0; i < THREADS_COUNT; i++) {
+        final int offset = i;
+        futures.add(executor.submit(new Callable<List<UmlDiagram>>() {
+          @Override
+          public List<UmlDiagram> call() throws Exception {
+            start.await();
+
+            // each thread reads the files in other order, diagram of i-th file is stored at i-th position
+            List<UmlDiagram> diagrams = new ArrayList<UmlDiagram>();
+            for (int round = 0; round < ROUNDS_COUNT; round++) {
+              List<UmlDiagram> roundDiagrams = new ArrayList<UmlDiagram>(expected);
+              for (int j = 0; j < readers.size(); j++) {
+                int index = (j + offset) % readers.size();
+                roundDiagrams.set(index, readers.get(index).readDiagram(contents.get(index), sampleFiles.get(index).getPath()));
+
+                try {
+                  notWellFormedReader.readDiagram(notWellFormedContent, null);
+                  Assert.fail("Content which is not well-formed was read");
+                }
+                catch (UxfReaderException exc) {
+                  // expected
+                }
+              }
+
+              diagrams.addAll(roundDiagrams);
+            }
+
+            return diagrams;
+          }
+        }));
+      }
+
+      start.countDown();
+      for (Future<List<UmlDiagram>> future : futures) {
+        List<UmlDiagram> diagrams = future.get();
+        for (int i = 0; i < diagrams.size(); i++) {
+          UmlDiagram diagram = diagrams.get(i);
+          String message = type + ": " + sampleFiles.get(i % expected.size()).getPath();
+          Assert.assertEquals(message, expected.get(i % expected.size()), diagram);
+          Assert.assertEquals(message, expected.get(i % expected.size()).toString(), diagram.toString());
+        }
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
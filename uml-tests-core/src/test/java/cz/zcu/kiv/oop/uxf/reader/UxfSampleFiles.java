@@ -0,0 +1,68 @@
+package cz.zcu.kiv.oop.uxf.reader;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.List;
+
+import cz.zcu.kiv.oop.uxf.exception.UxfException;
+import cz.zcu.kiv.oop.uxf.version.UxfVersion;
+import cz.zcu.kiv.oop.uxf.version.UxfVersionReaderImpl;
+
+/**
+ * Sample UXF files from modules with tests (from directories <code>uml-test-*&#47;src/main/uxf</code>) which are used by tests
+ * which compare readers of UXF files.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfSampleFiles {
+
+  /**
+   * Private constructor which makes this class "static".
+   */
+  private UxfSampleFiles() {}
+
+  /**
+   * Returns sample UXF files with specified major version. If the modules with tests are not available, the list is empty.
+   *
+   * @param majorVersion major version of UXF files.
+   * @return Sample UXF files with specified major version.
+   * @throws UxfException if the version of some file cannot be read.
+   */
+  public static List<File> getSampleFiles(int majorVersion) throws UxfException {
+    List<File> uxfFiles = new ArrayList<File>();
+    File[] modules = new File("..").listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.startsWith("uml-test-");
+      }
+    });
+
+    if (modules == null) {
+      return uxfFiles;
+    }
+
+    for (File module : modules) {
+      File[] files = new File(module, "src/main/uxf").listFiles(new FilenameFilter() {
+        @Override
+        public boolean accept(File dir, String name) {
+          return name.toLowerCase().endsWith(".uxf");
+        }
+      });
+
+      if (files == null) {
+        continue;
+      }
+
+      for (File file : files) {
+        UxfVersion version = UxfVersionReaderImpl.getInstance().readVersion(file.getPath());
+        if (version != null && version.getMajor() == majorVersion) {
+          uxfFiles.add(file);
+        }
+      }
+    }
+
+    return uxfFiles;
+  }
+
+}
@@ -0,0 +1,131 @@
+package cz.zcu.kiv.oop.uxf.reader.lexer;
+
+import java.io.UnsupportedEncodingException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import cz.zcu.kiv.oop.uxf.exception.UxfLexerException;
+
+/**
+ * Tests of lexer of UXF files.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfLexerTest {
+
+  /**
+   * Tests that tags, attributes and texts are reported in the same way as by SAX parser.
+   *
+   * @throws Exception if the content cannot be read.
+   */
+  @Test
+  public void testParse() throws Exception {
+    String uxf = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n<!-- comment -->\n"
+      + "<diagram program='umlet' version=\"13.2\"><zoom_level>10</zoom_level><element/></diagram>\n";
+
+    Assert.assertEquals("<diagram program=umlet version=13.2><zoom_level>[10]</zoom_level><element></element></diagram>",
+            parse(uxf));
+  }
+
+  /**
+   * Tests that references are decoded and line ends are normalized.
+   *
+   * @throws Exception if the content cannot be read.
+   */
+  @Test
+  public void testParseText() throws Exception {
+    String uxf = "<diagram version=\"a&amp;b&#10;c\r\nd\"><panel_attributes>&lt;&lt;interface&gt;&gt;\r\nI&apos;m &quot;A&quot;"
+      + "\r&#13;&#x41;&#128512;</panel_attributes></diagram>";
+
+    Assert.assertEquals("<diagram version=a&b\nc d><panel_attributes>[<<interface>>\nI'm \"A\"\n\rA\uD83D\uDE00]</panel_attributes>"
+      + "</diagram>", parse(uxf));
+  }
+
+  /**
+   * Tests that content which is not supported by lexer or which is not well-formed is refused.
+   *
+   * @throws UnsupportedEncodingException if the content cannot be created.
+   */
+  @Test
+  public void testParseUnsupported() throws UnsupportedEncodingException {
+    String[] contents = {"", "<?xml version=\"1.0\" encoding=\"ISO-8859-2\"?><diagram/>", "<?xml version=\"1.1\"?><diagram/>",
+      "<!DOCTYPE diagram><diagram/>", "<diagram><![CDATA[x]]></diagram>", "<diagram>&nbsp;</diagram>", "<diagram>&#0;</diagram>",
+      "<diagram>]]></diagram>", "<diagram><element></diagram>", "<diagram></element></diagram>", "<diagram>", "<diagram/><diagram/>",
+      "x<diagram/>", "<diagram a=\"1\" a=\"2\"/>", "<diagram a=\"<\"/>", "<diagram a=\"1\"b=\"2\"/>",
+      "<diagram>\u0001</diagram>", "<d\u00EFagram/>", "<?xml-stylesheet?><diagram/>", "<diagram><!-- a -- b --></diagram>"};
+
+    for (String content : contents) {
+      try {
+        parse(content);
+        Assert.fail(content);
+      }
+      catch (UxfLexerException exc) {
+        // expected exception
+      }
+      catch (Exception exc) {
+        Assert.fail(content + ": " + exc);
+      }
+    }
+  }
+
+  /**
+   * Tests that content in other encoding than UTF-8 is refused.
+   */
+  @Test(expected = UxfLexerException.class)
+  public void testWrongEncoding() throws Exception {
+    new UxfLexer(new byte[] {'<', 'd', (byte)0xE9, '/', '>'});
+  }
+
+  /**
+   * Parses UXF content and returns string with reported tags and texts.
+   *
+   * @param uxf UXF content.
+   * @return String with reported tags and texts.
+   * @throws Exception if the content cannot be read.
+   */
+  protected static String parse(String uxf) throws Exception {
+    final StringBuilder events = new StringBuilder();
+    new UxfLexer(uxf.getBytes("UTF-8")).parse(new DefaultHandler() {
+      /** Information whether the last event was reading of text. */
+      private boolean text;
+
+      @Override
+      public void startElement(String uri, String localName, String qName, Attributes atts) {
+        closeText();
+        events.append('<').append(qName);
+        for (int i = 0; i < atts.getLength(); i++) {
+          events.append(' ').append(atts.getQName(i)).append('=').append(atts.getValue(i));
+        }
+        events.append('>');
+      }
+
+      @Override
+      public void endElement(String uri, String localName, String qName) {
+        closeText();
+        events.append("</").append(qName).append('>');
+      }
+
+      @Override
+      public void characters(char[] ch, int start, int length) {
+        if (!text) {
+          events.append('[');
+          text = true;
+        }
+        events.append(ch, start, length);
+      }
+
+      private void closeText() {
+        if (text) {
+          events.append(']');
+          text = false;
+        }
+      }
+    });
+
+    return events.toString();
+  }
+
+}
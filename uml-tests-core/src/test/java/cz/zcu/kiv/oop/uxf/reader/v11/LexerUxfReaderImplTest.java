@@ -0,0 +1,76 @@
+package cz.zcu.kiv.oop.uxf.reader.v11;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.util.StreamUtils;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+import cz.zcu.kiv.oop.uxf.reader.UxfSampleFiles;
+
+/**
+ * Test of implementation of UXF reader version 11 which uses lexer. The reader has to read the same diagrams as the reader which
+ * uses SAX.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class LexerUxfReaderImplTest {
+
+  protected static LexerUxfReaderImpl lexerReader;
+  protected static UxfReaderImpl saxReader;
+
+  /**
+   * Creates tested readers.
+   */
+  @BeforeClass
+  public static void setUpBeforeClass() {
+    lexerReader = new LexerUxfReaderImpl();
+    saxReader = new UxfReaderImpl();
+  }
+
+  /**
+   * Sets tested readers to null.
+   */
+  @AfterClass
+  public static void tearDownAfterClass() {
+    lexerReader = null;
+    saxReader = null;
+  }
+
+  /**
+   * Tests that the reader reads the same diagram as reader which uses SAX and as expected diagram.
+   *
+   * @throws UxfReaderException if the diagram cannot be read.
+   */
+  @Test
+  public void testReadDiagram() throws UxfReaderException {
+    String uxfFile = UxfReaderImplTest.getFile("diagram-v11.uxf");
+    UmlDiagram diagram = lexerReader.readDiagram(uxfFile);
+
+    Assert.assertEquals(UxfReaderImplTest.prepareUmlDiagram(), diagram);
+    Assert.assertEquals(saxReader.readDiagram(uxfFile), diagram);
+  }
+
+  /**
+   * Tests that the reader reads the same diagrams as reader which uses SAX from all sample UXF files version 11 of tests.
+   *
+   * @throws Exception if some diagram cannot be read.
+   */
+  @Test
+  public void testReadSampleDiagrams() throws Exception {
+    for (File uxfFile : UxfSampleFiles.getSampleFiles(11)) {
+      byte[] content = StreamUtils.copyToByteArray(uxfFile);
+      UmlDiagram expected = saxReader.readDiagram(new ByteArrayInputStream(content));
+      UmlDiagram diagram = lexerReader.readDiagram(new ByteArrayInputStream(content));
+
+      Assert.assertEquals(uxfFile.getPath(), expected, diagram);
+      Assert.assertEquals(uxfFile.getPath(), expected.toString(), diagram.toString());
+    }
+  }
+
+}
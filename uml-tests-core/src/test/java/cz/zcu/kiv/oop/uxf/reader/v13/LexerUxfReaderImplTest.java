@@ -0,0 +1,135 @@
+package cz.zcu.kiv.oop.uxf.reader.v13;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.util.StreamUtils;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactory;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactoryImpl;
+import cz.zcu.kiv.oop.uxf.exception.UxfException;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+import cz.zcu.kiv.oop.uxf.reader.UxfParserType;
+import cz.zcu.kiv.oop.uxf.reader.UxfSampleFiles;
+
+/**
+ * Test of implementation of UXF reader version 13 which uses lexer. The reader has to read the same diagrams as the reader which
+ * uses SAX.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class LexerUxfReaderImplTest {
+
+  protected static LexerUxfReaderImpl lexerReader;
+  protected static UxfReaderImpl saxReader;
+
+  /**
+   * Creates tested readers.
+   */
+  @BeforeClass
+  public static void setUpBeforeClass() {
+    lexerReader = new LexerUxfReaderImpl();
+    saxReader = new UxfReaderImpl();
+  }
+
+  /**
+   * Sets tested readers to null.
+   */
+  @AfterClass
+  public static void tearDownAfterClass() {
+    lexerReader = null;
+    saxReader = null;
+  }
+
+  /**
+   * Tests that the reader reads the same diagram as reader which uses SAX and as expected diagram.
+   *
+   * @throws UxfReaderException if the diagram cannot be read.
+   */
+  @Test
+  public void testReadDiagram() throws UxfReaderException {
+    String uxfFile = UxfReaderImplTest.getFile("diagram-v13.uxf");
+    UmlDiagram diagram = lexerReader.readDiagram(uxfFile);
+
+    Assert.assertEquals(UxfReaderImplTest.prepareUmlDiagram(), diagram);
+    Assert.assertEquals(saxReader.readDiagram(uxfFile), diagram);
+  }
+
+  /**
+   * Tests that the reader reads the same diagrams as reader which uses SAX from all sample UXF files version 13 of tests.
+   *
+   * @throws Exception if some diagram cannot be read.
+   */
+  @Test
+  public void testReadSampleDiagrams() throws Exception {
+    for (File uxfFile : UxfSampleFiles.getSampleFiles(13)) {
+      byte[] content = StreamUtils.copyToByteArray(uxfFile);
+      UmlDiagram expected = saxReader.readDiagram(new ByteArrayInputStream(content));
+      UmlDiagram diagram = lexerReader.readDiagram(new ByteArrayInputStream(content));
+
+      Assert.assertEquals(uxfFile.getPath(), expected, diagram);
+      Assert.assertEquals(uxfFile.getPath(), expected.toString(), diagram.toString());
+    }
+  }
+
+  /**
+   * Tests that the content which is not supported by lexer (CDATA section and DTD) is read by SAX parser.
+   *
+   * @throws Exception if the diagram cannot be read.
+   */
+  @Test
+  public void testReadDiagramUnsupportedContent() throws Exception {
+    String uxf = new String(StreamUtils.copyToByteArray(new File(UxfReaderImplTest.getFile("diagram-v13.uxf"))), "UTF-8");
+    uxf = uxf.replace("<diagram ", "<!DOCTYPE diagram>\n<diagram ").replace("<panel_attributes>", "<panel_attributes><![CDATA[]]>");
+
+    UmlDiagram diagram = lexerReader.readDiagram(new ByteArrayInputStream(uxf.getBytes("UTF-8")));
+    Assert.assertEquals(UxfReaderImplTest.prepareUmlDiagram(), diagram);
+  }
+
+  /**
+   * Tests that content which is not well-formed is refused (by SAX parser).
+   *
+   * @throws Exception if the content cannot be created.
+   */
+  @Test(expected = UxfReaderException.class)
+  public void testReadDiagramNotWellFormed() throws Exception {
+    String uxf = "<diagram program=\"umlet\" version=\"13.2\"><element><id>UMLClass</element></id></diagram>";
+    lexerReader.readDiagram(new ByteArrayInputStream(uxf.getBytes("UTF-8")));
+  }
+
+  /**
+   * Tests that wrong format of coordinate is refused.
+   *
+   * @throws Exception if the content cannot be created.
+   */
+  @Test(expected = UxfReaderException.class)
+  public void testReadWrongNumber() throws Exception {
+    String uxf = "<diagram program=\"umlet\" version=\"13.2\"><element><id>UMLClass</id><coordinates><x>1,5</x></coordinates>"
+      + "</element></diagram>";
+    lexerReader.readDiagram(new ByteArrayInputStream(uxf.getBytes("UTF-8")));
+  }
+
+  /**
+   * Tests that factory returns reader using lexer for version 13.
+   *
+   * @throws UxfException if the reader cannot be returned.
+   */
+  @Test
+  public void testFactoryParserType() throws UxfException {
+    UxfReaderFactory factory = UxfReaderFactoryImpl.getInstance();
+    UxfParserType parserType = factory.getParserType();
+    try {
+      factory.setParserType(UxfParserType.LEXER);
+      Assert.assertTrue(factory.getReader(UxfReaderImplTest.getFile("diagram-v13.uxf")) instanceof LexerUxfReaderImpl);
+    }
+    finally {
+      factory.setParserType(parserType);
+    }
+  }
+
+}
@@ -0,0 +1,145 @@
+package cz.zcu.kiv.oop.uxf.reader.v13;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.util.StreamUtils;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactory;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactoryImpl;
+import cz.zcu.kiv.oop.uxf.exception.UxfException;
+import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
+import cz.zcu.kiv.oop.uxf.reader.UxfParserType;
+import cz.zcu.kiv.oop.uxf.reader.UxfReader;
+import cz.zcu.kiv.oop.uxf.reader.UxfSampleFiles;
+
+/**
+ * Test of implementation of UXF reader version 13 which uses StAX. The reader has to read the same diagrams as the reader which
+ * uses SAX.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class StaxUxfReaderImplTest {
+
+  protected static StaxUxfReaderImpl staxReader;
+  protected static UxfReaderImpl saxReader;
+
+  /**
+   * Creates tested readers.
+   */
+  @BeforeClass
+  public static void setUpBeforeClass() {
+    staxReader = new StaxUxfReaderImpl();
+    saxReader = new UxfReaderImpl();
+  }
+
+  /**
+   * Sets tested readers to null.
+   */
+  @AfterClass
+  public static void tearDownAfterClass() {
+    staxReader = null;
+    saxReader = null;
+  }
+
+  /**
+   * Tests that the reader reads the same diagram as reader which uses SAX and as expected diagram.
+   *
+   * @throws UxfReaderException if the diagram cannot be read.
+   */
+  @Test
+  public void testReadDiagram() throws UxfReaderException {
+    String uxfFile = UxfReaderImplTest.getFile("diagram-v13.uxf");
+    UmlDiagram diagram = staxReader.readDiagram(uxfFile);
+
+    Assert.assertEquals(UxfReaderImplTest.prepareUmlDiagram(), diagram);
+    Assert.assertEquals(saxReader.readDiagram(uxfFile), diagram);
+  }
+
+  /**
+   * Tests that the reader reads the same diagrams as reader which uses SAX from all sample UXF files version 13 of tests.
+   *
+   * @throws Exception if some diagram cannot be read.
+   */
+  @Test
+  public void testReadSampleDiagrams() throws Exception {
+    for (File uxfFile : UxfSampleFiles.getSampleFiles(13)) {
+      byte[] content = StreamUtils.copyToByteArray(uxfFile);
+      UmlDiagram expected = saxReader.readDiagram(new ByteArrayInputStream(content));
+      UmlDiagram diagram = staxReader.readDiagram(new ByteArrayInputStream(content));
+
+      Assert.assertEquals(uxfFile.getPath(), expected, diagram);
+      Assert.assertEquals(uxfFile.getPath(), expected.toString(), diagram.toString());
+    }
+  }
+
+  /**
+   * Tests that names of tags are case-insensitive (the same as for reader which uses SAX).
+   *
+   * @throws Exception if the diagram cannot be read.
+   */
+  @Test
+  public void testReadDiagramCaseInsensitiveTags() throws Exception {
+    String uxf = new String(StreamUtils.copyToByteArray(new File(UxfReaderImplTest.getFile("diagram-v13.uxf"))), "UTF-8");
+    uxf = uxf.replace("<element>", "<ELEMENT>").replace("</element>", "</ELEMENT>").replace("<id>", "<Id>").replace("</id>", "</Id>");
+
+    UmlDiagram diagram = staxReader.readDiagram(new ByteArrayInputStream(uxf.getBytes("UTF-8")));
+    Assert.assertEquals(UxfReaderImplTest.prepareUmlDiagram(), diagram);
+  }
+
+  /**
+   * Tests that property of UML element outside of element is refused.
+   *
+   * @throws Exception if the content cannot be created.
+   */
+  @Test(expected = UxfReaderException.class)
+  public void testReadPropertyWrongLocation() throws Exception {
+    String uxf = "<diagram program=\"umlet\" version=\"13.2\"><zoom_level>10</zoom_level><x>10</x></diagram>";
+    staxReader.readDiagram(new ByteArrayInputStream(uxf.getBytes("UTF-8")));
+  }
+
+  /**
+   * Tests that wrong format of coordinate is refused.
+   *
+   * @throws Exception if the content cannot be created.
+   */
+  @Test(expected = UxfReaderException.class)
+  public void testReadWrongNumber() throws Exception {
+    String uxf = "<diagram program=\"umlet\" version=\"13.2\"><element><id>UMLClass</id><coordinates><x>1,5</x></coordinates>"
+      + "</element></diagram>";
+    staxReader.readDiagram(new ByteArrayInputStream(uxf.getBytes("UTF-8")));
+  }
+
+  /**
+   * Tests that factory returns reader using StAX for version 13 and reader using SAX for versions without reader using StAX.
+   *
+   * @throws UxfException if the reader cannot be returned.
+   */
+  @Test
+  public void testFactoryParserType() throws UxfException {
+    UxfReaderFactory factory = UxfReaderFactoryImpl.getInstance();
+    UxfParserType parserType = factory.getParserType();
+    try {
+      factory.setParserType(UxfParserType.STAX);
+      UxfReader reader = factory.getReader(UxfReaderImplTest.getFile("diagram-v13.uxf"));
+      Assert.assertTrue(reader instanceof StaxUxfReaderImpl);
+
+      String uxf11File = UxfReaderImplTest.class.getResource("/cz/zcu/kiv/oop/uxf/reader/v11/diagram-v11.uxf").getPath();
+      reader = factory.getReader(uxf11File);
+      Assert.assertTrue(reader instanceof cz.zcu.kiv.oop.uxf.reader.v11.UxfReaderImpl);
+
+      factory.setParserType(UxfParserType.SAX);
+      reader = factory.getReader(UxfReaderImplTest.getFile("diagram-v13.uxf"));
+      Assert.assertTrue(reader instanceof UxfReaderImpl);
+    }
+    finally {
+      factory.setParserType(parserType);
+    }
+  }
+
+}
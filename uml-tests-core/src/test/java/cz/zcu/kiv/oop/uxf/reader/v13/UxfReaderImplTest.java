@@ -1,9 +1,12 @@
 package cz.zcu.kiv.oop.uxf.reader.v13;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -19,6 +22,7 @@ import cz.zcu.kiv.oop.uml.element.UmlNote;
 import cz.zcu.kiv.oop.uml.element.UmlRelation;
 import cz.zcu.kiv.oop.uml.element.UmlRelationOrientationType;
 import cz.zcu.kiv.oop.uml.element.UmlRelationType;
+import cz.zcu.kiv.oop.util.StreamUtils;
 import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
 
 /**
@@ -183,4 +187,71 @@ public class UxfReaderImplTest {
     Assert.assertEquals(expectedUmlDiagram, readUmlDiagram);
   }
 
+  /**
+   * Checks if names of tags are case-insensitive.
+   *
+   * @throws Exception
+   *    cannot open Uxf file
+   */
+  @Test
+  public void testReadDiagramCaseInsensitiveTags() throws Exception {
+    String uxf = new String(StreamUtils.copyToByteArray(new File(getFile("diagram-v13.uxf"))), "UTF-8");
+    uxf = uxf.replace("<element>", "<ELEMENT>").replace("</element>", "</ELEMENT>").replace("<id>", "<Id>").replace("</id>", "</Id>");
+
+    Assert.assertEquals(expectedUmlDiagram, uxfReader.readDiagram(new ByteArrayInputStream(uxf.getBytes("UTF-8"))));
+  }
+
+  /**
+   * Checks if the parser of thread is used again after malformed UXF content.
+   *
+   * @throws UxfReaderException
+   *    cannot open Uxf file
+   */
+  @Test
+  public void testReadDiagramAfterError() throws UxfReaderException {
+    try {
+      uxfReader.readDiagram(new ByteArrayInputStream(new byte[] {'<', 'd'}));
+      Assert.fail();
+    }
+    catch (UxfReaderException exc) {
+      // expected exception
+    }
+
+    Assert.assertEquals(expectedUmlDiagram, uxfReader.readDiagram(getFile("diagram-v13.uxf")));
+  }
+
+  /**
+   * Checks if diagrams are read correctly by more threads at once.
+   *
+   * @throws InterruptedException
+   *    the current thread was interrupted
+   */
+  @Test
+  public void testReadDiagramConcurrently() throws InterruptedException {
+    final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          try {
+            for (int j = 0; j < 20; j++) {
+              Assert.assertEquals(expectedUmlDiagram, uxfReader.readDiagram(getFile("diagram-v13.uxf")));
+            }
+          }
+          catch (Throwable exc) {
+            error.compareAndSet(null, exc);
+          }
+        }
+      };
+      threads[i].start();
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    Assert.assertNull(error.get());
+  }
+
 }
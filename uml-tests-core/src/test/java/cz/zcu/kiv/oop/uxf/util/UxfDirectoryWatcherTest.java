@@ -0,0 +1,109 @@
+package cz.zcu.kiv.oop.uxf.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of watcher of directory with UXF files.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfDirectoryWatcherTest {
+
+  /** Watched directory. */
+  protected File directory;
+
+  /**
+   * Creates empty watched directory.
+   *
+   * @throws IOException if the directory cannot be created.
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = File.createTempFile("watched", "");
+    directory.delete();
+    directory.mkdir();
+  }
+
+  /**
+   * Removes watched directory.
+   */
+  @After
+  public void tearDown() {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  /**
+   * Creates file with given content in watched directory.
+   *
+   * @param name name of file.
+   * @param content content of file.
+   * @return Created file.
+   * @throws IOException if the file cannot be created.
+   */
+  protected File createFile(String name, String content) throws IOException {
+    File file = new File(directory, name);
+    FileOutputStream os = new FileOutputStream(file);
+    try {
+      os.write(content.getBytes("UTF-8"));
+    }
+    finally {
+      os.close();
+    }
+
+    return file;
+  }
+
+  /**
+   * Tests that new file is reported only after it's stable and only once.
+   *
+   * @throws IOException if the file cannot be created.
+   */
+  @Test
+  public void testNewFile() throws IOException {
+    UxfDirectoryWatcher watcher = new UxfDirectoryWatcher(directory);
+    Assert.assertTrue(watcher.poll().isEmpty());
+
+    File file = createFile("05_A00B0000P.uxf", "<diagram/>");
+    createFile("05_A00B0000P.txt", "not UXF file");
+    Assert.assertTrue(watcher.poll().isEmpty()); // file could be still copied
+
+    List<File> files = watcher.poll();
+    Assert.assertEquals(1, files.size());
+    Assert.assertEquals(file.getAbsolutePath(), files.get(0).getAbsolutePath());
+
+    Assert.assertTrue(watcher.poll().isEmpty());
+  }
+
+  /**
+   * Tests that changed file is reported again.
+   *
+   * @throws IOException if the file cannot be created.
+   */
+  @Test
+  public void testChangedFile() throws IOException {
+    UxfDirectoryWatcher watcher = new UxfDirectoryWatcher(directory);
+    File file = createFile("05_A00B0000P.uxf", "<diagram/>");
+    watcher.poll();
+    Assert.assertEquals(1, watcher.poll().size());
+
+    createFile("05_A00B0000P.uxf", "<diagram></diagram>");
+    file.setLastModified(file.lastModified() + 1000);
+    Assert.assertTrue(watcher.poll().isEmpty());
+    Assert.assertEquals(1, watcher.poll().size());
+  }
+
+}
@@ -0,0 +1,199 @@
+package cz.zcu.kiv.oop.uxf.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.zcu.kiv.oop.uml.UmlDiagram;
+import cz.zcu.kiv.oop.uxf.UxfReaderFactoryImpl;
+import cz.zcu.kiv.oop.uxf.exception.UxfException;
+import cz.zcu.kiv.oop.uxf.reader.UxfReader;
+
+/**
+ * Tests of reading of UXF files directly from ZIP archives.
+ *
+ * @author Mr.FrAnTA (Michal Dékány)
+ */
+public class UxfZipUtilsTest {
+
+  /** Content of UXF file stored in archive. */
+  protected byte[] uxfContent;
+  /** Tested ZIP archive. */
+  protected File zipFile;
+
+  /**
+   * Creates ZIP archive with UXF file, nested archive with UXF file and ignored entries.
+   *
+   * @throws IOException if the archive cannot be created.
+   */
+  @Before
+  public void setUp() throws IOException {
+    uxfContent = readResource("/cz/zcu/kiv/oop/uxf/reader/v13/diagram-v13.uxf");
+
+    ByteArrayOutputStream nested = new ByteArrayOutputStream();
+    ZipOutputStream nestedZos = new ZipOutputStream(nested);
+    addEntry(nestedZos, "06_A00B0002P.uxf", uxfContent);
+    addEntry(nestedZos, "readme.txt", new byte[] {'x'});
+    nestedZos.close();
+
+    zipFile = File.createTempFile("submissions", ".zip");
+    ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zipFile));
+    try {
+      zos.putNextEntry(new ZipEntry("dir/"));
+      zos.closeEntry();
+      addEntry(zos, "dir/05_A00B0001P.uxf", uxfContent);
+      addEntry(zos, "__MACOSX/dir/._05_A00B0001P.uxf", new byte[] {0});
+      addEntry(zos, "A00B0002P.zip", nested.toByteArray());
+    }
+    finally {
+      zos.close();
+    }
+  }
+
+  /**
+   * Removes tested ZIP archive.
+   */
+  @After
+  public void tearDown() {
+    zipFile.delete();
+  }
+
+  /**
+   * Tests that UXF files are listed from archive and nested archives and that the names of files are names of entries.
+   *
+   * @throws IOException if the archive cannot be read.
+   */
+  @Test
+  public void testListUxfFiles() throws IOException {
+    List<UxfZipEntryFile> uxfFiles = UxfZipUtils.listUxfFiles(zipFile);
+
+    Assert.assertEquals(2, uxfFiles.size());
+    Assert.assertEquals("05_A00B0001P.uxf", uxfFiles.get(0).getName());
+    Assert.assertEquals(Arrays.asList("dir/05_A00B0001P.uxf"), uxfFiles.get(0).getEntryNames());
+    Assert.assertEquals("06_A00B0002P.uxf", uxfFiles.get(1).getName());
+    Assert.assertEquals(Arrays.asList("A00B0002P.zip", "06_A00B0002P.uxf"), uxfFiles.get(1).getEntryNames());
+    Assert.assertEquals(zipFile.getPath() + "!/A00B0002P.zip!/06_A00B0002P.uxf", uxfFiles.get(1).getPath());
+  }
+
+  /**
+   * Tests that content of UXF files is read from archive and nested archives and that it can be read as UML diagram.
+   *
+   * @throws IOException if the archive cannot be read.
+   * @throws UxfException if the diagram cannot be read.
+   */
+  @Test
+  public void testReadContent() throws IOException, UxfException {
+    for (UxfZipEntryFile uxfFile : UxfZipUtils.listUxfFiles(zipFile)) {
+      byte[] content = uxfFile.readContent();
+      Assert.assertArrayEquals(uxfContent, content);
+
+      UxfReader reader = UxfReaderFactoryImpl.getInstance().getReader(new ByteArrayInputStream(content));
+      InputStream is = uxfFile.openStream();
+      try {
+        UmlDiagram diagram = reader.readDiagram(is);
+        Assert.assertNotNull(diagram);
+      }
+      finally {
+        is.close();
+      }
+    }
+  }
+
+  /**
+   * Tests that content of UXF files is read from shared opened archive and that content of UXF files from nested archives is read
+   * only once when the files are listed (so it can be read even after the archive is closed).
+   *
+   * @throws IOException if the archive cannot be read.
+   */
+  @Test
+  public void testReadContentFromArchive() throws IOException {
+    UxfZipArchive archive = new UxfZipArchive(zipFile);
+    List<UxfZipEntryFile> uxfFiles;
+    try {
+      uxfFiles = UxfZipUtils.listUxfFiles(archive);
+
+      Assert.assertEquals(2, uxfFiles.size());
+      for (UxfZipEntryFile uxfFile : uxfFiles) {
+        Assert.assertArrayEquals(uxfContent, uxfFile.readContent());
+        Assert.assertArrayEquals(uxfContent, uxfFile.readContent());
+      }
+    }
+    finally {
+      archive.close();
+    }
+
+    Assert.assertArrayEquals(uxfContent, uxfFiles.get(1).readContent());
+  }
+
+  /**
+   * Tests that missing entry is reported.
+   *
+   * @throws IOException if the archive cannot be read.
+   */
+  @Test(expected = IOException.class)
+  public void testMissingEntry() throws IOException {
+    new UxfZipEntryFile(zipFile, Arrays.asList("A00B0002P.zip", "07_A00B0003P.uxf")).readContent();
+  }
+
+  /**
+   * Tests that only names with extension of ZIP archive are recognized.
+   */
+  @Test
+  public void testIsZipFileName() {
+    Assert.assertTrue(UxfZipUtils.isZipFileName("submissions.zip"));
+    Assert.assertTrue(UxfZipUtils.isZipFileName("SUBMISSIONS.ZIP"));
+    Assert.assertFalse(UxfZipUtils.isZipFileName("05_A00B0001P.uxf"));
+    Assert.assertFalse(UxfZipUtils.isZipFileName("zip"));
+  }
+
+  /**
+   * Adds entry with given content into archive.
+   *
+   * @param zos output stream of archive.
+   * @param name name of entry.
+   * @param content content of entry.
+   * @throws IOException if the entry cannot be written.
+   */
+  protected static void addEntry(ZipOutputStream zos, String name, byte[] content) throws IOException {
+    zos.putNextEntry(new ZipEntry(name));
+    zos.write(content);
+    zos.closeEntry();
+  }
+
+  /**
+   * Reads content of resource.
+   *
+   * @param name name of resource.
+   * @return Content of resource.
+   * @throws IOException if the resource cannot be read.
+   */
+  protected static byte[] readResource(String name) throws IOException {
+    InputStream is = UxfZipUtilsTest.class.getResourceAsStream(name);
+    try {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int count;
+      while ((count = is.read(buffer)) != -1) {
+        os.write(buffer, 0, count);
+      }
+
+      return os.toByteArray();
+    }
+    finally {
+      is.close();
+    }
+  }
+
+}
@@ -1,5 +1,10 @@
 package cz.zcu.kiv.oop.uxf.version;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 
@@ -129,4 +134,60 @@ public class UxfVersionReaderImplTest {
   public void testReadFileWithNoVersion() throws UxfVersionReaderException {
     reader.readVersion(getFile("no_version.uxf"));
   }
+
+  /**
+   * Tests if correct uxf version is read from the beginning of stream and the stream is reset.
+   *
+   * @throws UxfVersionReaderException
+   *    uxf file cannot be opened
+   * @throws IOException
+   *    stream cannot be read
+   */
+  @Test
+  public void testPeekVersion13() throws UxfVersionReaderException, IOException {
+    InputStream is = new BufferedInputStream(new FileInputStream(getFile("v13.uxf")));
+    try {
+      Assert.assertEquals(new UxfVersion(13, 2), reader.peekVersion(is));
+      Assert.assertEquals('<', is.read());
+      Assert.assertEquals('?', is.read());
+    }
+    finally {
+      is.close();
+    }
+  }
+
+  /**
+   * Tests if the version is read by XML parser when the tag with version could be in comment.
+   *
+   * @throws UxfVersionReaderException
+   *    uxf content cannot be read
+   * @throws IOException
+   *    stream cannot be read
+   */
+  @Test
+  public void testPeekVersionAfterComment() throws UxfVersionReaderException, IOException {
+    String uxf = "<?xml version=\"1.0\"?><!-- <diagram version=\"11\"> --><diagram program=\"umlet\" version = '13.2'/>";
+    InputStream is = new ByteArrayInputStream(uxf.getBytes("UTF-8"));
+    Assert.assertEquals(new UxfVersion(13, 2), reader.peekVersion(is));
+    Assert.assertEquals('<', is.read());
+  }
+
+  /**
+   * Tests if UxfVersionReaderException is thrown when the stream doesn't support marking.
+   *
+   * @throws UxfVersionReaderException
+   *    stream doesn't support marking
+   * @throws IOException
+   *    stream cannot be read
+   */
+  @Test(expected = UxfVersionReaderException.class)
+  public void testPeekVersionUnmarkableStream() throws UxfVersionReaderException, IOException {
+    InputStream is = new FileInputStream(getFile("v13.uxf"));
+    try {
+      reader.peekVersion(is);
+    }
+    finally {
+      is.close();
+    }
+  }
 }
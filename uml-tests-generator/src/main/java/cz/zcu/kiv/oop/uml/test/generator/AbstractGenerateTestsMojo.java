@@ -29,7 +29,6 @@ import cz.zcu.kiv.oop.uxf.UxfReaderFactory;
 import cz.zcu.kiv.oop.uxf.UxfReaderFactoryImpl;
 import cz.zcu.kiv.oop.uxf.exception.UxfReaderException;
 import cz.zcu.kiv.oop.uxf.exception.UxfReaderFactoryException;
-import cz.zcu.kiv.oop.uxf.reader.UxfReader;
 
 public abstract class AbstractGenerateTestsMojo extends AbstractMojo {
 
@@ -221,11 +220,9 @@ public abstract class AbstractGenerateTestsMojo extends AbstractMojo {
   protected UmlDiagram readDiagram(String uxfFile) throws UxfReaderFactoryException, UxfReaderException {
     log.info("Preparing factory for reader creation...");
     UxfReaderFactory factory = UxfReaderFactoryImpl.getInstance();
-    log.info("Creating reader for UXF file: " + uxfFile);
-    UxfReader reader = factory.getReader(uxfFile);
-    log.info("Reading diagram with reader: " + reader.getClass().getName());
+    log.info("Reading diagram from UXF file: " + uxfFile);
 
-    return reader.readDiagram(uxfFile);
+    return factory.readDiagram(uxfFile);
   }
 
   protected UmlTestGenerator createUmlTestGenerator() {
@@ -45,11 +45,14 @@ import cz.zcu.kiv.oop.uml.element.UmlNote;
 import cz.zcu.kiv.oop.uml.element.UmlRelation;
 import cz.zcu.kiv.oop.uml.element.UmlRelationOrientationType;
 import cz.zcu.kiv.oop.uml.element.UmlRelationType;
+import cz.zcu.kiv.oop.uml.factory.UmlElementPart;
+import cz.zcu.kiv.oop.uml.junit.DiagramProjection;
 import cz.zcu.kiv.oop.uml.junit.ImportantTest;
 import cz.zcu.kiv.oop.uml.junit.TestDependencies;
 import cz.zcu.kiv.oop.uml.junit.UmlAssert;
 import cz.zcu.kiv.oop.uml.junit.runners.BlockJUnit4ClassRunnerWithDependencies;
 import cz.zcu.kiv.oop.uml.junit.runners.BlockJUnit4ClassRunnerWithSingleFail;
+import cz.zcu.kiv.oop.uml.test.UmlDiagramTestContext;
 import cz.zcu.kiv.oop.uml.test.generator.TestsRunnerType;
 import cz.zcu.kiv.oop.uml.test.generator.UmlTestClassDescriptor;
 import cz.zcu.kiv.oop.uml.test.generator.UmlTestGenerator;
@@ -60,10 +63,7 @@ import cz.zcu.kiv.oop.uml.test.generator.util.TestOrderNumberCounter;
 import cz.zcu.kiv.oop.uml.test.generator.util.TestsDepenencies;
 import cz.zcu.kiv.oop.uml.util.UmlUtils;
 import cz.zcu.kiv.oop.util.Pair;
-import cz.zcu.kiv.oop.uxf.UxfReaderFactory;
-import cz.zcu.kiv.oop.uxf.UxfReaderFactoryImpl;
 import cz.zcu.kiv.oop.uxf.exception.UxfException;
-import cz.zcu.kiv.oop.uxf.reader.UxfReader;
 import edu.emory.mathcs.backport.java.util.Arrays;
 
 public class Jenesis4JavaUmlTestGenerator implements UmlTestGenerator {
@@ -179,6 +179,12 @@ public class Jenesis4JavaUmlTestGenerator implements UmlTestGenerator {
 
     packageClass.addAnnotation(annotation);
 
+    // Add annotation with parts of diagram which are read by tests
+    annotation = helper.newAnnotation(DiagramProjection.class);
+    helper.getImportedClass(UmlElementPart.class);
+    annotation.addAnntationAttribute("value", virtualMachine.newArrayInit(helper.toExpressionArray(UmlElementPart.class, getDiagramProjection())));
+    packageClass.addAnnotation(annotation);
+
     // creates test class fields
     createsFields();
 
@@ -195,6 +201,49 @@ public class Jenesis4JavaUmlTestGenerator implements UmlTestGenerator {
     createRelationsTests();
   }
 
+  protected UmlElementPart[] getDiagramProjection() {
+    boolean notesTests = propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.NOTES_TESTS);
+    boolean classesTests = propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.CLASSES_TESTS);
+    boolean relationsTests = propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.RELATIONS_TESTS);
+
+    List<UmlElementPart> parts = new ArrayList<UmlElementPart>();
+    // notes are tested by notes tests and they are also elements which could be crossed by relations
+    if (notesTests || (relationsTests && propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.RELATIONS_NOT_CROSSING_ELEMENTS_TEST))) {
+      parts.add(UmlElementPart.NOTES);
+    }
+
+    // classes are tested by classes tests, relations are linked to classes and notes could overlap classes
+    if (classesTests || relationsTests || (notesTests && propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.NOTE_NOT_OVERLAP_TEST))) {
+      parts.add(UmlElementPart.CLASSES);
+    }
+
+    if (!relationsTests) {
+      return parts.toArray(new UmlElementPart[parts.size()]);
+    }
+
+    parts.add(UmlElementPart.RELATIONS);
+    // whole polylines are needed only by tests of relations geometry
+    if (propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.RELATIONS_COUNT_OF_CROSSING_TEST)
+        || propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.RELATIONS_NOT_EXTENDING_CLASS_EDGE_TEST)
+        || propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.RELATIONS_NOT_CROSSING_ELEMENTS_TEST)) {
+      parts.add(UmlElementPart.RELATION_POLYLINES);
+    }
+
+    if (propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.RELATIONS_HAS_CORRECT_QUALIFIERS_TESTS)) {
+      parts.add(UmlElementPart.RELATION_QUALIFIERS);
+    }
+
+    if (propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.RELATIONS_HAS_CORRECT_MULTIPLICITY_TESTS)) {
+      parts.add(UmlElementPart.RELATION_MULTIPLICITIES);
+    }
+
+    if (propertiesProvider.getValue(UmlTestGeneratorPropertyKeys.RELATIONS_HAS_CORRECT_ROLES_TESTS)) {
+      parts.add(UmlElementPart.RELATION_ROLES);
+    }
+
+    return parts.toArray(new UmlElementPart[parts.size()]);
+  }
+
   protected void createsFields() {
     // adds static field for diagram
     ClassField field = null;
@@ -224,9 +273,8 @@ public class Jenesis4JavaUmlTestGenerator implements UmlTestGenerator {
     method.addThrows(helper.getImportedClass(UxfException.class).getSimpleName());
 
     // creates local variable file
-    Invoke propertiesInvoke = helper.newInvoke(System.class, "getProperty");
-    propertiesInvoke.addArg("fileName");
-    Let file = helper.newLocalVariable(method, String.class, "file", propertiesInvoke);
+    Invoke fileNameInvoke = helper.newInvoke(UmlDiagramTestContext.class, "getCurrentFileName");
+    Let file = helper.newLocalVariable(method, String.class, "file", fileNameInvoke);
 
     // gets last index of _
     Invoke lastIndexOf = helper.newInvoke(file, "lastIndexOf");
@@ -252,20 +300,10 @@ public class Jenesis4JavaUmlTestGenerator implements UmlTestGenerator {
     substring.addArg(helper.getSimpleLocalVariable(index2));
     method.newStmt(virtualMachine.newAssign(parsonalNumber, substring));
 
-    // getting instance of factory
-    Invoke getInstance = helper.newInvoke(UxfReaderFactoryImpl.class, "getInstance");
-    Let factory = helper.newLocalVariable(method, UxfReaderFactory.class, "factory", getInstance);
-
-    // getting instance of reader
-    Invoke getReader = helper.newInvoke(factory, "getReader");
-    getReader.addVarriableArg(helper.getSimpleLocalVariableName(file));
-    Let reader = helper.newLocalVariable(method, UxfReader.class, "reader", getReader);
-
-    // reading of diagram
+    // getting of diagram (already read by batch runner or read from file)
     Variable diagram = virtualMachine.newVar(DIAGRAM_FIELD_NAME);
-    Invoke readDiagram = helper.newInvoke(reader, "readDiagram");
-    readDiagram.addVarriableArg(helper.getSimpleLocalVariableName(file));
-    method.newStmt(virtualMachine.newAssign(diagram, readDiagram));
+    Invoke getCurrentDiagram = helper.newInvoke(UmlDiagramTestContext.class, "getCurrentDiagram");
+    method.newStmt(virtualMachine.newAssign(diagram, getCurrentDiagram));
   }
 
   protected void createTearDownAfterClass() {